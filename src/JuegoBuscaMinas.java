@@ -1,10 +1,47 @@
+import controller.ControladorInfinito;
 import controller.ControladorJuego;
+import controller.ControladorLotes;
+import model.TableroBuscaminas;
+import servidor.GeneradorCarga;
+import servidor.RegistroSesiones;
+import servidor.ServidorJuego;
+import servidor.TransmisionEspectadores;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 public class JuegoBuscaMinas {
+    private static final int PUERTO_POR_DEFECTO = 7777;
 
     public static void main(String[] args) {
 
         try {
+            // Modo por lotes: java JuegoBuscaMinas --lotes [entrada|-] [salida]
+            if (args.length > 0 && args[0].equals("--lotes")) {
+                ejecutarLotes(args);
+                return;
+            }
+            // Servidor de red: java JuegoBuscaMinas --servidor [puerto] [hilos] [partidas en memoria] [puerto espectadores]
+            if (args.length > 0 && args[0].equals("--servidor")) {
+                ejecutarServidor(args);
+                return;
+            }
+            // Carga contra un servidor: java JuegoBuscaMinas --carga [host] [puerto] [clientes] [segundos]
+            if (args.length > 0 && args[0].equals("--carga")) {
+                ejecutarCarga(args);
+                return;
+            }
+
+            // Tablero infinito: java JuegoBuscaMinas --infinito [semilla]
+            if (args.length > 0 && args[0].equals("--infinito")) {
+                long semilla = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+                new ControladorInfinito(semilla).iniciar();
+                return;
+            }
+
             // Crear e iniciar el controlador principal
             ControladorJuego controlador = new ControladorJuego();
             controlador.iniciar();
@@ -17,4 +54,49 @@ public class JuegoBuscaMinas {
 
         System.out.println("Juego de Busca Minas finalizado");
     }
+
+    // Resultados por la salida estándar (o al archivo indicado) y el resumen por la de error
+    private static void ejecutarLotes(String[] args) throws Exception {
+        boolean desdeArchivo = args.length > 1 && !args[1].equals("-");
+        try (InputStream entrada = desdeArchivo ? Files.newInputStream(Path.of(args[1])) : System.in;
+             OutputStream salida = args.length > 2 ? Files.newOutputStream(Path.of(args[2])) : System.out) {
+            ControladorLotes.Resumen resumen = new ControladorLotes(entrada, salida).ejecutar();
+            System.err.printf("%d partidas, %d jugadas en %.1f ms (%.0f jugadas/s)%n",
+                    resumen.partidas(), resumen.jugadas(), resumen.nanos() / 1e6, resumen.jugadasPorSegundo());
+        }
+    }
+
+    private static void ejecutarServidor(String[] args) throws Exception {
+        int puerto = args.length > 1 ? Integer.parseInt(args[1]) : PUERTO_POR_DEFECTO;
+        int hilos = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        RegistroSesiones.Limites limites = RegistroSesiones.Limites.POR_DEFECTO;
+        if (args.length > 3) {
+            limites = new RegistroSesiones.Limites(Integer.parseInt(args[3]), limites.maximoBytes(), limites.inactividadNanos());
+        }
+        ServidorJuego servidor = new ServidorJuego(puerto, hilos, TableroBuscaminas.FILAS_POR_DEFECTO,
+                TableroBuscaminas.COLUMNAS_POR_DEFECTO, TableroBuscaminas.MINAS_POR_DEFECTO, Path.of("partidas-red"), limites);
+        TransmisionEspectadores transmision = args.length > 4 ? new TransmisionEspectadores(Integer.parseInt(args[4])) : null;
+        servidor.transmitirA(transmision);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            servidor.close();
+            if (transmision != null) {
+                transmision.close();
+            }
+        }));
+        System.err.println("Servidor escuchando en el puerto " + servidor.getPuerto() + " con " + hilos + " hilos");
+        if (transmision != null) {
+            System.err.println("Espectadores en http://localhost:" + transmision.getPuerto() + "/partidas");
+        }
+        servidor.esperar();
+    }
+
+    private static void ejecutarCarga(String[] args) throws Exception {
+        String host = args.length > 1 ? args[1] : "localhost";
+        int puerto = args.length > 2 ? Integer.parseInt(args[2]) : PUERTO_POR_DEFECTO;
+        int clientes = args.length > 3 ? Integer.parseInt(args[3]) : 10_000;
+        int segundos = args.length > 4 ? Integer.parseInt(args[4]) : 10;
+        GeneradorCarga.Resultado resultado = GeneradorCarga.ejecutar(new InetSocketAddress(host, puerto), clientes,
+                segundos * 1_000_000_000L, Runtime.getRuntime().availableProcessors());
+        System.err.println(resultado);
+    }
 }
@@ -0,0 +1,198 @@
+package controller;
+
+import model.Coordenadas;
+
+/**
+ * Analizador de comandos escrito a mano que no crea objetos: recorre la línea con un índice
+ * y deja el resultado de cada comando en campos reutilizables.
+ *
+ * Una línea puede traer varios comandos separados por espacios, comas o punto y coma,
+ * por ejemplo "A1 B2 marcar C3". Las coordenadas son letras de fila (A..Z, AA...) seguidas
+ * del número de columna, sin límite de tamaño; el tablero decide si están dentro.
+ */
+public final class AnalizadorComandos {
+    public enum Tipo {
+        DESCUBRIR, MARCAR, IR, ARRIBA, ABAJO, IZQUIERDA, DERECHA, PISTA, GUARDAR, AYUDA, SALIR,
+        DESHACER, REHACER, VOLVER,
+        INVALIDO,  // Token no reconocido o coordenada mal escrita: ver getInicioError/getFinError
+        FIN        // No quedan comandos en la línea
+    }
+
+    private CharSequence linea = "";
+    private int posicion;
+
+    // Resultado del último comando leído
+    private Tipo tipo = Tipo.FIN;
+    private int fila, columna, cantidad;
+    private int inicioError, finError;
+
+    public void reiniciar(CharSequence linea) {
+        this.linea = linea;
+        this.posicion = 0;
+        this.tipo = Tipo.FIN;
+    }
+
+    public Tipo siguiente() {
+        cantidad = 0;
+        int inicio = saltarSeparadores(posicion);
+        if (inicio == linea.length()) {
+            posicion = inicio;
+            return tipo = Tipo.FIN;
+        }
+        int fin = finToken(inicio);
+        posicion = fin;
+
+        if (leerCoordenada(inicio, fin)) {
+            return tipo = Tipo.DESCUBRIR;
+        }
+        if (es("marcar", inicio, fin)) {
+            return tipo = conCoordenada(Tipo.MARCAR, inicio);
+        }
+        if (es("ir", inicio, fin)) {
+            return tipo = conCoordenada(Tipo.IR, inicio);
+        }
+        if (es("arriba", inicio, fin)) return tipo = conCantidad(Tipo.ARRIBA);
+        if (es("abajo", inicio, fin)) return tipo = conCantidad(Tipo.ABAJO);
+        if (es("izquierda", inicio, fin)) return tipo = conCantidad(Tipo.IZQUIERDA);
+        if (es("derecha", inicio, fin)) return tipo = conCantidad(Tipo.DERECHA);
+        if (es("pista", inicio, fin)) return tipo = Tipo.PISTA;
+        if (es("guardar", inicio, fin)) return tipo = Tipo.GUARDAR;
+        if (es("ayuda", inicio, fin)) return tipo = Tipo.AYUDA;
+        if (es("salir", inicio, fin)) return tipo = Tipo.SALIR;
+        if (es("deshacer", inicio, fin)) return tipo = conCantidad(Tipo.DESHACER);
+        if (es("rehacer", inicio, fin)) return tipo = conCantidad(Tipo.REHACER);
+        if (es("volver", inicio, fin)) return tipo = conNumero(Tipo.VOLVER, inicio);
+        return tipo = invalido(inicio, fin);
+    }
+
+    // Comando seguido de una coordenada obligatoria ("marcar B3", "ir AA120")
+    private Tipo conCoordenada(Tipo comando, int inicioComando) {
+        int inicio = saltarSeparadores(posicion);
+        int fin = finToken(inicio);
+        if (inicio < fin && leerCoordenada(inicio, fin)) {
+            posicion = fin;
+            return comando;
+        }
+        posicion = fin;
+        return invalido(inicioComando, fin);
+    }
+
+    // Comando con una cantidad opcional ("abajo", "abajo 5")
+    private Tipo conCantidad(Tipo comando) {
+        int inicio = saltarSeparadores(posicion);
+        int fin = finToken(inicio);
+        if (inicio < fin && soloDigitos(inicio, fin)) {
+            long valor = leerNumero(inicio, fin);
+            if (valor > 0) {
+                cantidad = (int) valor;
+                posicion = fin;
+            }
+        }
+        return comando;
+    }
+
+    // Comando seguido de un número obligatorio, que puede ser 0 ("volver 0")
+    private Tipo conNumero(Tipo comando, int inicioComando) {
+        int inicio = saltarSeparadores(posicion);
+        int fin = finToken(inicio);
+        posicion = fin;
+        if (inicio < fin && soloDigitos(inicio, fin)) {
+            long valor = leerNumero(inicio, fin);
+            if (valor >= 0) {
+                cantidad = (int) valor;
+                return comando;
+            }
+        }
+        return invalido(inicioComando, fin);
+    }
+
+    private Tipo invalido(int inicio, int fin) {
+        inicioError = inicio;
+        finError = fin;
+        return Tipo.INVALIDO;
+    }
+
+    // Letras y luego dígitos; deja fila y columna (desde 0)
+    private boolean leerCoordenada(int inicio, int fin) {
+        int digitos = inicio;
+        while (digitos < fin && esLetra(linea.charAt(digitos))) {
+            digitos++;
+        }
+        if (digitos == inicio || digitos == fin || !soloDigitos(digitos, fin)) {
+            return false;
+        }
+        int filaLeida = Coordenadas.filaDeEtiqueta(linea, inicio, digitos);
+        long numero = leerNumero(digitos, fin);
+        if (filaLeida < 0 || numero < 1) {
+            return false;
+        }
+        fila = filaLeida;
+        columna = (int) (numero - 1);
+        return true;
+    }
+
+    // Devuelve -1 si no cabe en un int
+    private long leerNumero(int inicio, int fin) {
+        long valor = 0;
+        for (int i = inicio; i < fin; i++) {
+            valor = valor * 10 + (linea.charAt(i) - '0');
+            if (valor > Integer.MAX_VALUE) {
+                return -1;
+            }
+        }
+        return valor;
+    }
+
+    private boolean soloDigitos(int inicio, int fin) {
+        for (int i = inicio; i < fin; i++) {
+            char c = linea.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Compara sin distinguir mayúsculas y sin crear cadenas
+    private boolean es(String palabra, int inicio, int fin) {
+        if (fin - inicio != palabra.length()) {
+            return false;
+        }
+        for (int i = 0; i < palabra.length(); i++) {
+            if (Character.toLowerCase(linea.charAt(inicio + i)) != palabra.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int saltarSeparadores(int desde) {
+        while (desde < linea.length() && esSeparador(linea.charAt(desde))) {
+            desde++;
+        }
+        return desde;
+    }
+
+    private int finToken(int desde) {
+        while (desde < linea.length() && !esSeparador(linea.charAt(desde))) {
+            desde++;
+        }
+        return desde;
+    }
+
+    private static boolean esSeparador(char c) {
+        return c == ' ' || c == '\t' || c == ',' || c == ';';
+    }
+
+    private static boolean esLetra(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    public Tipo getTipo() { return tipo; }
+    public int getFila() { return fila; }
+    public int getColumna() { return columna; }
+    // Casillas de un desplazamiento o jugadas a deshacer/rehacer (0 si no se indicó); jugada de volver
+    public int getCantidad() { return cantidad; }
+    // Texto del último comando inválido (crea la cadena: solo para mostrar el error)
+    public String getTextoError() { return linea.subSequence(inicioError, finError).toString(); }
+}
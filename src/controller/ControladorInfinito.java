@@ -0,0 +1,124 @@
+package controller;
+
+import exceptions.JuegoFinalizadoException;
+import model.TableroInfinito;
+import view.RenderizadorInfinito;
+import view.VistaConsola;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Modo de tablero infinito: una sola partida sin bordes que termina al pisar una mina.
+ * Los comandos son los del modo normal sobre la vista (A1 es su esquina superior izquierda)
+ * y se traducen a coordenadas globales del tablero. Las flechas mueven la vista sin límites e
+ * "ir" acepta coordenadas fuera de la vista, contadas desde su esquina, para saltar lejos.
+ * Pista, guardar y el historial no existen en este modo.
+ */
+public class ControladorInfinito {
+    private final TableroInfinito tablero;
+    private final VistaConsola vista;
+    private final RenderizadorInfinito ventana;
+    private final AnalizadorComandos analizador = new AnalizadorComandos();
+    // Mensajes del turno: se muestran bajo el cuadro siguiente, que limpia la pantalla
+    private final List<Runnable> mensajes = new ArrayList<>();
+    private boolean enEjecucion = true;
+
+    public ControladorInfinito(long semilla) {
+        this.tablero = new TableroInfinito(semilla);
+        this.vista = new VistaConsola();
+        this.ventana = vista.getVistaInfinita();
+    }
+
+    public void iniciar() {
+        mensajes.add(vista::mostrarInstruccionesInfinito);
+        while (enEjecucion && !tablero.isJuegoFinalizado()) {
+            dibujar();
+            procesarComando(vista.leerComando());
+        }
+        dibujar();
+        if (tablero.isJuegoFinalizado()) {
+            vista.mostrarDerrota();
+        }
+        vista.mostrarEstado("Casillas reveladas: " + tablero.getCeldasReveladas()
+                + " en " + tablero.getFragmentosExplorados() + " fragmentos explorados");
+        vista.cerrar();
+    }
+
+    private void dibujar() {
+        vista.dibujarTablero(tablero);
+        for (Runnable mensaje : mensajes) {
+            mensaje.run();
+        }
+        mensajes.clear();
+    }
+
+    private void procesarComando(String linea) {
+        analizador.reiniciar(linea);
+        while (enEjecucion && !tablero.isJuegoFinalizado()) {
+            switch (analizador.siguiente()) {
+                case FIN -> {
+                    return;
+                }
+                case DESCUBRIR -> descubrir(analizador.getFila(), analizador.getColumna());
+                case MARCAR -> marcar(analizador.getFila(), analizador.getColumna());
+                // La coordenada se cuenta desde la esquina de la vista aunque quede fuera: salta lejos
+                case IR -> ventana.centrarEn(ventana.filaGlobal(analizador.getFila()),
+                        ventana.columnaGlobal(analizador.getColumna()));
+                case ARRIBA -> desplazar(-1, 0);
+                case ABAJO -> desplazar(1, 0);
+                case IZQUIERDA -> desplazar(0, -1);
+                case DERECHA -> desplazar(0, 1);
+                case AYUDA -> mensajes.add(vista::mostrarInstruccionesInfinito);
+                case SALIR -> enEjecucion = false;
+                case PISTA, GUARDAR, DESHACER, REHACER, VOLVER ->
+                        mensajes.add(() -> vista.mostrarError("No disponible en el tablero infinito"));
+                case INVALIDO -> {
+                    String texto = analizador.getTextoError();
+                    mensajes.add(() -> vista.mostrarError("Comando no reconocido: " + texto));
+                }
+            }
+        }
+    }
+
+    private void descubrir(int filaVista, int columnaVista) {
+        if (!enVista(filaVista, columnaVista)) {
+            return;
+        }
+        try {
+            tablero.descubrirCelda(ventana.filaGlobal(filaVista), ventana.columnaGlobal(columnaVista));
+        } catch (JuegoFinalizadoException e) {
+            return; // El bucle termina al ver la partida finalizada
+        }
+        if (tablero.getExpansionPendiente() > 0) {
+            mensajes.add(() -> vista.mostrarEstado("La zona es muy grande: descubra una casilla vacía para seguir abriéndola"));
+        }
+    }
+
+    private void marcar(int filaVista, int columnaVista) {
+        if (!enVista(filaVista, columnaVista)) {
+            return;
+        }
+        try {
+            tablero.marcarCelda(ventana.filaGlobal(filaVista), ventana.columnaGlobal(columnaVista));
+        } catch (JuegoFinalizadoException e) {
+            // No ocurre: el bucle no lee comandos con la partida finalizada
+        }
+    }
+
+    // Sin pasos, media vista
+    private void desplazar(int direccionFilas, int direccionColumnas) {
+        int pasos = analizador.getCantidad();
+        int filas = pasos > 0 ? pasos : Math.max(1, ventana.getAltoVista() / 2);
+        int columnas = pasos > 0 ? pasos : Math.max(1, ventana.getAnchoVista() / 2);
+        ventana.desplazar(direccionFilas * filas, direccionColumnas * columnas);
+    }
+
+    private boolean enVista(int filaVista, int columnaVista) {
+        if (ventana.enVista(filaVista, columnaVista)) {
+            return true;
+        }
+        mensajes.add(() -> vista.mostrarError("La casilla está fuera de la vista: use ir, arriba, abajo, izquierda o derecha"));
+        return false;
+    }
+}
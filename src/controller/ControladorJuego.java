@@ -1,11 +1,29 @@
 package controller;
+import estadisticas.AlmacenEstadisticas;
+import estadisticas.EstadisticasJugador;
+import estadisticas.HistogramaTiempos;
 import exceptions.CoordenadaFueraDeRangoException;
 import exceptions.JuegoFinalizadoException;
+import model.Configuracion;
+import model.Coordenadas;
+import model.HistorialTablero;
 import model.Jugador;
+import model.ResultadoJugada;
 import model.TableroBuscaminas;
+import persistencia.DiarioJugadas;
+import persistencia.FormatoPartida;
+import persistencia.ServicioGuardado;
+import resolucion.MotorProbabilidades;
+import resolucion.Probabilidades;
+import resolucion.ReservaTableros;
+import resolucion.ResolvedorRestricciones;
 import view.VistaConsola;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.Duration;
 import java.time.Instant;
 
@@ -14,15 +32,31 @@ import java.time.Instant;
  */
 public class ControladorJuego {
     private TableroBuscaminas tablero;
-    private Jugador jugador;
+    private String jugador;
+    private AlmacenEstadisticas estadisticas;
     private VistaConsola vista;
+    private final AnalizadorComandos analizador = new AnalizadorComandos();
+    private final ServicioGuardado guardado;
+    private final ReservaTableros reserva;
     private boolean enEjecucion;
     private Instant inicioPartida;
+    private DiarioJugadas diario;
+    private ResolvedorRestricciones resolvedor;
+    private HistorialTablero historial;
     private static final String RUTA_PARTIDA = "partida.dat";
-    private static final String RUTA_JUGADOR = "jugador.dat";
+    private static final String RUTA_DIARIO = "partida.diario";
+    private static final String RUTA_JUGADOR = "jugador.dat"; // Formato anterior: solo se importa
+    private static final String RUTA_JUGADOR_IMPORTADO = "jugador.dat.importado";
+    private static final String RUTA_ESTADISTICAS = "estadisticas.dat";
+    private static final int PUESTOS_CLASIFICACION = 5;
+    private static final Configuracion CONFIGURACION_POR_DEFECTO = new Configuracion(
+            TableroBuscaminas.FILAS_POR_DEFECTO, TableroBuscaminas.COLUMNAS_POR_DEFECTO, TableroBuscaminas.MINAS_POR_DEFECTO);
 
     public ControladorJuego() {
         this.vista = new VistaConsola();
+        this.guardado = new ServicioGuardado();
+        this.reserva = new ReservaTableros();
+        reserva.registrar(CONFIGURACION_POR_DEFECTO); // Se generan mientras el jugador está en el menú
         this.enEjecucion = true;
     }
 
@@ -34,26 +68,58 @@ public class ControladorJuego {
     }
 
     private void inicializarJugador() {
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(RUTA_JUGADOR))) {
-            this.jugador = (Jugador) ois.readObject();
-            vista.mostrarEstado("Bienvenido de nuevo, " + jugador.getNombre());
-        } catch (Exception e) {
+        try {
+            estadisticas = AlmacenEstadisticas.abrir(Path.of(RUTA_ESTADISTICAS));
+        } catch (IOException e) {
+            vista.mostrarError("No se pudieron leer las estadísticas: " + e.getMessage());
+            estadisticas = AlmacenEstadisticas.enMemoria();
+        }
+        if (estadisticas.getUltimoJugador() == null) {
+            importarJugadorAntiguo();
+        }
+        this.jugador = estadisticas.getUltimoJugador();
+        if (jugador != null) {
+            vista.mostrarEstado("Bienvenido de nuevo, " + jugador);
+        } else {
             registrarNuevoJugador();
         }
     }
 
+    /**
+     * Una sola vez: las estadísticas de jugador.dat pasan al almacén con la configuración por defecto.
+     * El archivo antiguo solo se aparta (no se borra) cuando la importación ya está en el disco.
+     */
+    private void importarJugadorAntiguo() {
+        Path ruta = Path.of(RUTA_JUGADOR);
+        if (!Files.exists(ruta)) {
+            return;
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(ruta.toFile()))) {
+            estadisticas.importar((Jugador) ois.readObject(), CONFIGURACION_POR_DEFECTO);
+            if (!estadisticas.sincronizar()) {
+                return; // Solo en memoria: jugador.dat se vuelve a importar la próxima vez
+            }
+            Files.move(ruta, Path.of(RUTA_JUGADOR_IMPORTADO), StandardCopyOption.REPLACE_EXISTING);
+            vista.mostrarEstado("Estadísticas de " + RUTA_JUGADOR + " importadas");
+        } catch (Exception e) {
+            vista.mostrarError("No se pudieron importar las estadísticas anteriores: " + e.getMessage());
+        }
+    }
+
     private void registrarNuevoJugador() {
         vista.mostrarEstado("Nuevo jugador detectado");
         String nombre;
         do {
-            nombre = vista.leerComando("Ingrese su nombre: ");
-        } while (nombre.isBlank());
+            nombre = vista.leerComando("Ingrese su nombre: ").strip();
+        } while (nombre.isBlank() || nombre.length() > AlmacenEstadisticas.LARGO_MAXIMO_NOMBRE);
 
-        this.jugador = new Jugador(nombre);
+        this.jugador = nombre;
+        estadisticas.registrarJugador(nombre);
     }
 
     private void buclePrincipal() {
         while (enEjecucion) {
+            informarGuardados();
             vista.mostrarMenuPrincipal();
             int opcion = vista.leerOpcionMenu();
             procesarOpcion(opcion);
@@ -63,7 +129,10 @@ public class ControladorJuego {
                 enEjecucion = true;
             }
         }
-        guardarJugador();
+        cerrarEstadisticas();
+        reserva.close();
+        guardado.close(); // Espera a que terminen los guardados pendientes
+        informarGuardados();
     }
 
     private void procesarOpcion(int opcion) {
@@ -78,49 +147,140 @@ public class ControladorJuego {
     }
 
     private void iniciarNuevaPartida() {
-        this.tablero = new TableroBuscaminas();
+        // Tablero sin adivinanzas de la reserva, con la primera zona ya descubierta
+        this.tablero = reserva.tomar(CONFIGURACION_POR_DEFECTO);
         this.inicioPartida = Instant.now();
         System.out.println("Partida iniciada en: " + inicioPartida);
+        abrirDiario();
         jugarPartida();
     }
 
     private void jugarPartida() {
+        historial = new HistorialTablero(tablero);
+        vista.limpiarPantalla();
         while (!tablero.isJuegoFinalizado() && enEjecucion) {  // Agregando && enEjecucion
-            vista.limpiarPantalla();
             vista.dibujarTablero(tablero);
+            informarGuardados();
             procesarComando(vista.leerComando());
         }
         finalizarPartida();
     }
 
-    private void procesarComando(String comando) {
-        try {
-            if (comando.startsWith("marcar ")) {
-                procesarMarcado(comando.substring(7));
-            } else if (comando.matches("[a-jA-J](10|[1-9])")) {
-                procesarDescubrimiento(comando);
-            } else {
-                procesarComandoEspecial(comando);
+    /**
+     * Aplica todos los comandos de la línea como un solo lote: el tablero se redibuja una vez
+     * al terminar. El lote se corta si la partida termina o se pide salir.
+     */
+    private void procesarComando(String linea) {
+        analizador.reiniciar(linea);
+        while (enEjecucion && !tablero.isJuegoFinalizado()) {
+            switch (analizador.siguiente()) {
+                case FIN -> {
+                    return;
+                }
+                case DESCUBRIR -> procesarDescubrimiento(analizador.getFila(), analizador.getColumna());
+                case MARCAR -> procesarMarcado(analizador.getFila(), analizador.getColumna());
+                case IR -> vista.centrarVista(analizador.getFila(), analizador.getColumna());
+                case ARRIBA -> vista.desplazarVista(-1, 0, analizador.getCantidad());
+                case ABAJO -> vista.desplazarVista(1, 0, analizador.getCantidad());
+                case IZQUIERDA -> vista.desplazarVista(0, -1, analizador.getCantidad());
+                case DERECHA -> vista.desplazarVista(0, 1, analizador.getCantidad());
+                case PISTA -> mostrarPista();
+                case GUARDAR -> guardarPartida();
+                case DESHACER -> informarHistorial(historial.deshacer(Math.max(1, analizador.getCantidad())),
+                        "No hay tantas jugadas para deshacer");
+                case REHACER -> informarHistorial(historial.rehacer(Math.max(1, analizador.getCantidad())),
+                        "No hay tantas jugadas para rehacer");
+                case VOLVER -> informarHistorial(historial.irA(analizador.getCantidad()),
+                        "No existe esa jugada: la última es la " + historial.getUltima());
+                case AYUDA -> vista.mostrarInstrucciones();
+                case SALIR -> {
+                    vista.mostrarEstado("Regresando al menú principal...");
+                    enEjecucion = false; // Sale del bucle jugarPartida()
+                }
+                case INVALIDO -> vista.mostrarError("Comando no reconocido: " + analizador.getTextoError());
             }
-        } catch (Exception e) {
-            vista.mostrarError(e.getMessage());
         }
     }
 
-    private void procesarMarcado(String coordenada) throws JuegoFinalizadoException, CoordenadaFueraDeRangoException {
-        int[] pos = convertirCoordenada(coordenada);
-        tablero.marcarCelda(pos[0], pos[1]);
+    // Tras deshacer, rehacer o volver (el historial solo escribe las celdas que difieren)
+    private void informarHistorial(boolean movido, String error) {
+        if (!movido) {
+            vista.mostrarError(error);
+            return;
+        }
+        // Antes de la primera jugada las minas pueden no estar generadas: se deduce de nuevo
+        if (resolvedor != null) {
+            resolvedor.desconectar();
+            resolvedor = null;
+        }
+        // El diario solo sabe repetir jugadas: se reemplaza por el tablero actual
+        compactarDiario();
+        vista.mostrarEstado("Jugada " + historial.getActual() + " de " + historial.getUltima());
+    }
+
+    // El resolvedor se conecta al tablero la primera vez que se pide una pista y sigue sus cambios
+    private void mostrarPista() {
+        if (!tablero.isMinasGeneradas()) {
+            vista.mostrarEstado("Pista: la primera casilla que descubra es segura");
+            return;
+        }
+        if (resolvedor == null || resolvedor.getTablero() != tablero) {
+            if (resolvedor != null) {
+                resolvedor.desconectar();
+            }
+            resolvedor = new ResolvedorRestricciones(tablero);
+        }
+        int columnas = tablero.getColumnas();
+        int indice = resolvedor.siguienteSegura();
+        if (indice >= 0) {
+            vista.seguirJugada(indice / columnas, indice % columnas);
+            vista.mostrarEstado("Pista: " + Coordenadas.etiqueta(indice / columnas, indice % columnas) + " es segura");
+            return;
+        }
+        indice = resolvedor.siguienteMina();
+        if (indice >= 0) {
+            vista.seguirJugada(indice / columnas, indice % columnas);
+            vista.mostrarEstado("Pista: " + Coordenadas.etiqueta(indice / columnas, indice % columnas) + " tiene una mina");
+            return;
+        }
+        // Sin jugada segura: la casilla con menos probabilidad de mina
+        Probabilidades probabilidades = new MotorProbabilidades().calcular(tablero);
+        indice = probabilidades.mejorCelda();
+        if (indice >= 0) {
+            vista.seguirJugada(indice / columnas, indice % columnas);
+            vista.mostrarEstado(String.format("Pista: no hay casillas seguras; la menos arriesgada es %s (%.0f%% de mina%s)",
+                    Coordenadas.etiqueta(indice / columnas, indice % columnas),
+                    100 * probabilidades.probabilidad(indice), probabilidades.isExacto() ? "" : ", estimado"));
+        }
+    }
+
+    private void procesarMarcado(int fila, int columna) {
+        ResultadoJugada resultado = tablero.intentarMarcar(fila, columna);
+        if (informarError(resultado, fila, columna)) {
+            return;
+        }
+        if (resultado == ResultadoJugada.NO_MARCABLE) {
+            vista.mostrarError("No se puede marcar una casilla descubierta");
+            return;
+        }
+        anotarJugada(DiarioJugadas.MARCAR, fila, columna);
+        vista.seguirJugada(fila, columna);
         vista.mostrarEstado("Casilla marcada/desmarcada");
     }
 
-    private void procesarDescubrimiento(String coordenada) throws JuegoFinalizadoException, CoordenadaFueraDeRangoException {
-        int[] pos = convertirCoordenada(coordenada);
-        if (!tablero.descubrirCelda(pos[0], pos[1])) {
+    private void procesarDescubrimiento(int fila, int columna) {
+        ResultadoJugada resultado = tablero.intentarDescubrir(fila, columna);
+        if (informarError(resultado, fila, columna)) {
+            return;
+        }
+        anotarJugada(DiarioJugadas.DESCUBRIR, fila, columna);
+        vista.seguirJugada(fila, columna);
+        if (resultado == ResultadoJugada.MINA) {
             vista.mostrarDerrota();
-            jugador.registrarDerrota();
+            registrarResultado(false);
         } else {
             System.out.println("Verificando victoria: " + tablero.isVictoria());
-            if (tablero.isVictoria()) {
+            if (resultado == ResultadoJugada.VICTORIA) {
                 Instant finPartida = Instant.now();
                 long tiempo = Duration.between(inicioPartida, finPartida).toMillis();
                 System.out.println("Inicio partida: " + inicioPartida);
@@ -129,79 +289,201 @@ public class ControladorJuego {
                 System.out.println("Tiempo en segundos: " + (tiempo/1000.0));
 
                 vista.mostrarVictoria();
-                jugador.registrarVictoria(tiempo);
+                registrarResultado(true);
             }
         }
     }
 
-    private int[] convertirCoordenada(String coord) throws CoordenadaFueraDeRangoException {
-        try {
-            int fila = coord.toUpperCase().charAt(0) - 'A';
-            int columna = Integer.parseInt(coord.substring(1)) - 1;
-
-            if (fila < 0 || fila >= TableroBuscaminas.getFilas() ||
-                    columna < 0 || columna >= TableroBuscaminas.getColumnas()) {
-                throw new CoordenadaFueraDeRangoException(fila, columna);
-            }
-
-            return new int[]{fila, columna};
-        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
-            throw new CoordenadaFueraDeRangoException(-1, -1);
-        }
-    }
-
-    private void procesarComandoEspecial(String comando) {
-        switch (comando) {
-            case "guardar" -> guardarPartida();
-            case "ayuda" -> vista.mostrarInstrucciones();
-            case "salir" -> {
-                vista.mostrarEstado("Regresando al menú principal...");
-                enEjecucion = false; // Sale del bucle jugarPartida()
-            }
-            default -> vista.mostrarError("Comando no reconocido");
+    // Los mensajes son los de las excepciones del modelo, que solo se crean para mostrarlos
+    private boolean informarError(ResultadoJugada resultado, int fila, int columna) {
+        if (resultado == ResultadoJugada.FUERA_DE_RANGO) {
+            vista.mostrarError(new CoordenadaFueraDeRangoException(fila, columna).getMessage());
+        } else if (resultado == ResultadoJugada.JUEGO_FINALIZADO) {
+            vista.mostrarError(new JuegoFinalizadoException().getMessage());
         }
+        return resultado.esError();
     }
 
     private void finalizarPartida() {
+        historial.desconectar();
+        historial = null;
+        cerrarDiario();
         vista.dibujarTablero(tablero);
         vista.mostrarEstado("Partida finalizada. Regresando al menú principal...");
     }
 
+    private void registrarResultado(boolean victoria) {
+        long tiempo = inicioPartida != null ? Math.max(0, Duration.between(inicioPartida, Instant.now()).toMillis()) : 0;
+        estadisticas.registrarPartida(jugador, configuracion(), victoria, tiempo);
+    }
+
+    private Configuracion configuracion() {
+        return tablero != null ? Configuracion.de(tablero) : CONFIGURACION_POR_DEFECTO;
+    }
+
+    // Las del jugador y las clasificaciones de la configuración de la última partida
     private void mostrarEstadisticas() {
-        vista.mostrarEstado(jugador.getEstadisticas());
+        Configuracion configuracion = configuracion();
+        EstadisticasJugador.Resumen propio = estadisticas.resumen(jugador, configuracion);
+        StringBuilder texto = new StringBuilder();
+        texto.append(String.format("Jugador: %s | Tablero %dx%d, %d minas | Victorias: %d/%d (%.1f%%) | Mejor tiempo: %s",
+                jugador, configuracion.filas(), configuracion.columnas(), configuracion.minas(),
+                propio.victorias(), propio.partidas(), 100 * propio.getTasaVictoria(),
+                propio.tieneTiempo() ? formatearTiempo(propio.mejorTiempo()) : "N/A"));
+
+        texto.append("\nMejores tiempos:");
+        int puesto = 1;
+        for (EstadisticasJugador.Resumen resumen : estadisticas.mejoresPorTiempo(configuracion, PUESTOS_CLASIFICACION)) {
+            texto.append(String.format("  %d. %s %s", puesto++, resumen.jugador(), formatearTiempo(resumen.mejorTiempo())));
+        }
+        texto.append("\nMejores tasas (desde ").append(AlmacenEstadisticas.getMinimoPartidasTasa()).append(" partidas):");
+        puesto = 1;
+        for (EstadisticasJugador.Resumen resumen : estadisticas.mejoresPorTasa(configuracion, PUESTOS_CLASIFICACION)) {
+            texto.append(String.format("  %d. %s %.1f%%", puesto++, resumen.jugador(), 100 * resumen.getTasaVictoria()));
+        }
+        HistogramaTiempos tiempos = estadisticas.histograma(configuracion);
+        if (tiempos.getCantidad() > 0) {
+            texto.append(String.format("%nTiempos de victoria: mediana %s, p90 %s (%d victorias)",
+                    formatearTiempo(tiempos.percentil(50)), formatearTiempo(tiempos.percentil(90)), tiempos.getCantidad()));
+        }
+        vista.mostrarEstado(texto.toString());
+    }
+
+    private static String formatearTiempo(long milisegundos) {
+        long segundos = milisegundos / 1000;
+        return String.format("%02d:%02d", segundos / 60, segundos % 60);
     }
 
     private void cargarPartida() {
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(RUTA_PARTIDA))) {
-            PartidaGuardada partida = (PartidaGuardada) ois.readObject();
+        try {
+            guardado.esperar(); // Que no se lea un partida.dat a medio reemplazar
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (Files.exists(Path.of(RUTA_DIARIO)) && recuperarDiario()) {
+            jugarPartida();
+            return;
+        }
+        Path ruta = Path.of(RUTA_PARTIDA);
+        try {
+            FormatoPartida.Partida partida = FormatoPartida.esFormatoBinario(ruta)
+                    ? FormatoPartida.cargar(ruta)
+                    : cargarPartidaAntigua(ruta);
             this.tablero = partida.tablero();
             this.inicioPartida = partida.inicioPartida();
             vista.mostrarEstado("Partida cargada exitosamente");
+            abrirDiario();
             jugarPartida();
-        } catch (FileNotFoundException e) {
+        } catch (NoSuchFileException | FileNotFoundException e) {
             vista.mostrarError("No hay partidas guardadas");
         } catch (Exception e) {
             vista.mostrarError("Error al cargar: " + e.getMessage());
         }
     }
 
-    private void guardarPartida() {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(RUTA_PARTIDA))) {
-            oos.writeObject(new PartidaGuardada(tablero, inicioPartida));
-            vista.mostrarEstado("Partida guardada exitosamente");
+    // partida.dat anterior al formato binario (ObjectOutputStream de PartidaGuardada)
+    private FormatoPartida.Partida cargarPartidaAntigua(Path ruta) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(ruta.toFile()))) {
+            PartidaGuardada partida = (PartidaGuardada) ois.readObject();
+            return new FormatoPartida.Partida(partida.tablero(), partida.inicioPartida());
+        }
+    }
+
+    // La partida sin terminar más reciente está en el diario, por delante de partida.dat
+    private boolean recuperarDiario() {
+        try {
+            DiarioJugadas.Recuperacion recuperacion = DiarioJugadas.recuperar(Path.of(RUTA_DIARIO));
+            this.diario = recuperacion.diario();
+            this.tablero = recuperacion.partida().tablero();
+            this.inicioPartida = recuperacion.partida().inicioPartida();
+            vista.mostrarEstado("Partida recuperada del diario (" + recuperacion.jugadasRepetidas() + " jugadas repetidas)");
+            return true;
+        } catch (IOException e) {
+            vista.mostrarError("No se pudo recuperar el diario: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void abrirDiario() {
+        try {
+            this.diario = DiarioJugadas.crear(Path.of(RUTA_DIARIO), tablero, inicioPartida);
+        } catch (IOException e) {
+            this.diario = null;
+            vista.mostrarError("Guardado automático desactivado: " + e.getMessage());
+        }
+    }
+
+    // Guardado automático: cada jugada se anexa al diario y este se compacta de vez en cuando
+    private void anotarJugada(byte tipo, int fila, int columna) {
+        if (diario == null) {
+            return;
+        }
+        try {
+            diario.registrar(tipo, fila, columna);
+            if (diario.necesitaCompactar() && !tablero.isJuegoFinalizado()) {
+                diario.compactar(tablero, inicioPartida);
+            }
         } catch (IOException e) {
-            vista.mostrarError("Error al guardar: " + e.getMessage());
+            vista.mostrarError("Guardado automático desactivado: " + e.getMessage());
+            cerrarDiario();
         }
     }
 
-    private void guardarJugador() {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(RUTA_JUGADOR))) {
-            oos.writeObject(jugador);
+    // Una partida terminada ya no tiene nada que recuperar
+    private void cerrarDiario() {
+        if (diario == null) {
+            return;
+        }
+        try {
+            diario.close();
+            if (tablero.isJuegoFinalizado()) {
+                DiarioJugadas.borrar(Path.of(RUTA_DIARIO));
+            }
+        } catch (IOException e) {
+            vista.mostrarError("Error al cerrar el diario: " + e.getMessage());
+        }
+        diario = null;
+    }
+
+    // La escritura a disco se hace en segundo plano sobre una instantánea del tablero
+    private void guardarPartida() {
+        guardado.guardarPartida(Path.of(RUTA_PARTIDA), tablero, inicioPartida);
+        vista.mostrarEstado("Guardando partida en segundo plano...");
+        compactarDiario();
+    }
+
+    private void compactarDiario() {
+        if (diario != null) {
+            try {
+                diario.compactar(tablero, inicioPartida);
+            } catch (IOException e) {
+                vista.mostrarError("Guardado automático desactivado: " + e.getMessage());
+                cerrarDiario();
+            }
+        }
+    }
+
+    // Cada partida ya se anexó al archivo en segundo plano: solo queda vaciar lo pendiente
+    private void cerrarEstadisticas() {
+        try {
+            estadisticas.close();
         } catch (IOException e) {
             vista.mostrarError("No se guardaron estadisticas: " + e.getMessage());
         }
     }
 
+    private void informarGuardados() {
+        for (ServicioGuardado.Resultado resultado : guardado.recogerResultados()) {
+            if (resultado.exitoso()) {
+                vista.mostrarEstado("Guardado completado: " + resultado.ruta().getFileName());
+            } else {
+                vista.mostrarError("Error al guardar " + resultado.ruta().getFileName() + ": " + resultado.error().getMessage());
+            }
+        }
+    }
+
+    // Solo para leer partidas guardadas con el formato anterior
     private record PartidaGuardada(TableroBuscaminas tablero, Instant inicioPartida) implements Serializable {
         private static final long serialVersionUID = 1L;
     }
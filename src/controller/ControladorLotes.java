@@ -0,0 +1,229 @@
+package controller;
+
+import model.ResultadoJugada;
+import model.TableroBuscaminas;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Modo por lotes sin interfaz: lee comandos de un archivo o de la entrada estándar, no dibuja nada
+ * y escribe una línea JSON con el resultado de cada partida. Sirve para pruebas de regresión
+ * y de carga: las líneas se leen en búferes reutilizados y las jugadas usan la API de códigos.
+ *
+ * Formato de entrada, una instrucción por línea:
+ *   partida FILAS COLUMNAS MINAS [SEMILLA] [seguro|normal]   empieza una partida (termina la anterior)
+ *   A1 B2 marcar C3 ...                                       jugadas, como en el modo interactivo
+ *   salir                                                     abandona la partida en curso
+ *   # comentario
+ * Las jugadas sin partida en curso empiezan una de 10x10 con 15 minas y primer clic seguro.
+ * Sin semilla se usa el número de partida, así que una misma entrada da siempre la misma salida.
+ * Los comandos de vista (ir, arriba...), pista, guardar y ayuda se ignoran.
+ */
+public final class ControladorLotes {
+    private static final int TAMANIO_BUFER = 1 << 16;
+
+    private final InputStream entrada;
+    private final Writer salida;
+    private final AnalizadorComandos analizador = new AnalizadorComandos();
+    private final byte[] bufer = new byte[TAMANIO_BUFER];
+    private int posicionBufer, finBufer;
+    private final StringBuilder linea = new StringBuilder(256);
+    private final StringBuilder resultado = new StringBuilder(256);
+
+    // Partida en curso
+    private TableroBuscaminas tablero;
+    private boolean abandonada;
+    private long jugadas, rechazadas;
+
+    // Totales del lote
+    private int partidas;
+    private long jugadasTotales;
+
+    public record Resumen(int partidas, long jugadas, long nanos) {
+        public double jugadasPorSegundo() { return nanos == 0 ? 0 : jugadas * 1e9 / nanos; }
+    }
+
+    public ControladorLotes(InputStream entrada, OutputStream salida) {
+        this.entrada = entrada;
+        this.salida = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), TAMANIO_BUFER);
+    }
+
+    public Resumen ejecutar() throws IOException {
+        long inicio = System.nanoTime();
+        while (leerLinea()) {
+            procesarLinea();
+        }
+        terminarPartida();
+        salida.flush();
+        return new Resumen(partidas, jugadasTotales, System.nanoTime() - inicio);
+    }
+
+    private void procesarLinea() throws IOException {
+        int inicio = 0;
+        while (inicio < linea.length() && Character.isWhitespace(linea.charAt(inicio))) {
+            inicio++;
+        }
+        if (inicio == linea.length() || linea.charAt(inicio) == '#') {
+            return;
+        }
+        if (empiezaCon("partida", inicio)) {
+            empezarPartida(inicio + "partida".length());
+            return;
+        }
+
+        analizador.reiniciar(linea);
+        AnalizadorComandos.Tipo tipo;
+        while ((tipo = analizador.siguiente()) != AnalizadorComandos.Tipo.FIN) {
+            switch (tipo) {
+                case DESCUBRIR -> jugar(true);
+                case MARCAR -> jugar(false);
+                case SALIR -> {
+                    if (tablero != null) {
+                        abandonada = true;
+                        terminarPartida();
+                    }
+                }
+                case INVALIDO -> rechazadas++;
+                default -> {
+                    // Comandos de la vista: no aplican sin interfaz
+                }
+            }
+        }
+    }
+
+    private void jugar(boolean descubrir) throws IOException {
+        if (tablero == null) {
+            iniciar(TableroBuscaminas.FILAS_POR_DEFECTO, TableroBuscaminas.COLUMNAS_POR_DEFECTO,
+                    TableroBuscaminas.MINAS_POR_DEFECTO, partidas + 1, true);
+        }
+        ResultadoJugada jugada = descubrir
+                ? tablero.intentarDescubrir(analizador.getFila(), analizador.getColumna())
+                : tablero.intentarMarcar(analizador.getFila(), analizador.getColumna());
+        if (jugada.esError()) {
+            rechazadas++;
+        } else {
+            jugadas++;
+        }
+    }
+
+    // "partida FILAS COLUMNAS MINAS [SEMILLA] [seguro|normal]"
+    private void empezarPartida(int desde) throws IOException {
+        long[] numeros = new long[4];
+        int cantidad = 0;
+        boolean primerClicSeguro = true;
+        int i = desde;
+        while (i < linea.length()) {
+            while (i < linea.length() && linea.charAt(i) == ' ') i++;
+            int fin = i;
+            while (fin < linea.length() && linea.charAt(fin) != ' ') fin++;
+            if (fin == i) {
+                break;
+            }
+            if (cantidad < numeros.length && esNumero(i, fin)) {
+                numeros[cantidad++] = Long.parseLong(linea, i, fin, 10);
+            } else if (empiezaCon("normal", i) && fin - i == 6) {
+                primerClicSeguro = false;
+            } else if (!(empiezaCon("seguro", i) && fin - i == 6)) {
+                throw new IOException("Instrucción de partida no válida: " + linea);
+            }
+            i = fin;
+        }
+        if (cantidad < 3) {
+            throw new IOException("Faltan filas, columnas o minas: " + linea);
+        }
+        terminarPartida();
+        long semilla = cantidad == 4 ? numeros[3] : partidas + 1;
+        try {
+            iniciar(Math.toIntExact(numeros[0]), Math.toIntExact(numeros[1]), Math.toIntExact(numeros[2]), semilla, primerClicSeguro);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage() + ": " + linea, e);
+        }
+    }
+
+    private void iniciar(int filas, int columnas, int minas, long semilla, boolean primerClicSeguro) {
+        tablero = new TableroBuscaminas(filas, columnas, minas, semilla, primerClicSeguro);
+        partidas++;
+        abandonada = false;
+        jugadas = 0;
+        rechazadas = 0;
+    }
+
+    // Escribe la línea de resultado de la partida en curso, si la hay
+    private void terminarPartida() throws IOException {
+        if (tablero == null) {
+            return;
+        }
+        String estado = tablero.isVictoria() ? "VICTORIA"
+                : tablero.isJuegoFinalizado() ? "DERROTA"
+                : abandonada ? "ABANDONADA" : "EN_CURSO";
+        int celdas = tablero.getFilas() * tablero.getColumnas();
+        resultado.setLength(0);
+        resultado.append("{\"partida\":").append(partidas)
+                .append(",\"filas\":").append(tablero.getFilas())
+                .append(",\"columnas\":").append(tablero.getColumnas())
+                .append(",\"minas\":").append(tablero.getTotalMinas())
+                .append(",\"semilla\":").append(tablero.getSemilla())
+                .append(",\"resultado\":\"").append(estado).append('"')
+                .append(",\"jugadas\":").append(jugadas)
+                .append(",\"rechazadas\":").append(rechazadas)
+                .append(",\"reveladas\":").append(celdas - tablero.getTotalMinas() - tablero.getOcultasSeguras())
+                .append(",\"marcas\":").append(tablero.getMarcasColocadas())
+                .append("}\n");
+        salida.append(resultado);
+        jugadasTotales += jugadas;
+        tablero = null;
+    }
+
+    // Lee la siguiente línea en el búfer reutilizado; false al final de la entrada
+    private boolean leerLinea() throws IOException {
+        linea.setLength(0);
+        while (true) {
+            if (posicionBufer == finBufer) {
+                finBufer = entrada.read(bufer, 0, bufer.length);
+                posicionBufer = 0;
+                if (finBufer <= 0) {
+                    finBufer = 0;
+                    return linea.length() > 0;
+                }
+            }
+            byte b = bufer[posicionBufer++];
+            if (b == '\n') {
+                return true;
+            }
+            if (b != '\r') {
+                linea.append((char) (b & 0xFF)); // Los comandos son ASCII
+            }
+        }
+    }
+
+    private boolean empiezaCon(String palabra, int desde) {
+        if (linea.length() - desde < palabra.length()) {
+            return false;
+        }
+        for (int i = 0; i < palabra.length(); i++) {
+            if (Character.toLowerCase(linea.charAt(desde + i)) != palabra.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean esNumero(int inicio, int fin) {
+        int i = inicio < fin && linea.charAt(inicio) == '-' ? inicio + 1 : inicio;
+        if (i == fin || fin - i > 18) {
+            return false;
+        }
+        for (; i < fin; i++) {
+            if (!Character.isDigit(linea.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
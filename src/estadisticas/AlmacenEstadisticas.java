@@ -0,0 +1,261 @@
+package estadisticas;
+
+import model.Configuracion;
+import model.Jugador;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estadísticas de todos los jugadores por configuración de tablero, con clasificaciones por mejor
+ * tiempo y por tasa de victorias e histogramas de tiempos de victoria.
+ *
+ * Se puede registrar desde muchas sesiones a la vez sin ningún bloqueo global: los contadores son
+ * sumadores y mínimos atómicos, los índices son listas de saltos concurrentes y el archivo se
+ * escribe en segundo plano. Cada partida anexa un registro de pocos bytes; al abrir, si el archivo
+ * acumula muchos registros por entrada, se reescribe con un resumen por jugador y configuración.
+ */
+public final class AlmacenEstadisticas implements Closeable {
+    public static final int LARGO_MAXIMO_NOMBRE = 64;
+    private static final int REGISTROS_MINIMOS_COMPACTAR = 1024;
+    private static final int REGISTROS_POR_ENTRADA_COMPACTAR = 4;
+
+    private record Clave(String jugador, Configuracion configuracion) {
+    }
+
+    private final ConcurrentHashMap<Clave, EstadisticasJugador> entradas = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Configuracion, Clasificacion> clasificaciones = new ConcurrentHashMap<>();
+    private ArchivoEstadisticas archivo; // null: solo en memoria
+    private volatile String ultimoJugador;
+
+    private AlmacenEstadisticas() {
+    }
+
+    public static AlmacenEstadisticas enMemoria() {
+        return new AlmacenEstadisticas();
+    }
+
+    // Carga el archivo (si existe), lo compacta si hace falta y lo deja abierto para anexar
+    public static AlmacenEstadisticas abrir(Path ruta) throws IOException {
+        AlmacenEstadisticas almacen = new AlmacenEstadisticas();
+        int registros = ArchivoEstadisticas.leer(ruta, almacen::aplicar);
+        int resumenes = almacen.entradas.size() + almacen.clasificaciones.size() + 1;
+        if (registros > REGISTROS_MINIMOS_COMPACTAR && registros > REGISTROS_POR_ENTRADA_COMPACTAR * resumenes) {
+            ArchivoEstadisticas.reescribir(ruta, almacen.compactar());
+        }
+        almacen.archivo = ArchivoEstadisticas.abrir(ruta);
+        return almacen;
+    }
+
+    public void registrarPartida(String jugador, Configuracion configuracion, boolean victoria, long milisegundos) {
+        validarNombre(jugador);
+        if (milisegundos < 0) {
+            throw new IllegalArgumentException("Tiempo negativo: " + milisegundos);
+        }
+        aplicarPartida(jugador, configuracion, victoria, milisegundos);
+        if (archivo != null) {
+            archivo.anexar(new ArchivoEstadisticas.Registro(ArchivoEstadisticas.PARTIDA).texto(jugador)
+                    .varint(configuracion.filas()).varint(configuracion.columnas()).varint(configuracion.minas())
+                    .varint(victoria ? 1 : 0).varint(milisegundos).terminar());
+        }
+    }
+
+    // Recuerda quién jugó por última vez, para darle la bienvenida al volver
+    public void registrarJugador(String jugador) {
+        validarNombre(jugador);
+        ultimoJugador = jugador;
+        if (archivo != null) {
+            archivo.anexar(new ArchivoEstadisticas.Registro(ArchivoEstadisticas.JUGADOR).texto(jugador).terminar());
+        }
+    }
+
+    /**
+     * Suma las estadísticas del jugador.dat antiguo (un único jugador, sin configuración ni
+     * histograma) a la configuración indicada.
+     */
+    public void importar(Jugador antiguo, Configuracion configuracion) {
+        validarNombre(antiguo.getNombre());
+        aplicarResumen(antiguo.getNombre(), configuracion, antiguo.getPartidas(), antiguo.getVictorias(), antiguo.getMejorTiempo());
+        if (archivo != null) {
+            archivo.anexar(registroResumen(entrada(antiguo.getNombre(), configuracion).resumen()));
+        }
+        registrarJugador(antiguo.getNombre());
+    }
+
+    public EstadisticasJugador.Resumen resumen(String jugador, Configuracion configuracion) {
+        EstadisticasJugador entrada = entradas.get(new Clave(jugador, configuracion));
+        return entrada != null ? entrada.resumen()
+                : new EstadisticasJugador.Resumen(jugador, configuracion, 0, 0, EstadisticasJugador.SIN_TIEMPO);
+    }
+
+    public List<EstadisticasJugador.Resumen> mejoresPorTiempo(Configuracion configuracion, int cantidad) {
+        Clasificacion clasificacion = clasificaciones.get(configuracion);
+        return clasificacion != null ? clasificacion.mejoresPorTiempo(cantidad) : List.of();
+    }
+
+    // Solo entran los jugadores con al menos MINIMO_PARTIDAS_TASA partidas en la configuración
+    public List<EstadisticasJugador.Resumen> mejoresPorTasa(Configuracion configuracion, int cantidad) {
+        Clasificacion clasificacion = clasificaciones.get(configuracion);
+        return clasificacion != null ? clasificacion.mejoresPorTasa(cantidad) : List.of();
+    }
+
+    public static int getMinimoPartidasTasa() {
+        return Clasificacion.MINIMO_PARTIDAS_TASA;
+    }
+
+    public HistogramaTiempos histograma(Configuracion configuracion) {
+        Clasificacion clasificacion = clasificaciones.get(configuracion);
+        return clasificacion != null ? clasificacion.tiempos : new HistogramaTiempos();
+    }
+
+    public String getUltimoJugador() { return ultimoJugador; }
+    public int getEntradas() { return entradas.size(); }
+
+    private void aplicarPartida(String jugador, Configuracion configuracion, boolean victoria, long milisegundos) {
+        EstadisticasJugador entrada = entrada(jugador, configuracion);
+        Clasificacion clasificacion = clasificacion(configuracion);
+        entrada.registrar(victoria, milisegundos);
+        if (victoria) {
+            clasificacion.tiempos.registrar(milisegundos);
+        }
+        clasificacion.actualizar(entrada);
+    }
+
+    private void aplicarResumen(String jugador, Configuracion configuracion, long partidas, long victorias, long mejorTiempo) {
+        EstadisticasJugador entrada = entrada(jugador, configuracion);
+        entrada.sumar(partidas, victorias, mejorTiempo);
+        clasificacion(configuracion).actualizar(entrada);
+    }
+
+    private EstadisticasJugador entrada(String jugador, Configuracion configuracion) {
+        return entradas.computeIfAbsent(new Clave(jugador, configuracion),
+                clave -> new EstadisticasJugador(clave.jugador(), clave.configuracion()));
+    }
+
+    private Clasificacion clasificacion(Configuracion configuracion) {
+        return clasificaciones.computeIfAbsent(configuracion, c -> new Clasificacion());
+    }
+
+    // Repite un registro del archivo al abrir
+    private void aplicar(byte tipo, ByteBuffer contenido) throws IOException {
+        switch (tipo) {
+            case ArchivoEstadisticas.PARTIDA -> {
+                String jugador = ArchivoEstadisticas.leerTexto(contenido);
+                Configuracion configuracion = leerConfiguracion(contenido);
+                boolean victoria = leerNumero(contenido) != 0;
+                aplicarPartida(jugador, configuracion, victoria, leerNumero(contenido));
+            }
+            case ArchivoEstadisticas.JUGADOR -> ultimoJugador = ArchivoEstadisticas.leerTexto(contenido);
+            case ArchivoEstadisticas.RESUMEN -> {
+                String jugador = ArchivoEstadisticas.leerTexto(contenido);
+                Configuracion configuracion = leerConfiguracion(contenido);
+                long partidas = leerNumero(contenido);
+                long victorias = leerNumero(contenido);
+                long mejor = leerNumero(contenido);
+                aplicarResumen(jugador, configuracion, partidas, victorias, mejor == 0 ? EstadisticasJugador.SIN_TIEMPO : mejor - 1);
+            }
+            case ArchivoEstadisticas.HISTOGRAMA -> {
+                HistogramaTiempos tiempos = clasificacion(leerConfiguracion(contenido)).tiempos;
+                long cubetas = leerNumero(contenido);
+                for (long i = 0; i < cubetas; i++) {
+                    long cubeta = leerNumero(contenido);
+                    if (cubeta >= HistogramaTiempos.CUBETAS) {
+                        throw new IOException("Cubeta de histograma inválida: " + cubeta);
+                    }
+                    tiempos.sumar((int) cubeta, leerNumero(contenido));
+                }
+            }
+            default -> {
+                // Tipo de una versión posterior: se ignora
+            }
+        }
+    }
+
+    // Un resumen por jugador y configuración, un histograma por configuración y el último jugador
+    private List<byte[]> compactar() {
+        List<byte[]> registros = new ArrayList<>(entradas.size() + clasificaciones.size() + 1);
+        for (EstadisticasJugador entrada : entradas.values()) {
+            registros.add(registroResumen(entrada.resumen()));
+        }
+        clasificaciones.forEach((configuracion, clasificacion) -> {
+            List<long[]> noVacias = new ArrayList<>();
+            for (int i = 0; i < HistogramaTiempos.CUBETAS; i++) {
+                long cantidad = clasificacion.tiempos.cantidad(i);
+                if (cantidad > 0) {
+                    noVacias.add(new long[]{i, cantidad});
+                }
+            }
+            ArchivoEstadisticas.Registro registro = new ArchivoEstadisticas.Registro(ArchivoEstadisticas.HISTOGRAMA)
+                    .varint(configuracion.filas()).varint(configuracion.columnas()).varint(configuracion.minas())
+                    .varint(noVacias.size());
+            for (long[] cubeta : noVacias) {
+                registro.varint(cubeta[0]).varint(cubeta[1]);
+            }
+            registros.add(registro.terminar());
+        });
+        if (ultimoJugador != null) {
+            registros.add(new ArchivoEstadisticas.Registro(ArchivoEstadisticas.JUGADOR).texto(ultimoJugador).terminar());
+        }
+        return registros;
+    }
+
+    private static byte[] registroResumen(EstadisticasJugador.Resumen resumen) {
+        Configuracion configuracion = resumen.configuracion();
+        return new ArchivoEstadisticas.Registro(ArchivoEstadisticas.RESUMEN).texto(resumen.jugador())
+                .varint(configuracion.filas()).varint(configuracion.columnas()).varint(configuracion.minas())
+                .varint(resumen.partidas()).varint(resumen.victorias())
+                .varint(resumen.tieneTiempo() ? resumen.mejorTiempo() + 1 : 0)
+                .terminar();
+    }
+
+    private static Configuracion leerConfiguracion(ByteBuffer contenido) throws IOException {
+        long filas = leerNumero(contenido), columnas = leerNumero(contenido), minas = leerNumero(contenido);
+        if (filas > Integer.MAX_VALUE || columnas > Integer.MAX_VALUE || minas > Integer.MAX_VALUE) {
+            throw new IOException("Configuración inválida en las estadísticas");
+        }
+        try {
+            return new Configuracion((int) filas, (int) columnas, (int) minas);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Configuración inválida en las estadísticas", e);
+        }
+    }
+
+    private static long leerNumero(ByteBuffer contenido) throws IOException {
+        long valor = ArchivoEstadisticas.leerVarint(contenido);
+        if (valor < 0) {
+            throw new IOException("Número incompleto en las estadísticas");
+        }
+        return valor;
+    }
+
+    private static void validarNombre(String jugador) {
+        if (jugador == null || jugador.isBlank() || jugador.length() > LARGO_MAXIMO_NOMBRE) {
+            throw new IllegalArgumentException("Nombre de jugador inválido: " + jugador);
+        }
+    }
+
+    /**
+     * Escribe y sincroniza con el disco todo lo registrado hasta ahora. Devuelve false si el
+     * almacén es solo en memoria (nada es durable).
+     */
+    public boolean sincronizar() throws IOException {
+        if (archivo == null) {
+            return false;
+        }
+        archivo.sincronizar();
+        return true;
+    }
+
+    // Escribe los registros pendientes y cierra el archivo
+    @Override
+    public void close() throws IOException {
+        if (archivo != null) {
+            archivo.close();
+        }
+    }
+}
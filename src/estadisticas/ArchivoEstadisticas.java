@@ -0,0 +1,338 @@
+package estadisticas;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+/**
+ * Archivo de estadísticas de solo anexado. Cabecera: mágico "BEST" y versión. Después, registros
+ * de la forma tipo (1 byte) + largo (varint) + contenido + CRC32 de todo lo anterior.
+ *
+ * Quien registra deja los bytes en una cola sin bloqueos y sigue; un hilo escritor los anexa por lotes.
+ * Al leer, un registro incompleto o dañado al final (una escritura a medias) se recorta; uno
+ * dañado con más datos detrás es un error y el archivo no se toca. La compactación
+ * (reescribir con resúmenes) la decide AlmacenEstadisticas al abrir.
+ */
+final class ArchivoEstadisticas implements Closeable {
+    static final byte PARTIDA = 1;     // jugador, filas, columnas, minas, victoria, milisegundos
+    static final byte JUGADOR = 2;     // nombre del último jugador registrado
+    static final byte RESUMEN = 3;     // jugador, filas, columnas, minas, partidas, victorias, mejor tiempo + 1 (0: sin tiempo)
+    static final byte HISTOGRAMA = 4;  // filas, columnas, minas, cubetas no vacías (índice, cantidad)
+
+    private static final int MAGICO = 0x42455354; // "BEST"
+    private static final short VERSION = 1;
+    private static final int TAMANIO_CABECERA = 4 + 2;
+    private static final int TAMANIO_LOTE = 1 << 16;
+
+    @FunctionalInterface
+    interface Lector {
+        void registro(byte tipo, ByteBuffer contenido) throws IOException;
+    }
+
+    private final FileChannel canal;
+    private final ConcurrentLinkedQueue<byte[]> pendientes = new ConcurrentLinkedQueue<>();
+    private final Thread escritor;
+    private volatile boolean cerrado;
+    private volatile IOException error;
+    // Registros anexados y ya escritos (los escritos, protegidos por el monitor del archivo)
+    private final AtomicLong anexados = new AtomicLong();
+    private long escritos;
+
+    private ArchivoEstadisticas(FileChannel canal) {
+        this.canal = canal;
+        escritor = new Thread(this::escribirPendientes, "estadisticas");
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    // Abre para anexar, creando el archivo con su cabecera si no existe
+    static ArchivoEstadisticas abrir(Path ruta) throws IOException {
+        if (!Files.exists(ruta)) {
+            reescribir(ruta, List.of());
+        }
+        return new ArchivoEstadisticas(FileChannel.open(ruta, StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+    }
+
+    /**
+     * Pasa cada registro válido al lector y recorta el último si quedó a medias. Un registro
+     * dañado en medio del archivo lanza IOException sin recortar nada.
+     * Devuelve la cantidad de registros; 0 si el archivo no existe.
+     */
+    static int leer(Path ruta, Lector lector) throws IOException {
+        if (!Files.exists(ruta)) {
+            return 0;
+        }
+        ByteBuffer contenido = ByteBuffer.wrap(Files.readAllBytes(ruta));
+        if (contenido.remaining() < TAMANIO_CABECERA || contenido.getInt() != MAGICO) {
+            throw new IOException("No es un archivo de estadísticas: " + ruta);
+        }
+        short version = contenido.getShort();
+        if (version != VERSION) {
+            throw new IOException("Versión de estadísticas no soportada: " + version);
+        }
+        int registros = 0;
+        int finValido = contenido.position();
+        CRC32 suma = new CRC32();
+        while (contenido.hasRemaining()) {
+            int inicio = contenido.position();
+            byte tipo = contenido.get();
+            long largo = leerVarint(contenido);
+            if (largo < 0 || largo + 4 > contenido.remaining()) {
+                break; // Registro incompleto: fin del archivo válido
+            }
+            int inicioContenido = contenido.position();
+            suma.reset();
+            suma.update(contenido.array(), inicio, inicioContenido - inicio + (int) largo);
+            if ((int) suma.getValue() != contenido.getInt(inicioContenido + (int) largo)) {
+                if (inicioContenido + largo + 4 == contenido.limit()) {
+                    break; // El último registro se escribió a medias
+                }
+                throw new IOException("Registro dañado en la posición " + inicio + " de " + ruta);
+            }
+            lector.registro(tipo, contenido.slice(inicioContenido, (int) largo));
+            contenido.position(inicioContenido + (int) largo + 4);
+            registros++;
+            finValido = contenido.position();
+        }
+        if (finValido < contenido.limit()) {
+            try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.WRITE)) {
+                canal.truncate(finValido);
+            }
+        }
+        return registros;
+    }
+
+    // Reemplaza el archivo por la cabecera y los registros dados (temporal + renombrado atómico)
+    static void reescribir(Path ruta, List<byte[]> registros) throws IOException {
+        Path temporal = ruta.resolveSibling(ruta.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer cabecera = ByteBuffer.allocate(TAMANIO_CABECERA).putInt(MAGICO).putShort(VERSION).flip();
+            escribirTodo(canal, cabecera);
+            for (byte[] registro : registros) {
+                escribirTodo(canal, ByteBuffer.wrap(registro));
+            }
+            canal.force(true);
+        }
+        Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    void anexar(byte[] registro) {
+        if (cerrado) {
+            throw new IllegalStateException("El archivo de estadísticas está cerrado");
+        }
+        anexados.incrementAndGet();
+        pendientes.add(registro);
+        LockSupport.unpark(escritor);
+    }
+
+    /**
+     * Espera a que el escritor escriba todo lo anexado hasta ahora y lo sincroniza con el disco.
+     * Lanza el error de escritura si lo hubo: sin él, lo anexado ya no se pierde.
+     */
+    void sincronizar() throws IOException {
+        long objetivo = anexados.get();
+        LockSupport.unpark(escritor);
+        boolean interrumpido = false;
+        synchronized (this) {
+            while (escritos < objetivo && error == null) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrumpido = true;
+                }
+            }
+        }
+        if (interrumpido) {
+            Thread.currentThread().interrupt();
+        }
+        if (error == null) {
+            canal.force(true);
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    private void escribirPendientes() {
+        ByteBuffer lote = ByteBuffer.allocateDirect(TAMANIO_LOTE);
+        while (true) {
+            boolean terminar = cerrado; // Leído antes de vaciar la cola: nada anexado antes del cierre se pierde
+            byte[] registro;
+            boolean escribio = false;
+            long registros = 0;
+            while ((registro = pendientes.poll()) != null) {
+                escribio = true;
+                registros++;
+                if (registro.length > lote.remaining()) {
+                    volcar(lote);
+                }
+                if (registro.length > lote.capacity()) {
+                    escribir(ByteBuffer.wrap(registro));
+                } else {
+                    lote.put(registro);
+                }
+            }
+            volcar(lote);
+            if (escribio) {
+                synchronized (this) {
+                    escritos += registros;
+                    notifyAll();
+                }
+            }
+            if (!escribio) {
+                if (terminar) {
+                    return;
+                }
+                LockSupport.park(this);
+            }
+        }
+    }
+
+    private void volcar(ByteBuffer lote) {
+        lote.flip();
+        escribir(lote);
+        lote.clear();
+    }
+
+    // Tras un error se descarta lo que llegue: las estadísticas en memoria siguen siendo válidas
+    private void escribir(ByteBuffer datos) {
+        if (error != null) {
+            return;
+        }
+        try {
+            escribirTodo(canal, datos);
+        } catch (IOException e) {
+            error = e;
+        }
+    }
+
+    private static void escribirTodo(FileChannel canal, ByteBuffer datos) throws IOException {
+        while (datos.hasRemaining()) {
+            canal.write(datos);
+        }
+    }
+
+    // Error de escritura, si lo hubo; a partir de él no se anexa nada más
+    IOException getError() { return error; }
+
+    // Escribe lo pendiente, sincroniza con el disco y cierra
+    @Override
+    public void close() throws IOException {
+        cerrado = true;
+        LockSupport.unpark(escritor);
+        boolean interrumpido = false;
+        while (escritor.isAlive()) {
+            try {
+                escritor.join();
+            } catch (InterruptedException e) {
+                interrumpido = true;
+            }
+        }
+        try {
+            if (error == null) {
+                canal.force(true);
+            }
+        } finally {
+            canal.close();
+            if (interrumpido) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Construye un registro: tipo, contenido y, al terminar, largo y CRC32.
+     */
+    static final class Registro {
+        private final byte tipo;
+        private byte[] contenido = new byte[32];
+        private int largo;
+
+        Registro(byte tipo) {
+            this.tipo = tipo;
+        }
+
+        Registro varint(long valor) {
+            while ((valor & ~0x7FL) != 0) {
+                agregar((byte) ((valor & 0x7F) | 0x80));
+                valor >>>= 7;
+            }
+            agregar((byte) valor);
+            return this;
+        }
+
+        Registro texto(String texto) {
+            byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length);
+            for (byte b : bytes) {
+                agregar(b);
+            }
+            return this;
+        }
+
+        private void agregar(byte b) {
+            if (largo == contenido.length) {
+                contenido = Arrays.copyOf(contenido, largo * 2);
+            }
+            contenido[largo++] = b;
+        }
+
+        byte[] terminar() {
+            ByteBuffer registro = ByteBuffer.allocate(1 + 10 + largo + 4);
+            registro.put(tipo);
+            long resto = largo;
+            while ((resto & ~0x7FL) != 0) {
+                registro.put((byte) ((resto & 0x7F) | 0x80));
+                resto >>>= 7;
+            }
+            registro.put((byte) resto);
+            registro.put(contenido, 0, largo);
+            CRC32 suma = new CRC32();
+            suma.update(registro.array(), 0, registro.position());
+            registro.putInt((int) suma.getValue());
+            return Arrays.copyOf(registro.array(), registro.position());
+        }
+    }
+
+    // -1 si el varint está incompleto o no cabe en un long
+    static long leerVarint(ByteBuffer contenido) {
+        long valor = 0;
+        for (int desplazamiento = 0; desplazamiento < 64; desplazamiento += 7) {
+            if (!contenido.hasRemaining()) {
+                return -1;
+            }
+            byte b = contenido.get();
+            valor |= (long) (b & 0x7F) << desplazamiento;
+            if (b >= 0) {
+                return valor;
+            }
+        }
+        return -1;
+    }
+
+    static String leerTexto(ByteBuffer contenido) throws IOException {
+        long largo = leerVarint(contenido);
+        if (largo < 0 || largo > contenido.remaining()) {
+            throw new IOException("Texto incompleto en las estadísticas");
+        }
+        byte[] bytes = new byte[(int) largo];
+        contenido.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
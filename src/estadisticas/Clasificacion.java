@@ -0,0 +1,79 @@
+package estadisticas;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Clasificaciones de una configuración de tablero: dos índices ordenados (mejor tiempo y tasa
+ * de victorias) sobre listas de saltos concurrentes, y el histograma de tiempos de victoria.
+ * Un top-N recorre solo los N primeros elementos del índice.
+ */
+final class Clasificacion {
+    // Con menos partidas la tasa no dice nada (una victoria de una sería el 100%)
+    static final int MINIMO_PARTIDAS_TASA = 5;
+
+    // Clave de orden ascendente; la tasa se guarda negada para que la mejor quede primero
+    record Posicion(long primaria, long secundaria, String jugador, EstadisticasJugador entrada) {
+    }
+
+    private static final Comparator<Posicion> ORDEN = Comparator.comparingLong(Posicion::primaria)
+            .thenComparingLong(Posicion::secundaria)
+            .thenComparing(Posicion::jugador);
+
+    private final ConcurrentSkipListSet<Posicion> porTiempo = new ConcurrentSkipListSet<>(ORDEN);
+    private final ConcurrentSkipListSet<Posicion> porTasa = new ConcurrentSkipListSet<>(ORDEN);
+    final HistogramaTiempos tiempos = new HistogramaTiempos();
+
+    /**
+     * Recoloca la entrada tras actualizar sus contadores. Solo se bloquea su propio monitor:
+     * quien entra el último lee los contadores de todos los anteriores, así que el índice
+     * termina reflejando el estado final.
+     */
+    void actualizar(EstadisticasJugador entrada) {
+        synchronized (entrada) {
+            long mejor = entrada.getMejorTiempo();
+            if (mejor != EstadisticasJugador.SIN_TIEMPO) {
+                Posicion nueva = new Posicion(mejor, 0, entrada.getJugador(), entrada);
+                entrada.posicionTiempo = reemplazar(porTiempo, entrada.posicionTiempo, nueva);
+            }
+            long partidas = entrada.getPartidas();
+            if (partidas >= MINIMO_PARTIDAS_TASA) {
+                long tasaPorMillon = entrada.getVictorias() * 1_000_000 / partidas;
+                Posicion nueva = new Posicion(-tasaPorMillon, -partidas, entrada.getJugador(), entrada);
+                entrada.posicionTasa = reemplazar(porTasa, entrada.posicionTasa, nueva);
+            }
+        }
+    }
+
+    private static Posicion reemplazar(ConcurrentSkipListSet<Posicion> indice, Posicion anterior, Posicion nueva) {
+        if (anterior != null && ORDEN.compare(anterior, nueva) == 0) {
+            return anterior;
+        }
+        indice.add(nueva);
+        if (anterior != null) {
+            indice.remove(anterior);
+        }
+        return nueva;
+    }
+
+    List<EstadisticasJugador.Resumen> mejoresPorTiempo(int cantidad) {
+        return primeros(porTiempo, cantidad);
+    }
+
+    List<EstadisticasJugador.Resumen> mejoresPorTasa(int cantidad) {
+        return primeros(porTasa, cantidad);
+    }
+
+    private static List<EstadisticasJugador.Resumen> primeros(ConcurrentSkipListSet<Posicion> indice, int cantidad) {
+        List<EstadisticasJugador.Resumen> resultado = new ArrayList<>(Math.min(cantidad, 64));
+        for (Posicion posicion : indice) {
+            if (resultado.size() == cantidad) {
+                break;
+            }
+            resultado.add(posicion.entrada().resumen());
+        }
+        return resultado;
+    }
+}
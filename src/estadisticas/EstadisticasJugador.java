@@ -0,0 +1,71 @@
+package estadisticas;
+
+import model.Configuracion;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de un jugador en una configuración de tablero. Se actualizan desde cualquier hilo
+ * sin bloqueos: sumadores para las partidas y un mínimo atómico para el mejor tiempo.
+ * Solo la posición en las clasificaciones se cambia bajo el monitor de esta entrada.
+ */
+public final class EstadisticasJugador {
+    public static final long SIN_TIEMPO = Long.MAX_VALUE;
+
+    public record Resumen(String jugador, Configuracion configuracion, long partidas, long victorias, long mejorTiempo) {
+        public double getTasaVictoria() { return partidas == 0 ? 0 : (double) victorias / partidas; }
+        public boolean tieneTiempo() { return mejorTiempo != SIN_TIEMPO; }
+    }
+
+    private final String jugador;
+    private final Configuracion configuracion;
+    private final LongAdder partidas = new LongAdder();
+    private final LongAdder victorias = new LongAdder();
+    private final AtomicLong mejorTiempo = new AtomicLong(SIN_TIEMPO);
+
+    // Posiciones vigentes en los índices de la clasificación (ver Clasificacion)
+    Clasificacion.Posicion posicionTiempo, posicionTasa;
+
+    EstadisticasJugador(String jugador, Configuracion configuracion) {
+        this.jugador = jugador;
+        this.configuracion = configuracion;
+    }
+
+    // Devuelve true si el tiempo es un récord personal
+    boolean registrar(boolean victoria, long milisegundos) {
+        partidas.increment();
+        if (!victoria) {
+            return false;
+        }
+        victorias.increment();
+        return bajarMejorTiempo(milisegundos);
+    }
+
+    // Totales de un resumen compactado o de las estadísticas antiguas
+    boolean sumar(long partidasPrevias, long victoriasPrevias, long mejorTiempoPrevio) {
+        partidas.add(partidasPrevias);
+        victorias.add(victoriasPrevias);
+        return bajarMejorTiempo(mejorTiempoPrevio);
+    }
+
+    private boolean bajarMejorTiempo(long milisegundos) {
+        long actual;
+        while (milisegundos < (actual = mejorTiempo.get())) {
+            if (mejorTiempo.compareAndSet(actual, milisegundos)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Resumen resumen() {
+        return new Resumen(jugador, configuracion, partidas.sum(), victorias.sum(), mejorTiempo.get());
+    }
+
+    public String getJugador() { return jugador; }
+    public Configuracion getConfiguracion() { return configuracion; }
+    public long getPartidas() { return partidas.sum(); }
+    public long getVictorias() { return victorias.sum(); }
+    public long getMejorTiempo() { return mejorTiempo.get(); }
+}
@@ -0,0 +1,71 @@
+package estadisticas;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de tiempos de resolución en milisegundos, seguro entre hilos sin bloqueos:
+ * cubetas logarítmicas divididas en cuatro partes (error relativo menor del 25%) sobre contadores atómicos.
+ */
+public final class HistogramaTiempos {
+    private static final int BITS_SUBCUBETA = 2;
+    private static final int SUBCUBETAS = 1 << BITS_SUBCUBETA;
+    static final int CUBETAS = 64 * SUBCUBETAS;
+
+    private final AtomicLongArray cubetas = new AtomicLongArray(CUBETAS);
+
+    public void registrar(long milisegundos) {
+        cubetas.incrementAndGet(cubeta(Math.max(milisegundos, 0)));
+    }
+
+    void sumar(int cubeta, long cantidad) {
+        cubetas.addAndGet(cubeta, cantidad);
+    }
+
+    long cantidad(int cubeta) {
+        return cubetas.get(cubeta);
+    }
+
+    public long getCantidad() {
+        long total = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            total += cubetas.get(i);
+        }
+        return total;
+    }
+
+    // Límite superior de la cubeta que contiene el percentil p (0..100); -1 si está vacío
+    public long percentil(double p) {
+        long total = getCantidad();
+        if (total == 0) {
+            return -1;
+        }
+        long objetivo = Math.max(1, (long) Math.ceil(total * p / 100));
+        long acumulado = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            acumulado += cubetas.get(i);
+            if (acumulado >= objetivo) {
+                return limiteSuperior(i);
+            }
+        }
+        return limiteSuperior(CUBETAS - 1);
+    }
+
+    // Exponente (bit más alto) y los dos bits siguientes; los valores pequeños van de uno en uno
+    static int cubeta(long valor) {
+        if (valor < SUBCUBETAS) {
+            return (int) valor;
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(valor);
+        int sub = (int) (valor >>> (exponente - BITS_SUBCUBETA)) & (SUBCUBETAS - 1);
+        return (exponente - BITS_SUBCUBETA + 1) * SUBCUBETAS + sub;
+    }
+
+    static long limiteSuperior(int cubeta) {
+        if (cubeta < SUBCUBETAS) {
+            return cubeta;
+        }
+        int exponente = cubeta / SUBCUBETAS + BITS_SUBCUBETA - 1;
+        long paso = 1L << (exponente - BITS_SUBCUBETA);
+        return (1L << exponente) + (cubeta % SUBCUBETAS + 1) * paso - 1;
+    }
+}
@@ -0,0 +1,18 @@
+package model;
+
+/**
+ * Almacenamiento del estado empaquetado de las celdas (un byte por celda, ver EstadoCelda).
+ * Los índices son fila * columnas + columna.
+ */
+public interface AlmacenCeldas {
+    int tamanio();
+    byte leer(int indice);
+    void escribir(int indice, byte estado);
+
+    // Copia largo celdas a partir de desde; los almacenes pueden hacerlo en bloque
+    default void leerBloque(int desde, byte[] destino, int largo) {
+        for (int k = 0; k < largo; k++) {
+            destino[k] = leer(desde + k);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Almacén de celdas en el heap dividido en bloques de 4096 celdas con copia en escritura.
+ * instantanea() comparte todos los bloques con la copia en O(celdas / 4096); el primero que
+ * escribe en un bloque compartido se hace su propia copia, así que la instantánea nunca cambia
+ * y puede leerse desde otro hilo mientras el juego sigue.
+ */
+public final class AlmacenCopiaEnEscritura implements AlmacenCeldas {
+    private static final int BITS_BLOQUE = 12;
+    private static final int TAMANIO_BLOQUE = 1 << BITS_BLOQUE;
+    private static final int MASCARA_BLOQUE = TAMANIO_BLOQUE - 1;
+
+    private final int tamanio;
+    private final byte[][] bloques;
+    // Bloques que solo usa este almacén y pueden modificarse sin copiar
+    private final boolean[] propios;
+
+    public AlmacenCopiaEnEscritura(int celdas) {
+        this(celdas, new byte[(celdas + MASCARA_BLOQUE) >>> BITS_BLOQUE][]);
+        for (int b = 0; b < bloques.length; b++) {
+            bloques[b] = new byte[largoBloque(b)];
+        }
+        Arrays.fill(propios, true);
+    }
+
+    private AlmacenCopiaEnEscritura(int tamanio, byte[][] bloques) {
+        this.tamanio = tamanio;
+        this.bloques = bloques;
+        this.propios = new boolean[bloques.length];
+    }
+
+    // Copia los estados de un arreglo (por ejemplo, al leer una partida guardada)
+    public static AlmacenCopiaEnEscritura desde(byte[] estados) {
+        AlmacenCopiaEnEscritura almacen = new AlmacenCopiaEnEscritura(estados.length);
+        for (int b = 0; b < almacen.bloques.length; b++) {
+            System.arraycopy(estados, b << BITS_BLOQUE, almacen.bloques[b], 0, almacen.bloques[b].length);
+        }
+        return almacen;
+    }
+
+    private int largoBloque(int bloque) {
+        return Math.min(TAMANIO_BLOQUE, tamanio - (bloque << BITS_BLOQUE));
+    }
+
+    // Copia inmutable que comparte los bloques actuales; ninguno de los dos vuelve a escribir en ellos
+    public AlmacenCopiaEnEscritura instantanea() {
+        Arrays.fill(propios, false);
+        return new AlmacenCopiaEnEscritura(tamanio, bloques.clone());
+    }
+
+    /**
+     * Copia ya los bloques compartidos para que escribir no vuelva a copiar. Después varios hilos
+     * pueden escribir a la vez en celdas distintas; la comprobación de escribir no es segura entre hilos.
+     */
+    public void apropiarTodos() {
+        for (int b = 0; b < bloques.length; b++) {
+            if (!propios[b]) {
+                bloques[b] = bloques[b].clone();
+                propios[b] = true;
+            }
+        }
+    }
+
+    @Override
+    public int tamanio() { return tamanio; }
+
+    @Override
+    public byte leer(int indice) {
+        return bloques[indice >>> BITS_BLOQUE][indice & MASCARA_BLOQUE];
+    }
+
+    @Override
+    public void escribir(int indice, byte estado) {
+        int b = indice >>> BITS_BLOQUE;
+        byte[] bloque = bloques[b];
+        if (!propios[b]) {
+            bloque = bloque.clone();
+            bloques[b] = bloque;
+            propios[b] = true;
+        }
+        bloque[indice & MASCARA_BLOQUE] = estado;
+    }
+
+    @Override
+    public void leerBloque(int desde, byte[] destino, int largo) {
+        int copiadas = 0;
+        while (copiadas < largo) {
+            int indice = desde + copiadas;
+            int desplazamiento = indice & MASCARA_BLOQUE;
+            byte[] bloque = bloques[indice >>> BITS_BLOQUE];
+            int cantidad = Math.min(largo - copiadas, bloque.length - desplazamiento);
+            System.arraycopy(bloque, desplazamiento, destino, copiadas, cantidad);
+            copiadas += cantidad;
+        }
+    }
+}
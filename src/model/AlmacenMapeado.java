@@ -0,0 +1,98 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Almacén de celdas fuera del heap: un archivo proyectado en memoria con FileChannel.map.
+ * El archivo empieza con una cabecera de TAMANIO_CABECERA bytes libre para quien lo use,
+ * seguida de un byte por celda. El recolector de basura nunca recorre estos datos.
+ */
+public final class AlmacenMapeado implements AlmacenCeldas, Closeable {
+    public static final int TAMANIO_CABECERA = 64;
+
+    // Cada proyección admite como máximo 2 GB: el archivo se proyecta por segmentos
+    private static final int BITS_SEGMENTO = 30;
+    private static final int MASCARA_SEGMENTO = (1 << BITS_SEGMENTO) - 1;
+
+    private final FileChannel canal;
+    private final MappedByteBuffer cabecera;
+    private final MappedByteBuffer[] segmentos;
+    private final int celdas;
+
+    private AlmacenMapeado(FileChannel canal, int celdas) throws IOException {
+        this.canal = canal;
+        this.celdas = celdas;
+        this.cabecera = canal.map(FileChannel.MapMode.READ_WRITE, 0, TAMANIO_CABECERA);
+        this.cabecera.order(ByteOrder.BIG_ENDIAN);
+
+        int cantidad = (int) (((long) celdas + MASCARA_SEGMENTO) >>> BITS_SEGMENTO);
+        this.segmentos = new MappedByteBuffer[cantidad];
+        for (int s = 0; s < cantidad; s++) {
+            long inicio = (long) s << BITS_SEGMENTO;
+            long largo = Math.min(1L << BITS_SEGMENTO, celdas - inicio);
+            segmentos[s] = canal.map(FileChannel.MapMode.READ_WRITE, TAMANIO_CABECERA + inicio, largo);
+        }
+    }
+
+    // Crea (o sobrescribe) el archivo con todas las celdas a cero
+    public static AlmacenMapeado crear(Path archivo, int celdas) throws IOException {
+        FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        return new AlmacenMapeado(canal, celdas);
+    }
+
+    public static AlmacenMapeado abrir(Path archivo) throws IOException {
+        FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long celdas = canal.size() - TAMANIO_CABECERA;
+        if (celdas < 0 || celdas > Integer.MAX_VALUE) {
+            canal.close();
+            throw new IOException("Archivo de tablero inválido: " + archivo);
+        }
+        return new AlmacenMapeado(canal, (int) celdas);
+    }
+
+    @Override
+    public int tamanio() { return celdas; }
+
+    @Override
+    public byte leer(int indice) {
+        return segmentos[indice >>> BITS_SEGMENTO].get(indice & MASCARA_SEGMENTO);
+    }
+
+    @Override
+    public void escribir(int indice, byte estado) {
+        segmentos[indice >>> BITS_SEGMENTO].put(indice & MASCARA_SEGMENTO, estado);
+    }
+
+    @Override
+    public void leerBloque(int desde, byte[] destino, int largo) {
+        for (int copiado = 0; copiado < largo; ) {
+            int indice = desde + copiado;
+            int parte = Math.min(largo - copiado, (1 << BITS_SEGMENTO) - (indice & MASCARA_SEGMENTO));
+            segmentos[indice >>> BITS_SEGMENTO].get(indice & MASCARA_SEGMENTO, destino, copiado, parte);
+            copiado += parte;
+        }
+    }
+
+    // Bytes de cabecera proyectados; escribir en ellos modifica el archivo
+    public MappedByteBuffer getCabecera() { return cabecera; }
+
+    // Vuelca al disco las páginas modificadas de la cabecera y de las celdas
+    public void sincronizar() {
+        for (MappedByteBuffer segmento : segmentos) {
+            segmento.force();
+        }
+        cabecera.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+}
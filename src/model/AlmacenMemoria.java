@@ -0,0 +1,34 @@
+package model;
+
+import java.io.Serializable;
+
+/**
+ * Almacén de celdas en el heap de Java respaldado por un arreglo de bytes
+ */
+public final class AlmacenMemoria implements AlmacenCeldas, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final byte[] estados;
+
+    public AlmacenMemoria(int celdas) {
+        this(new byte[celdas]);
+    }
+
+    public AlmacenMemoria(byte[] estados) {
+        this.estados = estados;
+    }
+
+    @Override
+    public int tamanio() { return estados.length; }
+
+    @Override
+    public byte leer(int indice) { return estados[indice]; }
+
+    @Override
+    public void escribir(int indice, byte estado) { estados[indice] = estado; }
+
+    @Override
+    public void leerBloque(int desde, byte[] destino, int largo) {
+        System.arraycopy(estados, desde, destino, 0, largo);
+    }
+}
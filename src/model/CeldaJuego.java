@@ -20,14 +20,19 @@ public class CeldaJuego extends ElementoJuego implements Serializable {
         this.minasCercanas = 0;
     }
 
+    // Vista ligera construida a partir del estado empaquetado del tablero
+    public CeldaJuego(int fila, int columna, int estado) {
+        super(fila, columna);
+        this.contieneMina = EstadoCelda.tieneMina(estado);
+        this.descubierta = EstadoCelda.estaDescubierta(estado);
+        this.marcada = EstadoCelda.estaMarcada(estado);
+        this.minasCercanas = EstadoCelda.minasCercanas(estado);
+    }
+
     // POLIMORFISMO: implementación específica del método abstracto
     @Override
     public char obtenerSimbolo() {
-        if (this.marcada) return '⚑';
-        if (!this.descubierta) return '■';
-        if (this.contieneMina) return '☢';
-        if (this.minasCercanas == 0) return ' ';
-        return (char) ('0' + this.minasCercanas);
+        return EstadoCelda.simbolo(getEstado());
     }
 
     public void asignarMina() {
@@ -35,11 +40,19 @@ public class CeldaJuego extends ElementoJuego implements Serializable {
     }
 
     public void revelar() throws CasillaReveladaException {
-        if (this.descubierta) {
+        if (!intentarRevelar()) {
             throw new CasillaReveladaException("Celda " + obtenerPosicion() + " ya revelada");
         }
+    }
+
+    // Igual que revelar() pero sin excepción: devuelve false si ya estaba revelada
+    public boolean intentarRevelar() {
+        if (this.descubierta) {
+            return false;
+        }
         this.descubierta = true;
         this.marcada = false;
+        return true;
     }
 
     public void alternarMarcado() {
@@ -65,6 +78,15 @@ public class CeldaJuego extends ElementoJuego implements Serializable {
     public int getMinasCercanas() { return minasCercanas; }
     public void setMinasCercanas(int cantidad) { this.minasCercanas = cantidad; }
 
+    // Estado empaquetado equivalente (ver EstadoCelda)
+    public int getEstado() {
+        int estado = minasCercanas & EstadoCelda.MASCARA_VECINAS;
+        if (contieneMina) estado |= EstadoCelda.MINA;
+        if (descubierta) estado |= EstadoCelda.DESCUBIERTA;
+        if (marcada) estado |= EstadoCelda.MARCADA;
+        return estado;
+    }
+
     public String obtenerEstadoCompleto() {
         return String.format("Celda %s - Mina: %b | Descubierta: %b | Marcada: %b | Vecinas: %d",
                 obtenerPosicion(), contieneMina, descubierta, marcada, minasCercanas);
@@ -0,0 +1,17 @@
+package model;
+
+/**
+ * Tamaño y minas de un tablero. Identifica las colas de la reserva de tableros
+ * y las clasificaciones de las estadísticas. Solo existen configuraciones válidas:
+ * se comprueban al construirlas, con las mismas reglas que TableroBuscaminas.
+ */
+public record Configuracion(int filas, int columnas, int minas) {
+
+    public Configuracion {
+        TableroBuscaminas.validarDimensiones(filas, columnas, minas);
+    }
+
+    public static Configuracion de(TableroBuscaminas tablero) {
+        return new Configuracion(tablero.getFilas(), tablero.getColumnas(), tablero.getTotalMinas());
+    }
+}
@@ -0,0 +1,76 @@
+package model;
+
+/**
+ * Cambios producidos por la última jugada de un tablero: celdas reveladas, marcas alternadas
+ * y transición del estado de la partida. Los índices son fila * columnas + columna.
+ *
+ * El tablero reutiliza siempre el mismo conjunto (y los arreglos del motor de expansión), así que
+ * una jugada no reserva memoria; su contenido solo es válido hasta la siguiente jugada.
+ * Una celda revelada pierde su marca si la tenía: eso no se repite en las marcas alternadas.
+ * Al volver a otra versión de la partida (HistorialTablero) las reveladas son todas las celdas
+ * que cambiaron, también las que vuelven a ocultarse.
+ */
+public final class ConjuntoCambios {
+    public enum Transicion { NINGUNA, VICTORIA, DERROTA }
+
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    private int[] reveladas;
+    private int cantidadReveladas;
+    // Búfer propio para las reveladas que no vienen del motor (minas al perder)
+    private int[] propias = new int[CAPACIDAD_INICIAL];
+    private int[] marcas = new int[CAPACIDAD_INICIAL];
+    private int cantidadMarcas;
+    private Transicion transicion = Transicion.NINGUNA;
+
+    ConjuntoCambios() {
+        reveladas = propias;
+    }
+
+    void reiniciar() {
+        reveladas = propias;
+        cantidadReveladas = 0;
+        cantidadMarcas = 0;
+        transicion = Transicion.NINGUNA;
+    }
+
+    // Las reveladas de una expansión se toman del motor sin copiarlas
+    void usarReveladas(int[] indices, int cantidad) {
+        reveladas = indices;
+        cantidadReveladas = cantidad;
+    }
+
+    void agregarRevelada(int indice) {
+        if (cantidadReveladas == propias.length) {
+            int[] ampliado = new int[propias.length * 2];
+            System.arraycopy(propias, 0, ampliado, 0, cantidadReveladas);
+            propias = ampliado;
+            reveladas = propias;
+        }
+        propias[cantidadReveladas++] = indice;
+    }
+
+    void agregarMarca(int indice) {
+        if (cantidadMarcas == marcas.length) {
+            int[] ampliado = new int[marcas.length * 2];
+            System.arraycopy(marcas, 0, ampliado, 0, cantidadMarcas);
+            marcas = ampliado;
+        }
+        marcas[cantidadMarcas++] = indice;
+    }
+
+    void setTransicion(Transicion transicion) {
+        this.transicion = transicion;
+    }
+
+    public boolean estaVacio() {
+        return cantidadReveladas == 0 && cantidadMarcas == 0 && transicion == Transicion.NINGUNA;
+    }
+
+    // Solo son válidas las primeras getCantidadReveladas() posiciones
+    public int[] getReveladas() { return reveladas; }
+    public int getCantidadReveladas() { return cantidadReveladas; }
+    public int[] getMarcas() { return marcas; }
+    public int getCantidadMarcas() { return cantidadMarcas; }
+    public Transicion getTransicion() { return transicion; }
+}
@@ -0,0 +1,71 @@
+package model;
+
+/**
+ * Etiquetas de coordenadas para tableros de cualquier tamaño: las filas van A..Z, AA..AZ, BA...
+ * (como las columnas de una hoja de cálculo) y las columnas se numeran desde 1.
+ */
+public final class Coordenadas {
+    private static final int LETRAS = 26;
+
+    private Coordenadas() {
+    }
+
+    public static String etiqueta(int fila, int columna) {
+        StringBuilder etiqueta = new StringBuilder(8);
+        agregarEtiquetaFila(etiqueta, fila);
+        return etiqueta.append(columna + 1).toString();
+    }
+
+    public static String etiquetaFila(int fila) {
+        StringBuilder etiqueta = new StringBuilder(4);
+        agregarEtiquetaFila(etiqueta, fila);
+        return etiqueta.toString();
+    }
+
+    // Escribe la etiqueta sin crear objetos intermedios
+    public static void agregarEtiquetaFila(StringBuilder destino, int fila) {
+        int inicio = destino.length();
+        long resto = fila + 1L;
+        while (resto > 0) {
+            resto--;
+            destino.append((char) ('A' + resto % LETRAS));
+            resto /= LETRAS;
+        }
+        // Las letras salen de la menos significativa a la más significativa
+        for (int i = inicio, j = destino.length() - 1; i < j; i++, j--) {
+            char letra = destino.charAt(i);
+            destino.setCharAt(i, destino.charAt(j));
+            destino.setCharAt(j, letra);
+        }
+    }
+
+    public static int largoEtiquetaFila(int fila) {
+        int largo = 1;
+        for (long resto = fila / LETRAS; resto > 0; resto = (resto - 1) / LETRAS) {
+            largo++;
+        }
+        return largo;
+    }
+
+    /**
+     * Fila indicada por las letras de texto[desde, hasta), sin distinguir mayúsculas.
+     * Devuelve -1 si hay algo que no es una letra o el valor no cabe en un int.
+     */
+    public static int filaDeEtiqueta(CharSequence texto, int desde, int hasta) {
+        if (desde >= hasta) {
+            return -1;
+        }
+        long valor = 0;
+        for (int i = desde; i < hasta; i++) {
+            char letra = Character.toUpperCase(texto.charAt(i));
+            if (letra < 'A' || letra > 'Z') {
+                return -1;
+            }
+            valor = valor * LETRAS + (letra - 'A' + 1);
+            if (valor - 1 > Integer.MAX_VALUE) {
+                return -1;
+            }
+        }
+        return (int) (valor - 1);
+    }
+}
@@ -19,7 +19,7 @@ public abstract class ElementoJuego implements Serializable {
     public abstract char obtenerSimbolo();
 
     public String obtenerPosicion() {
-        return String.format("%c%d", 'A' + fila, columna + 1);
+        return Coordenadas.etiqueta(fila, columna);
     }
 
     // Getters
@@ -0,0 +1,29 @@
+package model;
+
+/**
+ * Codificación empaquetada del estado de una celda en un solo byte.
+ * Bits 0-3: minas vecinas (0-8) | bit 4: mina | bit 5: descubierta | bit 6: marcada
+ */
+public final class EstadoCelda {
+    public static final int MASCARA_VECINAS = 0x0F;
+    public static final int MINA = 0x10;
+    public static final int DESCUBIERTA = 0x20;
+    public static final int MARCADA = 0x40;
+
+    private EstadoCelda() {
+    }
+
+    public static boolean tieneMina(int estado) { return (estado & MINA) != 0; }
+    public static boolean estaDescubierta(int estado) { return (estado & DESCUBIERTA) != 0; }
+    public static boolean estaMarcada(int estado) { return (estado & MARCADA) != 0; }
+    public static int minasCercanas(int estado) { return estado & MASCARA_VECINAS; }
+
+    public static char simbolo(int estado) {
+        if (estaMarcada(estado)) return '⚑';
+        if (!estaDescubierta(estado)) return '■';
+        if (tieneMina(estado)) return '☢';
+        int vecinas = minasCercanas(estado);
+        if (vecinas == 0) return ' ';
+        return (char) ('0' + vecinas);
+    }
+}
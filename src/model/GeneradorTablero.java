@@ -0,0 +1,160 @@
+package model;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Generación reproducible del tablero: colocación de minas y cálculo de vecinas.
+ * La colocación usa el muestreo de Floyd sobre el propio mapa de minas, por lo que
+ * cuesta O(minas) con cualquier densidad y no necesita memoria adicional. Se hace siempre
+ * en un solo hilo para que una semilla produzca el mismo tablero con cualquier número de núcleos.
+ */
+public final class GeneradorTablero {
+    // A partir de este tamaño el cálculo de vecinas se reparte entre núcleos
+    private static final int UMBRAL_PARALELO = 1 << 20;
+    private static final int CELDAS_POR_BANDA = 1 << 16;
+
+    private GeneradorTablero() {
+    }
+
+    /**
+     * Coloca totalMinas minas en celdas distintas, nunca en las excluidas.
+     * Para una misma semilla, tamaño y exclusiones el resultado es siempre el mismo.
+     */
+    public static void colocarMinas(AlmacenCeldas celdas, int totalMinas, long semilla, int[] excluidas) {
+        int[] ordenadas = excluidas.clone();
+        Arrays.sort(ordenadas);
+        int disponibles = celdas.tamanio() - ordenadas.length;
+        if (totalMinas > disponibles) {
+            throw new IllegalArgumentException("No caben " + totalMinas + " minas en " + disponibles + " celdas");
+        }
+
+        SplittableRandom aleatorio = new SplittableRandom(semilla);
+        for (int j = disponibles - totalMinas; j < disponibles; j++) {
+            int celda = aCelda(aleatorio.nextInt(j + 1), ordenadas);
+            if ((celdas.leer(celda) & EstadoCelda.MINA) != 0) {
+                celda = aCelda(j, ordenadas);
+            }
+            celdas.escribir(celda, (byte) (celdas.leer(celda) | EstadoCelda.MINA));
+        }
+    }
+
+    // Traduce una posición entre las celdas disponibles a su índice real en el tablero
+    private static int aCelda(int posicion, int[] excluidasOrdenadas) {
+        for (int excluida : excluidasOrdenadas) {
+            if (excluida > posicion) {
+                break;
+            }
+            posicion++;
+        }
+        return posicion;
+    }
+
+    /**
+     * Celdas protegidas en el primer clic: la celda y sus vecinas si caben todas las minas,
+     * solo la celda si no, y ninguna si el tablero debe quedar lleno de minas.
+     */
+    public static int[] zonaPrimerClic(int filas, int columnas, int totalMinas, int fila, int columna) {
+        int totalCeldas = filas * columnas;
+        int[] zona = new int[9];
+        int cantidad = 0;
+        for (int i = Math.max(0, fila - 1); i <= Math.min(filas - 1, fila + 1); i++) {
+            for (int j = Math.max(0, columna - 1); j <= Math.min(columnas - 1, columna + 1); j++) {
+                zona[cantidad++] = i * columnas + j;
+            }
+        }
+        if (totalCeldas - cantidad >= totalMinas) {
+            return Arrays.copyOf(zona, cantidad);
+        }
+        if (totalCeldas - 1 >= totalMinas) {
+            return new int[]{fila * columnas + columna};
+        }
+        return new int[0];
+    }
+
+    /**
+     * Calcula las minas vecinas de todo el tablero. Los tableros grandes se reparten
+     * en bandas de filas sobre el pool común de fork/join; el resultado es idéntico.
+     */
+    public static void calcularVecinas(AlmacenCeldas celdas, int filas, int columnas) {
+        if (celdas.tamanio() >= UMBRAL_PARALELO) {
+            calcularVecinas(celdas, filas, columnas, ForkJoinPool.commonPool());
+        } else {
+            calcularBanda(celdas, filas, columnas, 0, filas);
+        }
+    }
+
+    public static void calcularVecinas(AlmacenCeldas celdas, int filas, int columnas, ForkJoinPool pool) {
+        // Las bandas no coinciden con los bloques: dos bandas pueden escribir en el mismo bloque,
+        // así que ninguno puede quedar compartido (la copia en escritura no es segura entre hilos)
+        if (celdas instanceof AlmacenCopiaEnEscritura almacen) {
+            almacen.apropiarTodos();
+        }
+        int filasPorBanda = Math.max(1, CELDAS_POR_BANDA / columnas);
+        pool.invoke(new BandaVecinas(celdas, filas, columnas, 0, filas, filasPorBanda));
+    }
+
+    /**
+     * Suma deslizante sobre el mapa de minas: para cada fila se acumulan por columna las minas
+     * de las tres filas vecinas y luego se desliza una ventana de tres columnas.
+     * Cada banda solo escribe sus propias filas y solo lee el bit de mina, que ya no cambia;
+     * en paralelo, el almacén ya no debe copiar bloques al escribir (ver calcularVecinas).
+     */
+    private static void calcularBanda(AlmacenCeldas celdas, int filas, int columnas, int desdeFila, int hastaFila) {
+        int[] verticales = new int[columnas];
+        for (int fila = desdeFila; fila < hastaFila; fila++) {
+            int base = fila * columnas;
+            int arriba = fila > 0 ? base - columnas : -1;
+            int abajo = fila < filas - 1 ? base + columnas : -1;
+            for (int j = 0; j < columnas; j++) {
+                int suma = mina(celdas.leer(base + j));
+                if (arriba >= 0) suma += mina(celdas.leer(arriba + j));
+                if (abajo >= 0) suma += mina(celdas.leer(abajo + j));
+                verticales[j] = suma;
+            }
+
+            int ventana = verticales[0] + (columnas > 1 ? verticales[1] : 0);
+            for (int j = 0; j < columnas; j++) {
+                int indice = base + j;
+                int estado = celdas.leer(indice);
+                if ((estado & EstadoCelda.MINA) == 0) {
+                    celdas.escribir(indice, (byte) (estado | ventana));
+                }
+                if (j + 2 < columnas) ventana += verticales[j + 2];
+                if (j >= 1) ventana -= verticales[j - 1];
+            }
+        }
+    }
+
+    private static int mina(byte estado) {
+        return (estado >> 4) & 1;
+    }
+
+    private static final class BandaVecinas extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final AlmacenCeldas celdas;
+        private final int filas, columnas, desdeFila, hastaFila, filasPorBanda;
+
+        BandaVecinas(AlmacenCeldas celdas, int filas, int columnas, int desdeFila, int hastaFila, int filasPorBanda) {
+            this.celdas = celdas;
+            this.filas = filas;
+            this.columnas = columnas;
+            this.desdeFila = desdeFila;
+            this.hastaFila = hastaFila;
+            this.filasPorBanda = filasPorBanda;
+        }
+
+        @Override
+        protected void compute() {
+            if (hastaFila - desdeFila <= filasPorBanda) {
+                calcularBanda(celdas, filas, columnas, desdeFila, hastaFila);
+                return;
+            }
+            int mitad = (desdeFila + hastaFila) >>> 1;
+            invokeAll(new BandaVecinas(celdas, filas, columnas, desdeFila, mitad, filasPorBanda),
+                    new BandaVecinas(celdas, filas, columnas, mitad, hastaFila, filasPorBanda));
+        }
+    }
+}
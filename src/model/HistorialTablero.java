@@ -0,0 +1,85 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Historial de una partida para deshacer, rehacer y volver a cualquier jugada. Escucha los cambios
+ * del tablero y guarda una VersionTablero por jugada; las versiones comparten todo lo que no cambió,
+ * así que el historial ocupa memoria proporcional a las celdas que cambiaron, no al tamaño del tablero.
+ *
+ * Volver a una versión solo escribe las celdas que difieren de la actual. Una jugada nueva después
+ * de deshacer descarta las versiones que se podían rehacer. La jugada 0 es el tablero al conectarse.
+ */
+public final class HistorialTablero implements OyenteCambios {
+    private final TableroBuscaminas tablero;
+    private final List<VersionTablero> versiones = new ArrayList<>();
+    private int actual;
+    private long bytesVersiones;
+    private boolean volviendo; // Los cambios que publica volverA ya están en el historial
+
+    public HistorialTablero(TableroBuscaminas tablero) {
+        this.tablero = tablero;
+        agregar(VersionTablero.de(tablero));
+        tablero.agregarOyente(this);
+    }
+
+    public void desconectar() {
+        tablero.quitarOyente(this);
+    }
+
+    @Override
+    public void alCambiar(TableroBuscaminas origen, ConjuntoCambios cambios) {
+        if (volviendo) {
+            return;
+        }
+        while (versiones.size() > actual + 1) {
+            bytesVersiones -= versiones.remove(versiones.size() - 1).getBytesNuevos();
+        }
+        VersionTablero anterior = versiones.get(actual);
+        // Generar las minas en la primera jugada cambia todo el tablero, no solo lo revelado
+        agregar(anterior.minasGeneradas == origen.isMinasGeneradas()
+                ? anterior.conCambios(origen, cambios)
+                : VersionTablero.de(origen));
+        actual++;
+    }
+
+    private void agregar(VersionTablero version) {
+        versiones.add(version);
+        bytesVersiones += version.getBytesNuevos();
+    }
+
+    // Devuelve false si no hay tantas jugadas para deshacer
+    public boolean deshacer(int jugadas) {
+        return jugadas <= actual && irA(actual - jugadas);
+    }
+
+    public boolean rehacer(int jugadas) {
+        return jugadas <= getUltima() - actual && irA(actual + jugadas);
+    }
+
+    // Deja el tablero como estaba tras la jugada indicada (0: al empezar el historial)
+    public boolean irA(int jugada) {
+        if (jugada < 0 || jugada >= versiones.size()) {
+            return false;
+        }
+        if (jugada != actual) {
+            volviendo = true;
+            try {
+                tablero.volverA(versiones.get(actual), versiones.get(jugada));
+            } finally {
+                volviendo = false;
+            }
+            actual = jugada;
+        }
+        return true;
+    }
+
+    public TableroBuscaminas getTablero() { return tablero; }
+    public int getActual() { return actual; }
+    // Última jugada a la que se puede ir (rehaciendo)
+    public int getUltima() { return versiones.size() - 1; }
+    public VersionTablero getVersion(int jugada) { return versiones.get(jugada); }
+    // Memoria estimada de todas las versiones, contando una sola vez lo que comparten
+    public long getBytesVersiones() { return bytesVersiones; }
+}
@@ -0,0 +1,67 @@
+package model;
+
+/**
+ * Motor iterativo de expansión de zonas seguras (flood-fill por cola).
+ * Recorre cada celda de la región una sola vez y reutiliza su cola entre llamadas,
+ * por lo que no depende de la pila de llamadas ni reserva memoria en cada jugada.
+ */
+public final class MotorExpansion {
+    private static final int CAPACIDAD_INICIAL = 64;
+
+    // La lista de celdas reveladas hace también de cola de trabajo
+    private int[] reveladas = new int[CAPACIDAD_INICIAL];
+    private int cantidadReveladas;
+    private int marcasRetiradas;
+
+    /**
+     * Revela la celda origen (segura y oculta) y, si no tiene minas vecinas, toda su zona.
+     * Devuelve la cantidad de celdas reveladas; sus índices quedan en getReveladas().
+     */
+    public int expandir(AlmacenCeldas celdas, int filas, int columnas, int origen) {
+        cantidadReveladas = 0;
+        marcasRetiradas = 0;
+        revelar(celdas, origen);
+
+        for (int actual = 0; actual < cantidadReveladas; actual++) {
+            int indice = reveladas[actual];
+            if ((celdas.leer(indice) & EstadoCelda.MASCARA_VECINAS) != 0) {
+                continue;
+            }
+            int fila = indice / columnas;
+            int columna = indice - fila * columnas;
+            int desdeFila = Math.max(0, fila - 1), hastaFila = Math.min(filas - 1, fila + 1);
+            int desdeColumna = Math.max(0, columna - 1), hastaColumna = Math.min(columnas - 1, columna + 1);
+
+            for (int i = desdeFila; i <= hastaFila; i++) {
+                int base = i * columnas;
+                for (int j = desdeColumna; j <= hastaColumna; j++) {
+                    if ((celdas.leer(base + j) & (EstadoCelda.DESCUBIERTA | EstadoCelda.MINA)) == 0) {
+                        revelar(celdas, base + j);
+                    }
+                }
+            }
+        }
+        return cantidadReveladas;
+    }
+
+    private void revelar(AlmacenCeldas celdas, int indice) {
+        int estado = celdas.leer(indice);
+        if ((estado & EstadoCelda.MARCADA) != 0) {
+            marcasRetiradas++;
+        }
+        celdas.escribir(indice, (byte) ((estado | EstadoCelda.DESCUBIERTA) & ~EstadoCelda.MARCADA));
+
+        if (cantidadReveladas == reveladas.length) {
+            int[] ampliado = new int[reveladas.length * 2];
+            System.arraycopy(reveladas, 0, ampliado, 0, cantidadReveladas);
+            reveladas = ampliado;
+        }
+        reveladas[cantidadReveladas++] = indice;
+    }
+
+    // Índices (fila * columnas + columna) revelados en la última expansión; válidos hasta la siguiente
+    public int[] getReveladas() { return reveladas; }
+    public int getCantidadReveladas() { return cantidadReveladas; }
+    // Celdas que estaban marcadas y perdieron la marca al revelarse
+    public int getMarcasRetiradas() { return marcasRetiradas; }
+}
@@ -0,0 +1,10 @@
+package model;
+
+/**
+ * Recibe los cambios de cada jugada de un tablero (ver ConjuntoCambios).
+ * Se llama en el hilo que hizo la jugada; el conjunto solo es válido durante la llamada.
+ */
+@FunctionalInterface
+public interface OyenteCambios {
+    void alCambiar(TableroBuscaminas tablero, ConjuntoCambios cambios);
+}
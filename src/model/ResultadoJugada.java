@@ -0,0 +1,22 @@
+package model;
+
+/**
+ * Resultado de una jugada sin excepciones, para bots, simulaciones y otros usos masivos.
+ * Los métodos con excepciones comprobadas del tablero se apoyan en estos códigos.
+ */
+public enum ResultadoJugada {
+    REVELADA,          // Celda segura descubierta (y su zona si no tenía vecinas)
+    VICTORIA,          // Se descubrió la última celda segura
+    MINA,              // Se descubrió una mina: partida perdida
+    YA_DESCUBIERTA,    // No cambia nada
+    MARCADA,
+    DESMARCADA,
+    NO_MARCABLE,       // Las celdas descubiertas no se marcan
+    FUERA_DE_RANGO,
+    JUEGO_FINALIZADO;
+
+    // Jugadas rechazadas: el tablero no cambió y la jugada no era válida
+    public boolean esError() {
+        return this == FUERA_DE_RANGO || this == JUEGO_FINALIZADO;
+    }
+}
@@ -1,195 +1,569 @@
 package model;
 
-import exceptions.CasillaReveladaException;
 import exceptions.CoordenadaFueraDeRangoException;
 import exceptions.JuegoFinalizadoException;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
-import java.util.Random;
-
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Tablero del Buscaminas con almacenamiento empaquetado: un byte por celda (ver EstadoCelda).
+ * Las celdas viven en el heap (AlmacenCopiaEnEscritura) o en un archivo proyectado fuera del heap (AlmacenMapeado).
+ * Las CeldaJuego se construyen bajo demanda como vistas de solo lectura.
+ */
 public class TableroBuscaminas implements Serializable {
     private static final long serialVersionUID = 1L;
 
-    private static final int FILAS = 10;
-    private static final int COLUMNAS = 10;
-    private static final int TOTAL_MINAS = 15;
+    // Forma serializada estable, independiente del almacén usado
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("filas", int.class),
+            new ObjectStreamField("columnas", int.class),
+            new ObjectStreamField("totalMinas", int.class),
+            new ObjectStreamField("estados", byte[].class),
+            new ObjectStreamField("ocultasSeguras", int.class),
+            new ObjectStreamField("marcasColocadas", int.class),
+            new ObjectStreamField("minasMarcadas", int.class),
+            new ObjectStreamField("juegoFinalizado", boolean.class),
+            new ObjectStreamField("victoria", boolean.class),
+            new ObjectStreamField("semilla", long.class),
+            new ObjectStreamField("minasGeneradas", boolean.class),
+    };
+
+    // Cabecera de los tableros proyectados en archivo (ver AlmacenMapeado)
+    private static final int MAGICO_MAPEADO = 0x424D4D50; // "BMMP"
+    private static final int VERSION_MAPEADO = 1;
+    private static final int POSICION_INDICADORES = 40;
+    private static final int INDICADOR_FINALIZADO = 1, INDICADOR_VICTORIA = 2, INDICADOR_GENERADAS = 4, INDICADOR_LIMPIA = 8;
+
+    public static final int FILAS_POR_DEFECTO = 10;
+    public static final int COLUMNAS_POR_DEFECTO = 10;
+    public static final int MINAS_POR_DEFECTO = 15;
+
+    // Límite práctico de un arreglo Java
+    private static final long MAXIMO_CELDAS = Integer.MAX_VALUE - 8;
+
+    private int filas;
+    private int columnas;
+    private int totalMinas;
+    private transient AlmacenCeldas celdas;
+
+    // Contadores mantenidos en cada jugada: victoria y minas restantes en O(1)
+    private int ocultasSeguras;
+    private int marcasColocadas;
+    private int minasMarcadas;
 
-    private CeldaJuego[][] celdas;
-    private int minasRestantes;
     private boolean juegoFinalizado;
     private boolean victoria;
 
+    // Semilla de la colocación de minas: la misma semilla reproduce el mismo tablero
+    private long semilla;
+    // Con primer clic seguro las minas se generan al descubrir la primera celda
+    private boolean minasGeneradas;
+
     // Marcamos como transient para evitar problemas de serialización
-    private transient Random generador;
+    private transient MotorExpansion motorExpansion;
+    // En tableros proyectados: la cabecera del archivo refleja los contadores actuales
+    private transient boolean cabeceraLimpia;
+    // Cambios de la última jugada (reutilizados) y quienes los reciben
+    private transient ConjuntoCambios cambios;
+    private transient List<OyenteCambios> oyentes;
 
     public TableroBuscaminas() {
-        this.celdas = new CeldaJuego[FILAS][COLUMNAS];
-        this.minasRestantes = TOTAL_MINAS;
-        this.generador = new Random();
-        inicializarTablero();
-        distribuirMinas();
-        calcularMinasAlrededor();
-    }
-
-    private void inicializarTablero() {
-        for (int fila = 0; fila < FILAS; fila++) {
-            for (int columna = 0; columna < COLUMNAS; columna++) {
-                celdas[fila][columna] = new CeldaJuego(fila, columna);
-            }
+        this(FILAS_POR_DEFECTO, COLUMNAS_POR_DEFECTO, MINAS_POR_DEFECTO);
+    }
+
+    public TableroBuscaminas(int filas, int columnas, int totalMinas) {
+        this(filas, columnas, totalMinas, ThreadLocalRandom.current().nextLong(), false);
+    }
+
+    public TableroBuscaminas(int filas, int columnas, int totalMinas, long semilla, boolean primerClicSeguro) {
+        this(crearAlmacen(filas, columnas, totalMinas), filas, columnas, totalMinas, semilla, primerClicSeguro);
+    }
+
+    private TableroBuscaminas(AlmacenCeldas celdas, int filas, int columnas, int totalMinas, long semilla, boolean primerClicSeguro) {
+        this.celdas = celdas;
+        this.filas = filas;
+        this.columnas = columnas;
+        this.totalMinas = totalMinas;
+        this.semilla = semilla;
+        this.ocultasSeguras = filas * columnas - totalMinas;
+        if (!primerClicSeguro) {
+            generarMinas(new int[0]);
         }
     }
 
-    private void distribuirMinas() {
-        int minasColocadas = 0;
-        while (minasColocadas < TOTAL_MINAS) {
-            int fila = generador.nextInt(FILAS);
-            int columna = generador.nextInt(COLUMNAS);
+    /**
+     * Crea un tablero cuyas celdas viven en un archivo proyectado en memoria, fuera del heap.
+     * Guardar la partida se reduce a sincronizar(); el archivo se reabre con abrirMapeado.
+     */
+    public static TableroBuscaminas crearMapeado(Path archivo, int filas, int columnas, int totalMinas,
+                                                 long semilla, boolean primerClicSeguro) throws IOException {
+        validarDimensiones(filas, columnas, totalMinas);
+        TableroBuscaminas tablero = new TableroBuscaminas(AlmacenMapeado.crear(archivo, filas * columnas),
+                filas, columnas, totalMinas, semilla, primerClicSeguro);
+        tablero.sincronizar();
+        return tablero;
+    }
 
-            if (!celdas[fila][columna].tieneMina()) {
-                celdas[fila][columna].asignarMina();
-                minasColocadas++;
-            }
+    public static TableroBuscaminas abrirMapeado(Path archivo) throws IOException {
+        AlmacenMapeado almacen = AlmacenMapeado.abrir(archivo);
+        ByteBuffer cabecera = almacen.getCabecera();
+        if (cabecera.getInt(0) != MAGICO_MAPEADO || cabecera.getInt(4) != VERSION_MAPEADO) {
+            almacen.close();
+            throw new IOException("El archivo no es un tablero proyectado: " + archivo);
+        }
+        int filas = cabecera.getInt(8);
+        int columnas = cabecera.getInt(12);
+        if ((long) filas * columnas != almacen.tamanio()) {
+            almacen.close();
+            throw new IOException("Dimensiones del tablero proyectado inconsistentes: " + archivo);
+        }
+        // Se construye sin generar minas: las celdas ya están en el archivo
+        TableroBuscaminas tablero = new TableroBuscaminas(almacen, filas, columnas, cabecera.getInt(16), cabecera.getLong(20), true);
+        tablero.ocultasSeguras = cabecera.getInt(28);
+        tablero.marcasColocadas = cabecera.getInt(32);
+        tablero.minasMarcadas = cabecera.getInt(36);
+        int indicadores = cabecera.get(POSICION_INDICADORES);
+        tablero.juegoFinalizado = (indicadores & INDICADOR_FINALIZADO) != 0;
+        tablero.victoria = (indicadores & INDICADOR_VICTORIA) != 0;
+        tablero.minasGeneradas = (indicadores & INDICADOR_GENERADAS) != 0;
+        // Si el proceso terminó sin sincronizar, los contadores de la cabecera no son fiables
+        if ((indicadores & INDICADOR_LIMPIA) == 0) {
+            tablero.recalcularContadores();
         }
+        tablero.cabeceraLimpia = (indicadores & INDICADOR_LIMPIA) != 0;
+        return tablero;
     }
 
-    private void calcularMinasAlrededor() {
-        for (int fila = 0; fila < FILAS; fila++) {
-            for (int columna = 0; columna < COLUMNAS; columna++) {
-                if (!celdas[fila][columna].tieneMina()) {
-                    int minas = contarMinasVecinas(fila, columna);
-                    celdas[fila][columna].setMinasCercanas(minas);
-                }
-            }
+    /**
+     * Reconstruye un tablero a partir de sus celdas (por ejemplo, al leer una partida guardada).
+     * Los contadores se recalculan desde las celdas.
+     */
+    public static TableroBuscaminas restaurar(AlmacenCeldas celdas, int filas, int columnas, int totalMinas, long semilla,
+                                              boolean minasGeneradas, boolean juegoFinalizado, boolean victoria) {
+        validarDimensiones(filas, columnas, totalMinas);
+        if (celdas.tamanio() != filas * columnas) {
+            throw new IllegalArgumentException("El almacén no coincide con las dimensiones " + filas + "x" + columnas);
+        }
+        TableroBuscaminas tablero = new TableroBuscaminas(celdas, filas, columnas, totalMinas, semilla, true);
+        tablero.minasGeneradas = minasGeneradas;
+        tablero.juegoFinalizado = juegoFinalizado;
+        tablero.victoria = victoria;
+        tablero.recalcularContadores();
+        return tablero;
+    }
+
+    /**
+     * En tableros proyectados escribe los contadores en la cabecera y vuelca el archivo a disco.
+     * En tableros en memoria no hace nada.
+     */
+    public void sincronizar() {
+        if (!(celdas instanceof AlmacenMapeado almacen)) {
+            return;
+        }
+        ByteBuffer cabecera = almacen.getCabecera();
+        cabecera.putInt(0, MAGICO_MAPEADO);
+        cabecera.putInt(4, VERSION_MAPEADO);
+        cabecera.putInt(8, filas);
+        cabecera.putInt(12, columnas);
+        cabecera.putInt(16, totalMinas);
+        cabecera.putLong(20, semilla);
+        cabecera.putInt(28, ocultasSeguras);
+        cabecera.putInt(32, marcasColocadas);
+        cabecera.putInt(36, minasMarcadas);
+        cabecera.put(POSICION_INDICADORES, (byte) (indicadores() | INDICADOR_LIMPIA));
+        almacen.sincronizar();
+        cabeceraLimpia = true;
+    }
+
+    /**
+     * Copia del tablero que ya no cambia, para guardarla en segundo plano mientras se sigue jugando.
+     * En el heap comparte los bloques de celdas (copia en escritura); un tablero proyectado se copia entero.
+     */
+    public TableroBuscaminas instantanea() {
+        AlmacenCopiaEnEscritura copia;
+        if (celdas instanceof AlmacenCopiaEnEscritura almacen) {
+            copia = almacen.instantanea();
+        } else {
+            byte[] estados = new byte[celdas.tamanio()];
+            celdas.leerBloque(0, estados, estados.length);
+            copia = AlmacenCopiaEnEscritura.desde(estados);
+        }
+        TableroBuscaminas tablero = new TableroBuscaminas(copia, filas, columnas, totalMinas, semilla, true);
+        tablero.ocultasSeguras = ocultasSeguras;
+        tablero.marcasColocadas = marcasColocadas;
+        tablero.minasMarcadas = minasMarcadas;
+        tablero.juegoFinalizado = juegoFinalizado;
+        tablero.victoria = victoria;
+        tablero.minasGeneradas = minasGeneradas;
+        return tablero;
+    }
+
+    public void cerrar() throws IOException {
+        if (celdas instanceof AlmacenMapeado almacen) {
+            sincronizar();
+            almacen.close();
+        }
+    }
+
+    private int indicadores() {
+        return (juegoFinalizado ? INDICADOR_FINALIZADO : 0) | (victoria ? INDICADOR_VICTORIA : 0)
+                | (minasGeneradas ? INDICADOR_GENERADAS : 0);
+    }
+
+    // Antes del primer cambio tras sincronizar, la cabecera proyectada deja de considerarse fiable
+    private void registrarCambio() {
+        if (cabeceraLimpia) {
+            ((AlmacenMapeado) celdas).getCabecera().put(POSICION_INDICADORES, (byte) indicadores());
+            cabeceraLimpia = false;
         }
     }
 
-    private int contarMinasVecinas(int fila, int columna) {
-        int contador = 0;
-        for (int i = Math.max(0, fila-1); i <= Math.min(FILAS-1, fila+1); i++) {
-            for (int j = Math.max(0, columna-1); j <= Math.min(COLUMNAS-1, columna+1); j++) {
-                if (celdas[i][j].tieneMina()) {
-                    contador++;
+    private static AlmacenCeldas crearAlmacen(int filas, int columnas, int totalMinas) {
+        validarDimensiones(filas, columnas, totalMinas);
+        return new AlmacenCopiaEnEscritura(filas * columnas);
+    }
+
+    // También la usa Configuracion, para validar sin crear un tablero
+    static void validarDimensiones(int filas, int columnas, int totalMinas) {
+        if (filas <= 0 || columnas <= 0 || (long) filas * columnas > MAXIMO_CELDAS) {
+            throw new IllegalArgumentException("Dimensiones de tablero inválidas: " + filas + "x" + columnas);
+        }
+        if (totalMinas < 0 || totalMinas > (long) filas * columnas) {
+            throw new IllegalArgumentException("Cantidad de minas inválida: " + totalMinas);
+        }
+    }
+
+    private void generarMinas(int[] excluidas) {
+        GeneradorTablero.colocarMinas(celdas, totalMinas, semilla, excluidas);
+        GeneradorTablero.calcularVecinas(celdas, filas, columnas);
+        minasGeneradas = true;
+
+        // Las marcas puestas antes de generar pueden haber caído sobre minas
+        if (marcasColocadas > 0) {
+            minasMarcadas = 0;
+            for (int indice = 0; indice < celdas.tamanio(); indice++) {
+                int estado = celdas.leer(indice);
+                if ((estado & (EstadoCelda.MINA | EstadoCelda.MARCADA)) == (EstadoCelda.MINA | EstadoCelda.MARCADA)) {
+                    minasMarcadas++;
                 }
             }
         }
-        return contador;
     }
 
     public boolean descubrirCelda(int fila, int columna) throws JuegoFinalizadoException, CoordenadaFueraDeRangoException {
+        ResultadoJugada resultado = intentarDescubrir(fila, columna);
+        lanzarSiError(resultado, fila, columna);
+        return resultado != ResultadoJugada.MINA;
+    }
+
+    /**
+     * Descubre una celda sin lanzar excepciones: el resultado indica qué pasó.
+     * Es el camino rápido para llamadas masivas (bots, simulaciones, repetición del diario).
+     */
+    public ResultadoJugada intentarDescubrir(int fila, int columna) {
         if (juegoFinalizado) {
-            throw new JuegoFinalizadoException();
+            return ResultadoJugada.JUEGO_FINALIZADO;
         }
-
         if (!esCoordenadaValida(fila, columna)) {
-            throw new CoordenadaFueraDeRangoException(fila, columna);
+            return ResultadoJugada.FUERA_DE_RANGO;
         }
 
-        CeldaJuego celda = celdas[fila][columna];
-
-        if (celda.estaDescubierta()) {
-            return true;
+        int indice = fila * columnas + columna;
+        ConjuntoCambios cambios = iniciarCambios();
+        registrarCambio();
+        if (!minasGeneradas) {
+            generarMinas(GeneradorTablero.zonaPrimerClic(filas, columnas, totalMinas, fila, columna));
         }
+        int estado = celdas.leer(indice);
 
-        try {
-            celda.revelar();
-        } catch (CasillaReveladaException e) {
-            return true;
+        if ((estado & EstadoCelda.DESCUBIERTA) != 0) {
+            return ResultadoJugada.YA_DESCUBIERTA;
         }
 
-        if (celda.tieneMina()) {
-            revelarTodasMinas();
+        if ((estado & EstadoCelda.MINA) != 0) {
+            revelarTodasMinas(cambios);
             juegoFinalizado = true;
-            return false;
+            cambios.setTransicion(ConjuntoCambios.Transicion.DERROTA);
+            publicarCambios(cambios);
+            return ResultadoJugada.MINA;
         }
 
-        if (celda.getMinasCercanas() == 0) {
-            expandirZonaSegura(fila, columna);
-        }
+        // Revela la celda y, si no tiene vecinas, toda su zona en una sola pasada
+        MotorExpansion motor = obtenerMotor();
+        ocultasSeguras -= motor.expandir(celdas, filas, columnas, indice);
+        marcasColocadas -= motor.getMarcasRetiradas(); // Marcas erróneas sobre celdas seguras
+        cambios.usarReveladas(motor.getReveladas(), motor.getCantidadReveladas());
 
-        if (verificarVictoria()) {
+        ResultadoJugada resultado = ResultadoJugada.REVELADA;
+        if (ocultasSeguras == 0) {
             juegoFinalizado = true;
             victoria = true;
+            cambios.setTransicion(ConjuntoCambios.Transicion.VICTORIA);
+            resultado = ResultadoJugada.VICTORIA;
         }
 
-        return true;
+        publicarCambios(cambios);
+        return resultado;
     }
 
-    private void expandirZonaSegura(int fila, int columna) {
-        for (int i = Math.max(0, fila-1); i <= Math.min(FILAS-1, fila+1); i++) {
-            for (int j = Math.max(0, columna-1); j <= Math.min(COLUMNAS-1, columna+1); j++) {
-                if (!celdas[i][j].estaDescubierta() && !celdas[i][j].tieneMina()) {
-                    try {
-                        descubrirCelda(i, j);
-                    } catch (Exception e) {
-                        // Ignorar excepciones durante la expansión
-                    }
-                }
-            }
+    // Traduce los códigos de error a las excepciones del flujo de consola
+    private static void lanzarSiError(ResultadoJugada resultado, int fila, int columna)
+            throws JuegoFinalizadoException, CoordenadaFueraDeRangoException {
+        if (resultado == ResultadoJugada.JUEGO_FINALIZADO) {
+            throw new JuegoFinalizadoException();
+        }
+        if (resultado == ResultadoJugada.FUERA_DE_RANGO) {
+            throw new CoordenadaFueraDeRangoException(fila, columna);
         }
     }
 
-    private void revelarTodasMinas() {
-        for (CeldaJuego[] fila : celdas) {
-            for (CeldaJuego celda : fila) {
-                if (celda.tieneMina()) {
-                    try {
-                        celda.revelar();
-                    } catch (CasillaReveladaException e) {
-                        // Ignorar excepciones
-                    }
+    private MotorExpansion obtenerMotor() {
+        if (motorExpansion == null) {
+            motorExpansion = new MotorExpansion();
+        }
+        return motorExpansion;
+    }
+
+    private void revelarTodasMinas(ConjuntoCambios cambios) {
+        for (int indice = 0; indice < celdas.tamanio(); indice++) {
+            int estado = celdas.leer(indice);
+            if ((estado & EstadoCelda.MINA) != 0) {
+                if ((estado & EstadoCelda.MARCADA) != 0) {
+                    marcasColocadas--;
+                    minasMarcadas--;
                 }
+                celdas.escribir(indice, (byte) ((estado | EstadoCelda.DESCUBIERTA) & ~EstadoCelda.MARCADA));
+                cambios.agregarRevelada(indice);
             }
         }
     }
 
-    private boolean verificarVictoria() {
-        for (CeldaJuego[] fila : celdas) {
-            for (CeldaJuego celda : fila) {
-                if (!celda.tieneMina() && !celda.estaDescubierta()) {
-                    return false;
-                }
+    private ConjuntoCambios iniciarCambios() {
+        if (cambios == null) {
+            cambios = new ConjuntoCambios();
+        }
+        cambios.reiniciar();
+        return cambios;
+    }
+
+    private void publicarCambios(ConjuntoCambios cambios) {
+        if (oyentes != null && !cambios.estaVacio()) {
+            for (OyenteCambios oyente : oyentes) {
+                oyente.alCambiar(this, cambios);
             }
         }
-        return true;
+    }
+
+    public void agregarOyente(OyenteCambios oyente) {
+        if (oyentes == null) {
+            oyentes = new ArrayList<>();
+        }
+        oyentes.add(oyente);
+    }
+
+    public void quitarOyente(OyenteCambios oyente) {
+        if (oyentes != null) {
+            oyentes.remove(oyente);
+        }
     }
 
     public void marcarCelda(int fila, int columna) throws JuegoFinalizadoException, CoordenadaFueraDeRangoException {
+        lanzarSiError(intentarMarcar(fila, columna), fila, columna);
+    }
+
+    // Alterna la marca de una celda oculta sin lanzar excepciones
+    public ResultadoJugada intentarMarcar(int fila, int columna) {
         if (juegoFinalizado) {
-            throw new JuegoFinalizadoException();
+            return ResultadoJugada.JUEGO_FINALIZADO;
         }
-
         if (!esCoordenadaValida(fila, columna)) {
-            throw new CoordenadaFueraDeRangoException(fila, columna);
+            return ResultadoJugada.FUERA_DE_RANGO;
         }
 
-        CeldaJuego celda = celdas[fila][columna];
-        boolean estabaMarcada = celda.estaMarcada();
+        int indice = fila * columnas + columna;
+        int estado = celdas.leer(indice);
+        ConjuntoCambios cambios = iniciarCambios();
 
-        celda.alternarMarcado();
+        // Solo las celdas ocultas pueden marcarse
+        if ((estado & EstadoCelda.DESCUBIERTA) != 0) {
+            return ResultadoJugada.NO_MARCABLE;
+        }
+
+        registrarCambio();
+        celdas.escribir(indice, (byte) (estado ^ EstadoCelda.MARCADA));
 
-        // ACTUALIZAR CONTADOR DE MINAS RESTANTES
-        if (!estabaMarcada && celda.estaMarcada()) {
-            minasRestantes--; // Se marcó una celda
-        } else if (estabaMarcada && !celda.estaMarcada()) {
-            minasRestantes++; // Se desmarcó una celda
+        // ACTUALIZAR CONTADORES DE MARCAS
+        int cambio = (estado & EstadoCelda.MARCADA) == 0 ? 1 : -1; // Se marcó o se desmarcó
+        marcasColocadas += cambio;
+        if ((estado & EstadoCelda.MINA) != 0) {
+            minasMarcadas += cambio;
         }
+        cambios.agregarMarca(indice);
+        publicarCambios(cambios);
+        return cambio > 0 ? ResultadoJugada.MARCADA : ResultadoJugada.DESMARCADA;
+    }
+
+    /**
+     * Lleva el tablero de la versión actual (que debe reflejar su estado) a la versión destino.
+     * Solo se escriben las celdas que difieren; se publican como reveladas aunque vuelvan a ocultarse.
+     */
+    void volverA(VersionTablero actual, VersionTablero destino) {
+        ConjuntoCambios cambios = iniciarCambios();
+        registrarCambio();
+        destino.aplicarDiferencias(actual, celdas, cambios);
+        ocultasSeguras = destino.ocultasSeguras;
+        marcasColocadas = destino.marcasColocadas;
+        minasMarcadas = destino.minasMarcadas;
+        juegoFinalizado = destino.juegoFinalizado;
+        victoria = destino.victoria;
+        minasGeneradas = destino.minasGeneradas;
+        publicarCambios(cambios);
+    }
+
+    public boolean esCoordenadaValida(int fila, int columna) {
+        return fila >= 0 && fila < filas && columna >= 0 && columna < columnas;
     }
 
-    private boolean esCoordenadaValida(int fila, int columna) {
-        return fila >= 0 && fila < FILAS && columna >= 0 && columna < COLUMNAS;
+    // Escritura de objetos: las celdas se copian a un arreglo sea cual sea el almacén
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        byte[] estados = new byte[celdas.tamanio()];
+        for (int indice = 0; indice < estados.length; indice++) {
+            estados[indice] = celdas.leer(indice);
+        }
+        ObjectOutputStream.PutField campos = out.putFields();
+        campos.put("filas", filas);
+        campos.put("columnas", columnas);
+        campos.put("totalMinas", totalMinas);
+        campos.put("estados", estados);
+        campos.put("ocultasSeguras", ocultasSeguras);
+        campos.put("marcasColocadas", marcasColocadas);
+        campos.put("minasMarcadas", minasMarcadas);
+        campos.put("juegoFinalizado", juegoFinalizado);
+        campos.put("victoria", victoria);
+        campos.put("semilla", semilla);
+        campos.put("minasGeneradas", minasGeneradas);
+        out.writeFields();
     }
 
-    // Método para reinicializar el generador después de la deserialización
-    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
-        in.defaultReadObject();
-        this.generador = new Random(); // Reinicializar el generador Random
+    // Lectura de objetos: admite tanto el formato empaquetado como el antiguo CeldaJuego[][]
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField campos = in.readFields();
+        this.juegoFinalizado = campos.get("juegoFinalizado", false);
+        this.victoria = campos.get("victoria", false);
+        this.semilla = campos.get("semilla", 0L);
+        this.minasGeneradas = campos.get("minasGeneradas", true);
+        byte[] estados = (byte[]) campos.get("estados", null);
+
+        if (estados != null) {
+            this.celdas = AlmacenCopiaEnEscritura.desde(estados);
+            this.filas = campos.get("filas", 0);
+            this.columnas = campos.get("columnas", 0);
+            this.totalMinas = campos.get("totalMinas", 0);
+            this.ocultasSeguras = campos.get("ocultasSeguras", 0);
+            this.marcasColocadas = campos.get("marcasColocadas", 0);
+            this.minasMarcadas = campos.get("minasMarcadas", 0);
+            if (campos.defaulted("ocultasSeguras")) {
+                recalcularContadores();
+            }
+        } else {
+            migrarCeldasAntiguas((CeldaJuego[][]) campos.get("celdas", null));
+            recalcularContadores();
+        }
     }
 
+    private void migrarCeldasAntiguas(CeldaJuego[][] antiguas) throws IOException {
+        if (antiguas == null || antiguas.length == 0) {
+            throw new IOException("Partida guardada sin celdas");
+        }
+        this.filas = antiguas.length;
+        this.columnas = antiguas[0].length;
+        this.celdas = new AlmacenCopiaEnEscritura(filas * columnas);
+        this.totalMinas = 0;
+        for (int fila = 0; fila < filas; fila++) {
+            for (int columna = 0; columna < columnas; columna++) {
+                CeldaJuego celda = antiguas[fila][columna];
+                celdas.escribir(fila * columnas + columna, (byte) celda.getEstado());
+                if (celda.tieneMina()) {
+                    totalMinas++;
+                }
+            }
+        }
+    }
+
+    // Recorrido completo: al restaurar o migrar partidas que no guardaban los contadores
+    private void recalcularContadores() {
+        ocultasSeguras = 0;
+        marcasColocadas = 0;
+        minasMarcadas = 0;
+        for (int indice = 0; indice < celdas.tamanio(); indice++) {
+            int estado = celdas.leer(indice);
+            boolean mina = (estado & EstadoCelda.MINA) != 0;
+            if (!mina && (estado & EstadoCelda.DESCUBIERTA) == 0) {
+                ocultasSeguras++;
+            }
+            if ((estado & EstadoCelda.MARCADA) != 0) {
+                marcasColocadas++;
+                if (mina) {
+                    minasMarcadas++;
+                }
+            }
+        }
+        // Sin minas generadas todavía ninguna celda las tiene, pero cuentan igual
+        if (!minasGeneradas) {
+            ocultasSeguras -= totalMinas;
+        }
+    }
+
+    // Vista de una celda generada bajo demanda (no modifica el tablero)
+    public CeldaJuego getCelda(int fila, int columna) {
+        return new CeldaJuego(fila, columna, celdas.leer(fila * columnas + columna));
+    }
+
+    // Copia completa como objetos: solo para tableros pequeños
+    public CeldaJuego[][] getCeldas() {
+        CeldaJuego[][] copia = new CeldaJuego[filas][columnas];
+        for (int fila = 0; fila < filas; fila++) {
+            for (int columna = 0; columna < columnas; columna++) {
+                copia[fila][columna] = getCelda(fila, columna);
+            }
+        }
+        return copia;
+    }
+
+    // Cambios de la última jugada; se reutilizan en la siguiente
+    public ConjuntoCambios getUltimosCambios() {
+        return cambios != null ? cambios : iniciarCambios();
+    }
+
+    // Celdas reveladas por la última jugada
+    public int[] getUltimasReveladas() { return getUltimosCambios().getReveladas(); }
+    public int getCantidadUltimasReveladas() { return getUltimosCambios().getCantidadReveladas(); }
+
+    public int getEstado(int fila, int columna) { return celdas.leer(fila * columnas + columna); }
+    public char obtenerSimbolo(int fila, int columna) { return EstadoCelda.simbolo(getEstado(fila, columna)); }
+
     // Getters
-    public CeldaJuego[][] getCeldas() { return celdas; }
     public boolean isJuegoFinalizado() { return juegoFinalizado; }
     public boolean isVictoria() { return victoria; }
-    public int getMinasRestantes() { return minasRestantes; }
-    public static int getFilas() { return FILAS; }
-    public static int getColumnas() { return COLUMNAS; }
-}
\ No newline at end of file
+    public int getMinasRestantes() { return totalMinas - marcasColocadas; }
+    public int getOcultasSeguras() { return ocultasSeguras; }
+    public int getMarcasColocadas() { return marcasColocadas; }
+    public int getMinasMarcadas() { return minasMarcadas; }
+    public int getFilas() { return filas; }
+    public int getColumnas() { return columnas; }
+    public int getTotalMinas() { return totalMinas; }
+    public long getSemilla() { return semilla; }
+    public boolean isMinasGeneradas() { return minasGeneradas; }
+    public boolean isMapeado() { return celdas instanceof AlmacenMapeado; }
+    // Acceso directo a las celdas para persistencia; no debe modificarse desde fuera
+    public AlmacenCeldas getAlmacen() { return celdas; }
+}
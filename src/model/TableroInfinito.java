@@ -0,0 +1,349 @@
+package model;
+
+import exceptions.JuegoFinalizadoException;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tablero "infinito" dividido en fragmentos de LADO x LADO celdas.
+ * Las minas de cada fragmento se generan al tocarlo por primera vez a partir de la semilla global
+ * y de la coordenada del fragmento, así que un fragmento expulsado de memoria puede reconstruirse.
+ * Solo se conserva, de forma compacta, lo que el jugador reveló o marcó en él.
+ */
+public class TableroInfinito {
+    public static final int LADO = 64;
+    public static final int CAPACIDAD_POR_DEFECTO = 256;
+    public static final int MINAS_POR_DEFECTO = LADO * LADO * 15 / 100;
+
+    // Tope de celdas por expansión: en un mundo sin bordes una zona vacía podría no terminar
+    private static final int LIMITE_EXPANSION = 1 << 20;
+    private static final int CELDAS = LADO * LADO;
+
+    private final long semilla;
+    private final int minasPorFragmento;
+    private final int capacidad;
+    private final LinkedHashMap<Long, Fragmento> enMemoria;
+    // Bits de descubierta y marcada de los fragmentos explorados que no están en memoria
+    private final Map<Long, long[]> explorados = new HashMap<>();
+
+    private long[] cola = new long[64];
+    // Celdas reveladas cuya zona quedó sin expandir al llegar al tope; se retoman en la próxima jugada
+    private long[] pendientes = new long[0];
+    private int cantidadPendientes;
+    private long celdasReveladas;
+    private int marcasColocadas;
+    private boolean juegoFinalizado;
+    private long fragmentosGenerados;
+
+    public TableroInfinito(long semilla) {
+        this(semilla, MINAS_POR_DEFECTO, CAPACIDAD_POR_DEFECTO);
+    }
+
+    public TableroInfinito(long semilla, int minasPorFragmento, int capacidad) {
+        if (minasPorFragmento < 0 || minasPorFragmento > CELDAS - 9) {
+            throw new IllegalArgumentException("Cantidad de minas por fragmento inválida: " + minasPorFragmento);
+        }
+        if (capacidad < 9) {
+            throw new IllegalArgumentException("La caché debe admitir al menos 9 fragmentos");
+        }
+        this.semilla = semilla;
+        this.minasPorFragmento = minasPorFragmento;
+        this.capacidad = capacidad;
+        this.enMemoria = new LinkedHashMap<>(capacidad * 2, 0.75f, true);
+    }
+
+    /**
+     * Descubre la celda y expande su zona si no tiene minas vecinas.
+     * Devuelve false si había una mina. Las celdas alrededor del origen (0, 0) nunca tienen minas.
+     * Cada expansión se corta en LIMITE_EXPANSION celdas: lo que falta se sigue en la próxima
+     * jugada, o al volver a descubrir una celda sin vecinas de la zona.
+     */
+    public boolean descubrirCelda(int fila, int columna) throws JuegoFinalizadoException {
+        if (juegoFinalizado) {
+            throw new JuegoFinalizadoException();
+        }
+        Fragmento fragmento = obtenerFragmento(fila, columna);
+        int local = indiceLocal(fila, columna);
+        int estado = fragmento.estados[local];
+
+        if ((estado & EstadoCelda.DESCUBIERTA) != 0) {
+            if ((estado & EstadoCelda.MASCARA_VECINAS) == 0 || cantidadPendientes > 0) {
+                expandir(fila, columna);
+                recortarMemoria();
+            }
+            return true;
+        }
+        if ((estado & EstadoCelda.MINA) != 0) {
+            revelar(fragmento, local);
+            juegoFinalizado = true;
+            recortarMemoria();
+            return false;
+        }
+
+        revelar(fragmento, local);
+        expandir(fila, columna);
+        recortarMemoria();
+        return true;
+    }
+
+    public void marcarCelda(int fila, int columna) throws JuegoFinalizadoException {
+        if (juegoFinalizado) {
+            throw new JuegoFinalizadoException();
+        }
+        Fragmento fragmento = obtenerFragmento(fila, columna);
+        int local = indiceLocal(fila, columna);
+        int estado = fragmento.estados[local];
+        if ((estado & EstadoCelda.DESCUBIERTA) == 0) {
+            fragmento.estados[local] = (byte) (estado ^ EstadoCelda.MARCADA);
+            fragmento.modificado = true;
+            marcasColocadas += (estado & EstadoCelda.MARCADA) == 0 ? 1 : -1;
+        }
+        recortarMemoria();
+    }
+
+    /**
+     * Expansión por cola sobre coordenadas globales empaquetadas en un long, desde una celda ya
+     * revelada y desde lo que quedó pendiente. Al llegar al tope, lo que sigue en la cola (celdas
+     * reveladas sin procesar) pasa a ser la nueva frontera pendiente.
+     */
+    private void expandir(int fila, int columna) {
+        int cantidad = 0;
+        cola[cantidad++] = empaquetar(fila, columna);
+        for (int k = 0; k < cantidadPendientes; k++) {
+            cantidad = encolar(cantidad, pendientes[k]);
+        }
+        cantidadPendientes = 0;
+
+        int actual = 0;
+        for (; actual < cantidad && cantidad < LIMITE_EXPANSION; actual++) {
+            int f = (int) (cola[actual] >> 32);
+            int c = (int) cola[actual];
+            if ((obtenerFragmento(f, c).estados[indiceLocal(f, c)] & EstadoCelda.MASCARA_VECINAS) != 0) {
+                continue;
+            }
+            for (int i = f - 1; i <= f + 1; i++) {
+                for (int j = c - 1; j <= c + 1; j++) {
+                    Fragmento vecino = obtenerFragmento(i, j);
+                    int local = indiceLocal(i, j);
+                    if ((vecino.estados[local] & (EstadoCelda.DESCUBIERTA | EstadoCelda.MINA)) == 0) {
+                        revelar(vecino, local);
+                        cantidad = encolar(cantidad, empaquetar(i, j));
+                    }
+                }
+            }
+        }
+
+        if (actual < cantidad) {
+            cantidadPendientes = cantidad - actual;
+            if (pendientes.length < cantidadPendientes) {
+                pendientes = new long[cantidadPendientes];
+            }
+            System.arraycopy(cola, actual, pendientes, 0, cantidadPendientes);
+        }
+    }
+
+    private int encolar(int cantidad, long celda) {
+        if (cantidad == cola.length) {
+            long[] ampliada = new long[cola.length * 2];
+            System.arraycopy(cola, 0, ampliada, 0, cantidad);
+            cola = ampliada;
+        }
+        cola[cantidad] = celda;
+        return cantidad + 1;
+    }
+
+    private void revelar(Fragmento fragmento, int local) {
+        int estado = fragmento.estados[local];
+        if ((estado & EstadoCelda.MARCADA) != 0) {
+            marcasColocadas--;
+        }
+        fragmento.estados[local] = (byte) ((estado | EstadoCelda.DESCUBIERTA) & ~EstadoCelda.MARCADA);
+        fragmento.modificado = true;
+        celdasReveladas++;
+    }
+
+    /**
+     * Estado empaquetado de una celda. Consultar zonas no exploradas no genera fragmentos:
+     * se informan como ocultas.
+     */
+    public int getEstado(int fila, int columna) {
+        long clave = clave(Math.floorDiv(fila, LADO), Math.floorDiv(columna, LADO));
+        Fragmento fragmento = enMemoria.get(clave);
+        if (fragmento == null) {
+            if (!explorados.containsKey(clave)) {
+                return 0;
+            }
+            fragmento = obtenerFragmento(fila, columna);
+            recortarMemoria();
+        }
+        return fragmento.estados[indiceLocal(fila, columna)];
+    }
+
+    public char obtenerSimbolo(int fila, int columna) {
+        return EstadoCelda.simbolo(getEstado(fila, columna));
+    }
+
+    private Fragmento obtenerFragmento(int fila, int columna) {
+        int fragmentoFila = Math.floorDiv(fila, LADO);
+        int fragmentoColumna = Math.floorDiv(columna, LADO);
+        long clave = clave(fragmentoFila, fragmentoColumna);
+        Fragmento fragmento = enMemoria.get(clave);
+        if (fragmento == null) {
+            fragmento = construirFragmento(fragmentoFila, fragmentoColumna);
+            long[] guardado = explorados.remove(clave);
+            if (guardado != null) {
+                restaurar(fragmento, guardado);
+            }
+            enMemoria.put(clave, fragmento);
+        }
+        return fragmento;
+    }
+
+    /**
+     * Expulsa los fragmentos menos usados. Solo se llama al terminar cada jugada,
+     * para que ningún fragmento que se esté modificando salga de memoria a mitad de la expansión.
+     */
+    private void recortarMemoria() {
+        Iterator<Map.Entry<Long, Fragmento>> iterador = enMemoria.entrySet().iterator();
+        while (enMemoria.size() > capacidad && iterador.hasNext()) {
+            Map.Entry<Long, Fragmento> entrada = iterador.next();
+            if (entrada.getValue().modificado) {
+                explorados.put(entrada.getKey(), compactar(entrada.getValue()));
+            }
+            iterador.remove();
+        }
+    }
+
+    private Fragmento construirFragmento(int fragmentoFila, int fragmentoColumna) {
+        fragmentosGenerados++;
+        Fragmento fragmento = new Fragmento(minasDe(fragmentoFila, fragmentoColumna));
+
+        // Vecinas con un marco de una celda tomado de los ocho fragmentos de alrededor
+        int ancho = LADO + 2;
+        byte[] marco = new byte[ancho * ancho];
+        byte[][] alrededor = new byte[9][];
+        for (int i = -1; i <= LADO; i++) {
+            int df = i < 0 ? -1 : (i >= LADO ? 1 : 0);
+            for (int j = -1; j <= LADO; j++) {
+                int dc = j < 0 ? -1 : (j >= LADO ? 1 : 0);
+                int posicion = (df + 1) * 3 + (dc + 1);
+                if (alrededor[posicion] == null) {
+                    alrededor[posicion] = (df == 0 && dc == 0)
+                            ? fragmento.estados : minasDe(fragmentoFila + df, fragmentoColumna + dc);
+                }
+                if ((alrededor[posicion][Math.floorMod(i, LADO) * LADO + Math.floorMod(j, LADO)] & EstadoCelda.MINA) != 0) {
+                    marco[(i + 1) * ancho + (j + 1)] = 1;
+                }
+            }
+        }
+        for (int i = 0; i < LADO; i++) {
+            for (int j = 0; j < LADO; j++) {
+                int local = i * LADO + j;
+                if (fragmento.estados[local] == 0) {
+                    int vecinas = 0;
+                    for (int a = i; a <= i + 2; a++) {
+                        vecinas += marco[a * ancho + j] + marco[a * ancho + j + 1] + marco[a * ancho + j + 2];
+                    }
+                    fragmento.estados[local] = (byte) vecinas;
+                }
+            }
+        }
+        return fragmento;
+    }
+
+    // Celdas con el bit de mina del fragmento, derivado de la semilla global y de su coordenada
+    private byte[] minasDe(int fragmentoFila, int fragmentoColumna) {
+        Fragmento residente = enMemoria.get(clave(fragmentoFila, fragmentoColumna));
+        if (residente != null) {
+            return residente.estados;
+        }
+        byte[] minas = new byte[CELDAS];
+        GeneradorTablero.colocarMinas(new AlmacenMemoria(minas), minasPorFragmento, semillaDe(fragmentoFila, fragmentoColumna),
+                zonaInicial(fragmentoFila, fragmentoColumna));
+        return minas;
+    }
+
+    // Celdas locales del fragmento que caen en el 3x3 alrededor del origen
+    private static int[] zonaInicial(int fragmentoFila, int fragmentoColumna) {
+        int[] zona = new int[9];
+        int cantidad = 0;
+        for (int fila = -1; fila <= 1; fila++) {
+            for (int columna = -1; columna <= 1; columna++) {
+                if (Math.floorDiv(fila, LADO) == fragmentoFila && Math.floorDiv(columna, LADO) == fragmentoColumna) {
+                    zona[cantidad++] = indiceLocal(fila, columna);
+                }
+            }
+        }
+        return Arrays.copyOf(zona, cantidad);
+    }
+
+    private long semillaDe(int fragmentoFila, int fragmentoColumna) {
+        long h = semilla ^ (clave(fragmentoFila, fragmentoColumna) * 0x9E3779B97F4A7C15L);
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+    // Bits de descubierta (primera mitad) y marcada (segunda mitad)
+    private static long[] compactar(Fragmento fragmento) {
+        long[] bits = new long[CELDAS / 32];
+        for (int k = 0; k < CELDAS; k++) {
+            int estado = fragmento.estados[k];
+            if ((estado & EstadoCelda.DESCUBIERTA) != 0) bits[k >>> 6] |= 1L << k;
+            if ((estado & EstadoCelda.MARCADA) != 0) bits[(CELDAS >>> 6) + (k >>> 6)] |= 1L << k;
+        }
+        return bits;
+    }
+
+    private static void restaurar(Fragmento fragmento, long[] bits) {
+        for (int k = 0; k < CELDAS; k++) {
+            if ((bits[k >>> 6] & (1L << k)) != 0) fragmento.estados[k] |= EstadoCelda.DESCUBIERTA;
+            if ((bits[(CELDAS >>> 6) + (k >>> 6)] & (1L << k)) != 0) fragmento.estados[k] |= EstadoCelda.MARCADA;
+        }
+        fragmento.modificado = true;
+    }
+
+    private static int indiceLocal(int fila, int columna) {
+        return Math.floorMod(fila, LADO) * LADO + Math.floorMod(columna, LADO);
+    }
+
+    private static long clave(int fragmentoFila, int fragmentoColumna) {
+        return ((long) fragmentoFila << 32) | (fragmentoColumna & 0xFFFFFFFFL);
+    }
+
+    private static long empaquetar(int fila, int columna) {
+        return ((long) fila << 32) | (columna & 0xFFFFFFFFL);
+    }
+
+    // Getters
+    public boolean isJuegoFinalizado() { return juegoFinalizado; }
+    public long getSemilla() { return semilla; }
+    public long getCeldasReveladas() { return celdasReveladas; }
+    public int getMarcasColocadas() { return marcasColocadas; }
+    // Celdas reveladas cuya zona falta expandir (0 si la última expansión terminó)
+    public int getExpansionPendiente() { return cantidadPendientes; }
+    public int getFragmentosEnMemoria() { return enMemoria.size(); }
+    public int getFragmentosExplorados() {
+        int explorado = explorados.size();
+        for (Fragmento fragmento : enMemoria.values()) {
+            if (fragmento.modificado) {
+                explorado++;
+            }
+        }
+        return explorado;
+    }
+    public long getFragmentosGenerados() { return fragmentosGenerados; }
+
+    private static final class Fragmento {
+        private final byte[] estados;
+        private boolean modificado;
+
+        Fragmento(byte[] estados) {
+            this.estados = estados;
+        }
+    }
+}
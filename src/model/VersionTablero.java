@@ -0,0 +1,192 @@
+package model;
+
+/**
+ * Estado inmutable de un tablero en un momento de la partida: las celdas en un árbol persistente
+ * de hojas de 64 celdas y nodos de 32 hijos, más los contadores del tablero.
+ *
+ * Una versión nueva copia solo las hojas que cambiaron y el camino hasta la raíz; el resto lo
+ * comparte con la anterior, así que cada jugada cuesta memoria proporcional a las celdas que cambia.
+ * Dos versiones se comparan recorriendo solo los subárboles que no comparten.
+ */
+public final class VersionTablero {
+    private static final int BITS_HOJA = 6;
+    private static final int TAMANIO_HOJA = 1 << BITS_HOJA;
+    private static final int BITS_NODO = 5;
+    private static final int TAMANIO_NODO = 1 << BITS_NODO;
+    // Estimación de lo que ocupa cada nodo nuevo (cabeceras incluidas)
+    private static final int BYTES_HOJA = 16 + 16 + TAMANIO_HOJA;
+    private static final int BYTES_NODO = 16 + 16 + 4 * TAMANIO_NODO;
+
+    /**
+     * Nodo del árbol: interno (hijos) u hoja (celdas). Solo lo modifica la edición que lo creó,
+     * mientras construye su versión; después es inmutable y se comparte.
+     */
+    private static final class Nodo {
+        final Object edicion;
+        final Nodo[] hijos;
+        final byte[] celdas;
+
+        Nodo(Object edicion, Nodo[] hijos, byte[] celdas) {
+            this.edicion = edicion;
+            this.hijos = hijos;
+            this.celdas = celdas;
+        }
+    }
+
+    private final int tamanio;
+    // Desplazamiento del índice en la raíz: BITS_HOJA en un árbol de un solo nivel de nodos
+    private final int desplazamiento;
+    private final Nodo raiz;
+    private final long bytesNuevos;
+
+    final int ocultasSeguras;
+    final int marcasColocadas;
+    final int minasMarcadas;
+    final boolean juegoFinalizado;
+    final boolean victoria;
+    final boolean minasGeneradas;
+
+    private VersionTablero(int tamanio, int desplazamiento, Nodo raiz, long bytesNuevos, TableroBuscaminas tablero) {
+        this.tamanio = tamanio;
+        this.desplazamiento = desplazamiento;
+        this.raiz = raiz;
+        this.bytesNuevos = bytesNuevos;
+        this.ocultasSeguras = tablero.getOcultasSeguras();
+        this.marcasColocadas = tablero.getMarcasColocadas();
+        this.minasMarcadas = tablero.getMinasMarcadas();
+        this.juegoFinalizado = tablero.isJuegoFinalizado();
+        this.victoria = tablero.isVictoria();
+        this.minasGeneradas = tablero.isMinasGeneradas();
+    }
+
+    // Versión completa del tablero actual: recorre todas las celdas una vez
+    public static VersionTablero de(TableroBuscaminas tablero) {
+        AlmacenCeldas celdas = tablero.getAlmacen();
+        int tamanio = celdas.tamanio();
+        int hojas = Math.max(1, (tamanio + TAMANIO_HOJA - 1) >>> BITS_HOJA);
+        int desplazamiento = BITS_HOJA;
+        while ((long) hojas > 1L << (desplazamiento - BITS_HOJA + BITS_NODO)) {
+            desplazamiento += BITS_NODO;
+        }
+        Object edicion = new Object();
+        long[] bytes = new long[1];
+        Nodo raiz = construir(celdas, 0, desplazamiento, edicion, bytes);
+        return new VersionTablero(tamanio, desplazamiento, raiz, bytes[0], tablero);
+    }
+
+    private static Nodo construir(AlmacenCeldas celdas, int inicio, int desplazamiento, Object edicion, long[] bytes) {
+        if (desplazamiento < BITS_HOJA) {
+            byte[] hoja = new byte[TAMANIO_HOJA];
+            celdas.leerBloque(inicio, hoja, Math.min(TAMANIO_HOJA, celdas.tamanio() - inicio));
+            bytes[0] += BYTES_HOJA;
+            return new Nodo(edicion, null, hoja);
+        }
+        Nodo[] hijos = new Nodo[TAMANIO_NODO];
+        int paso = 1 << desplazamiento;
+        for (int i = 0; i < TAMANIO_NODO && inicio + (long) i * paso < celdas.tamanio(); i++) {
+            hijos[i] = construir(celdas, inicio + i * paso, desplazamiento - nivelInferior(desplazamiento), edicion, bytes);
+        }
+        bytes[0] += BYTES_NODO;
+        return new Nodo(edicion, hijos, null);
+    }
+
+    // Del último nivel de nodos se baja a las hojas; de los demás, al nivel de nodos siguiente
+    private static int nivelInferior(int desplazamiento) {
+        return desplazamiento == BITS_HOJA ? BITS_HOJA : BITS_NODO;
+    }
+
+    /**
+     * Versión siguiente tras una jugada: copia el camino de cada celda de los cambios (una sola vez
+     * por nodo) y lee su estado nuevo del tablero. Los contadores se toman del tablero.
+     */
+    public VersionTablero conCambios(TableroBuscaminas tablero, ConjuntoCambios cambios) {
+        AlmacenCeldas celdas = tablero.getAlmacen();
+        Object edicion = new Object();
+        long[] bytes = new long[1];
+        Nodo nueva = raiz;
+        int[] reveladas = cambios.getReveladas();
+        for (int k = 0; k < cambios.getCantidadReveladas(); k++) {
+            nueva = escribir(nueva, desplazamiento, reveladas[k], celdas.leer(reveladas[k]), edicion, bytes);
+        }
+        int[] marcas = cambios.getMarcas();
+        for (int k = 0; k < cambios.getCantidadMarcas(); k++) {
+            nueva = escribir(nueva, desplazamiento, marcas[k], celdas.leer(marcas[k]), edicion, bytes);
+        }
+        return new VersionTablero(tamanio, desplazamiento, nueva, bytes[0], tablero);
+    }
+
+    private static Nodo escribir(Nodo nodo, int desplazamiento, int indice, byte estado, Object edicion, long[] bytes) {
+        if (nodo.celdas != null) {
+            if (nodo.celdas[indice & (TAMANIO_HOJA - 1)] == estado) {
+                return nodo;
+            }
+            Nodo hoja = nodo;
+            if (nodo.edicion != edicion) {
+                hoja = new Nodo(edicion, null, nodo.celdas.clone());
+                bytes[0] += BYTES_HOJA;
+            }
+            hoja.celdas[indice & (TAMANIO_HOJA - 1)] = estado;
+            return hoja;
+        }
+        int posicion = (indice >>> desplazamiento) & (TAMANIO_NODO - 1);
+        Nodo hijo = nodo.hijos[posicion];
+        Nodo nuevoHijo = escribir(hijo, desplazamiento - nivelInferior(desplazamiento), indice, estado, edicion, bytes);
+        if (nuevoHijo == hijo) {
+            return nodo;
+        }
+        Nodo copia = nodo;
+        if (nodo.edicion != edicion) {
+            copia = new Nodo(edicion, nodo.hijos.clone(), null);
+            bytes[0] += BYTES_NODO;
+        }
+        copia.hijos[posicion] = nuevoHijo;
+        return copia;
+    }
+
+    public byte leer(int indice) {
+        Nodo nodo = raiz;
+        int desplazamiento = this.desplazamiento;
+        while (nodo.celdas == null) {
+            nodo = nodo.hijos[(indice >>> desplazamiento) & (TAMANIO_NODO - 1)];
+            desplazamiento -= nivelInferior(desplazamiento);
+        }
+        return nodo.celdas[indice & (TAMANIO_HOJA - 1)];
+    }
+
+    /**
+     * Escribe en el almacén las celdas de esta versión que difieren de la versión desde (el estado
+     * actual del almacén) y las agrega a los cambios. Solo visita los subárboles no compartidos.
+     */
+    void aplicarDiferencias(VersionTablero desde, AlmacenCeldas destino, ConjuntoCambios cambios) {
+        if (desde.tamanio != tamanio || desde.desplazamiento != desplazamiento) {
+            throw new IllegalArgumentException("Las versiones son de tableros distintos");
+        }
+        aplicar(desde.raiz, raiz, desplazamiento, 0, destino, cambios);
+    }
+
+    private void aplicar(Nodo anterior, Nodo nuevo, int desplazamiento, int inicio, AlmacenCeldas destino,
+                         ConjuntoCambios cambios) {
+        if (anterior == nuevo) {
+            return;
+        }
+        if (nuevo.celdas != null) {
+            int largo = Math.min(TAMANIO_HOJA, tamanio - inicio);
+            for (int k = 0; k < largo; k++) {
+                if (anterior.celdas[k] != nuevo.celdas[k]) {
+                    destino.escribir(inicio + k, nuevo.celdas[k]);
+                    cambios.agregarRevelada(inicio + k);
+                }
+            }
+            return;
+        }
+        int paso = 1 << desplazamiento;
+        for (int i = 0; i < TAMANIO_NODO && nuevo.hijos[i] != null; i++) {
+            aplicar(anterior.hijos[i], nuevo.hijos[i], desplazamiento - nivelInferior(desplazamiento),
+                    inicio + i * paso, destino, cambios);
+        }
+    }
+
+    public int tamanio() { return tamanio; }
+    // Memoria estimada de los nodos que creó esta versión (los demás los comparte)
+    public long getBytesNuevos() { return bytesNuevos; }
+}
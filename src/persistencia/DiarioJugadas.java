@@ -0,0 +1,191 @@
+package persistencia;
+
+import model.ResultadoJugada;
+import model.TableroBuscaminas;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+/**
+ * Diario de jugadas de solo anexado para guardado automático y recuperación tras una caída.
+ *
+ * El archivo empieza con una instantánea de la partida (FormatoPartida, que incluye la semilla)
+ * y sigue con una jugada por registro: tipo (1 byte) + índice de celda en varint.
+ * Cada jugada cuesta unos pocos bytes; cada INTERVALO_COMPACTACION jugadas el diario se reescribe
+ * con una instantánea nueva (archivo temporal + renombrado atómico) y vuelve a quedar vacío.
+ * Al recuperar se carga la instantánea y se repiten las jugadas posteriores.
+ */
+public final class DiarioJugadas implements Closeable {
+    public static final byte DESCUBRIR = 1;
+    public static final byte MARCAR = 2;
+    public static final int INTERVALO_COMPACTACION = 256;
+
+    private static final int MAGICO = 0x42444941; // "BDIA"
+    private static final short VERSION = 1;
+    private static final int TAMANIO_CABECERA = 4 + 2 + 4;
+
+    private final Path ruta;
+    private FileChannel canal;
+    private int columnas;
+    private int jugadasDesdeInstantanea;
+    private final ByteBuffer registro = ByteBuffer.allocateDirect(1 + 5);
+
+    // Partida recuperada del diario y el diario listo para seguir anotando
+    public record Recuperacion(DiarioJugadas diario, FormatoPartida.Partida partida, int jugadasRepetidas) {
+    }
+
+    private DiarioJugadas(Path ruta, FileChannel canal, int columnas, int jugadasDesdeInstantanea) {
+        this.ruta = ruta;
+        this.canal = canal;
+        this.columnas = columnas;
+        this.jugadasDesdeInstantanea = jugadasDesdeInstantanea;
+    }
+
+    // Empieza un diario nuevo a partir del estado actual del tablero
+    public static DiarioJugadas crear(Path ruta, TableroBuscaminas tablero, Instant inicioPartida) throws IOException {
+        escribirInstantanea(ruta, tablero, inicioPartida);
+        FileChannel canal = FileChannel.open(ruta, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return new DiarioJugadas(ruta, canal, tablero.getColumnas(), 0);
+    }
+
+    /**
+     * Carga la instantánea y repite las jugadas anotadas después. Un último registro incompleto
+     * (caída a mitad de escritura) se descarta y se recorta del archivo.
+     */
+    public static Recuperacion recuperar(Path ruta) throws IOException {
+        FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer contenido = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            if (contenido.remaining() < TAMANIO_CABECERA || contenido.getInt() != MAGICO) {
+                throw new IOException("No es un diario de jugadas");
+            }
+            short version = contenido.getShort();
+            if (version != VERSION) {
+                throw new IOException("Versión de diario no soportada: " + version);
+            }
+            int largoInstantanea = contenido.getInt();
+            if (largoInstantanea < 0 || largoInstantanea > contenido.remaining()) {
+                throw new IOException("Instantánea del diario incompleta");
+            }
+            ByteBuffer instantanea = contenido.slice(contenido.position(), largoInstantanea);
+            FormatoPartida.Partida partida = FormatoPartida.leer(instantanea);
+            contenido.position(contenido.position() + largoInstantanea);
+
+            TableroBuscaminas tablero = partida.tablero();
+            int repetidas = 0;
+            int finValido = contenido.position();
+            while (contenido.hasRemaining()) {
+                byte tipo = contenido.get();
+                int indice = leerVarint(contenido);
+                if (indice < 0 || (tipo != DESCUBRIR && tipo != MARCAR)) {
+                    break; // Registro incompleto o dañado: fin del diario válido
+                }
+                aplicar(tablero, tipo, indice);
+                repetidas++;
+                finValido = contenido.position();
+            }
+            if (finValido < canal.size()) {
+                canal.truncate(finValido);
+            }
+            canal.position(finValido);
+            DiarioJugadas diario = new DiarioJugadas(ruta, canal, tablero.getColumnas(), repetidas);
+            return new Recuperacion(diario, partida, repetidas);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    private static void aplicar(TableroBuscaminas tablero, byte tipo, int indice) throws IOException {
+        int fila = indice / tablero.getColumnas();
+        int columna = indice % tablero.getColumnas();
+        ResultadoJugada resultado = tipo == DESCUBRIR
+                ? tablero.intentarDescubrir(fila, columna)
+                : tablero.intentarMarcar(fila, columna);
+        if (resultado.esError()) {
+            throw new IOException("Diario inconsistente con la partida: " + resultado + " en " + fila + "," + columna);
+        }
+    }
+
+    // Anota una jugada ya aplicada al tablero
+    public void registrar(byte tipo, int fila, int columna) throws IOException {
+        int indice = fila * columnas + columna;
+        registro.clear();
+        registro.put(tipo);
+        while ((indice & ~0x7F) != 0) {
+            registro.put((byte) ((indice & 0x7F) | 0x80));
+            indice >>>= 7;
+        }
+        registro.put((byte) indice);
+        registro.flip();
+        while (registro.hasRemaining()) {
+            canal.write(registro);
+        }
+        jugadasDesdeInstantanea++;
+    }
+
+    public boolean necesitaCompactar() {
+        return jugadasDesdeInstantanea >= INTERVALO_COMPACTACION;
+    }
+
+    // Sustituye el diario por una instantánea del estado actual sin jugadas pendientes
+    public void compactar(TableroBuscaminas tablero, Instant inicioPartida) throws IOException {
+        canal.close();
+        escribirInstantanea(ruta, tablero, inicioPartida);
+        canal = FileChannel.open(ruta, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        columnas = tablero.getColumnas();
+        jugadasDesdeInstantanea = 0;
+    }
+
+    private static void escribirInstantanea(Path ruta, TableroBuscaminas tablero, Instant inicioPartida) throws IOException {
+        Path temporal = ruta.resolveSibling(ruta.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer cabecera = ByteBuffer.allocate(TAMANIO_CABECERA);
+            cabecera.putInt(MAGICO).putShort(VERSION).putInt(0).flip();
+            canal.write(cabecera);
+            FormatoPartida.escribir(canal, tablero, inicioPartida);
+
+            // Largo real de la instantánea, escrito en su hueco de la cabecera
+            ByteBuffer largo = ByteBuffer.allocate(4);
+            largo.putInt((int) (canal.size() - TAMANIO_CABECERA)).flip();
+            canal.write(largo, TAMANIO_CABECERA - 4);
+            canal.force(true);
+        }
+        Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Devuelve -1 si el varint está cortado
+    private static int leerVarint(ByteBuffer contenido) {
+        int valor = 0;
+        for (int desplazamiento = 0; desplazamiento < 35; desplazamiento += 7) {
+            if (!contenido.hasRemaining()) {
+                return -1;
+            }
+            int b = contenido.get();
+            valor |= (b & 0x7F) << desplazamiento;
+            if ((b & 0x80) == 0) {
+                return valor;
+            }
+        }
+        return -1;
+    }
+
+    public int getJugadasDesdeInstantanea() { return jugadasDesdeInstantanea; }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    public static void borrar(Path ruta) throws IOException {
+        Files.deleteIfExists(ruta);
+    }
+}
@@ -0,0 +1,327 @@
+package persistencia;
+
+import model.AlmacenCeldas;
+import model.AlmacenCopiaEnEscritura;
+import model.EstadoCelda;
+import model.GeneradorTablero;
+import model.TableroBuscaminas;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Formato binario compacto y versionado para las partidas guardadas.
+ *
+ * Cabecera: mágico "BUSC", versión, indicadores, dimensiones, minas, semilla e inicio de partida.
+ * Después tres planos de un bit por celda (minas, descubiertas, marcadas); cada uno se guarda como
+ * mapa de bits o como longitudes de racha en varint, lo que ocupe menos. Las minas vecinas no se
+ * guardan: se recalculan al leer. Al final va un CRC32 de todo el contenido.
+ */
+public final class FormatoPartida {
+    public static final int MAGICO = 0x42555343; // "BUSC"
+    public static final short VERSION = 1;
+
+    private static final byte PLANO_MAPA_BITS = 0;
+    private static final byte PLANO_RACHAS = 1;
+    private static final int[] PLANOS = {EstadoCelda.MINA, EstadoCelda.DESCUBIERTA, EstadoCelda.MARCADA};
+    private static final int INDICADOR_FINALIZADO = 1, INDICADOR_VICTORIA = 2, INDICADOR_GENERADAS = 4;
+    private static final long SIN_INICIO = Long.MIN_VALUE;
+    private static final int TAMANIO_BLOQUE = 1 << 16;
+
+    public record Partida(TableroBuscaminas tablero, Instant inicioPartida) {
+    }
+
+    private FormatoPartida() {
+    }
+
+    public static void guardar(Path ruta, TableroBuscaminas tablero, Instant inicioPartida) throws IOException {
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            escribir(canal, tablero, inicioPartida);
+        }
+    }
+
+    public static Partida cargar(Path ruta) throws IOException {
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            ByteBuffer contenido = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            return leer(contenido);
+        }
+    }
+
+    // Distingue este formato del antiguo partida.dat de ObjectOutputStream
+    public static boolean esFormatoBinario(Path ruta) throws IOException {
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            ByteBuffer magico = ByteBuffer.allocate(4);
+            while (magico.hasRemaining() && canal.read(magico) >= 0) {
+                // Leer los cuatro primeros bytes
+            }
+            return !magico.hasRemaining() && magico.getInt(0) == MAGICO;
+        }
+    }
+
+    public static void escribir(WritableByteChannel canal, TableroBuscaminas tablero, Instant inicioPartida) throws IOException {
+        SalidaCanal salida = new SalidaCanal(canal);
+        salida.putInt(MAGICO);
+        salida.putShort(VERSION);
+        salida.put((byte) ((tablero.isJuegoFinalizado() ? INDICADOR_FINALIZADO : 0)
+                | (tablero.isVictoria() ? INDICADOR_VICTORIA : 0)
+                | (tablero.isMinasGeneradas() ? INDICADOR_GENERADAS : 0)));
+        salida.putInt(tablero.getFilas());
+        salida.putInt(tablero.getColumnas());
+        salida.putInt(tablero.getTotalMinas());
+        salida.putLong(tablero.getSemilla());
+        salida.putLong(inicioPartida != null ? inicioPartida.toEpochMilli() : SIN_INICIO);
+
+        escribirPlanos(salida, tablero.getAlmacen());
+        salida.terminar();
+    }
+
+    public static Partida leer(ByteBuffer contenido) throws IOException {
+        if (contenido.remaining() < 4 + 2 + 1 + 4 * 3 + 8 * 2 + 4 || contenido.getInt(contenido.position()) != MAGICO) {
+            throw new IOException("No es una partida en formato binario");
+        }
+        verificarSuma(contenido);
+
+        contenido.getInt(); // mágico
+        short version = contenido.getShort();
+        if (version != VERSION) {
+            throw new IOException("Versión de partida no soportada: " + version);
+        }
+        int indicadores = contenido.get();
+        int filas = contenido.getInt();
+        int columnas = contenido.getInt();
+        int totalMinas = contenido.getInt();
+        long semilla = contenido.getLong();
+        long inicio = contenido.getLong();
+        if (filas <= 0 || columnas <= 0 || (long) filas * columnas > Integer.MAX_VALUE - 8) {
+            throw new IOException("Dimensiones inválidas en la partida: " + filas + "x" + columnas);
+        }
+
+        byte[] estados = new byte[filas * columnas];
+        for (int mascara : PLANOS) {
+            leerPlano(contenido, estados, mascara);
+        }
+        AlmacenCopiaEnEscritura celdas = AlmacenCopiaEnEscritura.desde(estados);
+        GeneradorTablero.calcularVecinas(celdas, filas, columnas);
+
+        TableroBuscaminas tablero = TableroBuscaminas.restaurar(celdas, filas, columnas, totalMinas, semilla,
+                (indicadores & INDICADOR_GENERADAS) != 0,
+                (indicadores & INDICADOR_FINALIZADO) != 0,
+                (indicadores & INDICADOR_VICTORIA) != 0);
+        return new Partida(tablero, inicio == SIN_INICIO ? null : Instant.ofEpochMilli(inicio));
+    }
+
+    private static void verificarSuma(ByteBuffer contenido) throws IOException {
+        int fin = contenido.limit() - 4;
+        CRC32 suma = new CRC32();
+        ByteBuffer datos = contenido.duplicate();
+        datos.limit(fin);
+        suma.update(datos);
+        if ((int) suma.getValue() != contenido.getInt(fin)) {
+            throw new IOException("Partida dañada: la suma de verificación no coincide");
+        }
+    }
+
+    /**
+     * Cada plano se codifica como mapa de bits o como rachas alternas (empezando por ceros),
+     * lo que ocupe menos. Una primera pasada mide las rachas de los tres planos a la vez.
+     * Las celdas se copian por bloques para no recorrer el almacén celda a celda.
+     */
+    private static void escribirPlanos(SalidaCanal salida, AlmacenCeldas celdas) throws IOException {
+        int total = celdas.tamanio();
+        byte[] bloque = new byte[Math.min(total, TAMANIO_BLOQUE)];
+        long[] bytesRachas = new long[PLANOS.length];
+        int[] rachas = new int[PLANOS.length];
+        int[] anteriores = new int[PLANOS.length];
+        for (int desde = 0; desde < total; desde += bloque.length) {
+            int largo = Math.min(bloque.length, total - desde);
+            celdas.leerBloque(desde, bloque, largo);
+            for (int k = 0; k < largo; k++) {
+                int estado = bloque[k];
+                for (int p = 0; p < PLANOS.length; p++) {
+                    int bit = estado & PLANOS[p];
+                    if (bit != anteriores[p]) {
+                        bytesRachas[p] += largoVarint(rachas[p]);
+                        anteriores[p] = bit;
+                        rachas[p] = 0;
+                    }
+                    rachas[p]++;
+                }
+            }
+        }
+
+        long bytesMapa = (total + 7L) / 8;
+        for (int p = 0; p < PLANOS.length; p++) {
+            bytesRachas[p] += largoVarint(rachas[p]);
+            if (bytesRachas[p] < bytesMapa) {
+                escribirRachas(salida, celdas, bloque, PLANOS[p]);
+            } else {
+                escribirMapaBits(salida, celdas, bloque, PLANOS[p]);
+            }
+        }
+    }
+
+    private static void escribirRachas(SalidaCanal salida, AlmacenCeldas celdas, byte[] bloque, int mascara) throws IOException {
+        salida.put(PLANO_RACHAS);
+        int total = celdas.tamanio();
+        int anterior = 0;
+        int racha = 0;
+        for (int desde = 0; desde < total; desde += bloque.length) {
+            int largo = Math.min(bloque.length, total - desde);
+            celdas.leerBloque(desde, bloque, largo);
+            for (int k = 0; k < largo; k++) {
+                int bit = bloque[k] & mascara;
+                if (bit != anterior) {
+                    salida.putVarint(racha);
+                    anterior = bit;
+                    racha = 0;
+                }
+                racha++;
+            }
+        }
+        salida.putVarint(racha);
+    }
+
+    private static void escribirMapaBits(SalidaCanal salida, AlmacenCeldas celdas, byte[] bloque, int mascara) throws IOException {
+        salida.put(PLANO_MAPA_BITS);
+        int total = celdas.tamanio();
+        byte[] bits = new byte[(bloque.length + 7) / 8];
+        for (int desde = 0; desde < total; desde += bloque.length) {
+            int largo = Math.min(bloque.length, total - desde);
+            celdas.leerBloque(desde, bloque, largo);
+            Arrays.fill(bits, (byte) 0);
+            for (int k = 0; k < largo; k++) {
+                if ((bloque[k] & mascara) != 0) {
+                    bits[k >>> 3] |= (byte) (1 << (k & 7));
+                }
+            }
+            salida.put(bits, (largo + 7) / 8);
+        }
+    }
+
+    private static void leerPlano(ByteBuffer contenido, byte[] estados, int mascara) throws IOException {
+        int total = estados.length;
+        byte codificacion = contenido.get();
+        if (codificacion == PLANO_RACHAS) {
+            int indice = 0;
+            boolean bit = false;
+            while (indice < total) {
+                int racha = leerVarint(contenido);
+                if (racha < 0 || racha > total - indice) {
+                    throw new IOException("Racha fuera del tablero");
+                }
+                if (bit) {
+                    for (int k = indice; k < indice + racha; k++) {
+                        estados[k] |= (byte) mascara;
+                    }
+                }
+                indice += racha;
+                bit = !bit;
+            }
+        } else if (codificacion == PLANO_MAPA_BITS) {
+            byte[] bits = new byte[(total + 7) / 8];
+            contenido.get(bits);
+            for (int k = 0; k < total; k++) {
+                if ((bits[k >>> 3] & (1 << (k & 7))) != 0) {
+                    estados[k] |= (byte) mascara;
+                }
+            }
+        } else {
+            throw new IOException("Codificación de plano desconocida: " + codificacion);
+        }
+    }
+
+    private static int largoVarint(int valor) {
+        int largo = 1;
+        while ((valor >>>= 7) != 0) {
+            largo++;
+        }
+        return largo;
+    }
+
+    private static int leerVarint(ByteBuffer contenido) throws IOException {
+        int valor = 0;
+        for (int desplazamiento = 0; desplazamiento < 35; desplazamiento += 7) {
+            int b = contenido.get();
+            valor |= (b & 0x7F) << desplazamiento;
+            if ((b & 0x80) == 0) {
+                return valor;
+            }
+        }
+        throw new IOException("Varint demasiado largo");
+    }
+
+    /**
+     * Escritura en bloques sobre un canal con un único búfer directo,
+     * calculando el CRC32 de todo lo escrito.
+     */
+    private static final class SalidaCanal {
+        private static final int TAMANIO_BUFER = 1 << 16;
+
+        private final WritableByteChannel canal;
+        private final ByteBuffer bufer = ByteBuffer.allocateDirect(TAMANIO_BUFER);
+        private final CRC32 suma = new CRC32();
+
+        SalidaCanal(WritableByteChannel canal) {
+            this.canal = canal;
+        }
+
+        void put(byte valor) throws IOException { reservar(1); bufer.put(valor); }
+        void putShort(short valor) throws IOException { reservar(2); bufer.putShort(valor); }
+        void putInt(int valor) throws IOException { reservar(4); bufer.putInt(valor); }
+        void putLong(long valor) throws IOException { reservar(8); bufer.putLong(valor); }
+
+        void put(byte[] datos, int largo) throws IOException {
+            for (int desde = 0; desde < largo; ) {
+                if (!bufer.hasRemaining()) {
+                    vaciar();
+                }
+                int parte = Math.min(largo - desde, bufer.remaining());
+                bufer.put(datos, desde, parte);
+                desde += parte;
+            }
+        }
+
+        void putVarint(int valor) throws IOException {
+            reservar(5);
+            while ((valor & ~0x7F) != 0) {
+                bufer.put((byte) ((valor & 0x7F) | 0x80));
+                valor >>>= 7;
+            }
+            bufer.put((byte) valor);
+        }
+
+        // Escribe la suma de verificación y vacía el búfer
+        void terminar() throws IOException {
+            vaciar();
+            bufer.putInt((int) suma.getValue());
+            bufer.flip();
+            while (bufer.hasRemaining()) {
+                canal.write(bufer);
+            }
+            bufer.clear();
+        }
+
+        private void reservar(int bytes) throws IOException {
+            if (bufer.remaining() < bytes) {
+                vaciar();
+            }
+        }
+
+        private void vaciar() throws IOException {
+            bufer.flip();
+            suma.update(bufer.duplicate());
+            while (bufer.hasRemaining()) {
+                canal.write(bufer);
+            }
+            bufer.clear();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package persistencia;
+
+import model.TableroBuscaminas;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Guardado en segundo plano para no detener el bucle del juego.
+ *
+ * Quien guarda entrega una escritura sobre datos que ya no cambian (p. ej. una instantánea del tablero)
+ * y sigue jugando. Un único hilo escritor la vuelca a un archivo temporal, hace fsync y lo renombra
+ * atómicamente sobre el destino. Si llegan varios guardados del mismo archivo antes de que se escriba,
+ * solo se escribe el último, así que las ráfagas cuestan un único fsync. Los resultados se recogen
+ * con recogerResultados() desde el hilo del juego.
+ */
+public final class ServicioGuardado implements Closeable {
+
+    // Escribe el contenido completo del archivo; se ejecuta en el hilo escritor
+    @FunctionalInterface
+    public interface Escritura {
+        void escribir(WritableByteChannel canal) throws IOException;
+    }
+
+    public record Resultado(Path ruta, IOException error) {
+        public boolean exitoso() { return error == null; }
+    }
+
+    // Un guardado pendiente por archivo: uno nuevo reemplaza al anterior
+    private final Map<Path, Escritura> pendientes = new LinkedHashMap<>();
+    private final Queue<Resultado> resultados = new ConcurrentLinkedQueue<>();
+    private final Thread escritor;
+    private boolean escribiendo;
+    private boolean cerrado;
+
+    public ServicioGuardado() {
+        escritor = new Thread(this::escribirPendientes, "guardado-partidas");
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    public synchronized void guardar(Path ruta, Escritura escritura) {
+        if (cerrado) {
+            throw new IllegalStateException("El servicio de guardado está cerrado");
+        }
+        pendientes.put(ruta, escritura);
+        notifyAll();
+    }
+
+    // Toma una instantánea (copia en escritura) y la guarda en segundo plano
+    public void guardarPartida(Path ruta, TableroBuscaminas tablero, Instant inicioPartida) {
+        TableroBuscaminas instantanea = tablero.instantanea();
+        guardar(ruta, canal -> FormatoPartida.escribir(canal, instantanea, inicioPartida));
+    }
+
+    public void guardarBytes(Path ruta, byte[] contenido) {
+        guardar(ruta, canal -> {
+            ByteBuffer datos = ByteBuffer.wrap(contenido);
+            while (datos.hasRemaining()) {
+                canal.write(datos);
+            }
+        });
+    }
+
+    // Resultados terminados desde la última llamada
+    public List<Resultado> recogerResultados() {
+        List<Resultado> terminados = new ArrayList<>();
+        Resultado resultado;
+        while ((resultado = resultados.poll()) != null) {
+            terminados.add(resultado);
+        }
+        return terminados;
+    }
+
+    // Bloquea hasta que no quede nada pendiente
+    public synchronized void esperar() throws InterruptedException {
+        while (!pendientes.isEmpty() || escribiendo) {
+            wait();
+        }
+    }
+
+    private void escribirPendientes() {
+        while (true) {
+            Map<Path, Escritura> lote;
+            synchronized (this) {
+                while (pendientes.isEmpty() && !cerrado) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pendientes.isEmpty()) {
+                    return;
+                }
+                lote = new LinkedHashMap<>(pendientes);
+                pendientes.clear();
+                escribiendo = true;
+            }
+            for (Map.Entry<Path, Escritura> guardado : lote.entrySet()) {
+                resultados.add(escribirAtomico(guardado.getKey(), guardado.getValue()));
+            }
+            synchronized (this) {
+                escribiendo = false;
+                notifyAll();
+            }
+        }
+    }
+
+    private static Resultado escribirAtomico(Path ruta, Escritura escritura) {
+        Path temporal = ruta.resolveSibling(ruta.getFileName() + ".tmp");
+        try {
+            try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                escritura.escribir(canal);
+                canal.force(true);
+            }
+            Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return new Resultado(ruta, null);
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(temporal);
+            } catch (IOException ignorada) {
+                // El temporal se sobrescribe en el próximo intento
+            }
+            return new Resultado(ruta, e);
+        } catch (RuntimeException e) {
+            return new Resultado(ruta, new IOException(e));
+        }
+    }
+
+    // Termina los guardados pendientes y detiene el hilo escritor
+    @Override
+    public void close() {
+        synchronized (this) {
+            cerrado = true;
+            notifyAll();
+        }
+        boolean interrumpido = false;
+        while (escritor.isAlive()) {
+            try {
+                escritor.join();
+            } catch (InterruptedException e) {
+                interrumpido = true;
+            }
+        }
+        if (interrumpido) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package resolucion;
+
+/**
+ * Componente independiente de la frontera: variables (celdas ocultas junto a números) unidas por
+ * restricciones que comparten. Cuenta exactamente sus configuraciones según el número de minas.
+ *
+ * Las variables se recorren en orden BFS y el estado entre dos variables son las minas que faltan
+ * en cada restricción "abierta" (con variables a ambos lados), 4 bits por restricción en un long.
+ * La pasada hacia adelante guarda cuántas formas hay de llegar a cada estado; la pasada hacia atrás
+ * memoriza cuántas formas hay de completarlo, y con ambas se obtiene, para cada variable, cuántas
+ * configuraciones le ponen una mina. El coste depende del ancho de la frontera, no de su largo.
+ */
+final class ComponenteFrontera {
+    // Restricciones abiertas que caben en un long
+    private static final int MAXIMO_ABIERTAS = 16;
+    // Las tablas crecen con el cuadrado de las variables: más allá se estima
+    private static final int MAXIMO_VARIABLES_EXACTAS = 512;
+    private static final int OPERACIONES_POR_CONSULTA_RELOJ = 1 << 12;
+
+    // Se lanza sin traza cuando se agota el tiempo o la frontera es demasiado ancha
+    private static final class SinSolucionExacta extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        SinSolucionExacta() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final SinSolucionExacta SIN_SOLUCION_EXACTA = new SinSolucionExacta();
+
+    final int[] celdas;                 // Índice de celda de cada variable, en orden de recorrido
+    private final int[][] restricciones; // Posiciones de las variables de cada restricción, ordenadas
+    private final int[] objetivos;      // Minas de cada restricción
+
+    // Resultado: configuraciones por número de minas desde minimoMinas, escaladas para que la mayor valga 1
+    int minimoMinas;
+    double[] conteos;
+    // Si es exacto, por variable: configuraciones que le ponen una mina, por número de minas (misma escala)
+    double[][] conteosMina;
+    // Si no, la probabilidad estimada de cada variable
+    double[] estimadas;
+    boolean exacto;
+
+    // Estructura del recorrido
+    private int[][] restriccionesDeVariable;
+    private int[][] restantesTras;    // Variables de la restricción que quedan después de esta
+    private int[] primera;            // Posición de la primera variable de cada restricción
+    private int[][] abiertas;         // Restricciones abiertas en cada frontera entre variables
+    private int[] faltan, nuevas, marcas;
+    private long limiteNanos;
+    private int operaciones;
+
+    ComponenteFrontera(int[] celdas, int[][] restricciones, int[] objetivos) {
+        this.celdas = celdas;
+        this.restricciones = restricciones;
+        this.objetivos = objetivos;
+    }
+
+    void resolver(long limiteNanos) {
+        this.limiteNanos = limiteNanos;
+        try {
+            prepararRecorrido();
+            contarExacto();
+            exacto = true;
+        } catch (SinSolucionExacta e) {
+            aproximar();
+            exacto = false;
+        }
+        // Solo se necesitaban para el conteo
+        restriccionesDeVariable = null;
+        restantesTras = null;
+        abiertas = null;
+    }
+
+    private void prepararRecorrido() {
+        int n = celdas.length, m = restricciones.length;
+        if (n > MAXIMO_VARIABLES_EXACTAS) {
+            throw SIN_SOLUCION_EXACTA;
+        }
+        int[] cantidadPorVariable = new int[n];
+        primera = new int[m];
+        int[] ultima = new int[m];
+        for (int c = 0; c < m; c++) {
+            primera[c] = restricciones[c][0];
+            ultima[c] = restricciones[c][restricciones[c].length - 1];
+            for (int posicion : restricciones[c]) {
+                cantidadPorVariable[posicion]++;
+            }
+        }
+        restriccionesDeVariable = new int[n][];
+        restantesTras = new int[n][];
+        for (int v = 0; v < n; v++) {
+            restriccionesDeVariable[v] = new int[cantidadPorVariable[v]];
+            restantesTras[v] = new int[cantidadPorVariable[v]];
+        }
+        int[] llenas = new int[n];
+        int[] cantidadAbiertas = new int[n + 1];
+        for (int c = 0; c < m; c++) {
+            int[] posiciones = restricciones[c];
+            for (int k = 0; k < posiciones.length; k++) {
+                int v = posiciones[k];
+                restriccionesDeVariable[v][llenas[v]] = c;
+                restantesTras[v][llenas[v]++] = posiciones.length - 1 - k;
+            }
+            for (int frontera = primera[c] + 1; frontera <= ultima[c]; frontera++) {
+                if (++cantidadAbiertas[frontera] > MAXIMO_ABIERTAS) {
+                    throw SIN_SOLUCION_EXACTA;
+                }
+            }
+        }
+        abiertas = new int[n + 1][];
+        for (int frontera = 0; frontera <= n; frontera++) {
+            abiertas[frontera] = new int[cantidadAbiertas[frontera]];
+            cantidadAbiertas[frontera] = 0;
+        }
+        for (int c = 0; c < m; c++) {
+            for (int frontera = primera[c] + 1; frontera <= ultima[c]; frontera++) {
+                abiertas[frontera][cantidadAbiertas[frontera]++] = c;
+            }
+        }
+        faltan = new int[m];
+        nuevas = new int[m];
+        marcas = new int[m];
+        java.util.Arrays.fill(marcas, -1);
+    }
+
+    private void contarExacto() {
+        int n = celdas.length;
+        TablaEstados[] adelante = new TablaEstados[n + 1];
+        adelante[0] = new TablaEstados();
+        adelante[0].sumar(0L, new double[]{1}, 0, 1);
+        for (int v = 0; v < n; v++) {
+            TablaEstados origen = adelante[v], destino = new TablaEstados();
+            for (int s = 0; s < origen.capacidad(); s++) {
+                if (!origen.ocupada(s)) continue;
+                decodificar(v, origen.clave(s));
+                double[] formas = origen.valor(s);
+                for (int x = 0; x <= 1; x++) {
+                    long siguiente = transicion(v, x);
+                    if (siguiente >= 0) {
+                        destino.sumar(siguiente, formas, x, v + 2);
+                    }
+                }
+                consultarReloj();
+            }
+            adelante[v + 1] = destino;
+        }
+        // Configuraciones completas: fijan el rango de minas posible del componente
+        double[] total = adelante[n].obtener(0L);
+        int desde = 0, hasta = -1;
+        if (total != null) {
+            while (desde < total.length && total[desde] == 0) desde++;
+            hasta = total.length - 1;
+            while (hasta >= desde && total[hasta] == 0) hasta--;
+        }
+        if (hasta < desde) {
+            throw SIN_SOLUCION_EXACTA; // Números contradictorios: no debería pasar en una partida real
+        }
+        minimoMinas = desde;
+        conteos = java.util.Arrays.copyOfRange(total, desde, hasta + 1);
+
+        // Hacia atrás, solo por los estados alcanzables; de paso se cuentan las minas de cada variable
+        conteosMina = new double[n][conteos.length];
+        TablaEstados atras = new TablaEstados();
+        atras.sumar(0L, new double[]{1}, 0, 1);
+        for (int v = n - 1; v >= 0; v--) {
+            TablaEstados origen = adelante[v], completado = new TablaEstados();
+            for (int s = 0; s < origen.capacidad(); s++) {
+                if (!origen.ocupada(s)) continue;
+                long clave = origen.clave(s);
+                decodificar(v, clave);
+                double[] formas = origen.valor(s);
+                for (int x = 0; x <= 1; x++) {
+                    long siguiente = transicion(v, x);
+                    double[] resto = siguiente >= 0 ? atras.obtener(siguiente) : null;
+                    if (resto == null) continue;
+                    completado.sumar(clave, resto, x, n - v + 1);
+                    if (x == 1) {
+                        acumularConvolucion(conteosMina[v], formas, resto, 1 - minimoMinas);
+                    }
+                }
+                consultarReloj();
+            }
+            adelante[v + 1] = null;
+            atras = completado;
+        }
+        escalar();
+    }
+
+    // Deja en faltan[] las minas pendientes de las restricciones abiertas en la frontera v
+    private void decodificar(int v, long estado) {
+        int[] abiertasAqui = abiertas[v];
+        for (int i = 0; i < abiertasAqui.length; i++) {
+            faltan[abiertasAqui[i]] = (int) ((estado >>> (4 * i)) & 15);
+        }
+    }
+
+    // Estado tras dar el valor x a la variable v; -1 si alguna restricción queda imposible
+    private long transicion(int v, int x) {
+        int[] propias = restriccionesDeVariable[v];
+        for (int k = 0; k < propias.length; k++) {
+            int c = propias[k];
+            int pendientes = (primera[c] == v ? objetivos[c] : faltan[c]) - x;
+            if (pendientes < 0 || pendientes > restantesTras[v][k]) {
+                return -1;
+            }
+            nuevas[c] = pendientes;
+            marcas[c] = v * 2 + x;
+        }
+        int[] siguientes = abiertas[v + 1];
+        long estado = 0;
+        for (int i = 0; i < siguientes.length; i++) {
+            int c = siguientes[i];
+            int valor = marcas[c] == v * 2 + x ? nuevas[c] : faltan[c];
+            estado |= (long) valor << (4 * i);
+        }
+        return estado;
+    }
+
+    // destino[i + j + desplazamiento] += a[i] * b[j], ignorando lo que cae fuera de destino
+    private static void acumularConvolucion(double[] destino, double[] a, double[] b, int desplazamiento) {
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == 0) continue;
+            int j = Math.max(0, -(i + desplazamiento));
+            for (; j < b.length && i + j + desplazamiento < destino.length; j++) {
+                destino[i + j + desplazamiento] += a[i] * b[j];
+            }
+        }
+    }
+
+    private void consultarReloj() {
+        if (++operaciones % OPERACIONES_POR_CONSULTA_RELOJ == 0 && System.nanoTime() - limiteNanos > 0) {
+            throw SIN_SOLUCION_EXACTA;
+        }
+    }
+
+    // La escala se cancela al combinar componentes; evita desbordar con fronteras largas
+    private void escalar() {
+        double maximo = 0;
+        for (double valor : conteos) maximo = Math.max(maximo, valor);
+        if (maximo == 0) return;
+        for (int k = 0; k < conteos.length; k++) conteos[k] /= maximo;
+        for (double[] fila : conteosMina) {
+            for (int k = 0; k < fila.length; k++) fila[k] /= maximo;
+        }
+    }
+
+    /**
+     * Estimación local cuando no hay tiempo o la frontera es muy ancha: cada variable toma la mayor
+     * proporción minas/ocultas de sus restricciones y el componente se trata como si tuviera
+     * exactamente la suma redondeada de esas probabilidades.
+     */
+    private void aproximar() {
+        int n = celdas.length;
+        estimadas = new double[n];
+        for (int c = 0; c < restricciones.length; c++) {
+            double proporcion = (double) objetivos[c] / restricciones[c].length;
+            for (int posicion : restricciones[c]) {
+                estimadas[posicion] = Math.max(estimadas[posicion], proporcion);
+            }
+        }
+        double esperadas = 0;
+        for (double p : estimadas) esperadas += p;
+        minimoMinas = (int) Math.min(n, Math.round(esperadas));
+        conteos = new double[]{1};
+        conteosMina = null;
+    }
+
+    /**
+     * Tabla hash de direccionamiento abierto de estado a polinomio de formas por número de minas.
+     */
+    private static final class TablaEstados {
+        private long[] claves = new long[16];
+        private double[][] valores = new double[16][];
+        private int tamanio;
+
+        int capacidad() { return claves.length; }
+        boolean ocupada(int slot) { return valores[slot] != null; }
+        long clave(int slot) { return claves[slot]; }
+        double[] valor(int slot) { return valores[slot]; }
+
+        double[] obtener(long clave) {
+            int mascara = claves.length - 1;
+            for (int slot = mezclar(clave) & mascara; valores[slot] != null; slot = (slot + 1) & mascara) {
+                if (claves[slot] == clave) {
+                    return valores[slot];
+                }
+            }
+            return null;
+        }
+
+        // Suma el polinomio desplazado en el estado, creando uno de largo dado si no existía
+        void sumar(long clave, double[] polinomio, int desplazamiento, int largo) {
+            if (tamanio * 2 >= claves.length) {
+                ampliar();
+            }
+            int mascara = claves.length - 1;
+            int slot = mezclar(clave) & mascara;
+            while (valores[slot] != null && claves[slot] != clave) {
+                slot = (slot + 1) & mascara;
+            }
+            if (valores[slot] == null) {
+                claves[slot] = clave;
+                valores[slot] = new double[largo];
+                tamanio++;
+            }
+            double[] destino = valores[slot];
+            for (int k = 0; k < polinomio.length && k + desplazamiento < destino.length; k++) {
+                destino[k + desplazamiento] += polinomio[k];
+            }
+        }
+
+        private void ampliar() {
+            long[] viejasClaves = claves;
+            double[][] viejosValores = valores;
+            claves = new long[viejasClaves.length * 2];
+            valores = new double[viejasClaves.length * 2][];
+            int mascara = claves.length - 1;
+            for (int i = 0; i < viejasClaves.length; i++) {
+                if (viejosValores[i] == null) continue;
+                int slot = mezclar(viejasClaves[i]) & mascara;
+                while (valores[slot] != null) {
+                    slot = (slot + 1) & mascara;
+                }
+                claves[slot] = viejasClaves[i];
+                valores[slot] = viejosValores[i];
+            }
+        }
+
+        private static int mezclar(long clave) {
+            long z = clave * 0x9E3779B97F4A7C15L;
+            return (int) (z ^ (z >>> 32));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package resolucion;
+
+import model.TableroBuscaminas;
+
+import java.util.SplittableRandom;
+
+/**
+ * Genera tableros que se resuelven sin adivinar desde la primera jugada, que se hace en el centro.
+ * Cada candidato se juega con el resolvedor de restricciones sobre una instantánea: si llega a la
+ * victoria solo con celdas seguras, se entrega el tablero con la primera zona ya descubierta.
+ * Es conservador: descarta también tableros que solo se resuelven contando el total de minas.
+ */
+public final class GeneradorSinAdivinar {
+    public static final int MAXIMO_INTENTOS = 10_000;
+
+    private GeneradorSinAdivinar() {
+    }
+
+    /**
+     * Prueba semillas sacadas del generador aleatorio hasta encontrar un tablero resoluble.
+     * Devuelve null si no lo consigue en MAXIMO_INTENTOS (densidades demasiado altas).
+     */
+    public static TableroBuscaminas generar(int filas, int columnas, int minas, SplittableRandom aleatorio) {
+        for (int intento = 0; intento < MAXIMO_INTENTOS; intento++) {
+            TableroBuscaminas tablero = candidato(filas, columnas, minas, aleatorio.nextLong());
+            if (tablero != null) {
+                return tablero;
+            }
+        }
+        return null;
+    }
+
+    // Tablero de una semilla con la primera jugada hecha, o null si requiere adivinar
+    public static TableroBuscaminas candidato(int filas, int columnas, int minas, long semilla) {
+        TableroBuscaminas tablero = new TableroBuscaminas(filas, columnas, minas, semilla, true);
+        tablero.intentarDescubrir(filas / 2, columnas / 2);
+        TableroBuscaminas prueba = tablero.instantanea();
+        return esResolubleSinAdivinar(prueba) ? tablero : null;
+    }
+
+    // Juega solo celdas deducidas; el tablero recibido queda modificado
+    public static boolean esResolubleSinAdivinar(TableroBuscaminas tablero) {
+        ResolvedorRestricciones resolvedor = new ResolvedorRestricciones(tablero);
+        int columnas = tablero.getColumnas();
+        int indice;
+        while (!tablero.isJuegoFinalizado() && (indice = resolvedor.siguienteSegura()) >= 0) {
+            tablero.intentarDescubrir(indice / columnas, indice % columnas);
+        }
+        resolvedor.desconectar();
+        return tablero.isVictoria();
+    }
+}
@@ -0,0 +1,337 @@
+package resolucion;
+
+import model.AlmacenCeldas;
+import model.EstadoCelda;
+import model.TableroBuscaminas;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Probabilidades exactas de mina para elegir la jugada menos arriesgada cuando no hay ninguna segura.
+ *
+ * La frontera (celdas ocultas junto a números) se divide en componentes independientes que se
+ * cuentan por separado y en paralelo (ver ComponenteFrontera). Los conteos por número de minas se
+ * combinan con el resto de celdas ocultas, el interior, mediante pesos binomiales: si la frontera
+ * lleva K minas, el interior admite C(interior, minas totales - K) configuraciones.
+ * Cada consulta tiene un presupuesto de tiempo; los componentes que no terminan a tiempo se estiman.
+ *
+ * Las marcas del jugador no cuentan como minas (pueden estar mal): se usa el total de minas del
+ * tablero. Las celdas marcadas sí se excluyen al elegir la mejor jugada.
+ */
+public final class MotorProbabilidades {
+    public static final long PRESUPUESTO_POR_DEFECTO = 50_000_000L; // 50 ms
+    // Componentes más pequeños se cuentan en el hilo que consulta
+    private static final int VARIABLES_PARA_PARALELO = 24;
+
+    private final ForkJoinPool pool;
+    private long presupuestoNanos = PRESUPUESTO_POR_DEFECTO;
+
+    public MotorProbabilidades() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public MotorProbabilidades(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public void setPresupuestoNanos(long presupuestoNanos) {
+        this.presupuestoNanos = presupuestoNanos;
+    }
+
+    public Probabilidades calcular(TableroBuscaminas tablero) {
+        long limite = System.nanoTime() + presupuestoNanos;
+        AlmacenCeldas celdas = tablero.getAlmacen();
+        int filas = tablero.getFilas(), columnas = tablero.getColumnas();
+        int total = filas * columnas;
+
+        // Variables: celdas ocultas vecinas de algún número
+        int[] variableDeCelda = new int[total];
+        Arrays.fill(variableDeCelda, -1);
+        int[] frontera = new int[16];
+        boolean[] marcadas = new boolean[16];
+        int cantidadFrontera = 0, ocultas = 0, celdaInterior = -1;
+        for (int indice = 0; indice < total; indice++) {
+            int estado = celdas.leer(indice);
+            if ((estado & EstadoCelda.DESCUBIERTA) != 0) continue;
+            ocultas++;
+            if (tocaNumero(celdas, filas, columnas, indice)) {
+                if (cantidadFrontera == frontera.length) {
+                    frontera = Arrays.copyOf(frontera, cantidadFrontera * 2);
+                    marcadas = Arrays.copyOf(marcadas, cantidadFrontera * 2);
+                }
+                variableDeCelda[indice] = cantidadFrontera;
+                marcadas[cantidadFrontera] = (estado & EstadoCelda.MARCADA) != 0;
+                frontera[cantidadFrontera++] = indice;
+            } else if (celdaInterior < 0 && (estado & EstadoCelda.MARCADA) == 0) {
+                celdaInterior = indice; // La sugerida del interior: cuenta igual que las marcadas
+            }
+        }
+        frontera = Arrays.copyOf(frontera, cantidadFrontera);
+        marcadas = Arrays.copyOf(marcadas, cantidadFrontera);
+
+        // Restricciones: números con vecinas ocultas, en variables de la frontera
+        List<int[]> restricciones = new ArrayList<>();
+        List<Integer> objetivos = new ArrayList<>();
+        int[] vecinas = new int[8];
+        for (int indice = 0; indice < total; indice++) {
+            int estado = celdas.leer(indice);
+            if ((estado & EstadoCelda.DESCUBIERTA) == 0 || (estado & EstadoCelda.MINA) != 0
+                    || EstadoCelda.minasCercanas(estado) == 0) continue;
+            int cantidad = 0;
+            int fila = indice / columnas, columna = indice % columnas;
+            for (int i = Math.max(0, fila - 1); i <= Math.min(filas - 1, fila + 1); i++) {
+                for (int j = Math.max(0, columna - 1); j <= Math.min(columnas - 1, columna + 1); j++) {
+                    int variable = variableDeCelda[i * columnas + j];
+                    if (variable >= 0) vecinas[cantidad++] = variable;
+                }
+            }
+            if (cantidad > 0) {
+                restricciones.add(Arrays.copyOf(vecinas, cantidad));
+                objetivos.add(EstadoCelda.minasCercanas(estado));
+            }
+        }
+
+        List<ComponenteFrontera> componentes = separarComponentes(frontera, restricciones, objetivos);
+        resolverEnParalelo(componentes, limite);
+        return combinar(componentes, frontera, marcadas, variableDeCelda, ocultas - cantidadFrontera,
+                tablero.getTotalMinas(), celdaInterior);
+    }
+
+    private static boolean tocaNumero(AlmacenCeldas celdas, int filas, int columnas, int indice) {
+        int fila = indice / columnas, columna = indice % columnas;
+        for (int i = Math.max(0, fila - 1); i <= Math.min(filas - 1, fila + 1); i++) {
+            for (int j = Math.max(0, columna - 1); j <= Math.min(columnas - 1, columna + 1); j++) {
+                int estado = celdas.leer(i * columnas + j);
+                if ((estado & EstadoCelda.DESCUBIERTA) != 0 && (estado & EstadoCelda.MINA) == 0) {
+                    return true; // Una descubierta junto a una oculta siempre tiene número
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Agrupa variables conectadas por restricciones y las ordena en BFS desde un extremo
+     * del componente, para que pocas restricciones queden abiertas a la vez.
+     */
+    private static List<ComponenteFrontera> separarComponentes(int[] frontera, List<int[]> restricciones,
+                                                               List<Integer> objetivos) {
+        int n = frontera.length;
+        // Restricciones de cada variable
+        int[] grado = new int[n];
+        for (int[] r : restricciones) for (int v : r) grado[v]++;
+        int[][] deVariable = new int[n][];
+        for (int v = 0; v < n; v++) deVariable[v] = new int[grado[v]];
+        Arrays.fill(grado, 0);
+        for (int c = 0; c < restricciones.size(); c++) {
+            for (int v : restricciones.get(c)) deVariable[v][grado[v]++] = c;
+        }
+
+        List<ComponenteFrontera> componentes = new ArrayList<>();
+        boolean[] asignada = new boolean[n];
+        int[] visita = new int[n];
+        int sello = 0;
+        int[] cola = new int[n];
+        int[] posicion = new int[n];
+        int[] restriccionVista = new int[restricciones.size()];
+        Arrays.fill(restriccionVista, -1);
+        for (int inicio = 0; inicio < n; inicio++) {
+            if (asignada[inicio]) continue;
+            int id = componentes.size();
+            // Primera BFS para encontrar un extremo; la segunda, desde él, da el orden
+            int cantidad = bfs(inicio, deVariable, restricciones, cola, visita, ++sello);
+            cantidad = bfs(cola[cantidad - 1], deVariable, restricciones, cola, visita, ++sello);
+
+            int[] celdas = new int[cantidad];
+            for (int k = 0; k < cantidad; k++) {
+                posicion[cola[k]] = k;
+                celdas[k] = frontera[cola[k]];
+            }
+            List<int[]> propias = new ArrayList<>();
+            int[] objetivosPropios = new int[16];
+            for (int k = 0; k < cantidad; k++) {
+                for (int c : deVariable[cola[k]]) {
+                    if (restriccionVista[c] == id) continue;
+                    restriccionVista[c] = id;
+                    int[] posiciones = restricciones.get(c).clone();
+                    for (int i = 0; i < posiciones.length; i++) posiciones[i] = posicion[posiciones[i]];
+                    Arrays.sort(posiciones);
+                    if (propias.size() == objetivosPropios.length) {
+                        objetivosPropios = Arrays.copyOf(objetivosPropios, propias.size() * 2);
+                    }
+                    objetivosPropios[propias.size()] = objetivos.get(c);
+                    propias.add(posiciones);
+                }
+            }
+            for (int k = 0; k < cantidad; k++) asignada[cola[k]] = true;
+            componentes.add(new ComponenteFrontera(celdas, propias.toArray(new int[0][]),
+                    Arrays.copyOf(objetivosPropios, propias.size())));
+        }
+        return componentes;
+    }
+
+    // BFS por variables que comparten restricción; deja el orden en cola y devuelve cuántas visitó
+    private static int bfs(int inicio, int[][] deVariable, List<int[]> restricciones, int[] cola,
+                           int[] visita, int sello) {
+        int cabeza = 0, fin = 0;
+        cola[fin++] = inicio;
+        visita[inicio] = sello;
+        while (cabeza < fin) {
+            int v = cola[cabeza++];
+            for (int c : deVariable[v]) {
+                for (int w : restricciones.get(c)) {
+                    if (visita[w] != sello) {
+                        visita[w] = sello;
+                        cola[fin++] = w;
+                    }
+                }
+            }
+        }
+        return fin;
+    }
+
+    private void resolverEnParalelo(List<ComponenteFrontera> componentes, long limite) {
+        List<RecursiveAction> grandes = new ArrayList<>();
+        for (ComponenteFrontera componente : componentes) {
+            if (componente.celdas.length >= VARIABLES_PARA_PARALELO) {
+                grandes.add(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        componente.resolver(limite);
+                    }
+                });
+            } else {
+                componente.resolver(limite);
+            }
+        }
+        if (grandes.isEmpty()) {
+            return;
+        }
+        if (ForkJoinTask.inForkJoinPool()) {
+            // Desde una tarea (por ejemplo el simulador) se reparte en su mismo pool
+            ForkJoinTask.invokeAll(grandes);
+        } else {
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(grandes);
+                }
+            });
+        }
+    }
+
+    /**
+     * Pesos binomiales: w[K] = C(interior, minas - K), escalados para que el mayor valga 1.
+     * Para cada componente i, "resto" es la convolución de todos los demás y
+     * h_i[k] = sum_j resto_i[j] * w[k + j]; así P(v) = sum_k minas_v[k] * h_i[k] / Z.
+     * Los polinomios empiezan en el mínimo de minas de cada componente: los desplazamientos se suman,
+     * así que el índice k + j de los pesos ya corresponde al total de la frontera.
+     */
+    private static Probabilidades combinar(List<ComponenteFrontera> componentes, int[] frontera, boolean[] marcadas,
+                                           int[] variableDeCelda, int interior, int minas, int celdaInterior) {
+        int m = componentes.size();
+        boolean exacto = true;
+        int base = 0;
+        // Prefijos y sufijos de convoluciones para obtener "todos menos uno"
+        double[][] prefijos = new double[m + 1][], sufijos = new double[m + 1][];
+        prefijos[0] = new double[]{1};
+        sufijos[m] = new double[]{1};
+        for (int i = 0; i < m; i++) {
+            ComponenteFrontera componente = componentes.get(i);
+            prefijos[i + 1] = convolucion(prefijos[i], componente.conteos);
+            base += componente.minimoMinas;
+            exacto &= componente.exacto;
+        }
+        for (int i = m - 1; i >= 0; i--) {
+            sufijos[i] = convolucion(componentes.get(i).conteos, sufijos[i + 1]);
+        }
+        double[] todas = prefijos[m];
+        double[] pesos = pesosBinomiales(todas.length, base, interior, minas);
+
+        double normalizacion = 0, minasInterior = 0;
+        for (int k = 0; k < todas.length; k++) {
+            normalizacion += todas[k] * pesos[k];
+            minasInterior += todas[k] * pesos[k] * (minas - base - k);
+        }
+
+        double[] probabilidades = new double[frontera.length];
+        for (int i = 0; i < m; i++) {
+            ComponenteFrontera componente = componentes.get(i);
+            if (!componente.exacto) {
+                for (int v = 0; v < componente.celdas.length; v++) {
+                    probabilidades[variableDeCelda[componente.celdas[v]]] = componente.estimadas[v];
+                }
+                continue;
+            }
+            if (normalizacion == 0) {
+                continue;
+            }
+            double[] resto = convolucion(prefijos[i], sufijos[i + 1]);
+            double[] h = new double[componente.conteos.length];
+            for (int k = 0; k < h.length; k++) {
+                for (int j = 0; j < resto.length; j++) {
+                    h[k] += resto[j] * pesos[k + j];
+                }
+            }
+            for (int v = 0; v < componente.celdas.length; v++) {
+                double suma = 0;
+                double[] conMina = componente.conteosMina[v];
+                for (int k = 0; k < conMina.length; k++) suma += conMina[k] * h[k];
+                probabilidades[variableDeCelda[componente.celdas[v]]] = Math.min(1, suma / normalizacion);
+            }
+        }
+        double probabilidadInterior = interior > 0 && normalizacion > 0
+                ? Math.min(1, minasInterior / normalizacion / interior) : 0;
+        return new Probabilidades(frontera, probabilidades, marcadas, probabilidadInterior, celdaInterior, m, exacto);
+    }
+
+    private static double[] convolucion(double[] a, double[] b) {
+        double[] resultado = new double[a.length + b.length - 1];
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == 0) continue;
+            for (int j = 0; j < b.length; j++) {
+                resultado[i + j] += a[i] * b[j];
+            }
+        }
+        return resultado;
+    }
+
+    // Pesos de K = base .. base + largo - 1 minas en la frontera
+    private static double[] pesosBinomiales(int largo, int base, int interior, int minas) {
+        double[] logaritmos = new double[largo];
+        double maximo = Double.NEGATIVE_INFINITY;
+        for (int k = 0; k < largo; k++) {
+            int enInterior = minas - base - k;
+            logaritmos[k] = enInterior < 0 || enInterior > interior ? Double.NEGATIVE_INFINITY
+                    : logFactorial(interior) - logFactorial(enInterior) - logFactorial(interior - enInterior);
+            maximo = Math.max(maximo, logaritmos[k]);
+        }
+        double[] pesos = new double[largo];
+        for (int k = 0; k < largo; k++) {
+            pesos[k] = maximo == Double.NEGATIVE_INFINITY ? 0 : Math.exp(logaritmos[k] - maximo);
+        }
+        return pesos;
+    }
+
+    private static final double[] LOG_FACTORIALES = new double[1024];
+
+    static {
+        for (int n = 1; n < LOG_FACTORIALES.length; n++) {
+            LOG_FACTORIALES[n] = LOG_FACTORIALES[n - 1] + Math.log(n);
+        }
+    }
+
+    // Exacto en la tabla; fórmula de Stirling con dos términos de corrección para n grandes
+    static double logFactorial(int n) {
+        if (n < LOG_FACTORIALES.length) {
+            return LOG_FACTORIALES[n];
+        }
+        double x = n;
+        return x * Math.log(x) - x + 0.5 * Math.log(2 * Math.PI * x) + 1 / (12 * x) - 1 / (360 * x * x * x);
+    }
+}
@@ -0,0 +1,56 @@
+package resolucion;
+
+import java.util.Arrays;
+
+/**
+ * Probabilidad de mina de cada celda oculta en un momento de la partida. Las celdas de la frontera
+ * tienen su propia probabilidad; todas las demás ocultas comparten la del interior.
+ */
+public final class Probabilidades {
+    private final int[] frontera;        // Índices de celda ordenados
+    private final double[] probabilidadesFrontera;
+    private final boolean[] marcadasFrontera;
+    private final double probabilidadInterior;
+    private final int celdaInterior;     // Una celda del interior sin marcar (la primera); -1 si no hay
+    private final int componentes;
+    private final boolean exacto;
+
+    Probabilidades(int[] frontera, double[] probabilidadesFrontera, boolean[] marcadasFrontera,
+                   double probabilidadInterior, int celdaInterior, int componentes, boolean exacto) {
+        this.frontera = frontera;
+        this.probabilidadesFrontera = probabilidadesFrontera;
+        this.marcadasFrontera = marcadasFrontera;
+        this.probabilidadInterior = probabilidadInterior;
+        this.celdaInterior = celdaInterior;
+        this.componentes = componentes;
+        this.exacto = exacto;
+    }
+
+    // Probabilidad de mina de una celda oculta (las descubiertas no se consultan)
+    public double probabilidad(int indice) {
+        int posicion = Arrays.binarySearch(frontera, indice);
+        return posicion >= 0 ? probabilidadesFrontera[posicion] : probabilidadInterior;
+    }
+
+    /**
+     * Celda oculta sin marcar con menos probabilidad de mina; en empate se prefiere la frontera.
+     * -1 si no hay. Las marcadas cuentan en las probabilidades pero no se proponen.
+     */
+    public int mejorCelda() {
+        int mejor = celdaInterior;
+        double menor = celdaInterior >= 0 ? probabilidadInterior : Double.MAX_VALUE;
+        for (int k = 0; k < frontera.length; k++) {
+            if (!marcadasFrontera[k] && probabilidadesFrontera[k] <= menor) {
+                menor = probabilidadesFrontera[k];
+                mejor = frontera[k];
+            }
+        }
+        return mejor;
+    }
+
+    public int getCeldasFrontera() { return frontera.length; }
+    public double getProbabilidadInterior() { return probabilidadInterior; }
+    public int getComponentes() { return componentes; }
+    // false si algún componente se estimó por falta de tiempo o por ser demasiado ancho
+    public boolean isExacto() { return exacto; }
+}
@@ -0,0 +1,149 @@
+package resolucion;
+
+import model.Configuracion;
+import model.TableroBuscaminas;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Reserva de tableros sin adivinanzas ya generados, para empezar partidas sin esperar.
+ *
+ * Cada configuración (tamaño y minas) tiene una cola acotada. Un único hilo productor en segundo
+ * plano rellena las colas que tienen hueco y duerme cuando están todas llenas; tomar() saca un
+ * tablero al instante y despierta al productor. Si la cola está vacía se genera en el momento.
+ */
+public final class ReservaTableros implements Closeable {
+    public static final int CAPACIDAD_POR_DEFECTO = 4;
+
+    private final int capacidad;
+    private final Map<Configuracion, ArrayDeque<TableroBuscaminas>> colas = new LinkedHashMap<>();
+    private final SplittableRandom aleatorio;
+    private final Thread productor;
+    private boolean cerrado;
+
+    // Tableros servidos desde la reserva, generados al pedirlos y sin garantía (no se encontró ninguno)
+    private long aciertos, fallos, sinGarantia;
+
+    public ReservaTableros() {
+        this(CAPACIDAD_POR_DEFECTO, ThreadLocalRandom.current().nextLong());
+    }
+
+    public ReservaTableros(int capacidad, long semilla) {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("Capacidad de reserva inválida: " + capacidad);
+        }
+        this.capacidad = capacidad;
+        this.aleatorio = new SplittableRandom(semilla);
+        productor = new Thread(this::producir, "generador-tableros");
+        productor.setDaemon(true);
+        productor.setPriority(Thread.MIN_PRIORITY);
+        productor.start();
+    }
+
+    // Empieza a mantener llena la cola de la configuración (válida por construcción: el productor no falla)
+    public synchronized void registrar(Configuracion configuracion) {
+        colas.computeIfAbsent(configuracion, c -> new ArrayDeque<>(capacidad));
+        notifyAll();
+    }
+
+    public TableroBuscaminas tomar(Configuracion configuracion) {
+        long semilla;
+        synchronized (this) {
+            registrar(configuracion);
+            TableroBuscaminas tablero = colas.get(configuracion).poll();
+            if (tablero != null) {
+                aciertos++;
+                return tablero;
+            }
+            fallos++;
+            semilla = aleatorio.nextLong();
+        }
+        return generar(configuracion, new SplittableRandom(semilla));
+    }
+
+    public synchronized int disponibles(Configuracion configuracion) {
+        ArrayDeque<TableroBuscaminas> cola = colas.get(configuracion);
+        return cola == null ? 0 : cola.size();
+    }
+
+    private void producir() {
+        while (true) {
+            Configuracion pendiente = null;
+            SplittableRandom generador;
+            synchronized (this) {
+                while (!cerrado && (pendiente = conHueco()) == null) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (cerrado) {
+                    return;
+                }
+                generador = aleatorio.split();
+            }
+            // La generación (la parte cara) se hace fuera del monitor
+            TableroBuscaminas tablero = generar(pendiente, generador);
+            synchronized (this) {
+                ArrayDeque<TableroBuscaminas> cola = colas.get(pendiente);
+                if (cola.size() < capacidad) {
+                    cola.add(tablero);
+                }
+                notifyAll();
+            }
+        }
+    }
+
+    private Configuracion conHueco() {
+        for (Map.Entry<Configuracion, ArrayDeque<TableroBuscaminas>> entrada : colas.entrySet()) {
+            if (entrada.getValue().size() < capacidad) {
+                return entrada.getKey();
+            }
+        }
+        return null;
+    }
+
+    // Sin tablero resoluble (densidad muy alta) se entrega uno normal con primer clic seguro
+    private TableroBuscaminas generar(Configuracion configuracion, SplittableRandom generador) {
+        TableroBuscaminas tablero = GeneradorSinAdivinar.generar(configuracion.filas(), configuracion.columnas(),
+                configuracion.minas(), generador);
+        if (tablero != null) {
+            return tablero;
+        }
+        synchronized (this) {
+            sinGarantia++;
+        }
+        return new TableroBuscaminas(configuracion.filas(), configuracion.columnas(), configuracion.minas(),
+                generador.nextLong(), true);
+    }
+
+    public synchronized long getAciertos() { return aciertos; }
+    public synchronized long getFallos() { return fallos; }
+    public synchronized long getSinGarantia() { return sinGarantia; }
+
+    // Detiene el productor; los tableros en reserva se descartan
+    @Override
+    public void close() {
+        synchronized (this) {
+            cerrado = true;
+            notifyAll();
+        }
+        boolean interrumpido = false;
+        while (productor.isAlive()) {
+            try {
+                productor.join();
+            } catch (InterruptedException e) {
+                interrumpido = true;
+            }
+        }
+        if (interrumpido) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package resolucion;
+
+import model.AlmacenCeldas;
+import model.ConjuntoCambios;
+import model.EstadoCelda;
+import model.OyenteCambios;
+import model.TableroBuscaminas;
+
+/**
+ * Resolvedor determinista por propagación de restricciones. Cada celda descubierta con número es una
+ * restricción: entre sus vecinas desconocidas quedan tantas minas como su número menos las minas ya
+ * deducidas. Se aplican dos reglas hasta que no cambia nada:
+ *   - de una celda: si no quedan minas, todas sus desconocidas son seguras; si quedan tantas minas
+ *     como desconocidas, todas son minas;
+ *   - de pares (A y B a distancia 2 o menos): si las minas de B menos las de A igualan las
+ *     desconocidas que solo tiene B, esas son minas y las que solo tiene A son seguras.
+ *     Cubre el caso de subconjunto y patrones como el 1-2-1.
+ *
+ * Es incremental: escucha los cambios del tablero y solo revisa las restricciones alrededor de
+ * las celdas que cambiaron, así que el coste por jugada es proporcional a la frontera afectada.
+ * La propagación se hace al consultar. Las marcas del jugador se ignoran porque pueden estar mal.
+ */
+public final class ResolvedorRestricciones implements OyenteCambios {
+    private static final byte DESCONOCIDA = 0, SEGURA = 1, MINA = 2;
+    private static final byte CONOCIMIENTO = 3;
+    private static final byte PENDIENTE = 4; // La celda está en la pila de restricciones por revisar
+
+    private final TableroBuscaminas tablero;
+    private final AlmacenCeldas celdas;
+    private final int filas, columnas;
+    private final byte[] conocidas;
+
+    private int[] pendientes = new int[64];
+    private int cantidadPendientes;
+    // Deducciones todavía sin jugar; se limpian al consultar
+    private int[] seguras = new int[16];
+    private int cantidadSeguras;
+    private int[] minas = new int[16];
+    private int cantidadMinas;
+
+    // Vecinas desconocidas de las dos restricciones que se comparan
+    private final int[] vecinasA = new int[8], vecinasB = new int[8];
+    private int cantidadA, cantidadB, ultimaCantidad;
+
+    private long segurasDeducidas, minasDeducidas, revisiones;
+
+    public ResolvedorRestricciones(TableroBuscaminas tablero) {
+        this.tablero = tablero;
+        this.celdas = tablero.getAlmacen();
+        this.filas = tablero.getFilas();
+        this.columnas = tablero.getColumnas();
+        this.conocidas = new byte[filas * columnas];
+        // Única pasada completa: las restricciones que ya había al conectarse
+        for (int indice = 0; indice < conocidas.length; indice++) {
+            if (esRestriccion(indice)) {
+                apilar(indice);
+            }
+        }
+        tablero.agregarOyente(this);
+    }
+
+    public void desconectar() {
+        tablero.quitarOyente(this);
+    }
+
+    @Override
+    public void alCambiar(TableroBuscaminas origen, ConjuntoCambios cambios) {
+        if (origen.isJuegoFinalizado()) {
+            return;
+        }
+        int[] reveladas = cambios.getReveladas();
+        for (int k = 0; k < cambios.getCantidadReveladas(); k++) {
+            apilarVecindario(reveladas[k]);
+        }
+        // Una mina deducida a la que le quitan la marca vuelve a ser una pista
+        int[] marcas = cambios.getMarcas();
+        for (int k = 0; k < cambios.getCantidadMarcas(); k++) {
+            int indice = marcas[k];
+            if ((conocidas[indice] & CONOCIMIENTO) == MINA && (celdas.leer(indice) & EstadoCelda.MARCADA) == 0) {
+                minas = agregar(minas, cantidadMinas++, indice);
+            }
+        }
+    }
+
+    // Celda segura deducida y todavía oculta; -1 si no hay ninguna
+    public int siguienteSegura() {
+        propagar();
+        while (cantidadSeguras > 0 && (celdas.leer(seguras[cantidadSeguras - 1]) & EstadoCelda.DESCUBIERTA) != 0) {
+            cantidadSeguras--;
+        }
+        return cantidadSeguras > 0 ? seguras[cantidadSeguras - 1] : -1;
+    }
+
+    // Mina deducida que el jugador todavía no marcó; -1 si no hay ninguna
+    public int siguienteMina() {
+        propagar();
+        while (cantidadMinas > 0 && (celdas.leer(minas[cantidadMinas - 1]) & EstadoCelda.MARCADA) != 0) {
+            cantidadMinas--;
+        }
+        return cantidadMinas > 0 ? minas[cantidadMinas - 1] : -1;
+    }
+
+    public boolean esSegura(int indice) {
+        propagar();
+        return (conocidas[indice] & CONOCIMIENTO) == SEGURA || (celdas.leer(indice) & EstadoCelda.DESCUBIERTA) != 0;
+    }
+
+    public boolean esMina(int indice) {
+        propagar();
+        return (conocidas[indice] & CONOCIMIENTO) == MINA;
+    }
+
+    // Aplica las reglas a las restricciones pendientes hasta que no se deduce nada más
+    public void propagar() {
+        if (tablero.isJuegoFinalizado()) {
+            cantidadPendientes = 0;
+            return;
+        }
+        while (cantidadPendientes > 0) {
+            int a = pendientes[--cantidadPendientes];
+            conocidas[a] &= ~PENDIENTE;
+            revisiones++;
+            int restantesA = leerRestriccion(a, vecinasA);
+            cantidadA = ultimaCantidad;
+            if (cantidadA == 0) {
+                continue;
+            }
+            if (restantesA == 0) {
+                deducirTodas(vecinasA, cantidadA, SEGURA);
+                continue;
+            }
+            if (restantesA == cantidadA) {
+                deducirTodas(vecinasA, cantidadA, MINA);
+                continue;
+            }
+            compararConVecinas(a, restantesA);
+        }
+    }
+
+    // Regla de pares contra cada restricción a distancia 2 o menos
+    private void compararConVecinas(int a, int restantesA) {
+        int fila = a / columnas, columna = a % columnas;
+        for (int i = Math.max(0, fila - 2); i <= Math.min(filas - 1, fila + 2); i++) {
+            for (int j = Math.max(0, columna - 2); j <= Math.min(columnas - 1, columna + 2); j++) {
+                int b = i * columnas + j;
+                if (b == a || !esRestriccion(b)) {
+                    continue;
+                }
+                int restantesB = leerRestriccion(b, vecinasB);
+                cantidadB = ultimaCantidad;
+                if (cantidadB == 0) {
+                    continue;
+                }
+                int soloA = contarExclusivas(vecinasA, cantidadA, vecinasB, cantidadB);
+                int soloB = contarExclusivas(vecinasB, cantidadB, vecinasA, cantidadA);
+                if (soloA == cantidadA) {
+                    continue; // No comparten desconocidas
+                }
+                boolean deducido;
+                if (restantesB - restantesA == soloB) {
+                    deducido = deducirExclusivas(vecinasB, cantidadB, vecinasA, cantidadA, MINA)
+                            | deducirExclusivas(vecinasA, cantidadA, vecinasB, cantidadB, SEGURA);
+                } else if (restantesA - restantesB == soloA) {
+                    deducido = deducirExclusivas(vecinasA, cantidadA, vecinasB, cantidadB, MINA)
+                            | deducirExclusivas(vecinasB, cantidadB, vecinasA, cantidadA, SEGURA);
+                } else {
+                    continue;
+                }
+                if (deducido) {
+                    apilar(a); // Se vuelve a revisar con sus vecinas ya actualizadas
+                    return;
+                }
+            }
+        }
+    }
+
+    // Copia las vecinas desconocidas en destino (deja su cantidad en ultimaCantidad) y devuelve las minas que faltan
+    private int leerRestriccion(int indice, int[] destino) {
+        int fila = indice / columnas, columna = indice % columnas;
+        int cantidad = 0, minasConocidas = 0;
+        for (int i = Math.max(0, fila - 1); i <= Math.min(filas - 1, fila + 1); i++) {
+            for (int j = Math.max(0, columna - 1); j <= Math.min(columnas - 1, columna + 1); j++) {
+                int vecina = i * columnas + j;
+                if ((celdas.leer(vecina) & EstadoCelda.DESCUBIERTA) != 0) {
+                    continue;
+                }
+                int conocimiento = conocidas[vecina] & CONOCIMIENTO;
+                if (conocimiento == MINA) {
+                    minasConocidas++;
+                } else if (conocimiento == DESCONOCIDA) {
+                    destino[cantidad++] = vecina;
+                }
+            }
+        }
+        ultimaCantidad = cantidad;
+        return EstadoCelda.minasCercanas(celdas.leer(indice)) - minasConocidas;
+    }
+
+    private static int contarExclusivas(int[] de, int cantidadDe, int[] otras, int cantidadOtras) {
+        int exclusivas = 0;
+        for (int k = 0; k < cantidadDe; k++) {
+            if (!contiene(otras, cantidadOtras, de[k])) {
+                exclusivas++;
+            }
+        }
+        return exclusivas;
+    }
+
+    private boolean deducirExclusivas(int[] de, int cantidadDe, int[] otras, int cantidadOtras, byte conocimiento) {
+        boolean deducido = false;
+        for (int k = 0; k < cantidadDe; k++) {
+            if (!contiene(otras, cantidadOtras, de[k])) {
+                deducido |= deducir(de[k], conocimiento);
+            }
+        }
+        return deducido;
+    }
+
+    private void deducirTodas(int[] indices, int cantidad, byte conocimiento) {
+        for (int k = 0; k < cantidad; k++) {
+            deducir(indices[k], conocimiento);
+        }
+    }
+
+    private boolean deducir(int indice, byte conocimiento) {
+        if ((conocidas[indice] & CONOCIMIENTO) != DESCONOCIDA) {
+            return false;
+        }
+        conocidas[indice] |= conocimiento;
+        if (conocimiento == SEGURA) {
+            seguras = agregar(seguras, cantidadSeguras++, indice);
+            segurasDeducidas++;
+        } else {
+            if ((celdas.leer(indice) & EstadoCelda.MARCADA) == 0) {
+                minas = agregar(minas, cantidadMinas++, indice);
+            }
+            minasDeducidas++;
+        }
+        apilarVecindario(indice);
+        return true;
+    }
+
+    private static boolean contiene(int[] indices, int cantidad, int indice) {
+        for (int k = 0; k < cantidad; k++) {
+            if (indices[k] == indice) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // La celda y sus vecinas descubiertas con número cambian de restricción
+    private void apilarVecindario(int indice) {
+        int fila = indice / columnas, columna = indice % columnas;
+        for (int i = Math.max(0, fila - 1); i <= Math.min(filas - 1, fila + 1); i++) {
+            for (int j = Math.max(0, columna - 1); j <= Math.min(columnas - 1, columna + 1); j++) {
+                int vecina = i * columnas + j;
+                if (esRestriccion(vecina)) {
+                    apilar(vecina);
+                }
+            }
+        }
+    }
+
+    private boolean esRestriccion(int indice) {
+        int estado = celdas.leer(indice);
+        return (estado & EstadoCelda.DESCUBIERTA) != 0 && (estado & EstadoCelda.MINA) == 0
+                && EstadoCelda.minasCercanas(estado) > 0;
+    }
+
+    private void apilar(int indice) {
+        if ((conocidas[indice] & PENDIENTE) == 0) {
+            conocidas[indice] |= PENDIENTE;
+            pendientes = agregar(pendientes, cantidadPendientes++, indice);
+        }
+    }
+
+    private static int[] agregar(int[] pila, int posicion, int indice) {
+        if (posicion == pila.length) {
+            int[] ampliada = new int[pila.length * 2];
+            System.arraycopy(pila, 0, ampliada, 0, posicion);
+            pila = ampliada;
+        }
+        pila[posicion] = indice;
+        return pila;
+    }
+
+    public TableroBuscaminas getTablero() { return tablero; }
+    public long getSegurasDeducidas() { return segurasDeducidas; }
+    public long getMinasDeducidas() { return minasDeducidas; }
+    // Restricciones revisadas desde que se creó: mide el trabajo de la propagación
+    public long getRevisiones() { return revisiones; }
+}
@@ -0,0 +1,219 @@
+package servidor;
+
+import model.ConjuntoCambios;
+import model.OyenteCambios;
+import model.TableroBuscaminas;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Codificador único de una partida para sus espectadores. En el hilo del jugador cada jugada
+ * se codifica una sola vez como evento SSE y se deja en un anillo de eventos recientes. Cada
+ * espectador lo lee con su propio cursor, así que más espectadores no cuestan más codificación
+ * ni más trabajo al jugador. Sin espectadores no se codifica nada: solo se actualiza la copia
+ * de lo visible, de la que sale la instantánea completa que recibe cada espectador al conectarse.
+ *
+ * El estado compartido se protege con el monitor del canal; el jugador solo lo toma un momento
+ * por jugada y a los espectadores los despierta el hilo de avisos de la transmisión. Las
+ * instantáneas se codifican fuera del monitor, sobre una copia de lo visible.
+ */
+final class CanalPartida implements OyenteCambios {
+    private static final int CAPACIDAD = 256;
+
+    final long id;
+    private final TransmisionEspectadores transmision;
+    final AtomicBoolean avisoPendiente = new AtomicBoolean();
+
+    // Protegido por el monitor del canal
+    private final byte[][] eventos = new byte[CAPACIDAD][];
+    private long publicados;
+    private int filas, columnas, minas;
+    private byte[] visibles = new byte[0];
+    private boolean cerrado;
+
+    private volatile int suscriptores;
+    // Solo del hilo del jugador
+    private final StringBuilder texto = new StringBuilder(128);
+
+    CanalPartida(long id, TransmisionEspectadores transmision) {
+        this.id = id;
+        this.transmision = transmision;
+    }
+
+    // Partida nueva en la sesión: cambia la copia visible y los espectadores reciben la instantánea
+    void reiniciar(TableroBuscaminas tablero) {
+        byte[] nuevas = new byte[tablero.getFilas() * tablero.getColumnas()];
+        for (int i = 0; i < nuevas.length; i++) {
+            nuevas[i] = (byte) CodificadorCambios.simbolo(tablero.getAlmacen().leer(i));
+        }
+        // La copia nueva solo la ve este hilo hasta publicarla: se codifica fuera del monitor
+        byte[] evento = null;
+        while (true) {
+            if (evento == null && suscriptores > 0) {
+                evento = instantanea(tablero.getFilas(), tablero.getColumnas(), tablero.getTotalMinas(), nuevas);
+            }
+            synchronized (this) {
+                // Alguien se suscribió después de mirar: se codifica y se vuelve a intentar
+                if (suscriptores > 0 && evento == null) {
+                    continue;
+                }
+                filas = tablero.getFilas();
+                columnas = tablero.getColumnas();
+                minas = tablero.getTotalMinas();
+                visibles = nuevas;
+                if (suscriptores > 0) {
+                    publicar(evento);
+                }
+                break;
+            }
+        }
+        avisar();
+    }
+
+    @Override
+    public void alCambiar(TableroBuscaminas tablero, ConjuntoCambios cambios) {
+        // Se codifica fuera del monitor; solo si alguien mira
+        byte[] evento = suscriptores > 0 ? codificar(tablero, cambios) : null;
+        synchronized (this) {
+            int[] reveladas = cambios.getReveladas();
+            for (int i = 0; i < cambios.getCantidadReveladas(); i++) {
+                visibles[reveladas[i]] = (byte) CodificadorCambios.simbolo(tablero.getAlmacen().leer(reveladas[i]));
+            }
+            int[] marcas = cambios.getMarcas();
+            for (int i = 0; i < cambios.getCantidadMarcas(); i++) {
+                visibles[marcas[i]] = (byte) CodificadorCambios.simbolo(tablero.getAlmacen().leer(marcas[i]));
+            }
+            if (suscriptores > 0) {
+                // Alguien se suscribió después de mirar: su instantánea no incluye esta jugada
+                publicar(evento != null ? evento : codificar(tablero, cambios));
+            }
+        }
+        avisar();
+    }
+
+    // "event: jugada" con el mismo texto que la respuesta del protocolo de red
+    private byte[] codificar(TableroBuscaminas tablero, ConjuntoCambios cambios) {
+        texto.setLength(0);
+        texto.append("event: jugada\ndata:");
+        if (cambios.getTransicion() != ConjuntoCambios.Transicion.NINGUNA) {
+            texto.append(' ').append(cambios.getTransicion().name()).append(';');
+        }
+        CodificadorCambios.anexar(texto, tablero, cambios);
+        texto.append("\n\n");
+        return texto.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // Termina la transmisión: los espectadores reciben "fin" cuando se pongan al día
+    void cerrar() {
+        synchronized (this) {
+            cerrado = true;
+        }
+        transmision.quitar(this);
+        avisar();
+    }
+
+    private void publicar(byte[] evento) {
+        eventos[(int) (publicados % CAPACIDAD)] = evento;
+        publicados++;
+    }
+
+    private void avisar() {
+        if (suscriptores > 0) {
+            transmision.avisar(this);
+        }
+    }
+
+    // "event: tablero" con todo lo visible: una letra por celda, fila tras fila
+    private byte[] instantanea(int filas, int columnas, int minas, byte[] visibles) {
+        StringBuilder json = new StringBuilder(visibles.length + 96);
+        json.append("event: tablero\ndata: {\"partida\":").append(id)
+                .append(",\"filas\":").append(filas)
+                .append(",\"columnas\":").append(columnas)
+                .append(",\"minas\":").append(minas)
+                .append(",\"celdas\":\"");
+        for (byte visible : visibles) {
+            json.append((char) visible);
+        }
+        json.append("\"}\n\n");
+        return json.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // Lo visible en un momento dado; se toma bajo el monitor y se codifica fuera
+    private record Copia(int filas, int columnas, int minas, byte[] visibles) {
+    }
+
+    // Llamar con el monitor tomado: solo copia, la codificación queda para el espectador
+    private Copia copiar() {
+        return new Copia(filas, columnas, minas, visibles.clone());
+    }
+
+    private byte[] instantanea(Copia copia) {
+        return instantanea(copia.filas(), copia.columnas(), copia.minas(), copia.visibles());
+    }
+
+    Suscripcion suscribir() {
+        Copia copia;
+        long cursor;
+        synchronized (this) {
+            suscriptores++;
+            copia = copiar();
+            cursor = publicados;
+        }
+        return new Suscripcion(instantanea(copia), cursor);
+    }
+
+    private synchronized void desuscribir() {
+        suscriptores--;
+    }
+
+    synchronized int getSuscriptores() { return suscriptores; }
+
+    /**
+     * Cursor de un espectador sobre el anillo de eventos. Si se queda atrás más de lo que cabe
+     * en el anillo, recibe una instantánea nueva en lugar de los eventos perdidos.
+     */
+    final class Suscripcion implements AutoCloseable {
+        private byte[] inicial;
+        private long cursor;
+
+        private Suscripcion(byte[] inicial, long cursor) {
+            this.inicial = inicial;
+            this.cursor = cursor;
+        }
+
+        /**
+         * Siguiente evento; un arreglo vacío si no llegó ninguno en la espera y null si la partida
+         * terminó y no quedan eventos.
+         */
+        byte[] siguiente(long esperaMilisegundos) throws InterruptedException {
+            if (inicial != null) {
+                byte[] evento = inicial;
+                inicial = null;
+                return evento;
+            }
+            Copia copia;
+            synchronized (CanalPartida.this) {
+                long limite = System.nanoTime() + esperaMilisegundos * 1_000_000;
+                long restante;
+                while (cursor == publicados && !cerrado && (restante = limite - System.nanoTime()) > 0) {
+                    CanalPartida.this.wait(Math.max(1, restante / 1_000_000));
+                }
+                if (cursor == publicados) {
+                    return cerrado ? null : new byte[0];
+                }
+                if (publicados - cursor <= CAPACIDAD) {
+                    return eventos[(int) (cursor++ % CAPACIDAD)];
+                }
+                copia = copiar();
+                cursor = publicados;
+            }
+            return instantanea(copia);
+        }
+
+        @Override
+        public void close() {
+            desuscribir();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package servidor;
+
+import model.ConjuntoCambios;
+import model.Coordenadas;
+import model.EstadoCelda;
+import model.TableroBuscaminas;
+
+/**
+ * Texto compacto de los cambios de una jugada, común al protocolo de red y a los espectadores:
+ * " A1=1 A2=0" para las reveladas y " C3=F" o " C3=-" para las marcas puestas o quitadas.
+ */
+final class CodificadorCambios {
+    static final char OCULTA = '.';
+    static final char MARCA = 'F';
+    static final char SIN_MARCA = '-';
+    static final char MINA = '*';
+
+    private CodificadorCambios() {
+    }
+
+    static void anexar(StringBuilder destino, TableroBuscaminas tablero, ConjuntoCambios cambios) {
+        int columnas = tablero.getColumnas();
+        int[] reveladas = cambios.getReveladas();
+        for (int i = 0; i < cambios.getCantidadReveladas(); i++) {
+            anexarCelda(destino, reveladas[i], columnas);
+            destino.append(simbolo(tablero.getAlmacen().leer(reveladas[i])));
+        }
+        int[] marcas = cambios.getMarcas();
+        for (int i = 0; i < cambios.getCantidadMarcas(); i++) {
+            anexarCelda(destino, marcas[i], columnas);
+            destino.append(EstadoCelda.estaMarcada(tablero.getAlmacen().leer(marcas[i])) ? MARCA : SIN_MARCA);
+        }
+    }
+
+    // Lo que ve el jugador: número o mina si está descubierta, marca u oculta si no
+    static char simbolo(int estado) {
+        if (EstadoCelda.estaDescubierta(estado)) {
+            return EstadoCelda.tieneMina(estado) ? MINA : (char) ('0' + EstadoCelda.minasCercanas(estado));
+        }
+        return EstadoCelda.estaMarcada(estado) ? MARCA : OCULTA;
+    }
+
+    private static void anexarCelda(StringBuilder destino, int indice, int columnas) {
+        destino.append(' ');
+        Coordenadas.agregarEtiquetaFila(destino, indice / columnas);
+        destino.append(indice % columnas + 1).append('=');
+    }
+}
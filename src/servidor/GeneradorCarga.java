@@ -0,0 +1,233 @@
+package servidor;
+
+import model.Coordenadas;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Generador de carga local para ServidorJuego: abre muchos clientes simulados, cada uno con una
+ * única jugada en vuelo (envía, espera la respuesta y vuelve a enviar), y mide jugadas por segundo
+ * y percentiles de latencia. Los clientes se reparten entre unos pocos hilos con selectores NIO.
+ *
+ * Cada conexión ocupa un descriptor en el generador y otro en el servidor: con ambos en el mismo
+ * proceso, 10.000 clientes necesitan más de 20.000 descriptores (ver ulimit -n).
+ */
+public final class GeneradorCarga {
+    private static final int TAMANIO_LECTURA = 64 * 1024;
+    private static final int PORCENTAJE_MARCAS = 20;
+
+    public record Resultado(int clientes, int conectados, long jugadas, long nanos,
+                            long p50Nanos, long p99Nanos, long p999Nanos) {
+        public double jugadasPorSegundo() { return nanos == 0 ? 0 : jugadas * 1e9 / nanos; }
+
+        @Override
+        public String toString() {
+            return String.format("%d/%d clientes, %d jugadas en %.1f s: %.0f jugadas/s, p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms",
+                    conectados, clientes, jugadas, nanos / 1e9, jugadasPorSegundo(),
+                    p50Nanos / 1e6, p99Nanos / 1e6, p999Nanos / 1e6);
+        }
+    }
+
+    private GeneradorCarga() {
+    }
+
+    public static Resultado ejecutar(InetSocketAddress destino, int clientes, long duracionNanos, int hilos)
+            throws IOException, InterruptedException {
+        hilos = Math.max(1, Math.min(hilos, clientes));
+        Trabajador[] trabajadores = new Trabajador[hilos];
+        for (int i = 0; i < hilos; i++) {
+            int propios = clientes / hilos + (i < clientes % hilos ? 1 : 0);
+            trabajadores[i] = new Trabajador(destino, propios, 0x5EED_0000L + i);
+        }
+        long inicio = System.nanoTime();
+        long fin = inicio + duracionNanos;
+        Thread[] hilosCarga = new Thread[hilos];
+        for (int i = 0; i < hilos; i++) {
+            Trabajador trabajador = trabajadores[i];
+            hilosCarga[i] = new Thread(() -> trabajador.ejecutar(fin), "generador-carga-" + i);
+            hilosCarga[i].start();
+        }
+        for (Thread hilo : hilosCarga) {
+            hilo.join();
+        }
+        long nanos = System.nanoTime() - inicio;
+
+        HistogramaLatencias latencias = new HistogramaLatencias();
+        int conectados = 0;
+        for (Trabajador trabajador : trabajadores) {
+            if (trabajador.error != null) {
+                throw trabajador.error;
+            }
+            latencias.combinar(trabajador.latencias);
+            conectados += trabajador.conectados;
+        }
+        return new Resultado(clientes, conectados, latencias.getCantidad(), nanos,
+                latencias.percentil(50), latencias.percentil(99), latencias.percentil(99.9));
+    }
+
+    private static final class Cliente {
+        final SocketChannel canal;
+        final SplittableRandom aleatorio;
+        final StringBuilder saludo = new StringBuilder(32);
+        final ByteBuffer envio = ByteBuffer.allocate(32);
+        int filas, columnas;
+        long enviadoEn;
+
+        Cliente(SocketChannel canal, SplittableRandom aleatorio) {
+            this.canal = canal;
+            this.aleatorio = aleatorio;
+        }
+
+        boolean saludado() { return filas > 0; }
+
+        // "HOLA 7; PARTIDA 10 10 15": toma filas y columnas
+        boolean leerSaludo() {
+            int partida = saludo.indexOf("PARTIDA ");
+            if (partida < 0) {
+                return false;
+            }
+            String[] partes = saludo.substring(partida).trim().split(" ");
+            filas = Integer.parseInt(partes[1]);
+            columnas = Integer.parseInt(partes[2]);
+            return true;
+        }
+    }
+
+    private static final class Trabajador {
+        private final InetSocketAddress destino;
+        private final int cantidad;
+        private final SplittableRandom semillas;
+        private final HistogramaLatencias latencias = new HistogramaLatencias();
+        private final ByteBuffer entrada = ByteBuffer.allocateDirect(TAMANIO_LECTURA);
+        private final StringBuilder jugada = new StringBuilder(32);
+        private int conectados;
+        private IOException error;
+
+        Trabajador(InetSocketAddress destino, int cantidad, long semilla) {
+            this.destino = destino;
+            this.cantidad = cantidad;
+            this.semillas = new SplittableRandom(semilla);
+        }
+
+        void ejecutar(long fin) {
+            List<Cliente> clientes = new ArrayList<>(cantidad);
+            try (Selector selector = Selector.open()) {
+                for (int i = 0; i < cantidad; i++) {
+                    SocketChannel canal = SocketChannel.open();
+                    canal.configureBlocking(false);
+                    canal.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                    Cliente cliente = new Cliente(canal, semillas.split());
+                    clientes.add(cliente);
+                    boolean inmediato = canal.connect(destino);
+                    canal.register(selector, inmediato ? SelectionKey.OP_READ : SelectionKey.OP_CONNECT, cliente);
+                    if (inmediato) {
+                        conectados++;
+                    }
+                }
+                long ahora;
+                while ((ahora = System.nanoTime()) < fin) {
+                    selector.select(Math.max(1, (fin - ahora) / 1_000_000));
+                    Iterator<SelectionKey> claves = selector.selectedKeys().iterator();
+                    while (claves.hasNext()) {
+                        SelectionKey clave = claves.next();
+                        claves.remove();
+                        if (clave.isValid()) {
+                            atender(clave, fin);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                error = e;
+            } finally {
+                for (Cliente cliente : clientes) {
+                    try {
+                        cliente.canal.close();
+                    } catch (IOException ignorada) {
+                        // Se cierra igualmente
+                    }
+                }
+            }
+        }
+
+        private void atender(SelectionKey clave, long fin) throws IOException {
+            Cliente cliente = (Cliente) clave.attachment();
+            try {
+                if (clave.isConnectable()) {
+                    cliente.canal.finishConnect();
+                    conectados++;
+                    clave.interestOps(SelectionKey.OP_READ);
+                    return;
+                }
+                if (clave.isWritable()) {
+                    cliente.canal.write(cliente.envio);
+                    if (!cliente.envio.hasRemaining()) {
+                        clave.interestOps(SelectionKey.OP_READ);
+                    }
+                }
+                if (clave.isReadable() && leer(cliente, clave) && System.nanoTime() < fin) {
+                    enviar(cliente, clave);
+                }
+            } catch (IOException e) {
+                clave.cancel(); // Conexión rechazada o cortada: el cliente deja de jugar
+                cliente.canal.close();
+            }
+        }
+
+        // Consume lo recibido; true si llegó la respuesta (o el saludo) y toca enviar otra jugada
+        private boolean leer(Cliente cliente, SelectionKey clave) throws IOException {
+            entrada.clear();
+            if (cliente.canal.read(entrada) < 0) {
+                throw new IOException("El servidor cerró la conexión");
+            }
+            entrada.flip();
+            boolean respondida = false;
+            long ahora = System.nanoTime();
+            while (entrada.hasRemaining()) {
+                byte b = entrada.get();
+                if (!cliente.saludado()) {
+                    if (b == '\n') {
+                        respondida = cliente.leerSaludo();
+                    } else {
+                        cliente.saludo.append((char) b);
+                    }
+                } else if (b == '\n') {
+                    latencias.registrar(ahora - cliente.enviadoEn);
+                    respondida = true;
+                }
+            }
+            return respondida;
+        }
+
+        // "C7" o "marcar C7" en una celda al azar
+        private void enviar(Cliente cliente, SelectionKey clave) throws IOException {
+            jugada.setLength(0);
+            if (cliente.aleatorio.nextInt(100) < PORCENTAJE_MARCAS) {
+                jugada.append("marcar ");
+            }
+            Coordenadas.agregarEtiquetaFila(jugada, cliente.aleatorio.nextInt(cliente.filas));
+            jugada.append(cliente.aleatorio.nextInt(cliente.columnas) + 1).append('\n');
+
+            ByteBuffer envio = cliente.envio;
+            envio.clear();
+            for (int i = 0; i < jugada.length(); i++) {
+                envio.put((byte) jugada.charAt(i));
+            }
+            envio.flip();
+            cliente.enviadoEn = System.nanoTime();
+            cliente.canal.write(envio);
+            if (envio.hasRemaining()) {
+                clave.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        }
+    }
+}
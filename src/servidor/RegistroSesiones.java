@@ -0,0 +1,200 @@
+package servidor;
+
+import model.TableroBuscaminas;
+import persistencia.FormatoPartida;
+import persistencia.FormatoPartida.Partida;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Partidas de las sesiones con un presupuesto de memoria: las recientes quedan en memoria y las que
+ * pasan del límite de partidas o de bytes, o llevan demasiado tiempo sin jugarse, se expulsan a disco
+ * en el formato binario de partidas (LRU más caducidad). obtener() las vuelve a cargar sin que
+ * la sesión note nada.
+ *
+ * No es seguro entre hilos: cada bucle de eventos del servidor tiene el suyo. Los contadores
+ * sí se pueden leer desde otros hilos.
+ */
+public final class RegistroSesiones {
+    // Objetos del tablero, motor de expansión, cambios... además de un byte por celda
+    private static final int BYTES_FIJOS_POR_PARTIDA = 512;
+
+    public record Limites(int maximoPartidas, long maximoBytes, long inactividadNanos) {
+        public static final Limites POR_DEFECTO = new Limites(100_000, 256L << 20, 5 * 60 * 1_000_000_000L);
+
+        public Limites {
+            if (maximoPartidas < 1 || maximoBytes < 1 || inactividadNanos < 1) {
+                throw new IllegalArgumentException("Los límites del registro deben ser positivos");
+            }
+        }
+
+        // Reparte el presupuesto entre varios registros
+        public Limites dividir(int partes) {
+            return new Limites(Math.max(1, maximoPartidas / partes), Math.max(1, maximoBytes / partes), inactividadNanos);
+        }
+    }
+
+    public record Contadores(long aciertos, long fallos, long expulsiones, int residentes, int enDisco) {
+        public Contadores sumar(Contadores otros) {
+            return new Contadores(aciertos + otros.aciertos, fallos + otros.fallos, expulsiones + otros.expulsiones,
+                    residentes + otros.residentes, enDisco + otros.enDisco);
+        }
+    }
+
+    private static final class Residente {
+        Partida partida;
+        long bytes;
+        long ultimoUso;
+    }
+
+    private final Path directorio;
+    private final Limites limites;
+    // En orden de acceso: la primera es la menos usada
+    private final LinkedHashMap<Long, Residente> residentes = new LinkedHashMap<>(64, 0.75f, true);
+    private final Set<Long> enDisco = new HashSet<>();
+    private volatile long bytesResidentes;
+    private volatile long aciertos, fallos, expulsiones;
+    private volatile int cantidadResidentes, cantidadEnDisco;
+
+    public RegistroSesiones(Path directorio, Limites limites) throws IOException {
+        this.directorio = Files.createDirectories(directorio);
+        this.limites = limites;
+    }
+
+    // Guarda (o reemplaza) la partida de una sesión como la más reciente
+    public void poner(long id, TableroBuscaminas tablero, Instant inicioPartida) throws IOException {
+        if (enDisco.remove(id)) {
+            Files.deleteIfExists(archivo(id));
+        }
+        Residente residente = residentes.get(id);
+        if (residente == null) {
+            residente = new Residente();
+            residentes.put(id, residente);
+        } else {
+            bytesResidentes -= residente.bytes;
+        }
+        residente.partida = new Partida(tablero, inicioPartida);
+        residente.bytes = BYTES_FIJOS_POR_PARTIDA + (long) tablero.getFilas() * tablero.getColumnas();
+        residente.ultimoUso = System.nanoTime();
+        bytesResidentes += residente.bytes;
+        ajustarPresupuesto();
+    }
+
+    /**
+     * Partida de la sesión, cargándola de disco si se había expulsado; null si no hay ninguna.
+     * El tablero devuelto es válido hasta la próxima llamada a poner() u obtener() de otra sesión.
+     */
+    public Partida obtener(long id) throws IOException {
+        Residente residente = residentes.get(id);
+        if (residente != null) {
+            aciertos++;
+            residente.ultimoUso = System.nanoTime();
+            return residente.partida;
+        }
+        if (!enDisco.contains(id)) {
+            return null;
+        }
+        fallos++;
+        Path ruta = archivo(id);
+        Partida partida = FormatoPartida.leer(ByteBuffer.wrap(Files.readAllBytes(ruta)));
+        poner(id, partida.tablero(), partida.inicioPartida()); // Borra el archivo
+        return partida;
+    }
+
+    // La sesión terminó: olvida su partida, esté donde esté
+    public void quitar(long id) throws IOException {
+        Residente residente = residentes.remove(id);
+        if (residente != null) {
+            bytesResidentes -= residente.bytes;
+        }
+        if (enDisco.remove(id)) {
+            Files.deleteIfExists(archivo(id));
+        }
+        actualizarCantidades();
+    }
+
+    // Expulsa las partidas sin jugar desde hace más que la inactividad máxima; devuelve cuántas
+    public int expulsarInactivas() throws IOException {
+        return expulsarInactivas(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Como expulsarInactivas(), pero escribe como mucho maximo partidas: el bucle de eventos reparte
+     * una ola de sesiones inactivas en varias vueltas en lugar de parar todas sus conexiones.
+     */
+    public int expulsarInactivas(int maximo) throws IOException {
+        long limite = System.nanoTime() - limites.inactividadNanos();
+        int expulsadas = 0;
+        Iterator<Map.Entry<Long, Residente>> iterador = residentes.entrySet().iterator();
+        while (expulsadas < maximo && iterador.hasNext()) {
+            Map.Entry<Long, Residente> entrada = iterador.next();
+            if (entrada.getValue().ultimoUso - limite > 0) {
+                break; // Las siguientes se usaron más tarde
+            }
+            expulsar(iterador, entrada);
+            expulsadas++;
+        }
+        actualizarCantidades();
+        return expulsadas;
+    }
+
+    // Borra las partidas expulsadas que queden en disco
+    public void vaciar() throws IOException {
+        for (long id : enDisco) {
+            Files.deleteIfExists(archivo(id));
+        }
+        enDisco.clear();
+        residentes.clear();
+        bytesResidentes = 0;
+        actualizarCantidades();
+    }
+
+    // La más reciente no se expulsa nunca: es la que se está jugando
+    private void ajustarPresupuesto() throws IOException {
+        Iterator<Map.Entry<Long, Residente>> iterador = residentes.entrySet().iterator();
+        while (residentes.size() > 1
+                && (residentes.size() > limites.maximoPartidas() || bytesResidentes > limites.maximoBytes())) {
+            expulsar(iterador, iterador.next());
+        }
+        actualizarCantidades();
+    }
+
+    // Escritura directa sin fsync: el archivo es una extensión de la memoria, no un guardado
+    private void expulsar(Iterator<Map.Entry<Long, Residente>> iterador, Map.Entry<Long, Residente> entrada) throws IOException {
+        Residente residente = entrada.getValue();
+        FormatoPartida.guardar(archivo(entrada.getKey()), residente.partida.tablero(), residente.partida.inicioPartida());
+        iterador.remove();
+        enDisco.add(entrada.getKey());
+        bytesResidentes -= residente.bytes;
+        expulsiones++;
+    }
+
+    private void actualizarCantidades() {
+        cantidadResidentes = residentes.size();
+        cantidadEnDisco = enDisco.size();
+    }
+
+    private Path archivo(long id) {
+        return directorio.resolve(id + ".partida");
+    }
+
+    public Contadores getContadores() {
+        return new Contadores(aciertos, fallos, expulsiones, cantidadResidentes, cantidadEnDisco);
+    }
+
+    public long getAciertos() { return aciertos; }
+    public long getFallos() { return fallos; }
+    public long getExpulsiones() { return expulsiones; }
+    public int getResidentes() { return cantidadResidentes; }
+    public int getEnDisco() { return cantidadEnDisco; }
+    public long getBytesResidentes() { return bytesResidentes; }
+}
@@ -0,0 +1,381 @@
+package servidor;
+
+import model.Configuracion;
+import model.TableroBuscaminas;
+import persistencia.ServicioGuardado;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Servidor TCP de partidas: cada conexión juega su propio tablero con un protocolo de líneas
+ * que reutiliza la gramática del modo interactivo ("A1 B2", "marcar C3", "guardar", "salir").
+ *
+ * Unos pocos hilos con selectores NIO atienden todas las conexiones, así que miles de partidas
+ * no cuestan miles de hilos. El primer bucle acepta las conexiones y las reparte por turnos.
+ * Cada línea recibida recibe una línea de respuesta con los cambios del tablero (ver SesionRemota);
+ * al terminar una partida empieza otra en la misma conexión.
+ *
+ * Cada bucle guarda las partidas de sus conexiones en un RegistroSesiones con su parte de los límites:
+ * las conexiones inactivas ceden la memoria de su tablero y lo recuperan al enviar la siguiente línea.
+ *
+ * Con transmitirA las partidas que empiecen a partir de entonces también se pueden mirar por HTTP.
+ */
+public final class ServidorJuego implements Closeable {
+    private static final int TAMANIO_LECTURA = 16 * 1024;
+    // Con más salida pendiente se deja de leer al cliente hasta que la consuma
+    private static final int LIMITE_PENDIENTE = 1 << 20;
+    private static final long INTERVALO_CADUCIDAD_NANOS = 1_000_000_000L;
+    // Escrituras a disco por vuelta del bucle: el resto de la ola espera a las vueltas siguientes
+    private static final int EXPULSIONES_POR_VUELTA = 32;
+
+    private final int filas, columnas, minas;
+    private final Path directorioGuardado;
+    private final RegistroSesiones.Limites limites;
+    private final ServerSocketChannel aceptador;
+    private final BucleEventos[] bucles;
+    private final ServicioGuardado guardado = new ServicioGuardado();
+    private final AtomicLong siguienteSesion = new AtomicLong(1);
+    private final AtomicInteger sesionesActivas = new AtomicInteger();
+    private final LongAdder jugadas = new LongAdder();
+    private final LongAdder guardadosFallidos = new LongAdder();
+    private int turno;
+    private volatile boolean cerrado;
+    private volatile TransmisionEspectadores transmision;
+
+    public ServidorJuego(int puerto, int hilos, int filas, int columnas, int minas, Path directorioGuardado) throws IOException {
+        this(puerto, hilos, filas, columnas, minas, directorioGuardado, RegistroSesiones.Limites.POR_DEFECTO);
+    }
+
+    public ServidorJuego(int puerto, int hilos, int filas, int columnas, int minas, Path directorioGuardado,
+                         RegistroSesiones.Limites limites) throws IOException {
+        if (hilos < 1) {
+            throw new IllegalArgumentException("Se necesita al menos un hilo");
+        }
+        new Configuracion(filas, columnas, minas); // Valida sin crear un tablero
+        this.filas = filas;
+        this.columnas = columnas;
+        this.minas = minas;
+        this.directorioGuardado = directorioGuardado;
+        this.limites = limites.dividir(hilos);
+        Files.createDirectories(directorioGuardado);
+
+        aceptador = ServerSocketChannel.open();
+        aceptador.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        aceptador.bind(new InetSocketAddress(puerto), 4096);
+        aceptador.configureBlocking(false);
+        bucles = new BucleEventos[hilos];
+        for (int i = 0; i < hilos; i++) {
+            bucles[i] = new BucleEventos(i);
+        }
+        aceptador.register(bucles[0].selector, SelectionKey.OP_ACCEPT);
+        for (BucleEventos bucle : bucles) {
+            bucle.hilo.start();
+        }
+    }
+
+    public ServidorJuego(int puerto) throws IOException {
+        this(puerto, Runtime.getRuntime().availableProcessors(), TableroBuscaminas.FILAS_POR_DEFECTO,
+                TableroBuscaminas.COLUMNAS_POR_DEFECTO, TableroBuscaminas.MINAS_POR_DEFECTO, Path.of("partidas-red"));
+    }
+
+    private final class BucleEventos implements Runnable {
+        final Selector selector;
+        final Thread hilo;
+        final Queue<SocketChannel> nuevas = new ConcurrentLinkedQueue<>();
+        // Un búfer de lectura por bucle: cada sesión guarda su línea a medias
+        final ByteBuffer entrada = ByteBuffer.allocateDirect(TAMANIO_LECTURA);
+        final RegistroSesiones registro;
+        long ultimaCaducidad = System.nanoTime();
+        // Quedaron partidas inactivas por expulsar: la próxima vuelta no espera al intervalo
+        boolean caducidadPendiente;
+
+        BucleEventos(int numero) throws IOException {
+            registro = new RegistroSesiones(directorioGuardado.resolve("expulsadas").resolve("bucle-" + numero), limites);
+            selector = Selector.open();
+            hilo = new Thread(this, "servidor-juego-" + numero);
+            hilo.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!cerrado) {
+                    if (caducidadPendiente) {
+                        selector.selectNow();
+                    } else {
+                        selector.select(INTERVALO_CADUCIDAD_NANOS / 1_000_000);
+                    }
+                    registrarNuevas();
+                    Iterator<SelectionKey> claves = selector.selectedKeys().iterator();
+                    while (claves.hasNext()) {
+                        SelectionKey clave = claves.next();
+                        claves.remove();
+                        if (!clave.isValid()) {
+                            continue;
+                        }
+                        if (clave.isAcceptable()) {
+                            aceptar();
+                        } else {
+                            atender(clave);
+                        }
+                    }
+                    if (this == bucles[0]) {
+                        recogerGuardados();
+                    }
+                    caducar();
+                }
+            } catch (IOException e) {
+                System.err.println("Error en el servidor: " + e.getMessage());
+            } finally {
+                for (SelectionKey clave : selector.keys()) {
+                    if (clave.attachment() instanceof SesionRemota sesion) {
+                        cerrar(clave, sesion);
+                    }
+                }
+                SocketChannel canal;
+                while ((canal = nuevas.poll()) != null) {
+                    cerrarCanal(canal);
+                }
+                try {
+                    selector.close();
+                    registro.vaciar();
+                } catch (IOException ignorada) {
+                    // Ya se está cerrando
+                }
+            }
+        }
+
+        /**
+         * Una vez por intervalo expulsa a disco las partidas inactivas, pocas por vuelta: si quedan,
+         * sigue en las vueltas siguientes después de atender las conexiones listas.
+         */
+        private void caducar() {
+            long ahora = System.nanoTime();
+            if (!caducidadPendiente && ahora - ultimaCaducidad < INTERVALO_CADUCIDAD_NANOS) {
+                return;
+            }
+            ultimaCaducidad = ahora;
+            try {
+                caducidadPendiente = registro.expulsarInactivas(EXPULSIONES_POR_VUELTA) == EXPULSIONES_POR_VUELTA;
+            } catch (IOException e) {
+                caducidadPendiente = false;
+                System.err.println("No se pudo expulsar una partida a disco: " + e.getMessage());
+            }
+        }
+
+        private void registrarNuevas() {
+            SocketChannel canal;
+            while ((canal = nuevas.poll()) != null) {
+                registrar(canal);
+            }
+        }
+
+        void registrar(SocketChannel canal) {
+            SesionRemota sesion;
+            SelectionKey clave;
+            try {
+                sesion = new SesionRemota(siguienteSesion.getAndIncrement(), canal, ServidorJuego.this, registro);
+            } catch (IOException e) {
+                cerrarCanal(canal); // El constructor ya deshizo lo suyo
+                return;
+            }
+            try {
+                clave = canal.register(selector, SelectionKey.OP_READ, sesion);
+            } catch (IOException e) {
+                // La partida ya está en el registro y en la transmisión: se quitan de ambos
+                sesion.terminar();
+                cerrarCanal(canal);
+                return;
+            }
+            sesionesActivas.incrementAndGet();
+            try {
+                escribir(clave, sesion); // Saludo
+            } catch (IOException e) {
+                cerrar(clave, sesion);
+            }
+        }
+
+        private void atender(SelectionKey clave) {
+            SesionRemota sesion = (SesionRemota) clave.attachment();
+            try {
+                if (clave.isReadable()) {
+                    entrada.clear();
+                    if (sesion.canal.read(entrada) < 0) {
+                        cerrar(clave, sesion);
+                        return;
+                    }
+                    entrada.flip();
+                    sesion.recibir(entrada);
+                }
+                escribir(clave, sesion);
+            } catch (IOException e) {
+                cerrar(clave, sesion); // Cliente desconectado
+            }
+        }
+
+        // Escribe lo pendiente y ajusta el interés: OP_WRITE solo mientras quede salida
+        private void escribir(SelectionKey clave, SesionRemota sesion) throws IOException {
+            if (sesion.escribir()) {
+                if (sesion.isCerrarTrasEscribir()) {
+                    cerrar(clave, sesion);
+                } else {
+                    clave.interestOps(SelectionKey.OP_READ);
+                }
+            } else if (sesion.pendientes() > LIMITE_PENDIENTE || sesion.isCerrarTrasEscribir()) {
+                clave.interestOps(SelectionKey.OP_WRITE);
+            } else {
+                clave.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        }
+    }
+
+    private void aceptar() {
+        SocketChannel canal;
+        while ((canal = aceptarSiguiente()) != null) {
+            BucleEventos bucle = bucles[turno];
+            turno = (turno + 1) % bucles.length;
+            if (bucle == bucles[0]) {
+                bucle.registrar(canal);
+            } else {
+                bucle.nuevas.add(canal);
+                bucle.selector.wakeup();
+            }
+        }
+    }
+
+    // null si no hay más conexiones en espera o no se pudo aceptar (p. ej. sin descriptores libres)
+    private SocketChannel aceptarSiguiente() {
+        SocketChannel canal = null;
+        try {
+            canal = aceptador.accept();
+            if (canal != null) {
+                canal.configureBlocking(false);
+                canal.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            }
+            return canal;
+        } catch (IOException e) {
+            if (canal != null) {
+                cerrarCanal(canal);
+            }
+            return null;
+        }
+    }
+
+    private void cerrar(SelectionKey clave, SesionRemota sesion) {
+        clave.cancel();
+        sesion.terminar();
+        cerrarCanal(sesion.canal);
+        sesionesActivas.decrementAndGet();
+    }
+
+    private static void cerrarCanal(SocketChannel canal) {
+        try {
+            canal.close();
+        } catch (IOException ignorada) {
+            // La conexión ya no sirve
+        }
+    }
+
+    private void recogerGuardados() {
+        for (ServicioGuardado.Resultado resultado : guardado.recogerResultados()) {
+            if (!resultado.exitoso()) {
+                guardadosFallidos.increment();
+            }
+        }
+    }
+
+    // Llamados desde las sesiones, en el hilo de su bucle
+    TableroBuscaminas crearTablero() {
+        return new TableroBuscaminas(filas, columnas, minas, ThreadLocalRandom.current().nextLong(), true);
+    }
+
+    void guardar(SesionRemota sesion, TableroBuscaminas tablero, Instant inicioPartida) {
+        guardado.guardarPartida(directorioGuardado.resolve("sesion-" + sesion.id + ".dat"), tablero, inicioPartida);
+    }
+
+    void contarJugada() {
+        jugadas.increment();
+    }
+
+    // null si el servidor no transmite a espectadores
+    CanalPartida abrirTransmision(long sesion) {
+        TransmisionEspectadores actual = transmision;
+        return actual != null ? actual.abrir(sesion) : null;
+    }
+
+    void cerrarTransmision(CanalPartida canal) {
+        canal.cerrar();
+    }
+
+    // Publica las partidas de las conexiones nuevas en la transmisión dada
+    public void transmitirA(TransmisionEspectadores transmision) {
+        this.transmision = transmision;
+    }
+
+    public int getPuerto() { return aceptador.socket().getLocalPort(); }
+    public int getSesionesActivas() { return sesionesActivas.get(); }
+    public long getJugadas() { return jugadas.sum(); }
+    public long getGuardadosFallidos() { return guardadosFallidos.sum(); }
+
+    // Aciertos, cargas desde disco y expulsiones de todos los registros
+    public RegistroSesiones.Contadores getContadoresSesiones() {
+        RegistroSesiones.Contadores total = new RegistroSesiones.Contadores(0, 0, 0, 0, 0);
+        for (BucleEventos bucle : bucles) {
+            total = total.sumar(bucle.registro.getContadores());
+        }
+        return total;
+    }
+
+    // Bloquea hasta que el servidor se cierre
+    public void esperar() throws InterruptedException {
+        for (BucleEventos bucle : bucles) {
+            bucle.hilo.join();
+        }
+    }
+
+    // Cierra todas las conexiones y espera a los bucles y a los guardados pendientes
+    @Override
+    public void close() {
+        cerrado = true;
+        for (BucleEventos bucle : bucles) {
+            bucle.selector.wakeup();
+        }
+        boolean interrumpido = false;
+        for (BucleEventos bucle : bucles) {
+            while (bucle.hilo.isAlive()) {
+                try {
+                    bucle.hilo.join();
+                } catch (InterruptedException e) {
+                    interrumpido = true;
+                }
+            }
+        }
+        try {
+            aceptador.close();
+        } catch (IOException ignorada) {
+            // Nada más que hacer
+        }
+        guardado.close();
+        if (interrumpido) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package servidor;
+
+import controller.AnalizadorComandos;
+import model.ConjuntoCambios;
+import model.ResultadoJugada;
+import model.TableroBuscaminas;
+import persistencia.FormatoPartida.Partida;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.Instant;
+
+/**
+ * Una conexión del servidor con su partida. Solo la toca el bucle de eventos que la atiende,
+ * así que no necesita sincronización. Cada línea recibida produce exactamente una línea de respuesta
+ * con un segmento por comando, separados por "; ".
+ *
+ * La partida vive en el registro del bucle, que puede expulsarla a disco mientras la conexión
+ * está inactiva: la sesión solo la retiene mientras procesa una línea.
+ */
+final class SesionRemota {
+    static final int LARGO_MAXIMO_LINEA = 8192;
+
+    final long id;
+    final SocketChannel canal;
+    private final ServidorJuego servidor;
+    private final RegistroSesiones registro;
+    private final CanalPartida espectadores; // null: el servidor no transmite
+    private final AnalizadorComandos analizador = new AnalizadorComandos();
+    private final StringBuilder linea = new StringBuilder(64);
+    private final StringBuilder respuesta = new StringBuilder(256);
+    private ByteBuffer salida = ByteBuffer.allocate(512);
+    private boolean cerrarTrasEscribir;
+
+    // Solo mientras se procesa una línea
+    private TableroBuscaminas tablero;
+    private Instant inicioPartida;
+
+    SesionRemota(long id, SocketChannel canal, ServidorJuego servidor, RegistroSesiones registro) throws IOException {
+        this.id = id;
+        this.canal = canal;
+        this.servidor = servidor;
+        this.registro = registro;
+        this.espectadores = servidor.abrirTransmision(id);
+        try {
+            nuevaPartida();
+        } catch (IOException | RuntimeException e) {
+            // Sin sesión no queda canal de espectadores abierto ni partida en el registro
+            terminar();
+            throw e;
+        }
+        respuesta.append("HOLA ").append(id).append("; ");
+        anexarPartida();
+        terminarRespuesta();
+        tablero = null;
+    }
+
+    // Procesa las líneas completas recibidas; lo que sobra queda para la próxima lectura
+    void recibir(ByteBuffer entrada) throws IOException {
+        while (entrada.hasRemaining() && !cerrarTrasEscribir) {
+            byte b = entrada.get();
+            if (b == '\n') {
+                procesarLinea();
+                linea.setLength(0);
+            } else if (b != '\r') {
+                if (linea.length() == LARGO_MAXIMO_LINEA) {
+                    respuesta.append("ERROR LINEA_DEMASIADO_LARGA");
+                    terminarRespuesta();
+                    cerrarTrasEscribir = true;
+                    return;
+                }
+                linea.append((char) (b & 0xFF)); // Los comandos son ASCII
+            }
+        }
+    }
+
+    private void procesarLinea() throws IOException {
+        Partida partida = registro.obtener(id);
+        if (partida == null) {
+            throw new IOException("La sesión " + id + " no tiene partida");
+        }
+        tablero = partida.tablero();
+        inicioPartida = partida.inicioPartida();
+        analizador.reiniciar(linea);
+        boolean primero = true;
+        AnalizadorComandos.Tipo tipo;
+        while (!cerrarTrasEscribir && (tipo = analizador.siguiente()) != AnalizadorComandos.Tipo.FIN) {
+            if (!primero) {
+                respuesta.append("; ");
+            }
+            primero = false;
+            switch (tipo) {
+                case DESCUBRIR -> jugar(tablero.intentarDescubrir(analizador.getFila(), analizador.getColumna()));
+                case MARCAR -> jugar(tablero.intentarMarcar(analizador.getFila(), analizador.getColumna()));
+                case GUARDAR -> {
+                    servidor.guardar(this, tablero, inicioPartida);
+                    respuesta.append("GUARDANDO");
+                }
+                case SALIR -> {
+                    respuesta.append("ADIOS");
+                    cerrarTrasEscribir = true;
+                }
+                case AYUDA -> respuesta.append("AYUDA A1 | marcar A1 | guardar | salir");
+                case INVALIDO -> respuesta.append("ERROR COMANDO ").append(analizador.getTextoError());
+                default -> respuesta.append("IGNORADO"); // Vista y pista: no aplican en red
+            }
+        }
+        terminarRespuesta();
+        tablero = null;
+        inicioPartida = null;
+    }
+
+    // "REVELADA A1=1 A2=0", "MARCADA C3=F", "MINA B2=*"... y, si la partida terminó, otra nueva
+    private void jugar(ResultadoJugada jugada) throws IOException {
+        respuesta.append(jugada.name());
+        if (jugada.esError()) {
+            return;
+        }
+        servidor.contarJugada();
+        ConjuntoCambios cambios = tablero.getUltimosCambios();
+        CodificadorCambios.anexar(respuesta, tablero, cambios);
+        if (espectadores != null) {
+            espectadores.alCambiar(tablero, cambios);
+        }
+        if (cambios.getTransicion() != ConjuntoCambios.Transicion.NINGUNA) {
+            respuesta.append("; FIN ").append(cambios.getTransicion().name()).append("; ");
+            nuevaPartida();
+            anexarPartida();
+        }
+    }
+
+    private void nuevaPartida() throws IOException {
+        tablero = servidor.crearTablero();
+        inicioPartida = Instant.now();
+        registro.poner(id, tablero, inicioPartida);
+        if (espectadores != null) {
+            espectadores.reiniciar(tablero);
+        }
+    }
+
+    // La conexión se cerró: la partida ya no se puede retomar
+    void terminar() {
+        if (espectadores != null) {
+            servidor.cerrarTransmision(espectadores);
+        }
+        try {
+            registro.quitar(id);
+        } catch (IOException ignorada) {
+            // Solo queda un archivo huérfano en el directorio de expulsadas
+        }
+    }
+
+    private void anexarPartida() {
+        respuesta.append("PARTIDA ").append(tablero.getFilas()).append(' ')
+                .append(tablero.getColumnas()).append(' ').append(tablero.getTotalMinas());
+    }
+
+    // Pasa la respuesta en curso al búfer de salida
+    private void terminarRespuesta() {
+        respuesta.append('\n');
+        if (salida.remaining() < respuesta.length()) {
+            int capacidad = salida.capacity();
+            while (capacidad - salida.position() < respuesta.length()) {
+                capacidad *= 2;
+            }
+            ByteBuffer ampliado = ByteBuffer.allocate(capacidad);
+            salida.flip();
+            ampliado.put(salida);
+            salida = ampliado;
+        }
+        for (int i = 0; i < respuesta.length(); i++) {
+            salida.put((byte) respuesta.charAt(i));
+        }
+        respuesta.setLength(0);
+    }
+
+    // Escribe lo que el canal acepte; true si no quedó nada pendiente
+    boolean escribir() throws IOException {
+        salida.flip();
+        try {
+            canal.write(salida);
+            return !salida.hasRemaining();
+        } finally {
+            salida.compact();
+        }
+    }
+
+    int pendientes() { return salida.position(); }
+    boolean isCerrarTrasEscribir() { return cerrarTrasEscribir; }
+}
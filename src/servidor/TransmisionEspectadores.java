@@ -0,0 +1,239 @@
+package servidor;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Transmisión de solo lectura de las partidas del servidor por HTTP local, con server-sent events.
+ *
+ * GET /partidas lista las partidas en curso. GET /partidas/{id}/eventos abre un flujo que empieza
+ * con "tablero" (todo lo visible, en JSON) y sigue con un "jugada" por jugada ("A1=1 A2=0 C3=F",
+ * con "VICTORIA;" o "DERROTA;" delante si la terminó); "fin" cierra el flujo al irse el jugador.
+ *
+ * Cada partida codifica sus jugadas una sola vez (CanalPartida) y todos sus espectadores leen los
+ * mismos bytes. El jugador nunca espera a un espectador: deja el evento y encola un aviso que
+ * reparte el hilo de avisos. Un espectador lento que se queda atrás recibe una instantánea nueva.
+ *
+ * Por defecto solo escucha en la interfaz local. Cada flujo ocupa un hilo, así que los flujos
+ * abiertos tienen un máximo (los demás reciben 503) y unos pocos hilos más quedan para las
+ * respuestas cortas.
+ */
+public final class TransmisionEspectadores implements Closeable {
+    private static final long ESPERA_LATIDO_MILISEGUNDOS = 15_000;
+    private static final byte[] LATIDO = ": latido\n\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FIN = "event: fin\ndata: \n\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] REINTENTO = "retry: 2000\n\n".getBytes(StandardCharsets.US_ASCII);
+    public static final int MAXIMO_ESPECTADORES_POR_DEFECTO = 256;
+    // Hilos además de los flujos, para listar partidas y rechazar peticiones
+    private static final int HILOS_RESERVA = 4;
+
+    private final HttpServer http;
+    private final ExecutorService ejecutor;
+    private final ConcurrentHashMap<Long, CanalPartida> canales = new ConcurrentHashMap<>();
+    private final Queue<CanalPartida> avisos = new ConcurrentLinkedQueue<>();
+    private final Thread avisador;
+    private final AtomicInteger espectadores = new AtomicInteger();
+    private final int maximoEspectadores;
+    private volatile boolean cerrado;
+
+    // Solo en la interfaz local (127.0.0.1)
+    public TransmisionEspectadores(int puerto) throws IOException {
+        this(new InetSocketAddress(InetAddress.getLoopbackAddress(), puerto), MAXIMO_ESPECTADORES_POR_DEFECTO);
+    }
+
+    public TransmisionEspectadores(InetSocketAddress direccion, int maximoEspectadores) throws IOException {
+        if (maximoEspectadores < 1) {
+            throw new IllegalArgumentException("Debe admitir al menos un espectador");
+        }
+        this.maximoEspectadores = maximoEspectadores;
+        http = HttpServer.create(direccion, 1024);
+        // Un hilo por espectador conectado (el flujo SSE es una respuesta que no termina), con tope
+        AtomicInteger numero = new AtomicInteger();
+        int hilos = maximoEspectadores + HILOS_RESERVA;
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(hilos, hilos, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                tarea -> {
+                    Thread hilo = new Thread(tarea, "espectador-" + numero.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        ejecutor = pool;
+        http.setExecutor(ejecutor);
+        http.createContext("/partidas", this::atender);
+        avisador = new Thread(this::repartirAvisos, "avisos-espectadores");
+        avisador.setDaemon(true);
+        avisador.start();
+        http.start();
+    }
+
+    // Llamados desde el servidor de juego
+    CanalPartida abrir(long sesion) {
+        CanalPartida canal = new CanalPartida(sesion, this);
+        canales.put(sesion, canal);
+        return canal;
+    }
+
+    void quitar(CanalPartida canal) {
+        canales.remove(canal.id, canal);
+    }
+
+    // Desde el hilo del jugador: O(1) y sin bloquear; los avisos repetidos se funden en uno
+    void avisar(CanalPartida canal) {
+        if (canal.avisoPendiente.compareAndSet(false, true)) {
+            avisos.add(canal);
+            LockSupport.unpark(avisador);
+        }
+    }
+
+    private void repartirAvisos() {
+        while (true) {
+            boolean terminar = cerrado;
+            CanalPartida canal;
+            boolean repartio = false;
+            while ((canal = avisos.poll()) != null) {
+                repartio = true;
+                canal.avisoPendiente.set(false);
+                synchronized (canal) {
+                    canal.notifyAll();
+                }
+            }
+            if (!repartio) {
+                if (terminar) {
+                    return;
+                }
+                LockSupport.park(this);
+            }
+        }
+    }
+
+    private void atender(HttpExchange intercambio) throws IOException {
+        try (intercambio) {
+            if (!intercambio.getRequestMethod().equals("GET")) {
+                responder(intercambio, 405, "Solo GET");
+                return;
+            }
+            String[] partes = intercambio.getRequestURI().getPath().split("/");
+            // "", "partidas"[, id, "eventos"]
+            if (partes.length == 2) {
+                listar(intercambio);
+            } else if (partes.length == 4 && partes[3].equals("eventos")) {
+                CanalPartida canal = canales.get(leerId(partes[2]));
+                if (canal == null) {
+                    responder(intercambio, 404, "No existe la partida " + partes[2]);
+                } else {
+                    transmitir(intercambio, canal);
+                }
+            } else {
+                responder(intercambio, 404, "Ruta desconocida");
+            }
+        }
+    }
+
+    // {"partidas":[1,2,3]}
+    private void listar(HttpExchange intercambio) throws IOException {
+        StringBuilder json = new StringBuilder("{\"partidas\":[");
+        boolean primera = true;
+        for (Long id : canales.keySet()) {
+            if (!primera) {
+                json.append(',');
+            }
+            primera = false;
+            json.append(id);
+        }
+        json.append("]}");
+        intercambio.getResponseHeaders().set("Content-Type", "application/json");
+        responder(intercambio, 200, json.toString());
+    }
+
+    private void transmitir(HttpExchange intercambio, CanalPartida canal) throws IOException {
+        // Los flujos nunca toman los hilos de reserva
+        if (espectadores.incrementAndGet() > maximoEspectadores) {
+            espectadores.decrementAndGet();
+            responder(intercambio, 503, "Demasiados espectadores");
+            return;
+        }
+        try {
+            enviarEventos(intercambio, canal);
+        } finally {
+            espectadores.decrementAndGet();
+        }
+    }
+
+    private void enviarEventos(HttpExchange intercambio, CanalPartida canal) throws IOException {
+        intercambio.getResponseHeaders().set("Content-Type", "text/event-stream");
+        intercambio.getResponseHeaders().set("Cache-Control", "no-cache");
+        intercambio.sendResponseHeaders(200, 0);
+        OutputStream cuerpo = intercambio.getResponseBody();
+        try (CanalPartida.Suscripcion suscripcion = canal.suscribir()) {
+            cuerpo.write(REINTENTO);
+            byte[] evento;
+            while ((evento = suscripcion.siguiente(ESPERA_LATIDO_MILISEGUNDOS)) != null) {
+                // El latido mantiene viva la conexión y descubre a los espectadores que se fueron
+                cuerpo.write(evento.length == 0 ? LATIDO : evento);
+                cuerpo.flush();
+            }
+            cuerpo.write(FIN);
+            cuerpo.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long leerId(String texto) {
+        try {
+            return Long.parseLong(texto);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void responder(HttpExchange intercambio, int codigo, String texto) throws IOException {
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        intercambio.sendResponseHeaders(codigo, bytes.length);
+        intercambio.getResponseBody().write(bytes);
+    }
+
+    public int getPuerto() { return http.getAddress().getPort(); }
+    public InetSocketAddress getDireccion() { return http.getAddress(); }
+    public int getPartidas() { return canales.size(); }
+    public int getEspectadores() { return espectadores.get(); }
+
+    // Termina todos los flujos con "fin" y deja de escuchar
+    @Override
+    public void close() {
+        cerrado = true;
+        for (CanalPartida canal : canales.values()) {
+            canal.cerrar();
+        }
+        http.stop(1);
+        ejecutor.shutdownNow();
+        LockSupport.unpark(avisador);
+        boolean interrumpido = false;
+        while (avisador.isAlive()) {
+            try {
+                avisador.join();
+            } catch (InterruptedException e) {
+                interrumpido = true;
+            }
+        }
+        if (interrumpido) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
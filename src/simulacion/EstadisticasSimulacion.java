@@ -0,0 +1,76 @@
+package simulacion;
+
+/**
+ * Resultados agregados de un lote de partidas. No es segura entre hilos: cada tarea del simulador
+ * llena la suya y se combinan al unir las tareas, sin contención durante la simulación.
+ * Los tiempos de resolución de las victorias se guardan en un histograma de potencias de dos.
+ */
+public final class EstadisticasSimulacion {
+    private static final int CUBETAS = 64;
+
+    private long partidas, victorias, derrotas, sinTerminar;
+    private long jugadas;
+    private long nanos;
+    // Cubeta k: victorias que tardaron entre 2^k y 2^(k+1) - 1 nanosegundos
+    private final long[] histogramaVictorias = new long[CUBETAS];
+
+    void registrar(boolean victoria, boolean derrota, long jugadasPartida, long nanosPartida) {
+        partidas++;
+        if (victoria) {
+            victorias++;
+            histogramaVictorias[63 - Long.numberOfLeadingZeros(Math.max(1, nanosPartida))]++;
+        } else if (derrota) {
+            derrotas++;
+        } else {
+            sinTerminar++;
+        }
+        jugadas += jugadasPartida;
+        nanos += nanosPartida;
+    }
+
+    public EstadisticasSimulacion combinar(EstadisticasSimulacion otra) {
+        partidas += otra.partidas;
+        victorias += otra.victorias;
+        derrotas += otra.derrotas;
+        sinTerminar += otra.sinTerminar;
+        jugadas += otra.jugadas;
+        nanos += otra.nanos;
+        for (int k = 0; k < CUBETAS; k++) {
+            histogramaVictorias[k] += otra.histogramaVictorias[k];
+        }
+        return this;
+    }
+
+    public double getTasaVictoria() {
+        return partidas == 0 ? 0 : (double) victorias / partidas;
+    }
+
+    // Cota superior (en nanosegundos) del tiempo de resolución del percentil indicado (0..1)
+    public long percentilVictorias(double percentil) {
+        long objetivo = (long) Math.ceil(percentil * victorias);
+        long acumuladas = 0;
+        for (int k = 0; k < CUBETAS; k++) {
+            acumuladas += histogramaVictorias[k];
+            if (acumuladas >= objetivo && acumuladas > 0) {
+                return (2L << k) - 1;
+            }
+        }
+        return 0;
+    }
+
+    public long getPartidas() { return partidas; }
+    public long getVictorias() { return victorias; }
+    public long getDerrotas() { return derrotas; }
+    public long getSinTerminar() { return sinTerminar; }
+    public long getJugadas() { return jugadas; }
+    // Suma del tiempo de juego de todas las partidas (no el tiempo real del lote)
+    public long getNanos() { return nanos; }
+    public long[] getHistogramaVictorias() { return histogramaVictorias.clone(); }
+
+    @Override
+    public String toString() {
+        return String.format("%d partidas: %d victorias (%.1f%%), %d derrotas, %d sin terminar, %.1f jugadas/partida",
+                partidas, victorias, 100 * getTasaVictoria(), derrotas, sinTerminar,
+                partidas == 0 ? 0.0 : (double) jugadas / partidas);
+    }
+}
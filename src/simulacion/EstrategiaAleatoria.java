@@ -0,0 +1,55 @@
+package simulacion;
+
+import model.AlmacenCeldas;
+import model.EstadoCelda;
+import model.TableroBuscaminas;
+
+import java.util.SplittableRandom;
+import java.util.function.IntPredicate;
+
+/**
+ * Descubre celdas ocultas al azar. Sirve de referencia para comparar otras estrategias.
+ */
+public final class EstrategiaAleatoria implements EstrategiaBot {
+    // Intentos al azar antes de recorrer el tablero buscando una celda oculta
+    private static final int INTENTOS = 32;
+
+    @Override
+    public boolean jugar(TableroBuscaminas tablero, SplittableRandom aleatorio) {
+        int indice = celdaOcultaAleatoria(tablero, aleatorio);
+        if (indice < 0) {
+            return false;
+        }
+        tablero.intentarDescubrir(indice / tablero.getColumnas(), indice % tablero.getColumnas());
+        return true;
+    }
+
+    static int celdaOcultaAleatoria(TableroBuscaminas tablero, SplittableRandom aleatorio) {
+        return celdaOcultaAleatoria(tablero, aleatorio, indice -> false);
+    }
+
+    // Índice de una celda oculta, sin marcar y no descartada elegida al azar; -1 si no queda ninguna
+    static int celdaOcultaAleatoria(TableroBuscaminas tablero, SplittableRandom aleatorio, IntPredicate descartada) {
+        AlmacenCeldas celdas = tablero.getAlmacen();
+        int total = celdas.tamanio();
+        for (int i = 0; i < INTENTOS; i++) {
+            int indice = aleatorio.nextInt(total);
+            if (esOculta(celdas.leer(indice)) && !descartada.test(indice)) {
+                return indice;
+            }
+        }
+        // Quedan pocas: se recorre desde un punto al azar para no sesgar hacia el principio
+        int inicio = aleatorio.nextInt(total);
+        for (int k = 0; k < total; k++) {
+            int indice = inicio + k < total ? inicio + k : inicio + k - total;
+            if (esOculta(celdas.leer(indice)) && !descartada.test(indice)) {
+                return indice;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean esOculta(int estado) {
+        return (estado & (EstadoCelda.DESCUBIERTA | EstadoCelda.MARCADA)) == 0;
+    }
+}
@@ -0,0 +1,20 @@
+package simulacion;
+
+import model.TableroBuscaminas;
+
+import java.util.SplittableRandom;
+
+/**
+ * Estrategia de un bot que juega solo. El simulador crea una instancia por tarea y la reutiliza
+ * en todas sus partidas, así que puede guardar búferes propios sin sincronización.
+ * El generador aleatorio lo pone el simulador y depende solo de la semilla de la partida.
+ */
+public interface EstrategiaBot {
+
+    // Prepara la estrategia para una partida nueva
+    default void iniciar(TableroBuscaminas tablero) {
+    }
+
+    // Hace exactamente una jugada sobre el tablero; false si no sabe qué jugar
+    boolean jugar(TableroBuscaminas tablero, SplittableRandom aleatorio);
+}
@@ -0,0 +1,130 @@
+package simulacion;
+
+import model.AlmacenCeldas;
+import model.ConjuntoCambios;
+import model.EstadoCelda;
+import model.TableroBuscaminas;
+
+import java.util.SplittableRandom;
+
+/**
+ * Deducción de un solo número: si una celda descubierta ya tiene todas sus minas marcadas, sus otras
+ * vecinas ocultas son seguras; si le quedan tantas vecinas ocultas como minas, todas son minas.
+ * Cuando no hay deducción posible descubre una celda al azar (la primera, en el centro).
+ *
+ * Solo se revisan las celdas que cambiaron en la última jugada y sus vecinas descubiertas,
+ * con una pila de índices reutilizada: cada partida cuesta O(celdas) y no reserva memoria.
+ * Como cualquier jugador, solo mira celdas descubiertas y marcas; nunca el bit de mina.
+ */
+public final class EstrategiaLocal implements EstrategiaBot {
+    private int[] pendientes = new int[0];
+    private boolean[] enPila = new boolean[0];
+    private int cantidadPendientes;
+    private boolean primeraJugada;
+
+    @Override
+    public void iniciar(TableroBuscaminas tablero) {
+        int total = tablero.getFilas() * tablero.getColumnas();
+        if (pendientes.length < total) {
+            pendientes = new int[total];
+            enPila = new boolean[total];
+        } else {
+            for (int k = 0; k < cantidadPendientes; k++) {
+                enPila[pendientes[k]] = false;
+            }
+        }
+        cantidadPendientes = 0;
+        primeraJugada = true;
+    }
+
+    @Override
+    public boolean jugar(TableroBuscaminas tablero, SplittableRandom aleatorio) {
+        int filas = tablero.getFilas(), columnas = tablero.getColumnas();
+        if (primeraJugada) {
+            primeraJugada = false;
+            tablero.intentarDescubrir(filas / 2, columnas / 2);
+            anotarCambios(tablero);
+            return true;
+        }
+
+        AlmacenCeldas celdas = tablero.getAlmacen();
+        while (cantidadPendientes > 0) {
+            int indice = pendientes[--cantidadPendientes];
+            enPila[indice] = false;
+            int fila = indice / columnas, columna = indice % columnas;
+            int ocultas = 0, marcadas = 0, primeraOculta = -1;
+            for (int i = Math.max(0, fila - 1); i <= Math.min(filas - 1, fila + 1); i++) {
+                for (int j = Math.max(0, columna - 1); j <= Math.min(columnas - 1, columna + 1); j++) {
+                    int estado = celdas.leer(i * columnas + j);
+                    if ((estado & EstadoCelda.MARCADA) != 0) {
+                        marcadas++;
+                    } else if ((estado & EstadoCelda.DESCUBIERTA) == 0) {
+                        ocultas++;
+                        if (primeraOculta < 0) primeraOculta = i * columnas + j;
+                    }
+                }
+            }
+            if (ocultas == 0) {
+                continue;
+            }
+            int vecinas = EstadoCelda.minasCercanas(celdas.leer(indice));
+            if (marcadas == vecinas) {
+                tablero.intentarDescubrir(primeraOculta / columnas, primeraOculta % columnas);
+            } else if (marcadas + ocultas == vecinas) {
+                tablero.intentarMarcar(primeraOculta / columnas, primeraOculta % columnas);
+            } else {
+                continue;
+            }
+            // Le pueden quedar más vecinas por resolver
+            apilar(indice);
+            anotarCambios(tablero);
+            return true;
+        }
+
+        int indice = EstrategiaAleatoria.celdaOcultaAleatoria(tablero, aleatorio);
+        if (indice < 0) {
+            return false;
+        }
+        tablero.intentarDescubrir(indice / columnas, indice % columnas);
+        anotarCambios(tablero);
+        return true;
+    }
+
+    // Las celdas reveladas o marcadas cambian la cuenta de sus vecinas descubiertas
+    private void anotarCambios(TableroBuscaminas tablero) {
+        if (tablero.isJuegoFinalizado()) {
+            return;
+        }
+        ConjuntoCambios cambios = tablero.getUltimosCambios();
+        int[] reveladas = cambios.getReveladas();
+        for (int k = 0; k < cambios.getCantidadReveladas(); k++) {
+            apilarConVecinas(tablero, reveladas[k]);
+        }
+        int[] marcas = cambios.getMarcas();
+        for (int k = 0; k < cambios.getCantidadMarcas(); k++) {
+            apilarConVecinas(tablero, marcas[k]);
+        }
+    }
+
+    private void apilarConVecinas(TableroBuscaminas tablero, int indice) {
+        AlmacenCeldas celdas = tablero.getAlmacen();
+        int filas = tablero.getFilas(), columnas = tablero.getColumnas();
+        int fila = indice / columnas, columna = indice % columnas;
+        for (int i = Math.max(0, fila - 1); i <= Math.min(filas - 1, fila + 1); i++) {
+            for (int j = Math.max(0, columna - 1); j <= Math.min(columnas - 1, columna + 1); j++) {
+                int vecina = i * columnas + j;
+                int estado = celdas.leer(vecina);
+                if ((estado & EstadoCelda.DESCUBIERTA) != 0 && EstadoCelda.minasCercanas(estado) > 0) {
+                    apilar(vecina);
+                }
+            }
+        }
+    }
+
+    private void apilar(int indice) {
+        if (!enPila[indice]) {
+            enPila[indice] = true;
+            pendientes[cantidadPendientes++] = indice;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package simulacion;
+
+import model.TableroBuscaminas;
+import resolucion.MotorProbabilidades;
+import resolucion.ResolvedorRestricciones;
+
+import java.util.SplittableRandom;
+
+/**
+ * Como EstrategiaResolvedor, pero cuando no hay ninguna celda segura descubre la de menor
+ * probabilidad de mina según el motor de probabilidades en lugar de una al azar.
+ */
+public final class EstrategiaProbabilidades implements EstrategiaBot {
+    private final MotorProbabilidades motor = new MotorProbabilidades();
+    private ResolvedorRestricciones resolvedor;
+    private boolean primeraJugada;
+
+    @Override
+    public void iniciar(TableroBuscaminas tablero) {
+        if (resolvedor != null) {
+            resolvedor.desconectar();
+        }
+        resolvedor = new ResolvedorRestricciones(tablero);
+        primeraJugada = true;
+    }
+
+    @Override
+    public boolean jugar(TableroBuscaminas tablero, SplittableRandom aleatorio) {
+        int columnas = tablero.getColumnas();
+        if (primeraJugada) {
+            primeraJugada = false;
+            tablero.intentarDescubrir(tablero.getFilas() / 2, columnas / 2);
+            return true;
+        }
+        int indice = resolvedor.siguienteSegura();
+        if (indice < 0) {
+            indice = motor.calcular(tablero).mejorCelda();
+        }
+        if (indice < 0) {
+            return false;
+        }
+        tablero.intentarDescubrir(indice / columnas, indice % columnas);
+        return true;
+    }
+}
@@ -0,0 +1,47 @@
+package simulacion;
+
+import model.TableroBuscaminas;
+import resolucion.ResolvedorRestricciones;
+
+import java.util.SplittableRandom;
+import java.util.function.IntPredicate;
+
+/**
+ * Juega las celdas seguras que deduce el resolvedor de restricciones y, cuando no hay ninguna,
+ * descubre al azar una celda que no sea una mina deducida. No marca minas: no hace falta para ganar.
+ */
+public final class EstrategiaResolvedor implements EstrategiaBot {
+    private ResolvedorRestricciones resolvedor;
+    private final IntPredicate minaDeducida = indice -> resolvedor.esMina(indice);
+    private boolean primeraJugada;
+
+    @Override
+    public void iniciar(TableroBuscaminas tablero) {
+        if (resolvedor != null) {
+            resolvedor.desconectar();
+        }
+        resolvedor = new ResolvedorRestricciones(tablero);
+        primeraJugada = true;
+    }
+
+    @Override
+    public boolean jugar(TableroBuscaminas tablero, SplittableRandom aleatorio) {
+        int columnas = tablero.getColumnas();
+        if (primeraJugada) {
+            primeraJugada = false;
+            tablero.intentarDescubrir(tablero.getFilas() / 2, columnas / 2);
+            return true;
+        }
+        int indice = resolvedor.siguienteSegura();
+        if (indice < 0) {
+            indice = EstrategiaAleatoria.celdaOcultaAleatoria(tablero, aleatorio, minaDeducida);
+        }
+        if (indice < 0) {
+            return false;
+        }
+        tablero.intentarDescubrir(indice / columnas, indice % columnas);
+        return true;
+    }
+
+    public ResolvedorRestricciones getResolvedor() { return resolvedor; }
+}
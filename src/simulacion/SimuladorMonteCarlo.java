@@ -0,0 +1,108 @@
+package simulacion;
+
+import model.Configuracion;
+import model.TableroBuscaminas;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * Simulación Monte Carlo: juega muchas partidas independientes de un mismo tamaño y densidad
+ * con una estrategia de bot, repartidas en tareas de fork/join.
+ *
+ * La semilla de cada partida depende solo de la semilla base y del número de partida, así que
+ * el resultado es el mismo con cualquier número de núcleos. Cada tarea hoja usa su propia
+ * estrategia y sus propias estadísticas, que se combinan al unir las tareas.
+ */
+public final class SimuladorMonteCarlo {
+    // Partidas mínimas por tarea: por debajo, repartir cuesta más que jugar
+    private static final long MINIMO_POR_TAREA = 16;
+    // Tareas por núcleo, para equilibrar partidas de duración distinta
+    private static final int TAREAS_POR_NUCLEO = 8;
+
+    private final int filas, columnas, minas;
+    private final boolean primerClicSeguro;
+    private final Supplier<? extends EstrategiaBot> estrategias;
+
+    public SimuladorMonteCarlo(int filas, int columnas, int minas, boolean primerClicSeguro,
+                               Supplier<? extends EstrategiaBot> estrategias) {
+        // Valida las dimensiones una sola vez, antes de repartir, sin crear un tablero
+        new Configuracion(filas, columnas, minas);
+        this.filas = filas;
+        this.columnas = columnas;
+        this.minas = minas;
+        this.primerClicSeguro = primerClicSeguro;
+        this.estrategias = estrategias;
+    }
+
+    public EstadisticasSimulacion simular(long partidas, long semillaBase) {
+        return simular(partidas, semillaBase, ForkJoinPool.commonPool());
+    }
+
+    public EstadisticasSimulacion simular(long partidas, long semillaBase, ForkJoinPool pool) {
+        if (partidas < 0) {
+            throw new IllegalArgumentException("Cantidad de partidas inválida: " + partidas);
+        }
+        long porTarea = Math.max(MINIMO_POR_TAREA, partidas / ((long) pool.getParallelism() * TAREAS_POR_NUCLEO));
+        return pool.invoke(new Lote(semillaBase, 0, partidas, porTarea));
+    }
+
+    // Mezcla de SplitMix64: semillas bien repartidas aunque las partidas sean consecutivas
+    public static long semillaPartida(long semillaBase, long partida) {
+        long z = semillaBase + (partida + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private EstadisticasSimulacion jugarLote(long semillaBase, long desde, long hasta) {
+        EstadisticasSimulacion estadisticas = new EstadisticasSimulacion();
+        EstrategiaBot estrategia = estrategias.get();
+        // Ninguna estrategia razonable necesita más jugadas que dos por celda
+        long limiteJugadas = 2L * filas * columnas + 1;
+        for (long partida = desde; partida < hasta; partida++) {
+            long semilla = semillaPartida(semillaBase, partida);
+            long inicio = System.nanoTime();
+            TableroBuscaminas tablero = new TableroBuscaminas(filas, columnas, minas, semilla, primerClicSeguro);
+            SplittableRandom aleatorio = new SplittableRandom(~semilla);
+            estrategia.iniciar(tablero);
+            long jugadas = 0;
+            while (!tablero.isJuegoFinalizado() && jugadas < limiteJugadas && estrategia.jugar(tablero, aleatorio)) {
+                jugadas++;
+            }
+            estadisticas.registrar(tablero.isVictoria(), tablero.isJuegoFinalizado() && !tablero.isVictoria(),
+                    jugadas, System.nanoTime() - inicio);
+        }
+        return estadisticas;
+    }
+
+    private final class Lote extends RecursiveTask<EstadisticasSimulacion> {
+        private static final long serialVersionUID = 1L;
+        private final long semillaBase, desde, hasta, porTarea;
+
+        Lote(long semillaBase, long desde, long hasta, long porTarea) {
+            this.semillaBase = semillaBase;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.porTarea = porTarea;
+        }
+
+        @Override
+        protected EstadisticasSimulacion compute() {
+            if (hasta - desde <= porTarea) {
+                return jugarLote(semillaBase, desde, hasta);
+            }
+            long mitad = (desde + hasta) >>> 1;
+            Lote izquierda = new Lote(semillaBase, desde, mitad, porTarea);
+            izquierda.fork();
+            EstadisticasSimulacion derecha = new Lote(semillaBase, mitad, hasta, porTarea).compute();
+            return izquierda.join().combinar(derecha);
+        }
+    }
+
+    public int getFilas() { return filas; }
+    public int getColumnas() { return columnas; }
+    public int getMinas() { return minas; }
+}
@@ -0,0 +1,80 @@
+package test;
+
+import model.CeldaJuego;
+import model.TableroBuscaminas;
+import persistencia.FormatoPartida;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * Compara tamaño y tiempos de guardado/carga entre el formato binario y la serialización de Java
+ * (ejecutar con: java -cp out test.BenchmarkPersistencia)
+ */
+public class BenchmarkPersistencia {
+    private static final int REPETICIONES = 20;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== BENCHMARK PERSISTENCIA ===");
+        System.out.printf("%-36s %12s %12s %12s%n", "Formato", "Bytes", "Guardar ms", "Cargar ms");
+        for (int lado : new int[]{10, 100, 1000}) {
+            TableroBuscaminas tablero = new TableroBuscaminas(lado, lado, lado * lado * 15 / 100, 1L, true);
+            tablero.descubrirCelda(lado / 2, lado / 2);
+            tablero.marcarCelda(0, 0);
+            medirBinario(tablero);
+            medirSerializacion("Java byte[] " + lado + "x" + lado, tablero);
+            if (lado <= 1000) {
+                // Formato original: la matriz CeldaJuego[][] completa
+                medirSerializacion("Java CeldaJuego[][] " + lado + "x" + lado, tablero.getCeldas());
+            }
+        }
+    }
+
+    private static void medirBinario(TableroBuscaminas tablero) throws Exception {
+        Path archivo = Files.createTempFile("benchmark", ".dat");
+        try {
+            long guardar = Long.MAX_VALUE, cargar = Long.MAX_VALUE;
+            for (int i = 0; i < REPETICIONES; i++) {
+                long inicio = System.nanoTime();
+                FormatoPartida.guardar(archivo, tablero, Instant.now());
+                long medio = System.nanoTime();
+                FormatoPartida.cargar(archivo);
+                long fin = System.nanoTime();
+                guardar = Math.min(guardar, medio - inicio);
+                cargar = Math.min(cargar, fin - medio);
+            }
+            imprimir("Binario " + tablero.getFilas() + "x" + tablero.getColumnas(), Files.size(archivo), guardar, cargar);
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+    }
+
+    private static void medirSerializacion(String nombre, Object objeto) throws Exception {
+        Path archivo = Files.createTempFile("benchmark", ".ser");
+        try {
+            long guardar = Long.MAX_VALUE, cargar = Long.MAX_VALUE;
+            for (int i = 0; i < REPETICIONES; i++) {
+                long inicio = System.nanoTime();
+                try (ObjectOutputStream oos = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(archivo.toFile())))) {
+                    oos.writeObject(objeto);
+                }
+                long medio = System.nanoTime();
+                try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(archivo.toFile())))) {
+                    ois.readObject();
+                }
+                long fin = System.nanoTime();
+                guardar = Math.min(guardar, medio - inicio);
+                cargar = Math.min(cargar, fin - medio);
+            }
+            imprimir(nombre, Files.size(archivo), guardar, cargar);
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+    }
+
+    private static void imprimir(String nombre, long bytes, long guardar, long cargar) {
+        System.out.printf("%-36s %12d %12.2f %12.2f%n", nombre, bytes, guardar / 1e6, cargar / 1e6);
+    }
+}
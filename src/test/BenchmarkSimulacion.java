@@ -0,0 +1,50 @@
+package test;
+
+import simulacion.EstadisticasSimulacion;
+import simulacion.EstrategiaLocal;
+import simulacion.EstrategiaProbabilidades;
+import simulacion.EstrategiaResolvedor;
+import simulacion.SimuladorMonteCarlo;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Partidas por segundo del simulador según el número de núcleos
+ * (ejecutar con: java -cp out test.BenchmarkSimulacion [partidas])
+ */
+public class BenchmarkSimulacion {
+    private static final int REPETICIONES = 3;
+
+    public static void main(String[] args) {
+        long partidas = args.length > 0 ? Long.parseLong(args[0]) : 200_000;
+        System.out.println("=== BENCHMARK SIMULACIÓN ===");
+        medir("Principiante 9x9/10", new SimuladorMonteCarlo(9, 9, 10, true, EstrategiaLocal::new), partidas);
+        medir("Intermedio 16x16/40", new SimuladorMonteCarlo(16, 16, 40, true, EstrategiaLocal::new), partidas);
+        medir("Experto 16x30/99", new SimuladorMonteCarlo(16, 30, 99, true, EstrategiaLocal::new), partidas);
+        medir("Experto 16x30/99 (resolvedor)", new SimuladorMonteCarlo(16, 30, 99, true, EstrategiaResolvedor::new), partidas);
+        medir("Experto 16x30/99 (probabilidades)", new SimuladorMonteCarlo(16, 30, 99, true, EstrategiaProbabilidades::new), partidas / 10);
+    }
+
+    private static void medir(String nombre, SimuladorMonteCarlo simulador, long partidas) {
+        System.out.println(nombre);
+        int maximo = Runtime.getRuntime().availableProcessors();
+        double base = 0;
+        for (int nucleos = 1; nucleos <= maximo; nucleos = nucleos < maximo && nucleos * 2 > maximo ? maximo : nucleos * 2) {
+            ForkJoinPool pool = new ForkJoinPool(nucleos);
+            long mejor = Long.MAX_VALUE;
+            EstadisticasSimulacion estadisticas = null;
+            for (int r = 0; r < REPETICIONES; r++) {
+                long inicio = System.nanoTime();
+                estadisticas = simulador.simular(partidas, r, pool);
+                mejor = Math.min(mejor, System.nanoTime() - inicio);
+            }
+            pool.shutdown();
+            double porSegundo = partidas * 1e9 / mejor;
+            if (nucleos == 1) base = porSegundo;
+            System.out.printf("  %2d núcleos %12.0f partidas/s  x%.2f  victorias %.1f%%  p50 %.1f µs%n",
+                    nucleos, porSegundo, porSegundo / base, 100 * estadisticas.getTasaVictoria(),
+                    estadisticas.percentilVictorias(0.5) / 1e3);
+            if (nucleos == maximo) break;
+        }
+    }
+}
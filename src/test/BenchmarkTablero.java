@@ -0,0 +1,125 @@
+package test;
+
+import exceptions.CoordenadaFueraDeRangoException;
+import exceptions.JuegoFinalizadoException;
+import model.AlmacenMemoria;
+import model.GeneradorTablero;
+import model.TableroBuscaminas;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Mediciones de rendimiento del tablero (ejecutar con: java -cp out test.BenchmarkTablero)
+ */
+public class BenchmarkTablero {
+    private static final int REPETICIONES = 5;
+    private static final int JUGADAS_RECHAZADAS = 1_000_000;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== BENCHMARK TABLERO ===");
+        benchmarkExpansion(1000, 1000);
+        benchmarkExpansion(2000, 2000);
+        benchmarkExpansion(4000, 4000);
+        benchmarkGeneracion(4000, 4000, 1);
+        benchmarkGeneracion(4000, 4000, Runtime.getRuntime().availableProcessors());
+        benchmarkMapeado(4000, 4000);
+        benchmarkJugadasRechazadas();
+    }
+
+    // Marcas en coordenadas aleatorias, la mayoría fuera del tablero: excepciones frente a códigos
+    private static void benchmarkJugadasRechazadas() throws Exception {
+        SplittableRandom aleatorio = new SplittableRandom(1L);
+        int[] filas = new int[JUGADAS_RECHAZADAS], columnas = new int[JUGADAS_RECHAZADAS];
+        for (int k = 0; k < JUGADAS_RECHAZADAS; k++) {
+            filas[k] = aleatorio.nextInt(-100, 200);
+            columnas[k] = aleatorio.nextInt(-100, 200);
+        }
+
+        long mejorExcepciones = Long.MAX_VALUE, mejorCodigos = Long.MAX_VALUE;
+        int rechazadasExcepciones = 0, rechazadasCodigos = 0;
+        for (int r = 0; r < REPETICIONES; r++) {
+            TableroBuscaminas tablero = new TableroBuscaminas(100, 100, 500, 1L, true);
+            long inicio = System.nanoTime();
+            for (int k = 0; k < JUGADAS_RECHAZADAS; k++) {
+                try {
+                    tablero.marcarCelda(filas[k], columnas[k]);
+                } catch (CoordenadaFueraDeRangoException | JuegoFinalizadoException e) {
+                    rechazadasExcepciones++;
+                }
+            }
+            mejorExcepciones = Math.min(mejorExcepciones, System.nanoTime() - inicio);
+
+            tablero = new TableroBuscaminas(100, 100, 500, 1L, true);
+            inicio = System.nanoTime();
+            for (int k = 0; k < JUGADAS_RECHAZADAS; k++) {
+                if (tablero.intentarMarcar(filas[k], columnas[k]).esError()) {
+                    rechazadasCodigos++;
+                }
+            }
+            mejorCodigos = Math.min(mejorCodigos, System.nanoTime() - inicio);
+        }
+        if (rechazadasExcepciones != rechazadasCodigos) {
+            throw new IllegalStateException("Las dos APIs no rechazan lo mismo");
+        }
+        System.out.printf("Jugadas rechazadas: %.0f%%%n", 100.0 * rechazadasCodigos / REPETICIONES / JUGADAS_RECHAZADAS);
+        imprimirJugadas("Marcas con excepciones", mejorExcepciones);
+        imprimirJugadas("Marcas con códigos", mejorCodigos);
+    }
+
+    private static void imprimirJugadas(String nombre, long nanos) {
+        System.out.printf("%-32s %10.2f ms  %8.1f ns/jugada%n", nombre, nanos / 1e6, (double) nanos / JUGADAS_RECHAZADAS);
+    }
+
+    // Tablero fuera del heap: creación, expansión completa y guardado (sincronizar)
+    private static void benchmarkMapeado(int filas, int columnas) throws Exception {
+        Path archivo = Files.createTempFile("benchmark", ".bmm");
+        try {
+            long inicio = System.nanoTime();
+            TableroBuscaminas tablero = TableroBuscaminas.crearMapeado(archivo, filas, columnas, 0, 1L, false);
+            tablero.descubrirCelda(0, 0);
+            long jugada = System.nanoTime();
+            tablero.sincronizar();
+            long fin = System.nanoTime();
+            tablero.cerrar();
+            imprimir("Mapeado " + filas + "x" + columnas + " jugar", jugada - inicio, (long) filas * columnas);
+            imprimir("Mapeado " + filas + "x" + columnas + " guardar", fin - jugada, (long) filas * columnas);
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+    }
+
+    // Colocación de minas (15%) y cálculo de vecinas con un número fijo de núcleos
+    private static void benchmarkGeneracion(int filas, int columnas, int nucleos) {
+        ForkJoinPool pool = new ForkJoinPool(nucleos);
+        int minas = (int) ((long) filas * columnas * 15 / 100);
+        long mejor = Long.MAX_VALUE;
+        for (int i = 0; i < REPETICIONES; i++) {
+            byte[] estados = new byte[filas * columnas];
+            long inicio = System.nanoTime();
+            GeneradorTablero.colocarMinas(new AlmacenMemoria(estados), minas, i, new int[0]);
+            GeneradorTablero.calcularVecinas(new AlmacenMemoria(estados), filas, columnas, pool);
+            mejor = Math.min(mejor, System.nanoTime() - inicio);
+        }
+        pool.shutdown();
+        imprimir("Generación " + filas + "x" + columnas + " (" + nucleos + " núcleos)", mejor, (long) filas * columnas);
+    }
+
+    // Expansión de una zona abierta que cubre todo el tablero
+    private static void benchmarkExpansion(int filas, int columnas) throws Exception {
+        long mejor = Long.MAX_VALUE;
+        for (int i = 0; i < REPETICIONES; i++) {
+            TableroBuscaminas tablero = new TableroBuscaminas(filas, columnas, 0);
+            long inicio = System.nanoTime();
+            tablero.descubrirCelda(filas / 2, columnas / 2);
+            mejor = Math.min(mejor, System.nanoTime() - inicio);
+        }
+        imprimir("Expansión " + filas + "x" + columnas, mejor, (long) filas * columnas);
+    }
+
+    private static void imprimir(String nombre, long nanos, long celdas) {
+        System.out.printf("%-32s %10.2f ms  %8.1f Mceldas/s%n", nombre, nanos / 1e6, celdas * 1e3 / nanos);
+    }
+}
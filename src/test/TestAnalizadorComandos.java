@@ -0,0 +1,122 @@
+package test;
+
+import controller.AnalizadorComandos;
+import controller.AnalizadorComandos.Tipo;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Pruebas unitarias básicas para el analizador de comandos
+ */
+public class TestAnalizadorComandos {
+
+    public static void main(String[] args) {
+        System.out.println("=== EJECUTANDO PRUEBAS DEL ANALIZADOR DE COMANDOS ===");
+
+        testVariosComandosEnUnaLinea();
+        testCoordenadasGrandes();
+        testComandosInvalidos();
+        testComandosDeHistorial();
+        testSinReservarMemoria();
+
+        System.out.println("=== TODAS LAS PRUEBAS PASARON ✅ ===");
+    }
+
+    // Test 1: Una línea con varios comandos se lee en orden
+    public static void testVariosComandosEnUnaLinea() {
+        AnalizadorComandos analizador = new AnalizadorComandos();
+        analizador.reiniciar("A1 b2, MARCAR c3; abajo 5 derecha pista guardar");
+        esperar(analizador, Tipo.DESCUBRIR, 0, 0);
+        esperar(analizador, Tipo.DESCUBRIR, 1, 1);
+        esperar(analizador, Tipo.MARCAR, 2, 2);
+        assert analizador.siguiente() == Tipo.ABAJO && analizador.getCantidad() == 5 : "Abajo 5";
+        assert analizador.siguiente() == Tipo.DERECHA && analizador.getCantidad() == 0 : "Derecha sin cantidad";
+        assert analizador.siguiente() == Tipo.PISTA : "Pista";
+        assert analizador.siguiente() == Tipo.GUARDAR : "Guardar";
+        assert analizador.siguiente() == Tipo.FIN : "Fin de línea";
+        assert analizador.siguiente() == Tipo.FIN : "Fin estable";
+        System.out.println("✅ Test varios comandos en una línea - PASÓ");
+    }
+
+    // Test 2: Filas de varias letras y columnas de cualquier tamaño
+    public static void testCoordenadasGrandes() {
+        AnalizadorComandos analizador = new AnalizadorComandos();
+        analizador.reiniciar("aa10 ir ZZ1500 marcar AAA2147483647");
+        esperar(analizador, Tipo.DESCUBRIR, 26, 9);
+        esperar(analizador, Tipo.IR, 701, 1499);
+        esperar(analizador, Tipo.MARCAR, 702, Integer.MAX_VALUE - 1);
+        System.out.println("✅ Test coordenadas grandes - PASÓ");
+    }
+
+    // Test 3: Lo que no se entiende se informa y se sigue con el resto
+    public static void testComandosInvalidos() {
+        AnalizadorComandos analizador = new AnalizadorComandos();
+        analizador.reiniciar("hola A0 B2147483648 1A marcar C3");
+        assert analizador.siguiente() == Tipo.INVALIDO && analizador.getTextoError().equals("hola") : "Palabra desconocida";
+        assert analizador.siguiente() == Tipo.INVALIDO && analizador.getTextoError().equals("A0") : "Columna 0";
+        assert analizador.siguiente() == Tipo.INVALIDO : "Columna que no cabe en un int";
+        assert analizador.siguiente() == Tipo.INVALIDO : "Número antes de la letra";
+        esperar(analizador, Tipo.MARCAR, 2, 2);
+
+        analizador.reiniciar("marcar");
+        assert analizador.siguiente() == Tipo.INVALIDO && analizador.getTextoError().equals("marcar") : "Marcar sin coordenada";
+        assert analizador.siguiente() == Tipo.FIN : "Fin";
+        System.out.println("✅ Test comandos inválidos - PASÓ");
+    }
+
+    // Test 4: deshacer y rehacer con cantidad opcional; volver con la jugada obligatoria
+    public static void testComandosDeHistorial() {
+        AnalizadorComandos analizador = new AnalizadorComandos();
+        analizador.reiniciar("deshacer REHACER 3 volver 0 deshacer, volver 12");
+        assert analizador.siguiente() == Tipo.DESHACER && analizador.getCantidad() == 0 : "Deshacer sin cantidad";
+        assert analizador.siguiente() == Tipo.REHACER && analizador.getCantidad() == 3 : "Rehacer 3";
+        assert analizador.siguiente() == Tipo.VOLVER && analizador.getCantidad() == 0 : "Volver al principio";
+        assert analizador.siguiente() == Tipo.DESHACER && analizador.getCantidad() == 0 : "Deshacer antes de coma";
+        assert analizador.siguiente() == Tipo.VOLVER && analizador.getCantidad() == 12 : "Volver 12";
+
+        analizador.reiniciar("volver A1 volver");
+        assert analizador.siguiente() == Tipo.INVALIDO && analizador.getTextoError().equals("volver A1") : "Volver sin número";
+        assert analizador.siguiente() == Tipo.INVALIDO && analizador.getTextoError().equals("volver") : "Volver al final";
+        assert analizador.siguiente() == Tipo.FIN : "Fin";
+        System.out.println("✅ Test comandos de historial - PASÓ");
+    }
+
+    // Test 5: Analizar no reserva memoria en el heap
+    public static void testSinReservarMemoria() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean medidor)
+                || !medidor.isThreadAllocatedMemorySupported()) {
+            System.out.println("✅ Test sin reservar memoria - OMITIDO (JVM sin medición)");
+            return;
+        }
+        AnalizadorComandos analizador = new AnalizadorComandos();
+        String linea = "A1 B2 marcar C3 ir AA100 abajo 3";
+        int comandos = 0;
+        for (int i = 0; i < 20_000; i++) { // Calentamiento
+            comandos += contarComandos(analizador, linea);
+        }
+        long antes = medidor.getThreadAllocatedBytes(Thread.currentThread().getId());
+        for (int i = 0; i < 100_000; i++) {
+            comandos += contarComandos(analizador, linea);
+        }
+        long reservados = medidor.getThreadAllocatedBytes(Thread.currentThread().getId()) - antes;
+        assert comandos == 120_000 * 5 : "Cinco comandos por línea";
+        assert reservados < 100_000 : "Sin memoria por comando: " + reservados + " bytes";
+        System.out.println("✅ Test sin reservar memoria - PASÓ");
+    }
+
+    private static int contarComandos(AnalizadorComandos analizador, String linea) {
+        analizador.reiniciar(linea);
+        int comandos = 0;
+        while (analizador.siguiente() != Tipo.FIN) {
+            comandos++;
+        }
+        return comandos;
+    }
+
+    private static void esperar(AnalizadorComandos analizador, Tipo tipo, int fila, int columna) {
+        Tipo leido = analizador.siguiente();
+        assert leido == tipo : "Se esperaba " + tipo + " y se leyó " + leido;
+        assert analizador.getFila() == fila && analizador.getColumna() == columna
+                : "Coordenada " + analizador.getFila() + "," + analizador.getColumna();
+    }
+}
@@ -1,6 +1,7 @@
 package test;
 
 import model.CeldaJuego;
+import model.Coordenadas;
 import exceptions.CasillaReveladaException;
 
 /**
@@ -16,6 +17,7 @@ public class TestCeldaJuego {
         testRevelarCelda();
         testMarcarCelda();
         testException();
+        testEtiquetasDeCoordenadas();
 
         System.out.println("=== TODAS LAS PRUEBAS PASARON ✅ ===");
     }
@@ -72,4 +74,22 @@ public class TestCeldaJuego {
             System.out.println("✅ Test excepción personalizada - PASÓ");
         }
     }
-}
\ No newline at end of file
+
+    // Test 6: Etiquetas de filas y columnas en tableros grandes
+    public static void testEtiquetasDeCoordenadas() {
+        assert new CeldaJuego(1, 2).obtenerPosicion().equals("B3") : "Posición B3";
+        assert new CeldaJuego(26, 9).obtenerPosicion().equals("AA10") : "Posición más allá de la Z";
+        assert Coordenadas.etiquetaFila(25).equals("Z") : "Última fila de una letra";
+        assert Coordenadas.etiquetaFila(701).equals("ZZ") : "Última fila de dos letras";
+        assert Coordenadas.etiquetaFila(702).equals("AAA") : "Primera fila de tres letras";
+
+        for (int fila : new int[]{0, 25, 26, 51, 701, 702, 18_277, 18_278, Integer.MAX_VALUE}) {
+            String etiqueta = Coordenadas.etiquetaFila(fila);
+            assert Coordenadas.largoEtiquetaFila(fila) == etiqueta.length() : "Largo de " + etiqueta;
+            assert Coordenadas.filaDeEtiqueta(etiqueta.toLowerCase(), 0, etiqueta.length()) == fila : "Ida y vuelta " + etiqueta;
+        }
+        assert Coordenadas.filaDeEtiqueta("A1", 0, 2) == -1 : "Solo letras";
+        assert Coordenadas.filaDeEtiqueta("ZZZZZZZZ", 0, 8) == -1 : "Desborde";
+        System.out.println("✅ Test etiquetas de coordenadas - PASÓ");
+    }
+}
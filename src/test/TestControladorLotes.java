@@ -0,0 +1,82 @@
+package test;
+
+import controller.ControladorLotes;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Pruebas unitarias básicas para el modo por lotes
+ */
+public class TestControladorLotes {
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== EJECUTANDO PRUEBAS DEL MODO POR LOTES ===");
+
+        testUnaLineaPorPartida();
+        testJugadasRechazadas();
+        testSalidaDeterminista();
+
+        System.out.println("=== TODAS LAS PRUEBAS PASARON ✅ ===");
+    }
+
+    // Test 1: Victoria, derrota y abandono dejan una línea cada una
+    public static void testUnaLineaPorPartida() throws Exception {
+        String[] lineas = ejecutar(
+                "# sin minas: el primer clic gana\n" +
+                "partida 5 5 0 1\n" +
+                "C3\n" +
+                "partida 2 2 4 7 normal\n" +
+                "A1\n" +
+                "partida 4 4 2 3\r\n" +
+                "marcar A1, marcar B2\n" +
+                "salir\n");
+        assert lineas.length == 3 : "Una línea por partida";
+        assert lineas[0].equals("{\"partida\":1,\"filas\":5,\"columnas\":5,\"minas\":0,\"semilla\":1,\"resultado\":\"VICTORIA\","
+                + "\"jugadas\":1,\"rechazadas\":0,\"reveladas\":25,\"marcas\":0}") : lineas[0];
+        assert lineas[1].contains("\"resultado\":\"DERROTA\"") : "Mina descubierta";
+        assert lineas[2].contains("\"resultado\":\"ABANDONADA\"") && lineas[2].contains("\"marcas\":2") : lineas[2];
+        System.out.println("✅ Test una línea por partida - PASÓ");
+    }
+
+    // Test 2: Fuera de rango, tokens inválidos y jugadas tras el final se cuentan aparte
+    public static void testJugadasRechazadas() throws Exception {
+        String[] lineas = ejecutar(
+                "partida 3 3 0 1\n" +
+                "hola Z9 ir B2 A1\n" +
+                "B2 marcar C3\n");
+        assert lineas.length == 1 : "Una sola partida";
+        assert lineas[0].contains("\"resultado\":\"VICTORIA\"") : lineas[0];
+        assert lineas[0].contains("\"jugadas\":1,\"rechazadas\":4") : lineas[0];
+
+        // Jugadas sin instrucción de partida: tablero por defecto, sin terminar
+        lineas = ejecutar("marcar J10\n");
+        assert lineas[0].contains("\"filas\":10,\"columnas\":10,\"minas\":15")
+                && lineas[0].contains("\"resultado\":\"EN_CURSO\"") : lineas[0];
+        System.out.println("✅ Test jugadas rechazadas - PASÓ");
+    }
+
+    // Test 3: Misma entrada, misma salida (semillas fijas o número de partida)
+    public static void testSalidaDeterminista() throws Exception {
+        StringBuilder entrada = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            entrada.append("partida 16 30 99\n");
+            for (int f = 0; f < 16; f += 3) {
+                entrada.append(f == 0 ? "" : " ").append((char) ('A' + f)).append(f + 1);
+            }
+            entrada.append('\n');
+        }
+        String primera = String.join("\n", ejecutar(entrada.toString()));
+        String segunda = String.join("\n", ejecutar(entrada.toString()));
+        assert primera.equals(segunda) : "Salida reproducible";
+        assert primera.split("\n").length == 50 : "Cincuenta partidas";
+        System.out.println("✅ Test salida determinista - PASÓ");
+    }
+
+    private static String[] ejecutar(String comandos) throws Exception {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        new ControladorLotes(new ByteArrayInputStream(comandos.getBytes(StandardCharsets.UTF_8)), salida).ejecutar();
+        return salida.toString(StandardCharsets.UTF_8).split("\n");
+    }
+}
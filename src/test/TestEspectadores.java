@@ -0,0 +1,209 @@
+package test;
+
+import servidor.RegistroSesiones;
+import servidor.ServidorJuego;
+import servidor.TransmisionEspectadores;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Pruebas unitarias básicas para la transmisión de partidas a espectadores
+ */
+public class TestEspectadores {
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== EJECUTANDO PRUEBAS DE ESPECTADORES ===");
+
+        testInstantaneaYJugadas();
+        testFinDePartidaYSalida();
+        testRutasDesconocidas();
+        testLimiteDeEspectadores();
+        testSesionFallidaNoQuedaListada();
+
+        System.out.println("=== TODAS LAS PRUEBAS PASARON ✅ ===");
+    }
+
+    // Test 1: Al conectarse se recibe todo lo visible y después solo los cambios de cada jugada
+    public static void testInstantaneaYJugadas() throws Exception {
+        Path directorio = Files.createTempDirectory("espectadores");
+        try (ServidorJuego servidor = new ServidorJuego(0, 1, 4, 4, 1, directorio);
+             TransmisionEspectadores transmision = new TransmisionEspectadores(0)) {
+            servidor.transmitirA(transmision);
+            try (Socket socket = new Socket("localhost", servidor.getPuerto())) {
+                BufferedReader entrada = lector(socket);
+                OutputStream salida = socket.getOutputStream();
+                String id = entrada.readLine().split("[ ;]")[1];
+                assert leer(transmision, "/partidas").equals("{\"partidas\":[" + id + "]}") : "Partida listada";
+
+                BufferedReader primero = abrirEventos(transmision, id);
+                String[] tablero = siguienteEvento(primero);
+                assert tablero[0].equals("tablero") : tablero[0];
+                assert tablero[1].equals("{\"partida\":" + id + ",\"filas\":4,\"columnas\":4,\"minas\":1,\"celdas\":\""
+                        + ".".repeat(16) + "\"}") : tablero[1];
+
+                enviar(salida, "marcar A1");
+                assert entrada.readLine().equals("MARCADA A1=F");
+                String[] jugada = siguienteEvento(primero);
+                assert jugada[0].equals("jugada") && jugada[1].equals("A1=F") : jugada[1];
+
+                BufferedReader segundo = abrirEventos(transmision, id);
+                assert siguienteEvento(segundo)[1].contains("\"celdas\":\"F" + ".".repeat(15) + "\"") : "Ve la marca";
+                assert transmision.getEspectadores() == 2;
+                enviar(salida, "marcar A1");
+                entrada.readLine();
+                assert siguienteEvento(primero)[1].equals("A1=-") : "Ambos reciben la misma jugada";
+                assert siguienteEvento(segundo)[1].equals("A1=-");
+            }
+        }
+        System.out.println("✅ Test instantánea y jugadas - PASÓ");
+    }
+
+    // Test 2: Una victoria llega con su transición, sigue la instantánea de la partida nueva y al salir termina el flujo
+    public static void testFinDePartidaYSalida() throws Exception {
+        Path directorio = Files.createTempDirectory("espectadores");
+        try (ServidorJuego servidor = new ServidorJuego(0, 1, 2, 2, 0, directorio);
+             TransmisionEspectadores transmision = new TransmisionEspectadores(0)) {
+            servidor.transmitirA(transmision);
+            try (Socket socket = new Socket("localhost", servidor.getPuerto())) {
+                BufferedReader entrada = lector(socket);
+                OutputStream salida = socket.getOutputStream();
+                String id = entrada.readLine().split("[ ;]")[1];
+                BufferedReader eventos = abrirEventos(transmision, id);
+                siguienteEvento(eventos);
+
+                enviar(salida, "B2");
+                entrada.readLine();
+                String[] jugada = siguienteEvento(eventos);
+                assert jugada[1].startsWith("VICTORIA; ") && jugada[1].contains("B2=0") : jugada[1];
+                String[] nueva = siguienteEvento(eventos);
+                assert nueva[0].equals("tablero") && nueva[1].contains("\"celdas\":\"....\"") : "Partida nueva";
+
+                enviar(salida, "salir");
+                assert entrada.readLine().equals("ADIOS");
+                assert siguienteEvento(eventos)[0].equals("fin") : "El flujo termina con fin";
+                assert eventos.readLine() == null : "Y se cierra";
+                assert leer(transmision, "/partidas").equals("{\"partidas\":[]}") : "Ya no se lista";
+            }
+        }
+        System.out.println("✅ Test fin de partida y salida - PASÓ");
+    }
+
+    // Test 3: Partidas inexistentes y otros métodos se rechazan
+    public static void testRutasDesconocidas() throws Exception {
+        try (TransmisionEspectadores transmision = new TransmisionEspectadores(0)) {
+            assert codigo(transmision, "/partidas/99/eventos", "GET") == 404 : "Partida inexistente";
+            assert codigo(transmision, "/partidas/abc/eventos", "GET") == 404 : "Id inválido";
+            assert codigo(transmision, "/partidas/1/otra", "GET") == 404 : "Ruta desconocida";
+            assert codigo(transmision, "/partidas", "POST") == 405 : "Solo lectura";
+        }
+        System.out.println("✅ Test rutas desconocidas - PASÓ");
+    }
+
+    // Test 4: Solo escucha en la interfaz local y los flujos abiertos tienen un máximo
+    public static void testLimiteDeEspectadores() throws Exception {
+        try (TransmisionEspectadores local = new TransmisionEspectadores(0)) {
+            assert local.getDireccion().getAddress().isLoopbackAddress() : "Por defecto solo local";
+        }
+        Path directorio = Files.createTempDirectory("espectadores");
+        try (ServidorJuego servidor = new ServidorJuego(0, 1, 4, 4, 1, directorio);
+             TransmisionEspectadores transmision = new TransmisionEspectadores(
+                     new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1)) {
+            servidor.transmitirA(transmision);
+            try (Socket socket = new Socket("localhost", servidor.getPuerto())) {
+                String id = lector(socket).readLine().split("[ ;]")[1];
+                BufferedReader primero = abrirEventos(transmision, id);
+                siguienteEvento(primero);
+                assert codigo(transmision, "/partidas/" + id + "/eventos", "GET") == 503 : "Sobre el máximo";
+                assert leer(transmision, "/partidas").equals("{\"partidas\":[" + id + "]}") : "Listar no usa un flujo";
+                assert transmision.getEspectadores() == 1;
+            }
+        }
+        System.out.println("✅ Test límite de espectadores - PASÓ");
+    }
+
+    // Test 5: Si la partida de una conexión nueva no se puede guardar en el registro, no queda listada
+    public static void testSesionFallidaNoQuedaListada() throws Exception {
+        Path directorio = Files.createTempDirectory("espectadores");
+        try (ServidorJuego servidor = new ServidorJuego(0, 1, 4, 4, 1, directorio,
+                new RegistroSesiones.Limites(1, Long.MAX_VALUE, Long.MAX_VALUE));
+             TransmisionEspectadores transmision = new TransmisionEspectadores(0)) {
+            servidor.transmitirA(transmision);
+            try (Socket primera = new Socket("localhost", servidor.getPuerto())) {
+                String id = lector(primera).readLine().split("[ ;]")[1];
+                // Sin directorio de expulsadas, hacer sitio a la segunda partida falla
+                Files.delete(directorio.resolve("expulsadas").resolve("bucle-0"));
+                try (Socket segunda = new Socket("localhost", servidor.getPuerto())) {
+                    assert lector(segunda).readLine() == null : "La conexión se cierra sin saludo";
+                }
+                assert leer(transmision, "/partidas").equals("{\"partidas\":[" + id + "]}") : "Solo la primera";
+            }
+        }
+        System.out.println("✅ Test sesión fallida no queda listada - PASÓ");
+    }
+
+    // {evento, datos}, saltando comentarios y "retry"
+    private static String[] siguienteEvento(BufferedReader eventos) throws IOException {
+        String evento = null, datos = null, linea;
+        while ((linea = eventos.readLine()) != null) {
+            if (linea.isEmpty()) {
+                if (evento != null) {
+                    return new String[]{evento, datos};
+                }
+            } else if (linea.startsWith("event: ")) {
+                evento = linea.substring(7);
+            } else if (linea.startsWith("data:")) {
+                datos = linea.substring(5).strip();
+            }
+        }
+        throw new IOException("El flujo terminó sin evento");
+    }
+
+    private static BufferedReader abrirEventos(TransmisionEspectadores transmision, String id) throws IOException {
+        HttpURLConnection conexion = conectar(transmision, "/partidas/" + id + "/eventos", "GET");
+        assert conexion.getResponseCode() == 200;
+        assert conexion.getContentType().equals("text/event-stream");
+        return new BufferedReader(new InputStreamReader(conexion.getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    private static String leer(TransmisionEspectadores transmision, String ruta) throws IOException {
+        HttpURLConnection conexion = conectar(transmision, ruta, "GET");
+        try (var cuerpo = conexion.getInputStream()) {
+            return new String(cuerpo.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static int codigo(TransmisionEspectadores transmision, String ruta, String metodo) throws IOException {
+        HttpURLConnection conexion = conectar(transmision, ruta, metodo);
+        int codigo = conexion.getResponseCode();
+        conexion.disconnect();
+        return codigo;
+    }
+
+    private static HttpURLConnection conectar(TransmisionEspectadores transmision, String ruta, String metodo) throws IOException {
+        HttpURLConnection conexion = (HttpURLConnection) new URL("http://localhost:" + transmision.getPuerto() + ruta).openConnection();
+        conexion.setRequestMethod(metodo);
+        conexion.setReadTimeout(10_000);
+        return conexion;
+    }
+
+    private static BufferedReader lector(Socket socket) throws IOException {
+        socket.setSoTimeout(10_000);
+        return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+    }
+
+    private static void enviar(OutputStream salida, String linea) throws IOException {
+        salida.write((linea + "\n").getBytes(StandardCharsets.US_ASCII));
+        salida.flush();
+    }
+}
@@ -0,0 +1,211 @@
+package test;
+
+import estadisticas.AlmacenEstadisticas;
+import estadisticas.EstadisticasJugador.Resumen;
+import estadisticas.HistogramaTiempos;
+import model.Configuracion;
+import model.Jugador;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Pruebas unitarias básicas para el almacén de estadísticas y sus clasificaciones
+ */
+public class TestEstadisticas {
+    private static final Configuracion PRINCIPIANTE = new Configuracion(9, 9, 10);
+    private static final Configuracion EXPERTO = new Configuracion(16, 30, 99);
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== EJECUTANDO PRUEBAS DE ESTADÍSTICAS ===");
+
+        testClasificaciones();
+        testRegistrosConcurrentes();
+        testPersistenciaYCompactacion();
+        testFinalDanadoSeDescarta();
+        testImportarJugadorAntiguo();
+        testDanoEnMedioNoRecorta();
+
+        System.out.println("=== TODAS LAS PRUEBAS PASARON ✅ ===");
+    }
+
+    // Test 1: Top-N por mejor tiempo y por tasa, separados por configuración
+    public static void testClasificaciones() {
+        AlmacenEstadisticas almacen = AlmacenEstadisticas.enMemoria();
+        almacen.registrarPartida("ana", PRINCIPIANTE, true, 30_000);
+        almacen.registrarPartida("ana", PRINCIPIANTE, true, 20_000);
+        almacen.registrarPartida("luis", PRINCIPIANTE, true, 25_000);
+        almacen.registrarPartida("eva", PRINCIPIANTE, false, 1_000);
+        almacen.registrarPartida("eva", EXPERTO, true, 5_000);
+
+        List<Resumen> tiempos = almacen.mejoresPorTiempo(PRINCIPIANTE, 10);
+        assert tiempos.size() == 2 : "Solo quien ganó tiene tiempo";
+        assert tiempos.get(0).jugador().equals("ana") && tiempos.get(0).mejorTiempo() == 20_000;
+        assert tiempos.get(1).jugador().equals("luis");
+        assert almacen.mejoresPorTiempo(PRINCIPIANTE, 1).size() == 1 : "Respeta el límite";
+        assert almacen.mejoresPorTiempo(EXPERTO, 10).get(0).jugador().equals("eva") : "Por configuración";
+
+        assert almacen.mejoresPorTasa(PRINCIPIANTE, 10).isEmpty() : "Nadie llega al mínimo de partidas";
+        for (int i = 0; i < 5; i++) {
+            almacen.registrarPartida("luis", PRINCIPIANTE, i < 4, 40_000);
+            almacen.registrarPartida("eva", PRINCIPIANTE, i < 2, 40_000);
+        }
+        List<Resumen> tasas = almacen.mejoresPorTasa(PRINCIPIANTE, 10);
+        assert tasas.size() == 2 && tasas.get(0).jugador().equals("luis") : "luis 5/6 antes que eva 2/6";
+        assert tasas.get(0).partidas() == 6 && tasas.get(0).victorias() == 5;
+        assert Math.abs(tasas.get(1).getTasaVictoria() - 2.0 / 6) < 1e-9;
+        assert almacen.mejoresPorTiempo(PRINCIPIANTE, 10).get(1).mejorTiempo() == 25_000 : "El récord no empeora";
+
+        HistogramaTiempos histograma = almacen.histograma(PRINCIPIANTE);
+        assert histograma.getCantidad() == 9 : "Una muestra por victoria";
+        long mediana = histograma.percentil(50);
+        assert mediana >= 40_000 && mediana < 50_000 : "Mediana aproximada: " + mediana;
+        assert almacen.histograma(new Configuracion(5, 5, 5)).percentil(50) == -1 : "Sin datos";
+        System.out.println("✅ Test clasificaciones - PASÓ");
+    }
+
+    // Test 2: Muchos hilos registran a la vez sin perder partidas y el índice queda coherente
+    public static void testRegistrosConcurrentes() throws Exception {
+        AlmacenEstadisticas almacen = AlmacenEstadisticas.enMemoria();
+        int hilos = 8, partidas = 5_000;
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            int hilo = h;
+            tareas.add(ejecutor.submit(() -> {
+                for (int i = 0; i < partidas; i++) {
+                    String jugador = "j" + (i % 10); // Todos los hilos comparten jugadores
+                    almacen.registrarPartida(jugador, PRINCIPIANTE, i % 3 == 0, 1_000 + hilo * 100 + i % 10);
+                }
+            }));
+        }
+        for (Future<?> tarea : tareas) {
+            tarea.get();
+        }
+        ejecutor.shutdown();
+
+        long total = 0;
+        for (int j = 0; j < 10; j++) {
+            Resumen resumen = almacen.resumen("j" + j, PRINCIPIANTE);
+            total += resumen.partidas();
+        }
+        assert total == (long) hilos * partidas : "No se pierde ninguna partida";
+        List<Resumen> tiempos = almacen.mejoresPorTiempo(PRINCIPIANTE, 10);
+        assert tiempos.size() == 10 : "Una posición por jugador";
+        for (int i = 1; i < tiempos.size(); i++) {
+            assert tiempos.get(i - 1).mejorTiempo() <= tiempos.get(i).mejorTiempo() : "Ordenado";
+        }
+        assert tiempos.get(0).mejorTiempo() == 1_000 : "j0 con el hilo 0";
+        List<Resumen> tasas = almacen.mejoresPorTasa(PRINCIPIANTE, 10);
+        assert tasas.size() == 10 : "Sin posiciones duplicadas";
+        System.out.println("✅ Test registros concurrentes - PASÓ");
+    }
+
+    // Test 3: El archivo se anexa, se vuelve a cargar igual y se compacta al crecer
+    public static void testPersistenciaYCompactacion() throws Exception {
+        Path ruta = Files.createTempDirectory("estadisticas").resolve("estadisticas.dat");
+        try (AlmacenEstadisticas almacen = AlmacenEstadisticas.abrir(ruta)) {
+            almacen.registrarJugador("ana");
+            almacen.registrarPartida("ana", PRINCIPIANTE, true, 12_345);
+            almacen.registrarPartida("ana", PRINCIPIANTE, false, 500);
+        }
+        long tamanio = Files.size(ruta);
+        try (AlmacenEstadisticas almacen = AlmacenEstadisticas.abrir(ruta)) {
+            assert almacen.getUltimoJugador().equals("ana");
+            Resumen resumen = almacen.resumen("ana", PRINCIPIANTE);
+            assert resumen.partidas() == 2 && resumen.victorias() == 1 && resumen.mejorTiempo() == 12_345;
+            almacen.registrarPartida("luis", PRINCIPIANTE, true, 9_000);
+        }
+        assert Files.size(ruta) > tamanio : "Se anexa sin reescribir";
+
+        try (AlmacenEstadisticas almacen = AlmacenEstadisticas.abrir(ruta)) {
+            for (int i = 0; i < 3_000; i++) {
+                almacen.registrarPartida("luis", PRINCIPIANTE, i % 2 == 0, 10_000 + i);
+            }
+        }
+        long antes = Files.size(ruta);
+        try (AlmacenEstadisticas almacen = AlmacenEstadisticas.abrir(ruta)) {
+            assert Files.size(ruta) < antes / 10 : "Compactado: " + antes + " -> " + Files.size(ruta);
+            Resumen luis = almacen.resumen("luis", PRINCIPIANTE);
+            assert luis.partidas() == 3_001 && luis.victorias() == 1_501 && luis.mejorTiempo() == 9_000;
+            assert almacen.histograma(PRINCIPIANTE).getCantidad() == 1_502 : "El histograma sobrevive a la compactación";
+            assert almacen.mejoresPorTiempo(PRINCIPIANTE, 1).get(0).jugador().equals("luis");
+            assert almacen.getUltimoJugador().equals("ana");
+        }
+        System.out.println("✅ Test persistencia y compactación - PASÓ");
+    }
+
+    // Test 4: Un registro a medio escribir (caída) se descarta y se recorta
+    public static void testFinalDanadoSeDescarta() throws Exception {
+        Path ruta = Files.createTempDirectory("estadisticas").resolve("estadisticas.dat");
+        try (AlmacenEstadisticas almacen = AlmacenEstadisticas.abrir(ruta)) {
+            almacen.registrarPartida("ana", EXPERTO, true, 100_000);
+            almacen.registrarPartida("ana", EXPERTO, true, 90_000);
+        }
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.WRITE)) {
+            canal.truncate(canal.size() - 3);
+        }
+        try (AlmacenEstadisticas almacen = AlmacenEstadisticas.abrir(ruta)) {
+            Resumen resumen = almacen.resumen("ana", EXPERTO);
+            assert resumen.partidas() == 1 && resumen.mejorTiempo() == 100_000 : "Solo el registro completo";
+            almacen.registrarPartida("ana", EXPERTO, true, 80_000);
+        }
+        try (AlmacenEstadisticas almacen = AlmacenEstadisticas.abrir(ruta)) {
+            assert almacen.resumen("ana", EXPERTO).partidas() == 2 : "Se sigue anexando tras recortar";
+        }
+        System.out.println("✅ Test final dañado se descarta - PASÓ");
+    }
+
+    // Test 5: Las estadísticas del jugador.dat antiguo entran en la configuración indicada
+    public static void testImportarJugadorAntiguo() throws Exception {
+        Jugador antiguo = new Jugador("pepe");
+        antiguo.registrarVictoria(42_000);
+        antiguo.registrarDerrota();
+        Path ruta = Files.createTempDirectory("estadisticas").resolve("estadisticas.dat");
+        try (AlmacenEstadisticas almacen = AlmacenEstadisticas.abrir(ruta)) {
+            almacen.importar(antiguo, PRINCIPIANTE);
+            assert almacen.sincronizar() : "Con archivo es durable";
+            // Ya está en el disco antes de cerrar: se lee desde otra apertura
+            try (AlmacenEstadisticas copia = AlmacenEstadisticas.abrir(ruta)) {
+                assert copia.resumen("pepe", PRINCIPIANTE).partidas() == 2 : "Importación sincronizada";
+            }
+        }
+        assert !AlmacenEstadisticas.enMemoria().sincronizar() : "En memoria no hay nada durable";
+        try (AlmacenEstadisticas almacen = AlmacenEstadisticas.abrir(ruta)) {
+            Resumen resumen = almacen.resumen("pepe", PRINCIPIANTE);
+            assert resumen.partidas() == 2 && resumen.victorias() == 1 && resumen.mejorTiempo() == 42_000;
+            assert almacen.getUltimoJugador().equals("pepe");
+        }
+        System.out.println("✅ Test importar jugador antiguo - PASÓ");
+    }
+
+    // Test 6: Un registro dañado con registros válidos detrás es un error y no se pierde nada
+    public static void testDanoEnMedioNoRecorta() throws Exception {
+        Path ruta = Files.createTempDirectory("estadisticas").resolve("estadisticas.dat");
+        try (AlmacenEstadisticas almacen = AlmacenEstadisticas.abrir(ruta)) {
+            for (int i = 0; i < 10; i++) {
+                almacen.registrarPartida("ana", EXPERTO, true, 100_000 + i);
+            }
+        }
+        byte[] original = Files.readAllBytes(ruta);
+        byte[] danado = original.clone();
+        danado[original.length / 2] ^= 0x55;
+        Files.write(ruta, danado);
+        try {
+            AlmacenEstadisticas.abrir(ruta).close();
+            assert false : "Debió fallar";
+        } catch (IOException e) {
+            assert e.getMessage().contains("dañado") : e.getMessage();
+        }
+        assert Files.size(ruta) == original.length : "El archivo no se recorta";
+        System.out.println("✅ Test daño en medio no recorta - PASÓ");
+    }
+}
@@ -0,0 +1,165 @@
+package test;
+
+import model.AlmacenCeldas;
+import model.ConjuntoCambios;
+import model.EstadoCelda;
+import model.HistorialTablero;
+import model.ResultadoJugada;
+import model.TableroBuscaminas;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Pruebas unitarias básicas para el historial de jugadas (deshacer, rehacer y volver)
+ */
+public class TestHistorialTablero {
+
+    public static void main(String[] args) {
+        System.out.println("=== EJECUTANDO PRUEBAS DEL HISTORIAL ===");
+
+        testVolverReproduceCadaJugada();
+        testJugadaNuevaDescartaRehacer();
+        testVersionesCompartenCeldas();
+        testCambiosPublicados();
+
+        System.out.println("=== TODAS LAS PRUEBAS PASARON ✅ ===");
+    }
+
+    // Test 1: Ir a cualquier jugada deja celdas y contadores exactamente como estaban
+    public static void testVolverReproduceCadaJugada() {
+        TableroBuscaminas tablero = new TableroBuscaminas(30, 30, 150, 7L, true);
+        HistorialTablero historial = new HistorialTablero(tablero);
+        Random azar = new Random(11);
+        List<byte[]> celdas = new ArrayList<>();
+        List<int[]> contadores = new ArrayList<>();
+        celdas.add(copiar(tablero));
+        contadores.add(contadores(tablero));
+        for (int jugada = 0; jugada < 60 && !tablero.isJuegoFinalizado(); jugada++) {
+            ResultadoJugada resultado;
+            do {
+                int indice = azar.nextInt(900);
+                boolean segura = !EstadoCelda.tieneMina(tablero.getAlmacen().leer(indice));
+                resultado = (segura && azar.nextInt(3) > 0) || !tablero.isMinasGeneradas() || jugada == 59
+                        ? tablero.intentarDescubrir(indice / 30, indice % 30)
+                        : tablero.intentarMarcar(indice / 30, indice % 30);
+            } while (resultado == ResultadoJugada.YA_DESCUBIERTA || resultado == ResultadoJugada.NO_MARCABLE);
+            celdas.add(copiar(tablero));
+            contadores.add(contadores(tablero));
+        }
+        assert historial.getUltima() == celdas.size() - 1 : "Una versión por jugada";
+        assert historial.getActual() == historial.getUltima();
+
+        for (int i = 0; i < 200; i++) {
+            int destino = azar.nextInt(celdas.size());
+            assert historial.irA(destino) : "Jugada existente " + destino;
+            assert Arrays.equals(copiar(tablero), celdas.get(destino)) : "Celdas de la jugada " + destino;
+            assert Arrays.equals(contadores(tablero), contadores.get(destino)) : "Contadores de la jugada " + destino;
+        }
+        assert historial.irA(0) && !tablero.isMinasGeneradas() : "Antes de la primera jugada no hay minas";
+        assert historial.irA(historial.getUltima()) && tablero.isMinasGeneradas();
+        assert !historial.irA(-1) && !historial.irA(historial.getUltima() + 1) : "Fuera del historial";
+        assert !historial.rehacer(1) && historial.deshacer(2) && historial.rehacer(1) : "Límites de rehacer";
+        assert historial.getActual() == historial.getUltima() - 1;
+        assert !historial.deshacer(Integer.MAX_VALUE) && !historial.rehacer(Integer.MAX_VALUE) : "Sin desbordes";
+        System.out.println("✅ Test volver reproduce cada jugada - PASÓ");
+    }
+
+    // Test 2: Jugar después de deshacer abre una rama nueva y ya no se puede rehacer
+    public static void testJugadaNuevaDescartaRehacer() {
+        TableroBuscaminas tablero = new TableroBuscaminas(9, 9, 10, 3L, true);
+        HistorialTablero historial = new HistorialTablero(tablero);
+        tablero.intentarDescubrir(4, 4);
+        int oculta = primeraOculta(tablero);
+        tablero.intentarMarcar(oculta / 9, oculta % 9);
+        tablero.intentarMarcar(oculta / 9, oculta % 9);
+        assert historial.getUltima() == 3;
+
+        assert historial.deshacer(2) && historial.getActual() == 1;
+        assert !EstadoCelda.estaMarcada(tablero.getAlmacen().leer(oculta));
+        tablero.intentarMarcar(oculta / 9, oculta % 9);
+        assert historial.getActual() == 2 && historial.getUltima() == 2 : "Se descarta lo que se podía rehacer";
+        assert !historial.rehacer(1);
+        assert historial.deshacer(1) && tablero.getMarcasColocadas() == 0 : "Se deshace la rama nueva";
+        historial.desconectar();
+        tablero.intentarMarcar(oculta / 9, oculta % 9);
+        assert historial.getUltima() == 2 : "Desconectado no registra";
+        System.out.println("✅ Test jugada nueva descarta rehacer - PASÓ");
+    }
+
+    // Test 3: En un tablero de un millón de celdas cada marca solo añade su camino en el árbol
+    public static void testVersionesCompartenCeldas() {
+        TableroBuscaminas tablero = new TableroBuscaminas(1000, 1000, 150_000, 5L, true);
+        HistorialTablero historial = new HistorialTablero(tablero);
+        tablero.intentarDescubrir(500, 500);
+        long base = historial.getBytesVersiones();
+        assert base > 1_000_000 : "Las versiones completas guardan todas las celdas";
+
+        int marcas = 0;
+        for (int indice = 0; marcas < 1000; indice += 997) {
+            int posicion = indice % 1_000_000;
+            if (tablero.intentarMarcar(posicion / 1000, posicion % 1000) == ResultadoJugada.MARCADA) {
+                marcas++;
+            }
+        }
+        long porMarca = (historial.getBytesVersiones() - base) / marcas;
+        assert porMarca < 1024 : "Una marca no copia el tablero: " + porMarca + " bytes";
+
+        int[] cambiadas = new int[1];
+        tablero.agregarOyente((t, cambios) -> cambiadas[0] = cambios.getCantidadReveladas());
+        int primera = historial.getUltima() - marcas;
+        assert historial.irA(primera);
+        assert cambiadas[0] == marcas : "Solo se escriben las celdas que difieren: " + cambiadas[0];
+        assert tablero.getMarcasColocadas() == 0;
+        assert historial.rehacer(marcas) && tablero.getMarcasColocadas() == marcas;
+        System.out.println("✅ Test versiones comparten celdas - PASÓ");
+    }
+
+    // Test 4: Volver publica las celdas que cambian, también las que se ocultan de nuevo
+    public static void testCambiosPublicados() {
+        TableroBuscaminas tablero = new TableroBuscaminas(9, 9, 10, 3L, true);
+        HistorialTablero historial = new HistorialTablero(tablero);
+        tablero.intentarDescubrir(4, 4);
+        int reveladas = tablero.getUltimosCambios().getCantidadReveladas();
+        AlmacenCeldas celdas = tablero.getAlmacen();
+
+        List<Integer> publicadas = new ArrayList<>();
+        tablero.agregarOyente((t, cambios) -> {
+            assert cambios.getTransicion() == ConjuntoCambios.Transicion.NINGUNA;
+            for (int k = 0; k < cambios.getCantidadReveladas(); k++) {
+                publicadas.add(cambios.getReveladas()[k]);
+            }
+        });
+        assert historial.deshacer(1);
+        int ocultadas = 0;
+        for (int indice : publicadas) {
+            if (!EstadoCelda.estaDescubierta(celdas.leer(indice))) {
+                ocultadas++;
+            }
+        }
+        assert ocultadas >= reveladas : "Las reveladas vuelven a ocultarse";
+        assert tablero.getOcultasSeguras() == 81 - 10 : "Contador de ocultas restaurado";
+        System.out.println("✅ Test cambios publicados - PASÓ");
+    }
+
+    private static byte[] copiar(TableroBuscaminas tablero) {
+        byte[] estados = new byte[tablero.getAlmacen().tamanio()];
+        tablero.getAlmacen().leerBloque(0, estados, estados.length);
+        return estados;
+    }
+
+    private static int[] contadores(TableroBuscaminas tablero) {
+        return new int[]{tablero.getOcultasSeguras(), tablero.getMarcasColocadas(), tablero.getMinasMarcadas(),
+                tablero.isJuegoFinalizado() ? 1 : 0, tablero.isVictoria() ? 1 : 0, tablero.isMinasGeneradas() ? 1 : 0};
+    }
+
+    private static int primeraOculta(TableroBuscaminas tablero) {
+        for (int indice = 0; ; indice++) {
+            if (!EstadoCelda.estaDescubierta(tablero.getAlmacen().leer(indice))) {
+                return indice;
+            }
+        }
+    }
+}
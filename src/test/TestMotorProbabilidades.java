@@ -0,0 +1,210 @@
+package test;
+
+import model.AlmacenMemoria;
+import model.EstadoCelda;
+import model.GeneradorTablero;
+import model.TableroBuscaminas;
+import resolucion.MotorProbabilidades;
+import resolucion.Probabilidades;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Pruebas unitarias básicas para el motor de probabilidades
+ */
+public class TestMotorProbabilidades {
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== EJECUTANDO PRUEBAS DEL MOTOR DE PROBABILIDADES ===");
+
+        testProbabilidadesSimples();
+        testCoincideConFuerzaBruta();
+        testParaleloIgualQueSecuencial();
+        testPresupuestoAgotado();
+        testMarcadasNoSeProponen();
+
+        System.out.println("=== TODAS LAS PRUEBAS PASARON ✅ ===");
+    }
+
+    // Test 1: Un 1 con tres vecinas ocultas y una sola mina: un tercio cada una
+    public static void testProbabilidadesSimples() throws Exception {
+        TableroBuscaminas tablero = construir("*.", "..");
+        tablero.descubrirCelda(1, 1);
+        Probabilidades probabilidades = new MotorProbabilidades().calcular(tablero);
+        for (int indice = 0; indice < 3; indice++) {
+            assert Math.abs(probabilidades.probabilidad(indice) - 1.0 / 3) < 1e-12 : "Un tercio";
+        }
+        assert probabilidades.isExacto() && probabilidades.getComponentes() == 1 : "Un componente exacto";
+
+        // Sin nada descubierto todo es interior: minas / celdas
+        probabilidades = new MotorProbabilidades().calcular(new TableroBuscaminas(10, 10, 15, 1L, true));
+        assert Math.abs(probabilidades.getProbabilidadInterior() - 0.15) < 1e-12 : "Densidad global";
+        System.out.println("✅ Test probabilidades simples - PASÓ");
+    }
+
+    // Test 2: En tableros pequeños coincide con contar todas las colocaciones de minas posibles
+    public static void testCoincideConFuerzaBruta() throws Exception {
+        SplittableRandom aleatorio = new SplittableRandom(11L);
+        int comparadas = 0;
+        for (int partida = 0; partida < 60; partida++) {
+            TableroBuscaminas tablero = new TableroBuscaminas(5, 6, 7, partida, true);
+            tablero.descubrirCelda(2, 3);
+            // Algunas jugadas seguras más para tener varios componentes
+            for (int k = 0; k < 3 && !tablero.isJuegoFinalizado(); k++) {
+                int indice = aleatorio.nextInt(30);
+                int estado = tablero.getEstado(indice / 6, indice % 6);
+                if (!EstadoCelda.tieneMina(estado)) tablero.descubrirCelda(indice / 6, indice % 6);
+            }
+            if (tablero.isJuegoFinalizado()) continue;
+
+            Probabilidades probabilidades = new MotorProbabilidades().calcular(tablero);
+            double[] esperadas = fuerzaBruta(tablero);
+            assert probabilidades.isExacto() : "Tablero pequeño exacto";
+            for (int indice = 0; indice < 30; indice++) {
+                if (EstadoCelda.estaDescubierta(tablero.getEstado(indice / 6, indice % 6))) continue;
+                assert Math.abs(probabilidades.probabilidad(indice) - esperadas[indice]) < 1e-9
+                        : "Celda " + indice + ": " + probabilidades.probabilidad(indice) + " != " + esperadas[indice];
+                comparadas++;
+            }
+        }
+        assert comparadas > 300 : "Suficientes celdas comparadas";
+        System.out.println("✅ Test coincide con fuerza bruta - PASÓ");
+    }
+
+    // Test 3: Repartir los componentes entre núcleos no cambia el resultado
+    public static void testParaleloIgualQueSecuencial() throws Exception {
+        TableroBuscaminas tablero = tableroAvanzado(60, 60, 540, 3L);
+        ForkJoinPool uno = new ForkJoinPool(1), cuatro = new ForkJoinPool(4);
+        Probabilidades secuencial = new MotorProbabilidades(uno).calcular(tablero);
+        Probabilidades paralelo = new MotorProbabilidades(cuatro).calcular(tablero);
+        uno.shutdown();
+        cuatro.shutdown();
+        assert secuencial.getCeldasFrontera() > 50 : "Frontera grande";
+        assert secuencial.isExacto() == paralelo.isExacto() : "Misma exactitud";
+        for (int indice = 0; indice < 3600; indice++) {
+            assert secuencial.probabilidad(indice) == paralelo.probabilidad(indice) : "Misma probabilidad";
+        }
+        System.out.println("✅ Test paralelo igual que secuencial - PASÓ");
+    }
+
+    // Test 4: Sin tiempo se estima; las probabilidades siguen siendo válidas
+    public static void testPresupuestoAgotado() throws Exception {
+        TableroBuscaminas tablero = tableroAvanzado(200, 200, 6000, 5L);
+        MotorProbabilidades motor = new MotorProbabilidades();
+        motor.setPresupuestoNanos(0);
+        Probabilidades probabilidades = motor.calcular(tablero);
+        assert !probabilidades.isExacto() : "Estimación por falta de tiempo";
+        for (int indice = 0; indice < 40000; indice++) {
+            double p = probabilidades.probabilidad(indice);
+            assert p >= 0 && p <= 1 : "Probabilidad válida";
+        }
+        assert probabilidades.mejorCelda() >= 0 : "Siempre hay una jugada";
+        System.out.println("✅ Test presupuesto agotado - PASÓ");
+    }
+
+    // Test 5: Las celdas marcadas siguen contando pero nunca se proponen como mejor jugada
+    public static void testMarcadasNoSeProponen() throws Exception {
+        TableroBuscaminas tablero = tableroAvanzado(30, 30, 150, 9L);
+        MotorProbabilidades motor = new MotorProbabilidades();
+        Probabilidades antes = motor.calcular(tablero);
+        int mejor = antes.mejorCelda();
+        tablero.intentarMarcar(mejor / 30, mejor % 30);
+        Probabilidades despues = motor.calcular(tablero);
+        assert despues.mejorCelda() >= 0 && despues.mejorCelda() != mejor : "La marcada no se propone";
+        assert !EstadoCelda.estaMarcada(tablero.getEstado(despues.mejorCelda() / 30, despues.mejorCelda() % 30));
+        for (int indice = 0; indice < 900; indice++) {
+            assert antes.probabilidad(indice) == despues.probabilidad(indice) : "Las marcas no cambian el conteo";
+        }
+
+        // Todo interior: la celda propuesta del interior tampoco puede estar marcada
+        TableroBuscaminas nuevo = new TableroBuscaminas(10, 10, 15, 1L, true);
+        nuevo.intentarMarcar(0, 0);
+        assert motor.calcular(nuevo).mejorCelda() == 1 : "Se salta la marcada del interior";
+        System.out.println("✅ Test marcadas no se proponen - PASÓ");
+    }
+
+    // Partida a medias: se descubren al azar celdas sin mina para abrir mucha frontera
+    private static TableroBuscaminas tableroAvanzado(int filas, int columnas, int minas, long semilla) throws Exception {
+        TableroBuscaminas tablero = new TableroBuscaminas(filas, columnas, minas, semilla, false);
+        SplittableRandom aleatorio = new SplittableRandom(semilla);
+        for (int k = 0; k < filas * columnas / 8; k++) {
+            int indice = aleatorio.nextInt(filas * columnas);
+            int estado = tablero.getEstado(indice / columnas, indice % columnas);
+            if (!EstadoCelda.tieneMina(estado) && !EstadoCelda.estaDescubierta(estado)) {
+                tablero.descubrirCelda(indice / columnas, indice % columnas);
+            }
+        }
+        return tablero;
+    }
+
+    // Cuenta todas las formas de repartir las minas entre las ocultas que respetan los números
+    private static double[] fuerzaBruta(TableroBuscaminas tablero) {
+        int filas = tablero.getFilas(), columnas = tablero.getColumnas();
+        int[] ocultas = new int[filas * columnas];
+        int cantidad = 0;
+        for (int indice = 0; indice < filas * columnas; indice++) {
+            if (!EstadoCelda.estaDescubierta(tablero.getEstado(indice / columnas, indice % columnas))) {
+                ocultas[cantidad++] = indice;
+            }
+        }
+        boolean[] mina = new boolean[filas * columnas];
+        double[] conMina = new double[filas * columnas];
+        double[] total = new double[1];
+        enumerar(tablero, ocultas, cantidad, 0, tablero.getTotalMinas(), mina, conMina, total);
+        for (int indice = 0; indice < conMina.length; indice++) conMina[indice] /= total[0];
+        return conMina;
+    }
+
+    private static void enumerar(TableroBuscaminas tablero, int[] ocultas, int cantidad, int desde, int restantes,
+                                 boolean[] mina, double[] conMina, double[] total) {
+        if (restantes == 0) {
+            if (respetaNumeros(tablero, mina)) {
+                total[0]++;
+                for (int indice = 0; indice < mina.length; indice++) if (mina[indice]) conMina[indice]++;
+            }
+            return;
+        }
+        for (int k = desde; k <= cantidad - restantes; k++) {
+            mina[ocultas[k]] = true;
+            enumerar(tablero, ocultas, cantidad, k + 1, restantes - 1, mina, conMina, total);
+            mina[ocultas[k]] = false;
+        }
+    }
+
+    private static boolean respetaNumeros(TableroBuscaminas tablero, boolean[] mina) {
+        int filas = tablero.getFilas(), columnas = tablero.getColumnas();
+        for (int f = 0; f < filas; f++) {
+            for (int c = 0; c < columnas; c++) {
+                int estado = tablero.getEstado(f, c);
+                if (!EstadoCelda.estaDescubierta(estado)) continue;
+                int vecinas = 0;
+                for (int i = Math.max(0, f - 1); i <= Math.min(filas - 1, f + 1); i++) {
+                    for (int j = Math.max(0, c - 1); j <= Math.min(columnas - 1, c + 1); j++) {
+                        if (mina[i * columnas + j]) vecinas++;
+                    }
+                }
+                if (vecinas != EstadoCelda.minasCercanas(estado)) return false;
+            }
+        }
+        return true;
+    }
+
+    // Tablero a partir de filas de texto: '*' es una mina
+    private static TableroBuscaminas construir(String... filas) {
+        int columnas = filas[0].length();
+        byte[] estados = new byte[filas.length * columnas];
+        int minas = 0;
+        for (int i = 0; i < filas.length; i++) {
+            for (int j = 0; j < columnas; j++) {
+                if (filas[i].charAt(j) == '*') {
+                    estados[i * columnas + j] = EstadoCelda.MINA;
+                    minas++;
+                }
+            }
+        }
+        AlmacenMemoria almacen = new AlmacenMemoria(estados);
+        GeneradorTablero.calcularVecinas(almacen, filas.length, columnas);
+        return TableroBuscaminas.restaurar(almacen, filas.length, columnas, minas, 0L, true, false, false);
+    }
+}
@@ -0,0 +1,210 @@
+package test;
+
+import model.TableroBuscaminas;
+import persistencia.DiarioJugadas;
+import persistencia.FormatoPartida;
+import persistencia.ServicioGuardado;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Pruebas unitarias básicas para la persistencia de partidas
+ */
+public class TestPersistencia {
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== EJECUTANDO PRUEBAS DE PERSISTENCIA ===");
+
+        testFormatoBinarioIdaYVuelta();
+        testFormatoBinarioDetectaDanios();
+        testDiarioRepiteJugadas();
+        testDiarioCompactaYDescartaColaCortada();
+        testInstantaneaNoCambia();
+        testGuardadoEnSegundoPlano();
+
+        System.out.println("=== TODAS LAS PRUEBAS PASARON ✅ ===");
+    }
+
+    // Test 1: Guardar y cargar conserva celdas, contadores, semilla e inicio
+    public static void testFormatoBinarioIdaYVuelta() throws Exception {
+        TableroBuscaminas tablero = new TableroBuscaminas(200, 300, 9000, 3L, true);
+        tablero.descubrirCelda(100, 150);
+        tablero.marcarCelda(0, 0);
+        tablero.marcarCelda(199, 299);
+        Instant inicio = Instant.ofEpochMilli(1_700_000_000_000L);
+
+        Path archivo = Files.createTempFile("partida", ".dat");
+        try {
+            FormatoPartida.guardar(archivo, tablero, inicio);
+            assert FormatoPartida.esFormatoBinario(archivo) : "Se reconoce el formato binario";
+            assert Files.size(archivo) < 200 * 300 / 8 * 3 : "Más compacto que tres mapas de bits";
+
+            FormatoPartida.Partida partida = FormatoPartida.cargar(archivo);
+            TableroBuscaminas cargado = partida.tablero();
+            assert partida.inicioPartida().equals(inicio) : "Inicio de partida";
+            assert cargado.getSemilla() == 3L : "Semilla";
+            assert cargado.isMinasGeneradas() : "Minas generadas";
+            assert cargado.getOcultasSeguras() == tablero.getOcultasSeguras() : "Ocultas seguras";
+            assert cargado.getMarcasColocadas() == tablero.getMarcasColocadas() : "Marcas";
+            assert cargado.getMinasMarcadas() == tablero.getMinasMarcadas() : "Marcas correctas";
+            for (int i = 0; i < tablero.getFilas(); i++) {
+                for (int j = 0; j < tablero.getColumnas(); j++) {
+                    assert cargado.getEstado(i, j) == tablero.getEstado(i, j) : "Celda " + i + "," + j;
+                }
+            }
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+        System.out.println("✅ Test formato binario ida y vuelta - PASÓ");
+    }
+
+    // Test 2: Un archivo alterado se rechaza
+    public static void testFormatoBinarioDetectaDanios() throws Exception {
+        Path archivo = Files.createTempFile("partida", ".dat");
+        try {
+            FormatoPartida.guardar(archivo, new TableroBuscaminas(), null);
+            byte[] bytes = Files.readAllBytes(archivo);
+            bytes[bytes.length / 2] ^= 0x55;
+            try {
+                FormatoPartida.leer(ByteBuffer.wrap(bytes));
+                assert false : "Debería rechazar la partida dañada";
+            } catch (IOException e) {
+                assert e.getMessage().contains("dañada") : "Mensaje de partida dañada";
+            }
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+        System.out.println("✅ Test detección de daños - PASÓ");
+    }
+
+    // Test 3: El diario reconstruye la partida desde la semilla repitiendo las jugadas
+    public static void testDiarioRepiteJugadas() throws Exception {
+        TableroBuscaminas tablero = new TableroBuscaminas(30, 40, 150, 11L, true);
+        Instant inicio = Instant.ofEpochMilli(1_700_000_000_000L);
+        Path archivo = Files.createTempFile("partida", ".diario");
+        try {
+            try (DiarioJugadas diario = DiarioJugadas.crear(archivo, tablero, inicio)) {
+                tablero.descubrirCelda(15, 20);
+                diario.registrar(DiarioJugadas.DESCUBRIR, 15, 20);
+                tablero.marcarCelda(0, 0);
+                diario.registrar(DiarioJugadas.MARCAR, 0, 0);
+                tablero.marcarCelda(29, 39);
+                diario.registrar(DiarioJugadas.MARCAR, 29, 39);
+            }
+
+            DiarioJugadas.Recuperacion recuperacion = DiarioJugadas.recuperar(archivo);
+            recuperacion.diario().close();
+            assert recuperacion.jugadasRepetidas() == 3 : "Se repiten las tres jugadas";
+            assert recuperacion.partida().inicioPartida().equals(inicio) : "Inicio de partida";
+            assert mismoEstado(recuperacion.partida().tablero(), tablero) : "Mismo tablero tras repetir";
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+        System.out.println("✅ Test diario de jugadas - PASÓ");
+    }
+
+    // Test 4: La compactación vacía el diario y un registro a medio escribir se descarta
+    public static void testDiarioCompactaYDescartaColaCortada() throws Exception {
+        TableroBuscaminas tablero = new TableroBuscaminas(200, 200, 100, 5L, true);
+        Path archivo = Files.createTempFile("partida", ".diario");
+        try {
+            try (DiarioJugadas diario = DiarioJugadas.crear(archivo, tablero, null)) {
+                for (int j = 0; j < DiarioJugadas.INTERVALO_COMPACTACION; j++) {
+                    tablero.marcarCelda(199, j % 200);
+                    diario.registrar(DiarioJugadas.MARCAR, 199, j % 200);
+                }
+                assert diario.necesitaCompactar() : "Pide compactar tras el intervalo";
+                diario.compactar(tablero, null);
+                assert diario.getJugadasDesdeInstantanea() == 0 : "Diario vacío tras compactar";
+                tablero.marcarCelda(198, 150);
+                diario.registrar(DiarioJugadas.MARCAR, 198, 150);
+            }
+            long tamanioValido = Files.size(archivo);
+
+            // Simula una caída a mitad de escribir la jugada siguiente (índice de varios bytes)
+            try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.APPEND)) {
+                canal.write(ByteBuffer.wrap(new byte[]{DiarioJugadas.DESCUBRIR, (byte) 0x80}));
+            }
+
+            DiarioJugadas.Recuperacion recuperacion = DiarioJugadas.recuperar(archivo);
+            recuperacion.diario().close();
+            assert recuperacion.jugadasRepetidas() == 1 : "Solo la jugada posterior a la instantánea";
+            assert Files.size(archivo) == tamanioValido : "Se recorta el registro incompleto";
+            assert mismoEstado(recuperacion.partida().tablero(), tablero) : "Mismo tablero tras recuperar";
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+        System.out.println("✅ Test compactación del diario - PASÓ");
+    }
+
+    // Test 5: La instantánea conserva el estado aunque el tablero siga cambiando
+    public static void testInstantaneaNoCambia() throws Exception {
+        TableroBuscaminas tablero = new TableroBuscaminas(300, 300, 20_000, 9L, true);
+        tablero.descubrirCelda(150, 150);
+        TableroBuscaminas instantanea = tablero.instantanea();
+        byte[] antes = new byte[300 * 300];
+        instantanea.getAlmacen().leerBloque(0, antes, antes.length);
+        int ocultas = instantanea.getOcultasSeguras();
+
+        for (int j = 0; j < 300; j++) {
+            tablero.marcarCelda(0, j);
+            tablero.marcarCelda(299, j);
+        }
+        byte[] despues = new byte[300 * 300];
+        instantanea.getAlmacen().leerBloque(0, despues, despues.length);
+        assert Arrays.equals(antes, despues) : "Las celdas de la instantánea no cambian";
+        assert instantanea.getOcultasSeguras() == ocultas : "Contadores de la instantánea";
+        assert instantanea.getMarcasColocadas() == 0 : "La instantánea no ve las marcas nuevas";
+        assert tablero.getMarcasColocadas() > 0 : "El tablero sí cambia";
+        System.out.println("✅ Test instantánea en copia en escritura - PASÓ");
+    }
+
+    // Test 6: Los guardados seguidos del mismo archivo se agrupan y el último es el que queda
+    public static void testGuardadoEnSegundoPlano() throws Exception {
+        TableroBuscaminas tablero = new TableroBuscaminas(50, 50, 200, 13L, true);
+        tablero.descubrirCelda(25, 25);
+        Path archivo = Files.createTempFile("partida", ".dat");
+        try (ServicioGuardado servicio = new ServicioGuardado()) {
+            for (int j = 0; j < 10; j++) {
+                tablero.marcarCelda(0, j);
+                servicio.guardarPartida(archivo, tablero, null);
+            }
+            servicio.esperar();
+            List<ServicioGuardado.Resultado> resultados = servicio.recogerResultados();
+            assert !resultados.isEmpty() && resultados.size() <= 10 : "Al menos un guardado, nunca más de los pedidos";
+            assert resultados.stream().allMatch(ServicioGuardado.Resultado::exitoso) : "Guardados sin errores";
+            assert mismoEstado(FormatoPartida.cargar(archivo).tablero(), tablero) : "Queda el último estado";
+
+            // Un destino imposible se informa como fallo
+            servicio.guardarBytes(archivo.resolve("no-existe").resolve("x.dat"), new byte[]{1});
+            servicio.esperar();
+            List<ServicioGuardado.Resultado> fallidos = servicio.recogerResultados();
+            assert fallidos.size() == 1 && !fallidos.get(0).exitoso() : "Se informa el error";
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+        System.out.println("✅ Test guardado en segundo plano - PASÓ");
+    }
+
+    private static boolean mismoEstado(TableroBuscaminas a, TableroBuscaminas b) {
+        if (a.getOcultasSeguras() != b.getOcultasSeguras() || a.getMarcasColocadas() != b.getMarcasColocadas()) {
+            return false;
+        }
+        for (int i = 0; i < a.getFilas(); i++) {
+            for (int j = 0; j < a.getColumnas(); j++) {
+                if (a.getEstado(i, j) != b.getEstado(i, j)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,119 @@
+package test;
+
+import model.EstadoCelda;
+import model.TableroBuscaminas;
+import persistencia.FormatoPartida.Partida;
+import servidor.RegistroSesiones;
+import servidor.RegistroSesiones.Limites;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * Pruebas unitarias básicas para el registro de sesiones con expulsión a disco
+ */
+public class TestRegistroSesiones {
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== EJECUTANDO PRUEBAS DEL REGISTRO DE SESIONES ===");
+
+        testExpulsionPorCantidad();
+        testExpulsionPorBytes();
+        testExpulsionPorInactividad();
+        testQuitarBorraArchivos();
+
+        System.out.println("=== TODAS LAS PRUEBAS PASARON ✅ ===");
+    }
+
+    // Test 1: La menos usada sale a disco y vuelve intacta al pedirla
+    public static void testExpulsionPorCantidad() throws Exception {
+        Path directorio = Files.createTempDirectory("registro");
+        RegistroSesiones registro = new RegistroSesiones(directorio, new Limites(2, Long.MAX_VALUE, Long.MAX_VALUE));
+        Instant inicio = Instant.ofEpochMilli(1_000_000L);
+        TableroBuscaminas primero = new TableroBuscaminas(8, 8, 10, 1L, true);
+        primero.intentarDescubrir(4, 4);
+        primero.intentarMarcar(0, 0);
+        registro.poner(1, primero, inicio);
+        registro.poner(2, new TableroBuscaminas(8, 8, 10, 2L, true), inicio);
+        registro.obtener(1); // La 2 pasa a ser la menos usada
+        registro.poner(3, new TableroBuscaminas(8, 8, 10, 3L, true), inicio);
+
+        assert registro.getResidentes() == 2 && registro.getEnDisco() == 1 : "Solo caben dos";
+        assert registro.getExpulsiones() == 1;
+        assert Files.exists(directorio.resolve("2.partida")) : "Expulsada la menos usada";
+
+        Partida recuperada = registro.obtener(2);
+        assert recuperada.tablero().getSemilla() == 2L && recuperada.inicioPartida().equals(inicio) : "Vuelve intacta";
+        assert !Files.exists(directorio.resolve("2.partida")) : "El archivo se borra al recuperarla";
+        assert registro.getFallos() == 1 && registro.getAciertos() == 1;
+        assert Files.exists(directorio.resolve("1.partida")) : "Ahora sale la 1";
+
+        TableroBuscaminas vuelta = registro.obtener(1).tablero();
+        assert vuelta != primero : "Se leyó de disco";
+        for (int f = 0; f < 8; f++) {
+            for (int c = 0; c < 8; c++) {
+                assert vuelta.getEstado(f, c) == primero.getEstado(f, c) : "Mismas celdas en " + f + "," + c;
+            }
+        }
+        assert EstadoCelda.estaMarcada(vuelta.getEstado(0, 0)) && vuelta.getOcultasSeguras() == primero.getOcultasSeguras();
+        assert registro.obtener(99) == null : "Sesión desconocida";
+        System.out.println("✅ Test expulsión por cantidad - PASÓ");
+    }
+
+    // Test 2: El presupuesto de bytes cuenta el tamaño de cada tablero
+    public static void testExpulsionPorBytes() throws Exception {
+        Path directorio = Files.createTempDirectory("registro");
+        RegistroSesiones registro = new RegistroSesiones(directorio, new Limites(1000, 15_000, Long.MAX_VALUE));
+        registro.poner(1, new TableroBuscaminas(100, 100, 10, 1L, true), null);
+        assert registro.getResidentes() == 1 : "La más reciente se queda aunque no quepa";
+        registro.poner(2, new TableroBuscaminas(100, 100, 10, 2L, true), null);
+        assert registro.getResidentes() == 1 && registro.getEnDisco() == 1 : "Dos tableros grandes no caben";
+        for (int id = 3; id < 13; id++) {
+            registro.poner(id, new TableroBuscaminas(10, 10, 10, id, true), null);
+        }
+        assert registro.getBytesResidentes() <= 15_000 : "Respeta el presupuesto";
+        assert registro.obtener(1).inicioPartida() == null : "Sin inicio también se conserva";
+        System.out.println("✅ Test expulsión por bytes - PASÓ");
+    }
+
+    // Test 3: Las partidas sin jugar más que la inactividad máxima salen a disco
+    public static void testExpulsionPorInactividad() throws Exception {
+        Path directorio = Files.createTempDirectory("registro");
+        RegistroSesiones registro = new RegistroSesiones(directorio, new Limites(1000, Long.MAX_VALUE, 50_000_000L));
+        registro.poner(1, new TableroBuscaminas(5, 5, 3, 1L, true), null);
+        registro.poner(2, new TableroBuscaminas(5, 5, 3, 2L, true), null);
+        assert registro.expulsarInactivas() == 0 : "Todavía recientes";
+        Thread.sleep(80);
+        registro.obtener(2);
+        assert registro.expulsarInactivas() == 1 : "Solo la que no se usó";
+        assert registro.getEnDisco() == 1 && registro.getResidentes() == 1;
+        assert registro.obtener(1).tablero().getSemilla() == 1L;
+
+        // Con tope por llamada una ola de inactivas se reparte en varias
+        for (long id = 10; id < 20; id++) {
+            registro.poner(id, new TableroBuscaminas(5, 5, 3, id, true), null);
+        }
+        Thread.sleep(80);
+        assert registro.expulsarInactivas(4) == 4 && registro.expulsarInactivas(4) == 4 : "Como mucho 4 por vez";
+        assert registro.expulsarInactivas(4) == 4 && registro.expulsarInactivas(4) == 0 : "Las 12 en tres tandas";
+        System.out.println("✅ Test expulsión por inactividad - PASÓ");
+    }
+
+    // Test 4: Al terminar la sesión no queda nada en disco
+    public static void testQuitarBorraArchivos() throws Exception {
+        Path directorio = Files.createTempDirectory("registro");
+        RegistroSesiones registro = new RegistroSesiones(directorio, new Limites(1, Long.MAX_VALUE, Long.MAX_VALUE));
+        registro.poner(1, new TableroBuscaminas(5, 5, 3, 1L, true), null);
+        registro.poner(2, new TableroBuscaminas(5, 5, 3, 2L, true), null);
+        registro.poner(3, new TableroBuscaminas(5, 5, 3, 3L, true), null);
+        registro.quitar(1);
+        registro.quitar(3);
+        assert registro.obtener(1) == null && registro.getResidentes() == 0 && registro.getEnDisco() == 1;
+        registro.vaciar();
+        try (var archivos = Files.list(directorio)) {
+            assert archivos.count() == 0 : "Directorio vacío";
+        }
+        System.out.println("✅ Test quitar borra archivos - PASÓ");
+    }
+}
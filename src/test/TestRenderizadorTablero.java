@@ -0,0 +1,103 @@
+package test;
+
+import model.TableroBuscaminas;
+import view.RenderizadorTablero;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Pruebas unitarias básicas para el renderizador del tablero
+ */
+public class TestRenderizadorTablero {
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== EJECUTANDO PRUEBAS DEL RENDERIZADOR ===");
+
+        testPrimerCuadroCompleto();
+        testSoloCambios();
+        testVistaDeTableroGrande();
+
+        System.out.println("=== TODAS LAS PRUEBAS PASARON ✅ ===");
+    }
+
+    // Test 1: El primer cuadro limpia la pantalla y dibuja todas las celdas
+    public static void testPrimerCuadroCompleto() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        RenderizadorTablero renderizador = new RenderizadorTablero(new PrintStream(bytes, true, StandardCharsets.UTF_8));
+        TableroBuscaminas tablero = new TableroBuscaminas(5, 7, 4, 1L, true);
+
+        renderizador.dibujar(tablero);
+        String cuadro = bytes.toString(StandardCharsets.UTF_8);
+        assert cuadro.startsWith("\033[H\033[2J") : "Limpia la pantalla";
+        assert cuadro.contains("   1 2 3 4 5 6 7\n") : "Cabecera de columnas";
+        assert cuadro.contains("E |■|■|■|■|■|■|■|\n") : "Última fila";
+        assert cuadro.contains("Minas restantes: 4") : "Pie con las minas";
+        System.out.println("✅ Test primer cuadro completo - PASÓ");
+    }
+
+    // Test 2: Los cuadros siguientes solo llevan las celdas cambiadas
+    public static void testSoloCambios() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        RenderizadorTablero renderizador = new RenderizadorTablero(new PrintStream(bytes, true, StandardCharsets.UTF_8));
+        TableroBuscaminas tablero = new TableroBuscaminas(200, 200, 4000, 2L, true);
+        renderizador.dibujar(tablero);
+        int completo = renderizador.getTamanioUltimoCuadro();
+
+        renderizador.dibujar(tablero);
+        int sinCambios = renderizador.getTamanioUltimoCuadro();
+        assert sinCambios < 20 : "Sin cambios solo se reposiciona el cursor";
+
+        bytes.reset();
+        tablero.marcarCelda(3, 5);
+        renderizador.dibujar(tablero);
+        String cuadro = bytes.toString(StandardCharsets.UTF_8);
+        assert cuadro.startsWith("\033[6;27H⚑") : "Cursor a la celda B6 (etiquetas de 2 letras, columnas de 3 cifras): " + cuadro;
+        assert cuadro.contains("Minas restantes: 3999") : "Se actualiza el pie";
+        assert renderizador.getTamanioUltimoCuadro() < completo / 100 : "Mucho menor que el cuadro completo";
+
+        renderizador.invalidar();
+        renderizador.dibujar(tablero);
+        assert renderizador.getTamanioUltimoCuadro() >= completo : "Tras invalidar se dibuja entero";
+        System.out.println("✅ Test solo cambios - PASÓ");
+    }
+
+    // Test 3: En un tablero enorme solo se dibuja la vista, con etiquetas de varias letras y cifras
+    public static void testVistaDeTableroGrande() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        RenderizadorTablero renderizador = new RenderizadorTablero(new PrintStream(bytes, true, StandardCharsets.UTF_8), 25, 80);
+        TableroBuscaminas tablero = new TableroBuscaminas(2000, 2000, 100_000, 4L, true);
+
+        renderizador.dibujar(tablero);
+        renderizador.centrarEn(1000, 1500);
+        bytes.reset();
+        renderizador.dibujar(tablero);
+        int filasVista = renderizador.getAltoVista(), columnasVista = renderizador.getAnchoVista();
+        assert filasVista == 20 && columnasVista == 15 : "Vista que cabe en 25x80: " + filasVista + "x" + columnasVista;
+        assert renderizador.getTamanioUltimoCuadro() < 2000 : "El cuadro solo depende de la vista";
+        String cuadro = bytes.toString(StandardCharsets.UTF_8);
+        String primeraFila = model.Coordenadas.etiquetaFila(renderizador.getFilaOrigen());
+        assert cuadro.contains("\n" + primeraFila + " |   ■|") : "Etiqueta de varias letras y celdas de 4 cifras";
+        assert cuadro.contains(" 1494 1495") : "Cabecera con números de 4 cifras";
+
+        // Una jugada fuera de la vista la recentra
+        renderizador.seguir(5, 5);
+        assert renderizador.getFilaOrigen() == 0 && renderizador.getColumnaOrigen() == 0 : "Se recorta al borde";
+        renderizador.desplazar(-10, 3);
+        assert renderizador.getFilaOrigen() == 0 && renderizador.getColumnaOrigen() == 3 : "Desplazamiento limitado";
+        renderizador.seguir(1, 4);
+        assert renderizador.getColumnaOrigen() == 3 : "Dentro de la vista no se mueve";
+
+        bytes.reset();
+        tablero.marcarCelda(1, 4);
+        renderizador.dibujar(tablero);
+        renderizador.dibujar(tablero);
+        tablero.marcarCelda(1, 5);
+        bytes.reset();
+        renderizador.dibujar(tablero);
+        String cambio = bytes.toString(StandardCharsets.UTF_8);
+        assert cambio.startsWith("\033[4;19H⚑") : "Celda B6 en la vista desplazada: " + cambio;
+        System.out.println("✅ Test vista de tablero grande - PASÓ");
+    }
+}
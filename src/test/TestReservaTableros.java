@@ -0,0 +1,92 @@
+package test;
+
+import model.Configuracion;
+import model.TableroBuscaminas;
+import resolucion.GeneradorSinAdivinar;
+import resolucion.ReservaTableros;
+
+import java.util.SplittableRandom;
+
+/**
+ * Pruebas unitarias básicas para el generador sin adivinanzas y la reserva de tableros
+ */
+public class TestReservaTableros {
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== EJECUTANDO PRUEBAS DE LA RESERVA DE TABLEROS ===");
+
+        testTablerosResolubles();
+        testReservaSeLlenaEnSegundoPlano();
+        testConfiguracionNueva();
+
+        System.out.println("=== TODAS LAS PRUEBAS PASARON ✅ ===");
+    }
+
+    // Test 1: Los tableros llegan con la primera zona descubierta y se ganan sin adivinar
+    public static void testTablerosResolubles() {
+        SplittableRandom aleatorio = new SplittableRandom(3L);
+        for (int k = 0; k < 20; k++) {
+            TableroBuscaminas tablero = GeneradorSinAdivinar.generar(16, 16, 40, aleatorio);
+            assert tablero != null : "Densidad intermedia: siempre se encuentra uno";
+            assert tablero.isMinasGeneradas() && !tablero.isJuegoFinalizado() : "Primera jugada hecha";
+            assert tablero.getOcultasSeguras() < 16 * 16 - 40 : "Zona inicial descubierta";
+            int ocultasAntes = tablero.getOcultasSeguras();
+            assert GeneradorSinAdivinar.esResolubleSinAdivinar(tablero.instantanea()) : "Resoluble sin adivinar";
+            assert tablero.getOcultasSeguras() == ocultasAntes : "La comprobación no toca el tablero entregado";
+        }
+        // Misma semilla, mismo resultado
+        TableroBuscaminas a = GeneradorSinAdivinar.generar(9, 9, 10, new SplittableRandom(8L));
+        TableroBuscaminas b = GeneradorSinAdivinar.generar(9, 9, 10, new SplittableRandom(8L));
+        assert a.getSemilla() == b.getSemilla() : "Reproducible";
+        System.out.println("✅ Test tableros resolubles - PASÓ");
+    }
+
+    // Test 2: El productor llena la cola y tomar() la vacía al instante
+    public static void testReservaSeLlenaEnSegundoPlano() throws Exception {
+        Configuracion intermedio = new Configuracion(16, 16, 40);
+        try (ReservaTableros reserva = new ReservaTableros(3, 1L)) {
+            reserva.registrar(intermedio);
+            esperarLlena(reserva, intermedio, 3);
+
+            TableroBuscaminas primero = reserva.tomar(intermedio);
+            TableroBuscaminas segundo = reserva.tomar(intermedio);
+            assert primero != segundo && primero.getAlmacen() != segundo.getAlmacen() : "Tableros independientes";
+            assert reserva.getAciertos() == 2 && reserva.getFallos() == 0 : "Servidos desde la reserva";
+            esperarLlena(reserva, intermedio, 3); // Se repone
+        }
+        System.out.println("✅ Test reserva se llena en segundo plano - PASÓ");
+    }
+
+    // Test 3: Una configuración sin reserva se genera en el momento y queda registrada
+    public static void testConfiguracionNueva() throws Exception {
+        Configuracion principiante = new Configuracion(9, 9, 10);
+        try (ReservaTableros reserva = new ReservaTableros(2, 2L)) {
+            TableroBuscaminas tablero = reserva.tomar(principiante);
+            assert tablero.getFilas() == 9 && tablero.isMinasGeneradas() : "Generado al pedirlo";
+            assert reserva.getFallos() == 1 : "Cuenta como fallo";
+            esperarLlena(reserva, principiante, 2);
+
+            try {
+                reserva.registrar(new Configuracion(0, 9, 10));
+                assert false : "Dimensiones inválidas";
+            } catch (IllegalArgumentException e) {
+                // Esperado: la configuración no se puede construir, así que no llega al productor
+            }
+            try {
+                new Configuracion(1 << 16, 1 << 16, 1);
+                assert false : "Demasiadas celdas";
+            } catch (IllegalArgumentException e) {
+                // Esperado: se valida sin reservar el tablero
+            }
+        }
+        System.out.println("✅ Test configuración nueva - PASÓ");
+    }
+
+    private static void esperarLlena(ReservaTableros reserva, Configuracion configuracion, int cantidad) throws InterruptedException {
+        long limite = System.nanoTime() + 30_000_000_000L;
+        while (reserva.disponibles(configuracion) < cantidad) {
+            assert System.nanoTime() < limite : "La reserva no se llenó a tiempo";
+            Thread.sleep(5);
+        }
+    }
+}
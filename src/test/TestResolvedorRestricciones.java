@@ -0,0 +1,153 @@
+package test;
+
+import model.AlmacenMemoria;
+import model.EstadoCelda;
+import model.GeneradorTablero;
+import model.TableroBuscaminas;
+import resolucion.ResolvedorRestricciones;
+
+import java.util.SplittableRandom;
+
+/**
+ * Pruebas unitarias básicas para el resolvedor de restricciones
+ */
+public class TestResolvedorRestricciones {
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== EJECUTANDO PRUEBAS DEL RESOLVEDOR ===");
+
+        testReglaDePares();
+        testResuelveHastaGanar();
+        testIgnoraMarcasDelJugador();
+        testCosteProporcionalALaFrontera();
+        testDeduccionesCorrectas();
+
+        System.out.println("=== TODAS LAS PRUEBAS PASARON ✅ ===");
+    }
+
+    // Test 1: Patrón 1-1-2-1-1 bajo una fila oculta: solo se resuelve comparando restricciones
+    public static void testReglaDePares() throws Exception {
+        TableroBuscaminas tablero = construir(
+                ".*.*.",
+                ".....",
+                ".....");
+        tablero.descubrirCelda(2, 2);
+        ResolvedorRestricciones resolvedor = new ResolvedorRestricciones(tablero);
+
+        assert resolvedor.esSegura(0) && resolvedor.esSegura(2) && resolvedor.esSegura(4) : "Ocultas seguras";
+        assert resolvedor.esMina(1) && resolvedor.esMina(3) : "Minas deducidas";
+        assert resolvedor.getSegurasDeducidas() == 3 && resolvedor.getMinasDeducidas() == 2 : "Todo deducido";
+        System.out.println("✅ Test regla de pares - PASÓ");
+    }
+
+    // Test 2: Jugar siempre la siguiente segura termina en victoria y sin pistas pendientes
+    public static void testResuelveHastaGanar() throws Exception {
+        TableroBuscaminas tablero = construir(
+                ".*.*.",
+                ".....",
+                ".....");
+        ResolvedorRestricciones resolvedor = new ResolvedorRestricciones(tablero);
+        tablero.descubrirCelda(2, 2);
+        int indice;
+        int jugadas = 0;
+        while ((indice = resolvedor.siguienteSegura()) >= 0) {
+            tablero.descubrirCelda(indice / 5, indice % 5);
+            jugadas++;
+        }
+        assert tablero.isVictoria() : "Victoria con las pistas";
+        assert jugadas == 3 : "Una jugada por celda segura";
+        System.out.println("✅ Test resuelve hasta ganar - PASÓ");
+    }
+
+    // Test 3: Una marca equivocada no cambia las deducciones; las minas marcadas dejan de ser pista
+    public static void testIgnoraMarcasDelJugador() throws Exception {
+        TableroBuscaminas tablero = construir(
+                ".*.*.",
+                ".....",
+                ".....");
+        tablero.descubrirCelda(2, 2);
+        tablero.marcarCelda(0, 0); // Marca equivocada sobre una celda segura
+        ResolvedorRestricciones resolvedor = new ResolvedorRestricciones(tablero);
+        assert resolvedor.esSegura(0) : "La marca no convierte la celda en mina";
+
+        int mina = resolvedor.siguienteMina();
+        assert mina == 1 || mina == 3 : "Una mina deducida";
+        tablero.marcarCelda(0, 1);
+        tablero.marcarCelda(0, 3);
+        assert resolvedor.siguienteMina() == -1 : "Todas las minas marcadas";
+        tablero.marcarCelda(0, 3);
+        assert resolvedor.siguienteMina() == 3 : "Al quitar la marca vuelve a ser pista";
+        System.out.println("✅ Test ignora marcas del jugador - PASÓ");
+    }
+
+    // Test 4: En un tablero grande, una jugada solo revisa las restricciones de su alrededor
+    public static void testCosteProporcionalALaFrontera() throws Exception {
+        int filas = 1000, columnas = 1000;
+        String[] filasMinas = new String[filas];
+        String vacia = ".".repeat(columnas);
+        for (int i = 0; i < filas; i++) {
+            filasMinas[i] = vacia;
+        }
+        // Una pared de minas en la columna 500 con un hueco oculto al otro lado
+        StringBuilder pared = new StringBuilder(vacia);
+        pared.setCharAt(columnas / 2, '*');
+        for (int i = 0; i < filas; i++) {
+            filasMinas[i] = pared.toString();
+        }
+        TableroBuscaminas tablero = construir(filasMinas);
+        ResolvedorRestricciones resolvedor = new ResolvedorRestricciones(tablero);
+        tablero.descubrirCelda(0, 0);
+        assert resolvedor.siguienteMina() >= 0 : "La pared se deduce";
+        long antes = resolvedor.getRevisiones();
+
+        int segura = resolvedor.siguienteSegura();
+        assert segura < 0 : "El otro lado de la pared es desconocido";
+        tablero.descubrirCelda(0, columnas / 2 + 1);
+        resolvedor.propagar();
+        long revisadas = resolvedor.getRevisiones() - antes;
+        assert revisadas < 100 : "Una jugada revisa pocas restricciones: " + revisadas;
+        System.out.println("✅ Test coste proporcional a la frontera - PASÓ");
+    }
+
+    // Test 5: En partidas al azar ninguna celda segura deducida tiene mina, ni al revés
+    public static void testDeduccionesCorrectas() throws Exception {
+        SplittableRandom aleatorio = new SplittableRandom(7L);
+        for (int partida = 0; partida < 300; partida++) {
+            TableroBuscaminas tablero = new TableroBuscaminas(16, 16, 40, partida, true);
+            ResolvedorRestricciones resolvedor = new ResolvedorRestricciones(tablero);
+            tablero.descubrirCelda(8, 8);
+            while (!tablero.isJuegoFinalizado()) {
+                int indice = resolvedor.siguienteSegura();
+                if (indice >= 0) {
+                    assert !EstadoCelda.tieneMina(tablero.getEstado(indice / 16, indice % 16)) : "Segura con mina";
+                } else {
+                    int mina = resolvedor.siguienteMina();
+                    assert mina < 0 || EstadoCelda.tieneMina(tablero.getEstado(mina / 16, mina % 16)) : "Mina sin mina";
+                    do {
+                        indice = aleatorio.nextInt(256);
+                    } while (EstadoCelda.estaDescubierta(tablero.getEstado(indice / 16, indice % 16)) || resolvedor.esMina(indice));
+                }
+                tablero.descubrirCelda(indice / 16, indice % 16);
+            }
+        }
+        System.out.println("✅ Test deducciones correctas - PASÓ");
+    }
+
+    // Tablero a partir de filas de texto: '*' es una mina
+    private static TableroBuscaminas construir(String... filas) {
+        int columnas = filas[0].length();
+        byte[] estados = new byte[filas.length * columnas];
+        int minas = 0;
+        for (int i = 0; i < filas.length; i++) {
+            for (int j = 0; j < columnas; j++) {
+                if (filas[i].charAt(j) == '*') {
+                    estados[i * columnas + j] = EstadoCelda.MINA;
+                    minas++;
+                }
+            }
+        }
+        AlmacenMemoria almacen = new AlmacenMemoria(estados);
+        GeneradorTablero.calcularVecinas(almacen, filas.length, columnas);
+        return TableroBuscaminas.restaurar(almacen, filas.length, columnas, minas, 0L, true, false, false);
+    }
+}
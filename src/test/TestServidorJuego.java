@@ -0,0 +1,155 @@
+package test;
+
+import servidor.GeneradorCarga;
+import servidor.RegistroSesiones;
+import servidor.ServidorJuego;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Pruebas unitarias básicas para el servidor de partidas y el generador de carga
+ */
+public class TestServidorJuego {
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== EJECUTANDO PRUEBAS DEL SERVIDOR ===");
+
+        testProtocolo();
+        testPartidaTerminadaEmpiezaOtra();
+        testGuardarYSalir();
+        testPartidasExpulsadasSeRecuperan();
+        testGeneradorCarga();
+
+        System.out.println("=== TODAS LAS PRUEBAS PASARON ✅ ===");
+    }
+
+    // Test 1: Una línea de respuesta por línea recibida, con un segmento por comando
+    public static void testProtocolo() throws Exception {
+        Path directorio = Files.createTempDirectory("servidor");
+        try (ServidorJuego servidor = new ServidorJuego(0, 2, 4, 4, 1, directorio);
+             Socket socket = new Socket("localhost", servidor.getPuerto())) {
+            BufferedReader entrada = lector(socket);
+            OutputStream salida = socket.getOutputStream();
+            assert entrada.readLine().matches("HOLA \\d+; PARTIDA 4 4 1") : "Saludo con la partida";
+
+            enviar(salida, "marcar A1");
+            assert entrada.readLine().equals("MARCADA A1=F") : "Marca con su celda";
+            enviar(salida, "marcar A1, Z99 marcar a1");
+            assert entrada.readLine().equals("DESMARCADA A1=-; FUERA_DE_RANGO; MARCADA A1=F") : "Varios comandos";
+            enviar(salida, "hola abajo");
+            assert entrada.readLine().equals("ERROR COMANDO hola; IGNORADO") : "Errores y vista";
+            enviar(salida, "");
+            assert entrada.readLine().isEmpty() : "Línea vacía, respuesta vacía";
+            assert servidor.getJugadas() == 3 : "Solo cuentan las jugadas aceptadas";
+            assert servidor.getSesionesActivas() == 1;
+        }
+        System.out.println("✅ Test protocolo - PASÓ");
+    }
+
+    // Test 2: Sin minas la primera jugada gana y la conexión sigue con otra partida
+    public static void testPartidaTerminadaEmpiezaOtra() throws Exception {
+        Path directorio = Files.createTempDirectory("servidor");
+        try (ServidorJuego servidor = new ServidorJuego(0, 1, 2, 2, 0, directorio);
+             Socket socket = new Socket("localhost", servidor.getPuerto())) {
+            BufferedReader entrada = lector(socket);
+            OutputStream salida = socket.getOutputStream();
+            entrada.readLine();
+
+            enviar(salida, "B2");
+            String respuesta = entrada.readLine();
+            assert respuesta.startsWith("VICTORIA ") : respuesta;
+            for (String celda : new String[]{"A1=0", "A2=0", "B1=0", "B2=0"}) {
+                assert respuesta.contains(" " + celda) : "Celda revelada " + celda;
+            }
+            assert respuesta.endsWith("; FIN VICTORIA; PARTIDA 2 2 0") : respuesta;
+            enviar(salida, "A1");
+            assert entrada.readLine().startsWith("VICTORIA ") : "La partida nueva se juega igual";
+        }
+        System.out.println("✅ Test partida terminada empieza otra - PASÓ");
+    }
+
+    // Test 3: guardar escribe en segundo plano y salir cierra la conexión
+    public static void testGuardarYSalir() throws Exception {
+        Path directorio = Files.createTempDirectory("servidor");
+        try (ServidorJuego servidor = new ServidorJuego(0, 1, 5, 5, 3, directorio)) {
+            try (Socket socket = new Socket("localhost", servidor.getPuerto())) {
+                BufferedReader entrada = lector(socket);
+                OutputStream salida = socket.getOutputStream();
+                String id = entrada.readLine().split("[ ;]")[1];
+
+                enviar(salida, "marcar C3 guardar salir A1");
+                assert entrada.readLine().equals("MARCADA C3=F; GUARDANDO; ADIOS") : "Lo que sigue a salir se descarta";
+                assert entrada.readLine() == null : "El servidor cierra la conexión";
+
+                Path archivo = directorio.resolve("sesion-" + id + ".dat");
+                for (int i = 0; i < 100 && !Files.exists(archivo); i++) {
+                    Thread.sleep(20);
+                }
+                assert Files.exists(archivo) : "Partida guardada";
+            }
+            for (int i = 0; i < 100 && servidor.getSesionesActivas() > 0; i++) {
+                Thread.sleep(10);
+            }
+            assert servidor.getSesionesActivas() == 0;
+        }
+        System.out.println("✅ Test guardar y salir - PASÓ");
+    }
+
+    // Test 4: Con sitio para una sola partida en memoria, las conexiones siguen jugando la suya
+    public static void testPartidasExpulsadasSeRecuperan() throws Exception {
+        Path directorio = Files.createTempDirectory("servidor");
+        RegistroSesiones.Limites limites = new RegistroSesiones.Limites(1, Long.MAX_VALUE, Long.MAX_VALUE);
+        try (ServidorJuego servidor = new ServidorJuego(0, 1, 6, 6, 5, directorio, limites);
+             Socket uno = new Socket("localhost", servidor.getPuerto());
+             Socket otro = new Socket("localhost", servidor.getPuerto())) {
+            BufferedReader entradaUno = lector(uno), entradaOtro = lector(otro);
+            entradaUno.readLine();
+            entradaOtro.readLine();
+
+            enviar(uno.getOutputStream(), "marcar A1");
+            assert entradaUno.readLine().equals("MARCADA A1=F");
+            enviar(otro.getOutputStream(), "marcar B2");
+            assert entradaOtro.readLine().equals("MARCADA B2=F");
+            enviar(uno.getOutputStream(), "marcar A1 marcar B2");
+            assert entradaUno.readLine().equals("DESMARCADA A1=-; MARCADA B2=F") : "Recupera su propia partida";
+            enviar(otro.getOutputStream(), "marcar B2");
+            assert entradaOtro.readLine().equals("DESMARCADA B2=-");
+
+            RegistroSesiones.Contadores contadores = servidor.getContadoresSesiones();
+            assert contadores.residentes() == 1 && contadores.enDisco() == 1 : contadores.toString();
+            assert contadores.fallos() >= 2 && contadores.expulsiones() >= 3 : contadores.toString();
+        }
+        System.out.println("✅ Test partidas expulsadas se recuperan - PASÓ");
+    }
+
+    // Test 5: Carga breve con varios clientes: todas las respuestas llegan y se miden
+    public static void testGeneradorCarga() throws Exception {
+        Path directorio = Files.createTempDirectory("servidor");
+        try (ServidorJuego servidor = new ServidorJuego(0, 2, 10, 10, 15, directorio)) {
+            GeneradorCarga.Resultado resultado = GeneradorCarga.ejecutar(
+                    new InetSocketAddress("localhost", servidor.getPuerto()), 50, 500_000_000L, 2);
+            assert resultado.conectados() == 50 : resultado.toString();
+            assert resultado.jugadas() > 0 && resultado.jugadasPorSegundo() > 0 : resultado.toString();
+            assert resultado.p50Nanos() > 0 && resultado.p50Nanos() <= resultado.p99Nanos() : resultado.toString();
+            assert servidor.getJugadas() >= resultado.jugadas() - 50 : "El servidor vio las jugadas";
+        }
+        System.out.println("✅ Test generador de carga - PASÓ");
+    }
+
+    private static BufferedReader lector(Socket socket) throws Exception {
+        socket.setSoTimeout(5000);
+        return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+    }
+
+    private static void enviar(OutputStream salida, String linea) throws Exception {
+        salida.write((linea + "\n").getBytes(StandardCharsets.US_ASCII));
+        salida.flush();
+    }
+}
@@ -0,0 +1,91 @@
+package test;
+
+import simulacion.EstadisticasSimulacion;
+import simulacion.EstrategiaAleatoria;
+import simulacion.EstrategiaLocal;
+import simulacion.EstrategiaProbabilidades;
+import simulacion.EstrategiaResolvedor;
+import simulacion.SimuladorMonteCarlo;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Pruebas unitarias básicas para el simulador Monte Carlo
+ */
+public class TestSimulador {
+
+    public static void main(String[] args) {
+        System.out.println("=== EJECUTANDO PRUEBAS DEL SIMULADOR ===");
+
+        testReproducibleConCualquierNucleo();
+        testEstrategiaLocalSuperaAlAzar();
+        testCombinarEstadisticas();
+        testEstrategiaResolvedor();
+        testEstrategiaProbabilidades();
+
+        System.out.println("=== TODAS LAS PRUEBAS PASARON ✅ ===");
+    }
+
+    // Test 1: La misma semilla base da los mismos resultados con 1 y 4 núcleos
+    public static void testReproducibleConCualquierNucleo() {
+        SimuladorMonteCarlo simulador = new SimuladorMonteCarlo(9, 9, 10, true, EstrategiaLocal::new);
+        ForkJoinPool uno = new ForkJoinPool(1), cuatro = new ForkJoinPool(4);
+        EstadisticasSimulacion secuencial = simulador.simular(2000, 42L, uno);
+        EstadisticasSimulacion paralelo = simulador.simular(2000, 42L, cuatro);
+        uno.shutdown();
+        cuatro.shutdown();
+
+        assert secuencial.getPartidas() == 2000 && paralelo.getPartidas() == 2000 : "Todas las partidas jugadas";
+        assert secuencial.getVictorias() == paralelo.getVictorias() : "Mismas victorias";
+        assert secuencial.getDerrotas() == paralelo.getDerrotas() : "Mismas derrotas";
+        assert secuencial.getJugadas() == paralelo.getJugadas() : "Mismas jugadas";
+        assert secuencial.getSinTerminar() == 0 : "Todas las partidas terminan";
+        assert simulador.simular(2000, 43L, ForkJoinPool.commonPool()).getJugadas() != secuencial.getJugadas()
+                : "Otra semilla, otras partidas";
+        System.out.println("✅ Test reproducible con cualquier núcleo - PASÓ");
+    }
+
+    // Test 2: Deducir gana mucho más que descubrir al azar
+    public static void testEstrategiaLocalSuperaAlAzar() {
+        EstadisticasSimulacion local = new SimuladorMonteCarlo(9, 9, 10, true, EstrategiaLocal::new).simular(2000, 1L);
+        EstadisticasSimulacion azar = new SimuladorMonteCarlo(9, 9, 10, true, EstrategiaAleatoria::new).simular(2000, 1L);
+        assert local.getTasaVictoria() > 0.5 : "La estrategia local gana la mayoría: " + local;
+        assert azar.getTasaVictoria() < local.getTasaVictoria() / 2 : "El azar gana poco: " + azar;
+
+        // Sin minas cualquier estrategia gana en la primera jugada
+        EstadisticasSimulacion vacio = new SimuladorMonteCarlo(20, 20, 0, false, EstrategiaAleatoria::new).simular(100, 1L);
+        assert vacio.getVictorias() == 100 && vacio.getJugadas() == 100 : "Victoria inmediata";
+        System.out.println("✅ Test estrategia local supera al azar - PASÓ");
+    }
+
+    // Test 4: Con la regla de pares se gana más que con la deducción de un solo número
+    public static void testEstrategiaResolvedor() {
+        EstadisticasSimulacion local = new SimuladorMonteCarlo(16, 16, 40, true, EstrategiaLocal::new).simular(2000, 5L);
+        EstadisticasSimulacion resolvedor = new SimuladorMonteCarlo(16, 16, 40, true, EstrategiaResolvedor::new).simular(2000, 5L);
+        assert resolvedor.getTasaVictoria() > local.getTasaVictoria() : "Resolvedor " + resolvedor + " / local " + local;
+        assert resolvedor.getSinTerminar() == 0 : "Todas las partidas terminan";
+        System.out.println("✅ Test estrategia con resolvedor - PASÓ");
+    }
+
+    // Test 5: Arriesgar en la celda menos probable gana más que arriesgar al azar
+    public static void testEstrategiaProbabilidades() {
+        EstadisticasSimulacion resolvedor = new SimuladorMonteCarlo(16, 16, 40, true, EstrategiaResolvedor::new).simular(1000, 9L);
+        EstadisticasSimulacion probabilidades = new SimuladorMonteCarlo(16, 16, 40, true, EstrategiaProbabilidades::new).simular(1000, 9L);
+        assert probabilidades.getTasaVictoria() > resolvedor.getTasaVictoria()
+                : "Probabilidades " + probabilidades + " / resolvedor " + resolvedor;
+        System.out.println("✅ Test estrategia con probabilidades - PASÓ");
+    }
+
+    // Test 3: Combinar suma contadores e histogramas
+    public static void testCombinarEstadisticas() {
+        SimuladorMonteCarlo simulador = new SimuladorMonteCarlo(5, 5, 0, false, EstrategiaAleatoria::new);
+        EstadisticasSimulacion a = simulador.simular(30, 1L, ForkJoinPool.commonPool());
+        EstadisticasSimulacion b = simulador.simular(20, 2L, ForkJoinPool.commonPool());
+        long histogramaA = java.util.Arrays.stream(a.getHistogramaVictorias()).sum();
+        a.combinar(b);
+        assert a.getPartidas() == 50 && a.getVictorias() == 50 : "Contadores sumados";
+        assert java.util.Arrays.stream(a.getHistogramaVictorias()).sum() == 50 && histogramaA == 30 : "Histograma sumado";
+        assert a.percentilVictorias(0.5) > 0 && a.percentilVictorias(0.5) <= a.percentilVictorias(1.0) : "Percentiles ordenados";
+        System.out.println("✅ Test combinar estadísticas - PASÓ");
+    }
+}
@@ -0,0 +1,351 @@
+package test;
+
+import model.CeldaJuego;
+import model.AlmacenCopiaEnEscritura;
+import model.AlmacenMemoria;
+import model.ConjuntoCambios;
+import model.EstadoCelda;
+import model.GeneradorTablero;
+import model.ResultadoJugada;
+import model.TableroBuscaminas;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Pruebas unitarias básicas para TableroBuscaminas
+ */
+public class TestTableroBuscaminas {
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== EJECUTANDO PRUEBAS DEL TABLERO ===");
+
+        testDimensionesPorInstancia();
+        testConteoDeMinasYVecinas();
+        testVistaCelda();
+        testMarcarActualizaContador();
+        testExpansionIterativaTableroGrande();
+        testContadoresSobrevivenGuardado();
+        testSemillaReproducible();
+        testDensidadMaxima();
+        testPrimerClicSeguro();
+        testGeneracionParalelaDeterminista();
+        testTableroMapeadoEnArchivo();
+        testConjuntoDeCambios();
+        testCodigosDeResultado();
+
+        System.out.println("=== TODAS LAS PRUEBAS PASARON ✅ ===");
+    }
+
+    // Test 1: Dimensiones configurables
+    public static void testDimensionesPorInstancia() {
+        TableroBuscaminas tablero = new TableroBuscaminas(40, 25, 100);
+        assert tablero.getFilas() == 40 : "Filas por instancia";
+        assert tablero.getColumnas() == 25 : "Columnas por instancia";
+        assert tablero.getTotalMinas() == 100 : "Minas por instancia";
+        assert tablero.getMinasRestantes() == 100 : "Minas restantes iniciales";
+
+        TableroBuscaminas porDefecto = new TableroBuscaminas();
+        assert porDefecto.getFilas() == TableroBuscaminas.FILAS_POR_DEFECTO : "Filas por defecto";
+        assert porDefecto.getTotalMinas() == TableroBuscaminas.MINAS_POR_DEFECTO : "Minas por defecto";
+        System.out.println("✅ Test dimensiones por instancia - PASÓ");
+    }
+
+    // Test 2: Las minas y los números vecinos son coherentes
+    public static void testConteoDeMinasYVecinas() {
+        TableroBuscaminas tablero = new TableroBuscaminas(30, 30, 200);
+        int minas = 0;
+        for (int i = 0; i < tablero.getFilas(); i++) {
+            for (int j = 0; j < tablero.getColumnas(); j++) {
+                int estado = tablero.getEstado(i, j);
+                if (EstadoCelda.tieneMina(estado)) {
+                    minas++;
+                } else {
+                    assert EstadoCelda.minasCercanas(estado) == contarVecinas(tablero, i, j) : "Vecinas incorrectas";
+                }
+            }
+        }
+        assert minas == 200 : "Cantidad de minas incorrecta: " + minas;
+        System.out.println("✅ Test conteo de minas y vecinas - PASÓ");
+    }
+
+    // Test 3: La vista CeldaJuego refleja el estado empaquetado
+    public static void testVistaCelda() throws Exception {
+        TableroBuscaminas tablero = new TableroBuscaminas(5, 5, 0);
+        tablero.marcarCelda(1, 2);
+        CeldaJuego celda = tablero.getCelda(1, 2);
+        assert celda.estaMarcada() : "La vista debe mostrar la marca";
+        assert celda.getFila() == 1 && celda.getColumna() == 2 : "Posición de la vista";
+        assert celda.getEstado() == tablero.getEstado(1, 2) : "Estado empaquetado equivalente";
+        assert tablero.getCeldas().length == 5 : "Copia completa de celdas";
+        System.out.println("✅ Test vista de celda - PASÓ");
+    }
+
+    // Test 4: Marcar y desmarcar actualiza minas restantes
+    public static void testMarcarActualizaContador() throws Exception {
+        TableroBuscaminas tablero = new TableroBuscaminas(5, 5, 3);
+        tablero.marcarCelda(0, 0);
+        assert tablero.getMinasRestantes() == 2 : "Marcar descuenta";
+        tablero.marcarCelda(0, 0);
+        assert tablero.getMinasRestantes() == 3 : "Desmarcar devuelve";
+        System.out.println("✅ Test contador de marcas - PASÓ");
+    }
+
+    // Test 5: La expansión de una zona enorme no desborda la pila
+    public static void testExpansionIterativaTableroGrande() throws Exception {
+        TableroBuscaminas tablero = new TableroBuscaminas(1500, 1500, 0);
+        tablero.marcarCelda(700, 700);
+        assert tablero.descubrirCelda(0, 0) : "Sin minas no se puede perder";
+        assert tablero.getCantidadUltimasReveladas() == 1500 * 1500 : "Debe revelar todo el tablero";
+        assert tablero.getMinasRestantes() == 0 : "La marca retirada se devuelve al contador";
+        assert tablero.isVictoria() : "Revelar todo el tablero es victoria";
+        System.out.println("✅ Test expansión iterativa - PASÓ");
+    }
+
+    // Test 6: Los contadores se mantienen y sobreviven a guardar/cargar
+    public static void testContadoresSobrevivenGuardado() throws Exception {
+        TableroBuscaminas tablero = new TableroBuscaminas(8, 8, 6);
+        int[] mina = buscarCelda(tablero, true);
+        int[] segura = buscarCelda(tablero, false);
+        tablero.marcarCelda(mina[0], mina[1]);
+        tablero.marcarCelda(segura[0], segura[1]);
+        assert tablero.getMarcasColocadas() == 2 : "Dos marcas colocadas";
+        assert tablero.getMinasMarcadas() == 1 : "Una sola marca correcta";
+        assert tablero.getMinasRestantes() == 4 : "Minas restantes según marcas";
+        assert tablero.getOcultasSeguras() == 64 - 6 : "Ninguna celda segura revelada";
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(tablero);
+        }
+        TableroBuscaminas cargado;
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            cargado = (TableroBuscaminas) ois.readObject();
+        }
+        assert cargado.getMarcasColocadas() == 2 : "Marcas tras cargar";
+        assert cargado.getMinasMarcadas() == 1 : "Marcas correctas tras cargar";
+        assert cargado.getOcultasSeguras() == tablero.getOcultasSeguras() : "Ocultas seguras tras cargar";
+
+        cargado.descubrirCelda(segura[0], segura[1]);
+        assert cargado.getMarcasColocadas() == 1 : "Revelar retira la marca errónea";
+        assert cargado.getOcultasSeguras() == 58 - cargado.getCantidadUltimasReveladas() : "Revelar descuenta ocultas";
+        System.out.println("✅ Test contadores y guardado - PASÓ");
+    }
+
+    // Test 7: La misma semilla produce el mismo tablero
+    public static void testSemillaReproducible() {
+        TableroBuscaminas a = new TableroBuscaminas(50, 70, 600, 1234L, false);
+        TableroBuscaminas b = new TableroBuscaminas(50, 70, 600, 1234L, false);
+        TableroBuscaminas c = new TableroBuscaminas(50, 70, 600, 4321L, false);
+        assert mismasMinas(a, b) : "Misma semilla, mismo tablero";
+        assert !mismasMinas(a, c) : "Semillas distintas deberían diferir";
+        System.out.println("✅ Test semilla reproducible - PASÓ");
+    }
+
+    // Test 8: Colocar minas no se degrada con densidades cercanas al 100%
+    public static void testDensidadMaxima() {
+        TableroBuscaminas lleno = new TableroBuscaminas(300, 300, 300 * 300, 7L, false);
+        assert lleno.getOcultasSeguras() == 0 : "Tablero lleno de minas";
+        assert buscarCelda(lleno, true)[0] == 0 : "Primera celda con mina";
+
+        TableroBuscaminas casiLleno = new TableroBuscaminas(300, 300, 300 * 300 - 1, 7L, false);
+        int[] segura = buscarCelda(casiLleno, false);
+        assert casiLleno.getCelda(segura[0], segura[1]).getMinasCercanas() > 0 : "La única celda segura tiene vecinas";
+        System.out.println("✅ Test densidad máxima - PASÓ");
+    }
+
+    // Test 9: El primer clic nunca pisa una mina ni tiene minas vecinas
+    public static void testPrimerClicSeguro() throws Exception {
+        for (long semilla = 0; semilla < 50; semilla++) {
+            TableroBuscaminas tablero = new TableroBuscaminas(9, 9, 60, semilla, true);
+            assert !tablero.isMinasGeneradas() : "Generación diferida";
+            tablero.marcarCelda(0, 0);
+            assert tablero.descubrirCelda(4, 4) : "El primer clic es seguro";
+            assert tablero.getCelda(4, 4).getMinasCercanas() == 0 : "La zona del primer clic está libre";
+            assert tablero.getMinasMarcadas() == (tablero.getCelda(0, 0).tieneMina() ? 1 : 0) : "Marcas previas recontadas";
+        }
+        TableroBuscaminas a = new TableroBuscaminas(9, 9, 10, 99L, true);
+        TableroBuscaminas b = new TableroBuscaminas(9, 9, 10, 99L, true);
+        a.descubrirCelda(2, 3);
+        b.descubrirCelda(2, 3);
+        assert mismasMinas(a, b) : "Misma semilla y mismo clic, mismo tablero";
+        System.out.println("✅ Test primer clic seguro - PASÓ");
+    }
+
+    // Test 10: La generación paralela da el mismo tablero con cualquier número de núcleos
+    public static void testGeneracionParalelaDeterminista() {
+        int filas = 700, columnas = 900;
+        byte[] secuencial = generar(filas, columnas, new ForkJoinPool(1));
+        byte[] paralelo = generar(filas, columnas, new ForkJoinPool(4));
+        assert Arrays.equals(secuencial, paralelo) : "Mismo tablero con 1 y 4 núcleos";
+
+        // Bloques compartidos con una instantánea (partida guardada antes del primer clic)
+        AlmacenCopiaEnEscritura compartido = new AlmacenCopiaEnEscritura(filas * columnas);
+        GeneradorTablero.colocarMinas(compartido, 90_000, 42L, new int[0]);
+        AlmacenCopiaEnEscritura instantanea = compartido.instantanea();
+        ForkJoinPool cuatro = new ForkJoinPool(4);
+        GeneradorTablero.calcularVecinas(compartido, filas, columnas, cuatro);
+        cuatro.shutdown();
+        byte[] copiaEnEscritura = new byte[filas * columnas];
+        compartido.leerBloque(0, copiaEnEscritura, copiaEnEscritura.length);
+        assert Arrays.equals(secuencial, copiaEnEscritura) : "Ninguna banda pierde sus vecinas";
+        assert instantanea.leer(1) == (secuencial[1] & EstadoCelda.MINA) : "La instantánea no cambia";
+
+        TableroBuscaminas tablero = new TableroBuscaminas(filas, columnas, 90_000, 42L, false);
+        for (int i = 0; i < filas; i += 7) {
+            for (int j = 0; j < columnas; j++) {
+                assert tablero.getEstado(i, j) == secuencial[i * columnas + j] : "El tablero usa la misma generación";
+                if (!tablero.getCelda(i, j).tieneMina()) {
+                    assert tablero.getCelda(i, j).getMinasCercanas() == contarVecinas(tablero, i, j) : "Vecinas en paralelo";
+                }
+            }
+        }
+        System.out.println("✅ Test generación paralela - PASÓ");
+    }
+
+    // Test 11: Un tablero proyectado en archivo se guarda con sincronizar() y se reabre igual
+    public static void testTableroMapeadoEnArchivo() throws Exception {
+        Path archivo = Files.createTempFile("tablero", ".bmm");
+        try {
+            TableroBuscaminas enMemoria = new TableroBuscaminas(60, 80, 500, 11L, true);
+            TableroBuscaminas mapeado = TableroBuscaminas.crearMapeado(archivo, 60, 80, 500, 11L, true);
+            assert mapeado.isMapeado() : "El tablero usa el almacén proyectado";
+            for (TableroBuscaminas tablero : new TableroBuscaminas[]{enMemoria, mapeado}) {
+                tablero.descubrirCelda(30, 40);
+                tablero.marcarCelda(0, 0);
+            }
+            assert mismasMinas(enMemoria, mapeado) : "Mismo tablero en memoria y en archivo";
+            mapeado.cerrar();
+
+            TableroBuscaminas reabierto = TableroBuscaminas.abrirMapeado(archivo);
+            assert mismasMinas(enMemoria, reabierto) : "El archivo conserva las celdas";
+            assert reabierto.getOcultasSeguras() == enMemoria.getOcultasSeguras() : "Ocultas seguras desde la cabecera";
+            assert reabierto.getMarcasColocadas() == 1 : "Marcas desde la cabecera";
+            assert reabierto.isMinasGeneradas() : "Indicador de minas generadas";
+
+            // Sin sincronizar, al reabrir se recalculan los contadores desde las celdas
+            reabierto.marcarCelda(0, 1);
+            TableroBuscaminas sinSincronizar = TableroBuscaminas.abrirMapeado(archivo);
+            assert sinSincronizar.getMarcasColocadas() == 2 : "Contadores recalculados tras un cierre sin sincronizar";
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+        System.out.println("✅ Test tablero en archivo proyectado - PASÓ");
+    }
+
+    private static byte[] generar(int filas, int columnas, ForkJoinPool pool) {
+        byte[] estados = new byte[filas * columnas];
+        GeneradorTablero.colocarMinas(new AlmacenMemoria(estados), 90_000, 42L, new int[0]);
+        GeneradorTablero.calcularVecinas(new AlmacenMemoria(estados), filas, columnas, pool);
+        pool.shutdown();
+        return estados;
+    }
+
+    private static boolean mismasMinas(TableroBuscaminas a, TableroBuscaminas b) {
+        for (int i = 0; i < a.getFilas(); i++) {
+            for (int j = 0; j < a.getColumnas(); j++) {
+                if (a.getEstado(i, j) != b.getEstado(i, j)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Test 12: Cada jugada publica sus cambios sin tener que releer el tablero
+    public static void testConjuntoDeCambios() throws Exception {
+        TableroBuscaminas tablero = new TableroBuscaminas(40, 40, 150, 21L, true);
+        int[] publicaciones = new int[1];
+        tablero.agregarOyente((t, cambios) -> publicaciones[0]++);
+
+        tablero.marcarCelda(0, 0);
+        ConjuntoCambios cambios = tablero.getUltimosCambios();
+        assert cambios.getCantidadMarcas() == 1 && cambios.getMarcas()[0] == 0 : "Marca alternada";
+        assert cambios.getCantidadReveladas() == 0 : "Marcar no revela";
+
+        tablero.descubrirCelda(20, 20);
+        assert tablero.getUltimosCambios() == cambios : "El conjunto se reutiliza";
+        assert cambios.getCantidadMarcas() == 0 : "Se reinicia en cada jugada";
+        int reveladas = cambios.getCantidadReveladas();
+        assert reveladas == 40 * 40 - 150 - tablero.getOcultasSeguras() : "Reveladas = ocultas descontadas";
+        for (int k = 0; k < reveladas; k++) {
+            int indice = cambios.getReveladas()[k];
+            assert EstadoCelda.estaDescubierta(tablero.getEstado(indice / 40, indice % 40)) : "Índice revelado";
+        }
+        assert cambios.getTransicion() == ConjuntoCambios.Transicion.NINGUNA : "La partida sigue";
+
+        tablero.descubrirCelda(20, 20);
+        assert cambios.estaVacio() : "Repetir una celda descubierta no cambia nada";
+
+        int[] mina = buscarCelda(tablero, true);
+        tablero.descubrirCelda(mina[0], mina[1]);
+        assert cambios.getTransicion() == ConjuntoCambios.Transicion.DERROTA : "Transición a derrota";
+        assert cambios.getCantidadReveladas() == 150 : "Se revelan todas las minas";
+        assert publicaciones[0] == 3 : "Una publicación por jugada con cambios";
+        System.out.println("✅ Test conjunto de cambios - PASÓ");
+    }
+
+    // Test 13: La API de códigos informa cada caso sin excepciones
+    public static void testCodigosDeResultado() {
+        TableroBuscaminas tablero = new TableroBuscaminas(10, 10, 1, 8L, true);
+        assert tablero.intentarDescubrir(-1, 0) == ResultadoJugada.FUERA_DE_RANGO : "Fuera de rango";
+        assert tablero.intentarMarcar(0, 10) == ResultadoJugada.FUERA_DE_RANGO : "Marca fuera de rango";
+        assert tablero.intentarMarcar(5, 5) == ResultadoJugada.MARCADA : "Marcar";
+        assert tablero.intentarMarcar(5, 5) == ResultadoJugada.DESMARCADA : "Desmarcar";
+
+        ResultadoJugada primera = tablero.intentarDescubrir(5, 5);
+        assert primera == ResultadoJugada.REVELADA || primera == ResultadoJugada.VICTORIA : "Primer clic seguro";
+        assert tablero.intentarDescubrir(5, 5) == ResultadoJugada.YA_DESCUBIERTA || primera == ResultadoJugada.VICTORIA : "Repetir";
+        assert tablero.intentarMarcar(5, 5) == ResultadoJugada.NO_MARCABLE || primera == ResultadoJugada.VICTORIA : "No marcable";
+
+        int[] mina = buscarCelda(tablero, true);
+        if (!tablero.isJuegoFinalizado()) {
+            assert tablero.intentarDescubrir(mina[0], mina[1]) == ResultadoJugada.MINA : "Mina";
+        }
+        assert tablero.intentarDescubrir(0, 0) == ResultadoJugada.JUEGO_FINALIZADO : "Partida terminada";
+        assert ResultadoJugada.JUEGO_FINALIZADO.esError() && !ResultadoJugada.MINA.esError() : "Errores";
+
+        // Con una sola mina, descubrir todo lo demás gana
+        TableroBuscaminas otro = new TableroBuscaminas(3, 3, 1, 8L, false);
+        int[] unica = buscarCelda(otro, true);
+        ResultadoJugada ultima = null;
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                if ((i != unica[0] || j != unica[1]) && !otro.isJuegoFinalizado()) {
+                    ultima = otro.intentarDescubrir(i, j);
+                }
+            }
+        }
+        assert ultima == ResultadoJugada.VICTORIA && otro.isVictoria() : "Victoria";
+        System.out.println("✅ Test códigos de resultado - PASÓ");
+    }
+
+    private static int[] buscarCelda(TableroBuscaminas tablero, boolean conMina) {
+        for (int i = 0; i < tablero.getFilas(); i++) {
+            for (int j = 0; j < tablero.getColumnas(); j++) {
+                if (tablero.getCelda(i, j).tieneMina() == conMina) {
+                    return new int[]{i, j};
+                }
+            }
+        }
+        throw new IllegalStateException("No hay celda buscada");
+    }
+
+    private static int contarVecinas(TableroBuscaminas tablero, int fila, int columna) {
+        int contador = 0;
+        for (int i = fila - 1; i <= fila + 1; i++) {
+            for (int j = columna - 1; j <= columna + 1; j++) {
+                if (tablero.esCoordenadaValida(i, j) && tablero.getCelda(i, j).tieneMina()) {
+                    contador++;
+                }
+            }
+        }
+        return contador;
+    }
+}
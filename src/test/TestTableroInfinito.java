@@ -0,0 +1,128 @@
+package test;
+
+import model.EstadoCelda;
+import model.TableroInfinito;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pruebas unitarias básicas para TableroInfinito
+ */
+public class TestTableroInfinito {
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== EJECUTANDO PRUEBAS DEL TABLERO INFINITO ===");
+
+        testOrigenSeguro();
+        testVecinasEntreFragmentos();
+        testExpulsionConservaEstado();
+        testExpansionPendiente();
+
+        System.out.println("=== TODAS LAS PRUEBAS PASARON ✅ ===");
+    }
+
+    // Test 1: El origen nunca tiene minas y abre una zona
+    public static void testOrigenSeguro() throws Exception {
+        for (long semilla = 0; semilla < 20; semilla++) {
+            TableroInfinito tablero = new TableroInfinito(semilla);
+            assert tablero.descubrirCelda(0, 0) : "El origen es seguro";
+            assert EstadoCelda.minasCercanas(tablero.getEstado(0, 0)) == 0 : "El origen no tiene vecinas";
+            assert tablero.getCeldasReveladas() > 1 : "El origen abre una zona";
+        }
+        System.out.println("✅ Test origen seguro - PASÓ");
+    }
+
+    // Test 2: Los números en los bordes cuentan las minas de los fragmentos vecinos
+    public static void testVecinasEntreFragmentos() throws Exception {
+        TableroInfinito tablero = new TableroInfinito(77L, 900, 64);
+        int borde = TableroInfinito.LADO;
+        for (int f = -1; f <= 1; f++) {
+            for (int c = 0; c <= 2; c++) {
+                tablero.marcarCelda(f * borde, c * borde); // Carga el fragmento
+                tablero.marcarCelda(f * borde, c * borde);
+            }
+        }
+        for (int f = -3; f <= 3; f++) {
+            for (int c = borde - 3; c <= borde + 3; c++) {
+                int estado = tablero.getEstado(f, c);
+                if (!EstadoCelda.tieneMina(estado)) {
+                    assert EstadoCelda.minasCercanas(estado) == contarVecinas(tablero, f, c) : "Vecinas en el borde " + f + "," + c;
+                }
+            }
+        }
+        System.out.println("✅ Test vecinas entre fragmentos - PASÓ");
+    }
+
+    // Test 3: Con una caché mínima, lo explorado sobrevive a la expulsión y la memoria queda acotada
+    public static void testExpulsionConservaEstado() throws Exception {
+        TableroInfinito tablero = new TableroInfinito(5L, 0, 9);
+        int lado = TableroInfinito.LADO;
+        for (int k = 0; k < 40; k++) {
+            tablero.marcarCelda(k * lado, k * lado);
+            assert tablero.getFragmentosEnMemoria() <= 9 : "La caché no supera su capacidad";
+        }
+        assert tablero.getFragmentosExplorados() == 40 : "Se recuerdan los 40 fragmentos marcados";
+        for (int k = 0; k < 40; k++) {
+            assert EstadoCelda.estaMarcada(tablero.getEstado(k * lado, k * lado)) : "La marca sobrevive a la expulsión";
+        }
+        assert tablero.getMarcasColocadas() == 40 : "Contador de marcas";
+
+        TableroInfinito otro = new TableroInfinito(5L, 0, 9);
+        assert otro.getEstado(40 * lado, 40 * lado) == 0 : "Zonas no exploradas se informan ocultas";
+        assert otro.getFragmentosEnMemoria() == 0 : "Consultar no genera fragmentos";
+        System.out.println("✅ Test expulsión conserva estado - PASÓ");
+    }
+
+    // Test 4: Con pocas minas la zona supera el tope de expansión y lo que falta se retoma después
+    public static void testExpansionPendiente() throws Exception {
+        TableroInfinito tablero = new TableroInfinito(5L, 10, 256);
+        assert tablero.descubrirCelda(0, 0);
+        assert tablero.getExpansionPendiente() > 0 : "La zona quedó cortada por el tope";
+
+        // Bordes de la zona cerca de los ejes: ceros revelados con una vecina todavía oculta
+        int[][] direcciones = {{0, 1}, {0, -1}, {1, 0}, {-1, 0}};
+        List<int[]> cortadas = new ArrayList<>();
+        for (int[] direccion : direcciones) {
+            for (int desvio = -20; desvio <= 20; desvio++) {
+                int f = desvio * direccion[1], c = desvio * direccion[0];
+                if (!EstadoCelda.estaDescubierta(tablero.getEstado(f, c))) {
+                    continue;
+                }
+                while (EstadoCelda.estaDescubierta(tablero.getEstado(f + direccion[0], c + direccion[1]))) {
+                    f += direccion[0];
+                    c += direccion[1];
+                }
+                if (tablero.getEstado(f, c) == EstadoCelda.DESCUBIERTA) {
+                    cortadas.add(new int[]{f, c});
+                }
+            }
+        }
+        assert !cortadas.isEmpty() : "Hay ceros revelados con vecinas ocultas";
+
+        long antes = tablero.getCeldasReveladas();
+        assert tablero.descubrirCelda(0, 0) : "Volver a descubrir un cero sigue la expansión";
+        assert tablero.getCeldasReveladas() > antes : "Se revelan celdas nuevas";
+        for (int[] celda : cortadas) {
+            int f = celda[0], c = celda[1];
+            for (int i = f - 1; i <= f + 1; i++) {
+                for (int j = c - 1; j <= c + 1; j++) {
+                    assert EstadoCelda.estaDescubierta(tablero.getEstado(i, j)) : "Vecina de " + f + "," + c + " revelada";
+                }
+            }
+        }
+        System.out.println("✅ Test expansión pendiente - PASÓ");
+    }
+
+    private static int contarVecinas(TableroInfinito tablero, int fila, int columna) {
+        int contador = 0;
+        for (int i = fila - 1; i <= fila + 1; i++) {
+            for (int j = columna - 1; j <= columna + 1; j++) {
+                if (EstadoCelda.tieneMina(tablero.getEstado(i, j))) {
+                    contador++;
+                }
+            }
+        }
+        return contador;
+    }
+}
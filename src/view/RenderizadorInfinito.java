@@ -0,0 +1,109 @@
+package view;
+
+import model.Coordenadas;
+import model.TableroInfinito;
+
+import java.io.PrintStream;
+
+/**
+ * Dibuja una ventana del tablero infinito. La vista se mueve sobre coordenadas globales sin límites
+ * y las etiquetas en pantalla son locales a la vista (A1 es siempre la esquina superior izquierda),
+ * así que los comandos de siempre sirven sin coordenadas negativas. Cada cuadro se compone entero
+ * en un búfer reutilizable: cuesta O(vista) y leer zonas sin explorar no genera fragmentos.
+ */
+public final class RenderizadorInfinito {
+    private static final String CSI = "\033[";
+    // Líneas fuera de la vista: blanco, cabecera, blanco, pie y una de margen para el comando
+    public static final int LINEAS_FIJAS = RenderizadorTablero.LINEAS_FIJAS;
+    private static final int ALTO_MAXIMO_VISTA = 26;
+    private static final int ANCHO_MAXIMO_VISTA = 40;
+
+    private final PrintStream salida;
+    private final StringBuilder cuadro = new StringBuilder(1 << 12);
+    private final int altoVista, anchoVista, anchoEtiqueta, anchoColumna;
+
+    // Coordenada global de la esquina superior izquierda de la vista
+    private int filaOrigen, columnaOrigen;
+
+    // altoMaximo en líneas y anchoMaximo en caracteres: lo que cabe en el terminal
+    public RenderizadorInfinito(PrintStream salida, int altoMaximo, int anchoMaximo) {
+        this.salida = salida;
+        this.altoVista = limitar(altoMaximo - LINEAS_FIJAS, 1, ALTO_MAXIMO_VISTA);
+        this.anchoEtiqueta = Coordenadas.largoEtiquetaFila(altoVista - 1);
+        this.anchoColumna = Integer.toString(ANCHO_MAXIMO_VISTA).length();
+        this.anchoVista = limitar((anchoMaximo - anchoEtiqueta - 2) / (anchoColumna + 1), 1, ANCHO_MAXIMO_VISTA);
+        centrarEn(0, 0);
+    }
+
+    public void dibujar(TableroInfinito tablero) {
+        cuadro.setLength(0);
+        cuadro.append(CSI).append('H').append(CSI).append("2J");
+        cuadro.append('\n');
+        rellenar(anchoEtiqueta + 1);
+        for (int j = 0; j < anchoVista; j++) {
+            String numero = Integer.toString(j + 1);
+            rellenar(anchoColumna + 1 - numero.length());
+            cuadro.append(numero);
+        }
+        cuadro.append('\n');
+
+        for (int i = 0; i < altoVista; i++) {
+            int inicio = cuadro.length();
+            Coordenadas.agregarEtiquetaFila(cuadro, i);
+            rellenar(anchoEtiqueta + 1 - (cuadro.length() - inicio));
+            for (int j = 0; j < anchoVista; j++) {
+                cuadro.append('|');
+                rellenar(anchoColumna - 1);
+                cuadro.append(tablero.obtenerSimbolo(filaOrigen + i, columnaOrigen + j));
+            }
+            cuadro.append("|\n");
+        }
+        cuadro.append('\n');
+        cuadro.append("Reveladas: ").append(tablero.getCeldasReveladas())
+                .append("   Marcas: ").append(tablero.getMarcasColocadas())
+                .append("   Vista en ").append(filaOrigen).append(", ").append(columnaOrigen)
+                .append(" (el inicio es 0, 0)\n");
+        salida.append(cuadro);
+        salida.flush();
+    }
+
+    // ------------------ VISTA ------------------
+
+    public void desplazar(int filas, int columnas) {
+        filaOrigen = sumarSinDesbordar(filaOrigen, filas);
+        columnaOrigen = sumarSinDesbordar(columnaOrigen, columnas);
+    }
+
+    public void centrarEn(int fila, int columna) {
+        filaOrigen = sumarSinDesbordar(fila, -(altoVista / 2));
+        columnaOrigen = sumarSinDesbordar(columna, -(anchoVista / 2));
+    }
+
+    // Coordenadas globales de una celda de la vista
+    public int filaGlobal(int filaVista) { return sumarSinDesbordar(filaOrigen, filaVista); }
+    public int columnaGlobal(int columnaVista) { return sumarSinDesbordar(columnaOrigen, columnaVista); }
+
+    public boolean enVista(int filaVista, int columnaVista) {
+        return filaVista < altoVista && columnaVista < anchoVista;
+    }
+
+    public int getFilaOrigen() { return filaOrigen; }
+    public int getColumnaOrigen() { return columnaOrigen; }
+    public int getAltoVista() { return altoVista; }
+    public int getAnchoVista() { return anchoVista; }
+    public int getTamanioUltimoCuadro() { return cuadro.length(); }
+
+    private static int sumarSinDesbordar(int valor, int desplazamiento) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, (long) valor + desplazamiento));
+    }
+
+    private static int limitar(int valor, int minimo, int maximo) {
+        return Math.max(minimo, Math.min(maximo, valor));
+    }
+
+    private void rellenar(int espacios) {
+        for (int k = 0; k < espacios; k++) {
+            cuadro.append(' ');
+        }
+    }
+}
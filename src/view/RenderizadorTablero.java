@@ -0,0 +1,308 @@
+package view;
+
+import model.ConjuntoCambios;
+import model.Coordenadas;
+import model.EstadoCelda;
+import model.OyenteCambios;
+import model.TableroBuscaminas;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * Dibuja el tablero componiendo el cuadro entero en un búfer reutilizable que se escribe de una vez.
+ * Recuerda el último cuadro dibujado: en los turnos siguientes solo envía movimientos de cursor ANSI
+ * y las celdas que cambiaron. Las celdas cambiadas se conocen por los ConjuntoCambios del tablero
+ * (el renderizador se suscribe al dibujarlo), así que un cuadro cuesta lo que sus cambios.
+ *
+ * Solo se dibuja la ventana visible (la vista) del tablero, de modo que el coste es O(vista) aunque
+ * el tablero sea enorme. La vista se desplaza con desplazar() / centrarEn() y sigue a las jugadas.
+ *
+ * Disposición en pantalla (filas desde 1): línea en blanco, cabecera de columnas, una línea por fila
+ * visible, línea en blanco y el pie con las minas restantes. Debajo quedan los mensajes del turno.
+ */
+public final class RenderizadorTablero {
+    private static final String CSI = "\033[";
+    private static final int FILA_CABECERA = 2;
+    private static final int PRIMERA_FILA = FILA_CABECERA + 1;
+    // Líneas fuera de la vista: blanco, cabecera, blanco, pie y una de margen para el comando
+    public static final int LINEAS_FIJAS = 5;
+
+    private final PrintStream salida;
+    private final StringBuilder cuadro = new StringBuilder(1 << 12);
+    private int altoMaximo, anchoMaximo;
+
+    // Vista actual: esquina superior izquierda y tamaño en celdas
+    private int filaOrigen, columnaOrigen, altoVista, anchoVista;
+    // Ancho de la etiqueta de fila y de cada columna (fijos para todo el tablero)
+    private int anchoEtiqueta, anchoColumna;
+
+    // Último cuadro en pantalla
+    private boolean valido;
+    private int filasTablero = -1, columnasTablero = -1, minasAnteriores;
+    private byte[] anteriores = new byte[0];
+    private byte[] filaActual = new byte[0];
+
+    // Celdas de la vista que cambiaron desde el último cuadro (posiciones dentro de la vista)
+    private final OyenteCambios oyente = this::registrarCambios;
+    private TableroBuscaminas tableroSuscrito;
+    private boolean[] sucias = new boolean[0];
+    private int[] pendientes = new int[16];
+    private int cantidadPendientes;
+
+    public RenderizadorTablero(PrintStream salida) {
+        this(salida, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    // altoMaximo en líneas y anchoMaximo en caracteres: lo que cabe del tablero en el terminal
+    public RenderizadorTablero(PrintStream salida, int altoMaximo, int anchoMaximo) {
+        this.salida = salida;
+        this.altoMaximo = altoMaximo;
+        this.anchoMaximo = anchoMaximo;
+    }
+
+    public void dibujar(TableroBuscaminas tablero) {
+        cuadro.setLength(0);
+        if (tablero != tableroSuscrito) {
+            suscribir(tablero);
+        }
+        if (tablero.getFilas() != filasTablero || tablero.getColumnas() != columnasTablero) {
+            ajustarVista(tablero);
+            valido = false;
+        }
+        if (!valido) {
+            componerCompleto(tablero);
+        } else {
+            componerCambios(tablero);
+        }
+        // Cursor bajo el tablero, borrando los mensajes del turno anterior
+        moverCursor(PRIMERA_FILA + altoVista + 2, 1);
+        cuadro.append(CSI).append('J');
+
+        salida.append(cuadro);
+        salida.flush();
+        valido = true;
+    }
+
+    // El próximo cuadro se dibuja entero (la pantalla se limpió o se desplazó)
+    public void invalidar() {
+        valido = false;
+    }
+
+    // Caracteres escritos en el último cuadro
+    public int getTamanioUltimoCuadro() {
+        return cuadro.length();
+    }
+
+    // Líneas que ocupa el cuadro en pantalla
+    public int getAltoCuadro() {
+        return altoVista + LINEAS_FIJAS - 1;
+    }
+
+    public int getFilaOrigen() { return filaOrigen; }
+    public int getColumnaOrigen() { return columnaOrigen; }
+    public int getAltoVista() { return altoVista; }
+    public int getAnchoVista() { return anchoVista; }
+
+    // ------------------ VISTA ------------------
+
+    public void setTamanioMaximo(int altoMaximo, int anchoMaximo) {
+        this.altoMaximo = altoMaximo;
+        this.anchoMaximo = anchoMaximo;
+        filasTablero = -1; // Recalcular la vista en el próximo cuadro
+    }
+
+    // Tamaño de la vista según lo que cabe; las etiquetas tienen el ancho de la mayor del tablero
+    private void ajustarVista(TableroBuscaminas tablero) {
+        filasTablero = tablero.getFilas();
+        columnasTablero = tablero.getColumnas();
+        anchoEtiqueta = Coordenadas.largoEtiquetaFila(filasTablero - 1);
+        anchoColumna = Integer.toString(columnasTablero).length();
+        altoVista = limitar(altoMaximo - LINEAS_FIJAS, 1, filasTablero);
+        anchoVista = limitar((anchoMaximo - anchoEtiqueta - 2) / (anchoColumna + 1), 1, columnasTablero);
+        anteriores = new byte[altoVista * anchoVista];
+        sucias = new boolean[altoVista * anchoVista];
+        filaActual = new byte[anchoVista];
+        moverVista(filaOrigen, columnaOrigen);
+    }
+
+    public void desplazar(int filas, int columnas) {
+        moverVista(filaOrigen + filas, columnaOrigen + columnas);
+    }
+
+    public void centrarEn(int fila, int columna) {
+        moverVista(fila - altoVista / 2, columna - anchoVista / 2);
+    }
+
+    // Centra la vista en la jugada solo si quedó fuera, para no mover el tablero a cada turno
+    public void seguir(int fila, int columna) {
+        if (fila < filaOrigen || fila >= filaOrigen + altoVista
+                || columna < columnaOrigen || columna >= columnaOrigen + anchoVista) {
+            centrarEn(fila, columna);
+        }
+    }
+
+    private void moverVista(int fila, int columna) {
+        if (filasTablero < 0) {
+            // Aún no se conoce el tablero: se ajusta al dibujar el primer cuadro
+            filaOrigen = fila;
+            columnaOrigen = columna;
+            return;
+        }
+        int nuevaFila = limitar(fila, 0, Math.max(0, filasTablero - altoVista));
+        int nuevaColumna = limitar(columna, 0, Math.max(0, columnasTablero - anchoVista));
+        if (nuevaFila != filaOrigen || nuevaColumna != columnaOrigen) {
+            filaOrigen = nuevaFila;
+            columnaOrigen = nuevaColumna;
+            valido = false;
+        }
+    }
+
+    private static int limitar(int valor, int minimo, int maximo) {
+        return Math.max(minimo, Math.min(maximo, valor));
+    }
+
+    // ------------------ CAMBIOS ------------------
+
+    private void suscribir(TableroBuscaminas tablero) {
+        if (tableroSuscrito != null) {
+            tableroSuscrito.quitarOyente(oyente);
+        }
+        tablero.agregarOyente(oyente);
+        tableroSuscrito = tablero;
+        valido = false;
+    }
+
+    private void registrarCambios(TableroBuscaminas tablero, ConjuntoCambios cambios) {
+        if (!valido) {
+            return; // El próximo cuadro será completo
+        }
+        int[] reveladas = cambios.getReveladas();
+        for (int k = 0; k < cambios.getCantidadReveladas(); k++) {
+            marcarSucia(reveladas[k]);
+        }
+        int[] marcas = cambios.getMarcas();
+        for (int k = 0; k < cambios.getCantidadMarcas(); k++) {
+            marcarSucia(marcas[k]);
+        }
+    }
+
+    private void marcarSucia(int indice) {
+        int i = indice / columnasTablero - filaOrigen;
+        int j = indice % columnasTablero - columnaOrigen;
+        if (i < 0 || i >= altoVista || j < 0 || j >= anchoVista) {
+            return;
+        }
+        int posicion = i * anchoVista + j;
+        if (sucias[posicion]) {
+            return;
+        }
+        sucias[posicion] = true;
+        if (cantidadPendientes == pendientes.length) {
+            pendientes = Arrays.copyOf(pendientes, pendientes.length * 2);
+        }
+        pendientes[cantidadPendientes++] = posicion;
+    }
+
+    private void limpiarPendientes() {
+        for (int k = 0; k < cantidadPendientes; k++) {
+            sucias[pendientes[k]] = false;
+        }
+        cantidadPendientes = 0;
+    }
+
+    // ------------------ CUADROS ------------------
+
+    private void componerCompleto(TableroBuscaminas tablero) {
+        limpiarPendientes();
+        cuadro.append(CSI).append('H').append(CSI).append("2J");
+        cuadro.append('\n');
+        rellenar(anchoEtiqueta + 1);
+        for (int j = 0; j < anchoVista; j++) {
+            String numero = Integer.toString(columnaOrigen + j + 1);
+            rellenar(anchoColumna + 1 - numero.length());
+            cuadro.append(numero);
+        }
+        cuadro.append('\n');
+
+        for (int i = 0; i < altoVista; i++) {
+            int fila = filaOrigen + i;
+            int inicio = cuadro.length();
+            Coordenadas.agregarEtiquetaFila(cuadro, fila);
+            rellenar(anchoEtiqueta + 1 - (cuadro.length() - inicio));
+            tablero.getAlmacen().leerBloque(fila * columnasTablero + columnaOrigen, filaActual, anchoVista);
+            System.arraycopy(filaActual, 0, anteriores, i * anchoVista, anchoVista);
+            for (int j = 0; j < anchoVista; j++) {
+                cuadro.append('|');
+                rellenar(anchoColumna - 1);
+                cuadro.append(EstadoCelda.simbolo(filaActual[j]));
+            }
+            cuadro.append("|\n");
+        }
+        minasAnteriores = tablero.getMinasRestantes();
+        cuadro.append('\n');
+        componerPie();
+        cuadro.append('\n');
+    }
+
+    private void componerCambios(TableroBuscaminas tablero) {
+        // En orden de pantalla para escribir seguidas las celdas contiguas
+        Arrays.sort(pendientes, 0, cantidadPendientes);
+        int ultimaEscrita = -2;
+        for (int k = 0; k < cantidadPendientes; k++) {
+            int posicion = pendientes[k];
+            int i = posicion / anchoVista;
+            int j = posicion - i * anchoVista;
+            byte estado = tablero.getAlmacen().leer((filaOrigen + i) * columnasTablero + columnaOrigen + j);
+            if (EstadoCelda.simbolo(estado) == EstadoCelda.simbolo(anteriores[posicion])) {
+                continue;
+            }
+            anteriores[posicion] = estado;
+            // Celdas contiguas se escriben seguidas, sin volver a mover el cursor
+            if (ultimaEscrita == posicion - 1 && j > 0) {
+                cuadro.append('|');
+                rellenar(anchoColumna - 1);
+            } else {
+                moverCursor(PRIMERA_FILA + i, columnaEnPantalla(j));
+            }
+            cuadro.append(EstadoCelda.simbolo(estado));
+            ultimaEscrita = posicion;
+        }
+        limpiarPendientes();
+
+        int minas = tablero.getMinasRestantes();
+        if (minas != minasAnteriores) {
+            minasAnteriores = minas;
+            moverCursor(PRIMERA_FILA + altoVista + 1, 1);
+            componerPie();
+            cuadro.append(CSI).append('K');
+        }
+    }
+
+    private void componerPie() {
+        cuadro.append("Minas restantes: ").append(minasAnteriores);
+        if (altoVista < filasTablero || anchoVista < columnasTablero) {
+            cuadro.append("   Vista ");
+            Coordenadas.agregarEtiquetaFila(cuadro, filaOrigen);
+            cuadro.append(columnaOrigen + 1).append('-');
+            Coordenadas.agregarEtiquetaFila(cuadro, filaOrigen + altoVista - 1);
+            cuadro.append(columnaOrigen + anchoVista).append(" de ")
+                    .append(filasTablero).append('x').append(columnasTablero);
+        }
+    }
+
+    // Columna (desde 1) del símbolo de la celda j de la vista
+    private int columnaEnPantalla(int j) {
+        return anchoEtiqueta + 2 + (anchoColumna + 1) * j + anchoColumna;
+    }
+
+    private void rellenar(int espacios) {
+        for (int k = 0; k < espacios; k++) {
+            cuadro.append(' ');
+        }
+    }
+
+    private void moverCursor(int fila, int columna) {
+        cuadro.append(CSI).append(fila).append(';').append(columna).append('H');
+    }
+}
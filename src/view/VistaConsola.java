@@ -1,22 +1,52 @@
 package view;
 
 import model.TableroBuscaminas;
+import model.TableroInfinito;
 import java.util.Scanner;
 
 /**
  * Vista en consola para el juego Buscaminas (MVC) - version final
  */
 public class VistaConsola {
+    private static final int ALTO_TERMINAL_POR_DEFECTO = 24;
+    private static final int ANCHO_TERMINAL_POR_DEFECTO = 80;
+    // Líneas que se reservan bajo el tablero para los mensajes y el comando
+    private static final int LINEAS_MENSAJES = 4;
+
     private final Scanner scanner;
+    private final RenderizadorTablero renderizador;
+    private final RenderizadorInfinito renderizadorInfinito;
+    private final int altoTerminal;
+    // Líneas impresas bajo el tablero desde el último cuadro; si la pantalla pudo desplazarse se redibuja entero
+    private int lineasTrasTablero;
 
     public VistaConsola() {
         this.scanner = new Scanner(System.in);
+        this.altoTerminal = leerTamanioTerminal("LINES", ALTO_TERMINAL_POR_DEFECTO);
+        this.renderizador = new RenderizadorTablero(System.out, altoTerminal - LINEAS_MENSAJES,
+                leerTamanioTerminal("COLUMNS", ANCHO_TERMINAL_POR_DEFECTO));
+        this.renderizadorInfinito = new RenderizadorInfinito(System.out, altoTerminal - LINEAS_MENSAJES,
+                leerTamanioTerminal("COLUMNS", ANCHO_TERMINAL_POR_DEFECTO));
+    }
+
+    private static int leerTamanioTerminal(String variable, int porDefecto) {
+        try {
+            return Integer.parseInt(System.getenv().getOrDefault(variable, ""));
+        } catch (NumberFormatException e) {
+            return porDefecto;
+        }
+    }
+
+    // Todo lo que se imprime pasa por aquí para saber cuántas líneas hay bajo el tablero
+    private void imprimir(String texto) {
+        System.out.println(texto);
+        lineasTrasTablero += texto.lines().count() + (texto.endsWith("\n") ? 1 : 0);
     }
 
     // metodos
 
     public void mostrarEncabezado() {
-        System.out.println("\n" +
+        imprimir("\n" +
                 "============================================\n" +
                 "||        ✨GAME BUSCAMINAS✨             ||\n" +
                 "||             ✨(2025)✨                 ||\n" +
@@ -24,11 +54,17 @@ public class VistaConsola {
     }
 
     public void mostrarInstrucciones() {
-        System.out.println("""
+        imprimir("""
             \nINSTRUCCION PARA JUGAR===========================================
-            Para jugar: Debes ingresar la letra + numero, asi -> B3
+            Para jugar: Debes ingresar la letra + numero, asi -> B3 (filas A..Z, AA, AB...)
             🎮COMANDOS 🎮:
             - marcar [coordenada] -> Marcar/desmarcar mina (ej: marcar B3)
+            - ir [coordenada] -> Centrar la vista en una casilla (tableros grandes)
+            - arriba/abajo/izquierda/derecha [n] -> Mover la vista n casillas (por defecto media vista)
+            - Varios comandos en una línea se aplican juntos, ej: A1 B2 marcar C3
+            - pista -> Indicar una casilla segura o una mina; si no hay, la casilla menos arriesgada
+            - deshacer/rehacer [n] -> Deshacer o rehacer n jugadas (por defecto 1)
+            - volver [n] -> Volver a como estaba el tablero tras la jugada n (0: al empezar)
             - guardar -> Guardar partida actual
             - ayuda -> Mostrar estas instrucciones
             - salir -> Regresar al menú principal   
@@ -42,21 +78,40 @@ public class VistaConsola {
             \n""");
     }
 
+    public void mostrarInstruccionesInfinito() {
+        imprimir("""
+            \nTABLERO INFINITO=================================================
+            El tablero no tiene bordes: el inicio (0, 0) es seguro y el juego termina al pisar una mina.
+            Las coordenadas son las de la vista: A1 es su esquina superior izquierda.
+            🎮COMANDOS 🎮:
+            - [coordenada] -> Descubrir (ej: B3); sobre una casilla vacía sigue una zona que quedó a medias
+            - marcar [coordenada] -> Marcar/desmarcar mina
+            - ir [coordenada] -> Centrar la vista en esa casilla, contada desde A1 aunque esté fuera (ir Z500 salta lejos)
+            - arriba/abajo/izquierda/derecha [n] -> Mover la vista n casillas (por defecto media vista)
+            - ayuda -> Mostrar estas instrucciones
+            - salir -> Terminar
+            ==================================================================
+            \n""");
+    }
+
     // interaccion con el jugador
 
     public String leerComando() {
         System.out.print("\nIngrese comando: ");
+        lineasTrasTablero += 2;
         return scanner.nextLine().trim().toLowerCase();
     }
 
     public String leerComando(String mensaje) {
         System.out.print(mensaje);
+        lineasTrasTablero++;
         return scanner.nextLine().trim();
     }
 
     public int leerOpcionMenu() {
         try {
             System.out.print("Seleccione opción: ");
+            lineasTrasTablero++;
             return Integer.parseInt(scanner.nextLine());
         } catch (NumberFormatException e) {
             return -1;
@@ -67,36 +122,58 @@ public class VistaConsola {
     // tablero
 
     public void dibujarTablero(TableroBuscaminas tablero) {
-        System.out.println("\n   " + "1 2 3 4 5 6 7 8 9 10");
-
-        for (int i = 0; i < TableroBuscaminas.getFilas(); i++) {
-            System.out.print((char)('A' + i) + " ");
-            for (int j = 0; j < TableroBuscaminas.getColumnas(); j++) {
-                System.out.print("|" + tablero.getCeldas()[i][j].obtenerSimboloVisual());
-            }
-            System.out.println("|");
+        if (renderizador.getAltoCuadro() + lineasTrasTablero + 1 > altoTerminal) {
+            renderizador.invalidar();
         }
-        System.out.println("\nMinas restantes: " + tablero.getMinasRestantes());
+        renderizador.dibujar(tablero);
+        lineasTrasTablero = 0;
+    }
+
+    // El tablero infinito se dibuja entero en cada turno
+    public void dibujarTablero(TableroInfinito tablero) {
+        renderizadorInfinito.dibujar(tablero);
+        lineasTrasTablero = 0;
+    }
+
+    // Ventana sobre el tablero infinito: la mueve el controlador y traduce las coordenadas de la vista
+    public RenderizadorInfinito getVistaInfinita() {
+        return renderizadorInfinito;
+    }
+
+    // Mueve la vista en la dirección indicada; sin pasos, media vista
+    public void desplazarVista(int direccionFilas, int direccionColumnas, int pasos) {
+        int filas = pasos > 0 ? pasos : Math.max(1, renderizador.getAltoVista() / 2);
+        int columnas = pasos > 0 ? pasos : Math.max(1, renderizador.getAnchoVista() / 2);
+        renderizador.desplazar(direccionFilas * filas, direccionColumnas * columnas);
+    }
+
+    public void centrarVista(int fila, int columna) {
+        renderizador.centrarEn(fila, columna);
+    }
+
+    // La vista sigue a la última jugada si quedó fuera
+    public void seguirJugada(int fila, int columna) {
+        renderizador.seguir(fila, columna);
     }
 
 
     public void mostrarError(String mensaje) {
-        System.out.println("\n⚠ Error: " + mensaje);
+        imprimir("\n⚠ Error: " + mensaje);
     }
 
     public void mostrarEstado(String mensaje) {
-        System.out.println("\n• " + mensaje);
+        imprimir("\n• " + mensaje);
     }
 
     public void mostrarVictoria() {
-        System.out.println("""
+        imprimir("""
             \n-------------------------------
               |        ✅¡VICTORIA!✅       |
               -------------------------------""");
     }
 
     public void mostrarDerrota() {
-        System.out.println("""
+        imprimir("""
             \n--------------------------------------------
               | ❌❗Has pisado una mina, has perdido❗❌ |
               --------------------------------------------""");
@@ -105,7 +182,7 @@ public class VistaConsola {
     // ------------------ MENÚS ------------------
 
     public void mostrarMenuPrincipal() {
-        System.out.println("""
+        imprimir("""
             \nMENÚ DE OPCIONES:
             1. Nueva partida
             2. Cargar partida
@@ -119,6 +196,8 @@ public class VistaConsola {
     public void limpiarPantalla() {
         System.out.print("\033[H\033[2J");
         System.out.flush();
+        renderizador.invalidar();
+        lineasTrasTablero = 0;
     }
 
     public void cerrar() {